@@ -30,12 +30,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * An implementation of the configuration object based on Apache Commons Configuration.
  * Unlike the main application configuration, this implementation does not used a logger.
+ * <p>
+ * Values are read from an immutable snapshot of the configuration. The snapshot memoizes the typed values (and the
+ * missing keys), so reading a value twice does not query the underlying configuration, and missing keys do not
+ * throw exceptions. The snapshot is replaced atomically when the configuration changes.
  */
 public class ConfigurationImpl implements Configuration {
 
@@ -43,12 +52,17 @@ public class ConfigurationImpl implements Configuration {
             "Otherwise this application will not work";
     protected static final String ERROR_NOSUCHKEY = "No such key \"";
 
+    /**
+     * The value memoized for missing keys.
+     */
+    private static final Object MISSING = new Object();
+
     /**
      * The parameter converter service, must be a proxy.
      */
     protected ParameterFactories converters;
 
-    private Config configuration;
+    private volatile Snapshot snapshot;
 
     /**
      * Creates an instance of {@link org.wisdom.configuration.ConfigurationImpl}.
@@ -57,7 +71,7 @@ public class ConfigurationImpl implements Configuration {
      */
     public ConfigurationImpl(ParameterFactories converters, Config configuration) {
         this(converters);
-        this.configuration = configuration;
+        setConfiguration(configuration);
     }
 
     protected ConfigurationImpl(ParameterFactories converters) {
@@ -66,11 +80,11 @@ public class ConfigurationImpl implements Configuration {
     }
 
     protected void setConfiguration(Config configuration) {
-        this.configuration = configuration;
+        this.snapshot = new Snapshot(configuration);
     }
 
     protected Config getConfiguration() {
-        return configuration;
+        return snapshot.config;
     }
 
 
@@ -82,12 +96,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public String get(final String key) {
-        return retrieve(new Callable<String>() {
-            @Override
-            public String call() throws Exception {
-                return configuration.getString(key);
-            }
-        }, null);
+        return retrieve(Kind.STRING, key, null);
     }
 
     /**
@@ -96,18 +105,23 @@ public class ConfigurationImpl implements Configuration {
      * @return {@code true} if the configuration has a non-null value, {@code false} otherwise
      */
     public boolean has(String key) {
-        return configuration.hasPath(key);
+        return snapshot.config.hasPath(key);
     }
 
-    private <T> T retrieve(Callable<T> callable, T defaultValue) {
-        try {
-            T v = callable.call();
-            return v != null ? v : defaultValue;
-        } catch (ConfigException.Missing e) {
-            return defaultValue;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    private <T> T retrieve(Kind kind, String key, T defaultValue) {
+        return retrieve(snapshot, kind, key, defaultValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T retrieve(Snapshot snapshot, Kind kind, String key, T defaultValue) {
+        @SuppressWarnings("unchecked")
+        ConcurrentMap<String, Object> values = snapshot.values[kind.ordinal()];
+        Object value = values.get(key);
+        if (value == null) {
+            value = snapshot.read(kind, key);
+            values.putIfAbsent(key, value);
         }
+        return value == MISSING ? defaultValue : (T) value;
     }
 
     /**
@@ -121,12 +135,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public String getWithDefault(final String key, String defaultValue) {
-        return retrieve(new Callable<String>() {
-            @Override
-            public String call() throws Exception {
-                return configuration.getString(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.STRING, key, defaultValue);
     }
 
     /**
@@ -137,12 +146,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Integer getInteger(final String key) {
-        return retrieve(new Callable<Integer>() {
-            @Override
-            public Integer call() throws Exception {
-                return configuration.getInt(key);
-            }
-        }, null);
+        return retrieve(Kind.INTEGER, key, null);
     }
 
     /**
@@ -157,12 +161,7 @@ public class ConfigurationImpl implements Configuration {
     @Override
     public Integer getIntegerWithDefault(final String key, Integer defaultValue) {
 
-        return retrieve(new Callable<Integer>() {
-            @Override
-            public Integer call() throws Exception {
-                return configuration.getInt(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.INTEGER, key, defaultValue);
     }
 
     /**
@@ -173,12 +172,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Double getDouble(final String key) {
-        return retrieve(new Callable<Double>() {
-            @Override
-            public Double call() throws Exception {
-                return configuration.getDouble(key);
-            }
-        }, null);
+        return retrieve(Kind.DOUBLE, key, null);
     }
 
     /**
@@ -192,12 +186,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Double getDoubleWithDefault(final String key, Double defaultValue) {
-        return retrieve(new Callable<Double>() {
-            @Override
-            public Double call() throws Exception {
-                return configuration.getDouble(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.DOUBLE, key, defaultValue);
     }
 
     /**
@@ -207,12 +196,7 @@ public class ConfigurationImpl implements Configuration {
     @Override
     public Boolean getBoolean(final String key) {
 
-        return retrieve(new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws Exception {
-                return configuration.getBoolean(key);
-            }
-        }, null);
+        return retrieve(Kind.BOOLEAN, key, null);
     }
 
     /**
@@ -227,33 +211,18 @@ public class ConfigurationImpl implements Configuration {
     @Override
     public Boolean getBooleanWithDefault(final String key, Boolean defaultValue) {
 
-        return retrieve(new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws Exception {
-                return configuration.getBoolean(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.BOOLEAN, key, defaultValue);
     }
 
     @Override
     public Long getLong(final String key) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getLong(key);
-            }
-        }, null);
+        return retrieve(Kind.LONG, key, null);
 
     }
 
     @Override
     public Long getLongWithDefault(final String key, Long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getLong(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.LONG, key, defaultValue);
     }
 
     @Override
@@ -338,12 +307,8 @@ public class ConfigurationImpl implements Configuration {
      * {@inheritDoc}
      */
     public Long getDuration(final String key, final TimeUnit unit) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getDuration(key, unit);
-            }
-        }, null);
+        Long nanos = retrieve(Kind.DURATION, key, null);
+        return nanos == null ? null : (Long) unit.convert(nanos, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -351,36 +316,22 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Long getDuration(final String key, final TimeUnit unit, long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getDuration(key, unit);
-            }
-        }, defaultValue);
+        Long nanos = retrieve(Kind.DURATION, key, null);
+        return nanos == null ? defaultValue : (Long) unit.convert(nanos, TimeUnit.NANOSECONDS);
     }
 
     /**
      * {@inheritDoc}
      */
     public Long getBytes(final String key) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getBytes(key);
-            }
-        }, null);
+        return retrieve(Kind.BYTES, key, null);
     }
 
     /**
      * {@inheritDoc}
      */
     public Long getBytes(final String key, long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getBytes(key);
-            }
-        }, defaultValue);
+        return retrieve(Kind.BYTES, key, defaultValue);
     }
 
     /**
@@ -404,22 +355,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public List<String> getList(final String key) {
-        return retrieve(new Callable<List<String>>() {
-            @Override
-            public List<String> call() throws Exception {
-                try {
-                    return configuration.getStringList(key);
-                } catch (ConfigException.WrongType e) {
-                    // Not a list.
-                    String s = get(key);
-                    if (s != null) {
-                        return ImmutableList.of(s);
-                    } else {
-                        throw new IllegalArgumentException("Cannot create a list for the key '" + key + "'", e);
-                    }
-                }
-            }
-        }, Collections.<String>emptyList());
+        return retrieve(Kind.LIST, key, Collections.<String>emptyList());
     }
 
     /**
@@ -439,7 +375,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Map<String, Object> asMap() {
-        return configuration
+        return snapshot.config
                 .resolve(ConfigResolveOptions.defaults().setUseSystemEnvironment(true).setAllowUnresolved(true))
                 .root()
                 .unwrapped();
@@ -454,13 +390,11 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Configuration getConfiguration(String prefix) {
-        try {
-            Config value = configuration.getConfig(prefix);
-            return new ConfigurationImpl(converters, value);
-        } catch (ConfigException.Missing e) {
-            // Ignore the exception.
+        Config config = snapshot.config;
+        if (!config.hasPath(prefix)) {
             return null;
         }
+        return new ConfigurationImpl(converters, config.getConfig(prefix));
     }
 
     @Override
@@ -505,4 +439,135 @@ public class ConfigurationImpl implements Configuration {
         String value = get(key);
         return converters.convertValue(value, clazz, clazz, defaultValueAsString);
     }
+
+    @Override
+    public IntSupplier intHandle(String key, int defaultValue) {
+        Handle<Integer> handle = new Handle<>(Kind.INTEGER, key, defaultValue);
+        return () -> handle.get();
+    }
+
+    @Override
+    public LongSupplier longHandle(String key, long defaultValue) {
+        Handle<Long> handle = new Handle<>(Kind.LONG, key, defaultValue);
+        return () -> handle.get();
+    }
+
+    @Override
+    public BooleanSupplier booleanHandle(String key, boolean defaultValue) {
+        Handle<Boolean> handle = new Handle<>(Kind.BOOLEAN, key, defaultValue);
+        return () -> handle.get();
+    }
+
+    @Override
+    public Supplier<String> stringHandle(String key, String defaultValue) {
+        return new Handle<>(Kind.STRING, key, defaultValue);
+    }
+
+    /**
+     * The types of values memoized by the snapshots.
+     */
+    private enum Kind {
+        STRING, INTEGER, DOUBLE, BOOLEAN, LONG, BYTES, DURATION, LIST
+    }
+
+    /**
+     * An immutable view of the configuration, memoizing the values read from it. Values are stored per type, as the
+     * same key can be read with different types.
+     */
+    private static final class Snapshot {
+        private final Config config;
+        private final ConcurrentMap[] values = new ConcurrentMap[Kind.values().length];
+
+        private Snapshot(Config config) {
+            this.config = config;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = new ConcurrentHashMap<String, Object>();
+            }
+        }
+
+        /**
+         * Reads a value from the configuration.
+         *
+         * @return the value, {@link #MISSING} if the key is not set
+         * @throws ConfigException if the value does not have the expected type
+         */
+        private Object read(Kind kind, String key) {
+            if (!config.hasPath(key)) {
+                return MISSING;
+            }
+            switch (kind) {
+                case INTEGER:
+                    return config.getInt(key);
+                case DOUBLE:
+                    return config.getDouble(key);
+                case BOOLEAN:
+                    return config.getBoolean(key);
+                case LONG:
+                    return config.getLong(key);
+                case BYTES:
+                    return config.getBytes(key);
+                case DURATION:
+                    return config.getDuration(key, TimeUnit.NANOSECONDS);
+                case LIST:
+                    return readList(key);
+                default:
+                    return config.getString(key);
+            }
+        }
+
+        private List<String> readList(String key) {
+            try {
+                return ImmutableList.copyOf(config.getStringList(key));
+            } catch (ConfigException.WrongType e) { //NOSONAR
+                // Not a list.
+                try {
+                    return ImmutableList.of(config.getString(key));
+                } catch (ConfigException.WrongType e1) {
+                    throw new IllegalArgumentException("Cannot create a list for the key '" + key + "'", e1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A value of the configuration, re-read only when the configuration changes.
+     *
+     * @param <T> the type of value
+     */
+    private final class Handle<T> implements Supplier<T> {
+        private final Kind kind;
+        private final String key;
+        private final T defaultValue;
+        private volatile Read<T> last;
+
+        private Handle(Kind kind, String key, T defaultValue) {
+            this.kind = kind;
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public T get() {
+            Snapshot current = snapshot;
+            Read<T> read = last;
+            if (read == null || read.snapshot != current) {
+                read = new Read<>(current, retrieve(current, kind, key, defaultValue));
+                last = read;
+            }
+            return read.value;
+        }
+    }
+
+    /**
+     * A value read from a snapshot.
+     */
+    private static final class Read<T> {
+        private final Snapshot snapshot;
+        private final T value;
+
+        private Read(Snapshot snapshot, T value) {
+            this.snapshot = snapshot;
+            this.value = value;
+        }
+    }
 }
@@ -30,9 +30,14 @@ import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.typesafe.config.ConfigFactory;
 import org.assertj.core.data.MapEntry;
 import org.junit.After;
 import org.junit.Test;
@@ -523,4 +528,40 @@ public class ApplicationConfigurationTest {
             assertThat(sub.has("url")).isTrue();
         }
     }
+
+    @Test
+    public void testHandlesFollowReloads() {
+        ConfigurationImpl configuration = new ConfigurationImpl(null,
+                ConfigFactory.parseString("port = 8080\nverbose = true\nname = wisdom"));
+        IntSupplier port = configuration.intHandle("port", 9000);
+        LongSupplier timeout = configuration.longHandle("timeout", 5000L);
+        BooleanSupplier verbose = configuration.booleanHandle("verbose", false);
+        Supplier<String> name = configuration.stringHandle("name", "none");
+
+        assertThat(port.getAsInt()).isEqualTo(8080);
+        assertThat(timeout.getAsLong()).isEqualTo(5000L);
+        assertThat(verbose.getAsBoolean()).isTrue();
+        assertThat(name.get()).isEqualTo("wisdom");
+
+        configuration.setConfiguration(ConfigFactory.parseString("timeout = 10\nname = updated"));
+        assertThat(port.getAsInt()).isEqualTo(9000);
+        assertThat(timeout.getAsLong()).isEqualTo(10L);
+        assertThat(verbose.getAsBoolean()).isFalse();
+        assertThat(name.get()).isEqualTo("updated");
+    }
+
+    @Test
+    public void testMemoizedLookupsAreRefreshedOnReload() {
+        ConfigurationImpl configuration = new ConfigurationImpl(null,
+                ConfigFactory.parseString("key = 1\nlist = [a, b]"));
+        assertThat(configuration.getIntegerWithDefault("key", 2)).isEqualTo(1);
+        assertThat(configuration.getIntegerWithDefault("missing", 2)).isEqualTo(2);
+        assertThat(configuration.getIntegerWithDefault("missing", 3)).isEqualTo(3);
+        assertThat(configuration.getList("list")).containsExactly("a", "b");
+
+        configuration.setConfiguration(ConfigFactory.parseString("missing = 4\nlist = [c]"));
+        assertThat(configuration.getIntegerWithDefault("key", 2)).isEqualTo(2);
+        assertThat(configuration.getIntegerWithDefault("missing", 2)).isEqualTo(4);
+        assertThat(configuration.getList("list")).containsExactly("c");
+    }
 }
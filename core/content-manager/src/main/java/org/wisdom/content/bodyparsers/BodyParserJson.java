@@ -19,6 +19,8 @@
  */
 package org.wisdom.content.bodyparsers;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
@@ -32,6 +34,7 @@ import org.wisdom.api.http.Context;
 import org.wisdom.api.http.MimeTypes;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -72,16 +75,21 @@ public class BodyParserJson implements BodyParser {
      */
     public <T> T invoke(Context context, Class<T> classOfT, Type genericType) {
         T t = null;
-        try {
-            final String content = context.body();
-            if (content == null || content.length() == 0) {
+        // The body is read from the received bytes, without building a String first.
+        final InputStream content = context.stream();
+        if (content == null) {
+            return null;
+        }
+        final ObjectMapper mapper = json.mapper();
+        try (JsonParser parser = mapper.getFactory().createParser(content)) {
+            if (parser.nextToken() == null) {
+                // Empty body.
                 return null;
             }
             if (genericType != null) {
-                t = json.mapper().readValue(content,
-                        json.mapper().constructType(genericType));
+                t = mapper.readValue(parser, mapper.constructType(genericType));
             } else {
-                t = json.mapper().readValue(content, classOfT);
+                t = mapper.readValue(parser, classOfT);
             }
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
@@ -19,6 +19,7 @@
  */
 package org.wisdom.content.bodyparsers;
 
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.IOUtils;
@@ -36,6 +37,8 @@ import org.wisdom.api.http.MimeTypes;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -69,18 +72,26 @@ public class BodyParserXML implements BodyParser {
     @Override
     public <T> T invoke(Context context, Class<T> classOfT, Type genericType) {
         T t = null;
-        try {
-            final String content = context.body();
-            if (content == null || content.length() == 0) {
+        // The body is read from the received bytes, without building a String first.
+        final InputStream stream = context.stream();
+        if (stream == null) {
+            return null;
+        }
+        try (PushbackInputStream content = new PushbackInputStream(stream)) {
+            int first = content.read();
+            if (first == -1) {
+                // Empty body.
                 return null;
             }
+            content.unread(first);
             if (classOfT.equals(Document.class)) {
-                return (T) parseXMLDocument(content.getBytes(Charsets.UTF_8));
+                return (T) xml.fromInputStream(content, Charsets.UTF_8);
             }
+            final XmlMapper mapper = xml.xmlMapper();
             if (genericType != null) {
-                t = xml.xmlMapper().readValue(content, xml.xmlMapper().constructType(genericType));
+                t = mapper.readValue(content, mapper.constructType(genericType));
             } else {
-                t = xml.xmlMapper().readValue(content, classOfT);
+                t = mapper.readValue(content, classOfT);
             }
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
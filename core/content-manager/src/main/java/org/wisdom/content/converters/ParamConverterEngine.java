@@ -21,10 +21,7 @@ package org.wisdom.content.converters;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Primitives;
-import org.apache.felix.ipojo.annotations.Component;
-import org.apache.felix.ipojo.annotations.Instantiate;
-import org.apache.felix.ipojo.annotations.Provides;
-import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.*;
 import org.wisdom.api.content.ParameterConverter;
 import org.wisdom.api.content.ParameterFactories;
 import org.wisdom.api.content.ParameterFactory;
@@ -33,21 +30,51 @@ import org.wisdom.api.http.Context;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of the {@link org.wisdom.api.content.ParameterFactories} service to convert objects.
+ * <p>
+ * The converter selected for a type, the element type of generic collections and the set of types handled by
+ * factories are cached, so the lookup is done only once per type. These caches are dropped (or rebuilt) when a
+ * {@link org.wisdom.api.content.ParameterConverter} or a {@link org.wisdom.api.content.ParameterFactory} arrives or
+ * leaves, so they do not retain the classes of the bundles that are gone.
  */
 @Component
 @Provides
 @Instantiate(name = "ParameterConverterEngine")
 public class ParamConverterEngine implements ParameterFactories {
 
-    @Requires(specification = ParameterConverter.class, optional = true)
+    @Requires(id = "converters", specification = ParameterConverter.class, optional = true)
     List<ParameterConverter> converters;
 
-    @Requires(specification = ParameterFactory.class, optional = true)
+    @Requires(id = "factories", specification = ParameterFactory.class, optional = true)
     List<ParameterFactory> factories;
 
+    /**
+     * The converter found for each type. The map is replaced when the set of converters changes.
+     */
+    private volatile ConcurrentMap<Class, ParameterConverter> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * The element class of the generic collection types. {@link String} is used when the element type is unknown.
+     * It is cleared when a converter or a factory arrives or leaves.
+     */
+    private final ConcurrentMap<Type, Class> elements = new ConcurrentHashMap<>();
+
+    /**
+     * The generation of the set of factories, incremented every time a factory arrives or leaves.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The types handled by the factories, {@literal null} until the first call. It must be recomputed when its
+     * generation is not the current one.
+     */
+    private volatile FactoryTypes factoryTypes;
+
     /**
      * Creates the singleton instance of {@link org.wisdom.content.converters.ParamConverterEngine} used at runtime.
      */
@@ -66,6 +93,50 @@ public class ParamConverterEngine implements ParameterFactories {
         factories = fact;
     }
 
+    /**
+     * A new converter is available, the cache is dropped as the converter may supersede a default converter.
+     *
+     * @param converter the converter
+     */
+    @Bind(id = "converters")
+    public void bindConverter(ParameterConverter converter) {
+        resolved = new ConcurrentHashMap<>();
+        elements.clear();
+    }
+
+    /**
+     * A converter has left, the cache is dropped.
+     *
+     * @param converter the converter
+     */
+    @Unbind(id = "converters")
+    public void unbindConverter(ParameterConverter converter) {
+        resolved = new ConcurrentHashMap<>();
+        elements.clear();
+    }
+
+    /**
+     * A new factory is available, the set of types handled by the factories needs to be recomputed.
+     *
+     * @param factory the factory
+     */
+    @Bind(id = "factories")
+    public void bindFactory(ParameterFactory factory) {
+        generation.incrementAndGet();
+        elements.clear();
+    }
+
+    /**
+     * A factory has left, the set of types handled by the factories needs to be recomputed.
+     *
+     * @param factory the factory
+     */
+    @Unbind(id = "factories")
+    public void unbindFactory(ParameterFactory factory) {
+        generation.incrementAndGet();
+        elements.clear();
+    }
+
     @Override
     public <T> T convertValue(String input, Class<T> rawType, Type type, String defaultValue) throws IllegalArgumentException {
         if (rawType.isArray()) {
@@ -159,29 +230,54 @@ public class ParamConverterEngine implements ParameterFactories {
      */
     @Override
     public Set<Class> getTypesHandledByFactories() {
-        final ImmutableSet.Builder<Class> builder = ImmutableSet.builder();
-        for (ParameterFactory factory : factories) {
-            builder.add(factory.getType());
+        FactoryTypes current = factoryTypes;
+        int expected = generation.get();
+        if (current == null || current.generation != expected) {
+            // The generation is read before the factories, so a set computed while a factory arrives or leaves is
+            // tagged with the old generation, and is recomputed on the next call.
+            final ImmutableSet.Builder<Class> builder = ImmutableSet.builder();
+            for (ParameterFactory factory : factories) {
+                builder.add(factory.getType());
+            }
+            current = new FactoryTypes(builder.build(), expected);
+            factoryTypes = current;
         }
-        return builder.build();
+        return current.types;
     }
 
     private <T> T createCollection(Collection<String> input, Class<T> rawType, Type type) {
-        // Get the generic type of the list
-        // If none default to String
-        final List<ClassTypePair> ctps = ReflectionHelper.getTypeArgumentAndClass(type);
-        ClassTypePair ctp = (ctps.size() == 1) ? ctps.get(0) : null;
-
-        if (ctp == null || ctp.rawClass() == String.class) {
+        Class<?> element = getElementClass(type);
+        if (element == String.class) {
             return createCollectionWithConverter(input, rawType, StringConverter.INSTANCE);
         } else {
-            ParameterConverter converter = getConverter(ctp.rawClass());
+            ParameterConverter converter = getConverter(element);
             // On Java 8 we cannot use 'cast' here, I don't really understand why.
             //noinspection unchecked
             return (T) createCollectionWithConverter(input, rawType, converter);
         }
     }
 
+    /**
+     * Gets the class of the elements of a generic collection type.
+     *
+     * @param type the collection type
+     * @return the element class, {@link String} if the type does not give it
+     */
+    private Class<?> getElementClass(Type type) {
+        if (type == null) {
+            return String.class;
+        }
+        Class<?> element = elements.get(type);
+        if (element == null) {
+            // Get the generic type of the list
+            // If none default to String
+            final List<ClassTypePair> ctps = ReflectionHelper.getTypeArgumentAndClass(type);
+            element = (ctps.size() == 1) ? ctps.get(0).rawClass() : String.class;
+            elements.put(type, element);
+        }
+        return element;
+    }
+
     private <T, A> T createCollectionWithConverter(Collection<String> input, Class<T> type,
                                                    ParameterConverter<A> converter) {
         Collection<A> collection;
@@ -276,6 +372,17 @@ public class ParamConverterEngine implements ParameterFactories {
             return (ParameterConverter<T>) StringConverter.INSTANCE;
         }
 
+        final ConcurrentMap<Class, ParameterConverter> cache = resolved;
+        ParameterConverter<T> converter = cache.get(type);
+        if (converter == null) {
+            converter = findConverter(type);
+            cache.put(type, converter);
+        }
+        return converter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ParameterConverter<T> findConverter(Class<T> type) {
         // Search for exposed converters.
         for (ParameterConverter pc : converters) {
             //noinspection EqualsBetweenInconvertibleTypes
@@ -321,4 +428,16 @@ public class ParamConverterEngine implements ParameterFactories {
         throw new NoSuchElementException("Cannot find a converter able to create instance of " + type.getName());
     }
 
+    /**
+     * The types handled by the factories, tagged with the generation of the set of factories they were computed from.
+     */
+    private static final class FactoryTypes {
+        private final Set<Class> types;
+        private final int generation;
+
+        private FactoryTypes(Set<Class> types, int generation) {
+            this.types = types;
+            this.generation = generation;
+        }
+    }
 }
@@ -19,20 +19,28 @@
  */
 package org.wisdom.content.engines;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
-import org.apache.felix.ipojo.annotations.Component;
-import org.apache.felix.ipojo.annotations.Instantiate;
-import org.apache.felix.ipojo.annotations.Provides;
-import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.*;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.content.*;
+import org.wisdom.api.http.RequestMediaTypes;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Content Engine.
+ * <p>
+ * The media types of the serializers are parsed once, and the serializer selected for a set of accepted media types
+ * is remembered. As requests sending the same {@literal Accept} header share the same list of media types (see
+ * {@link RequestMediaTypes}), the selection is done once per header. This table is rebuilt when a serializer arrives
+ * or leaves.
  */
 @Component
 @Provides
@@ -41,9 +49,40 @@ public class Engine implements ContentEngine {
 
     @Requires(specification = BodyParser.class, optional = true)
     List<BodyParser> parsers;
-    @Requires(specification = ContentSerializer.class, optional = true)
+    @Requires(id = "serializers", specification = ContentSerializer.class, optional = true)
     List<ContentSerializer> serializers;
 
+    /**
+     * The generation of the set of serializers, incremented every time a serializer arrives or leaves.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The serializer lookup table, {@literal null} until the first lookup. It must be rebuilt when its generation
+     * is not the current one.
+     */
+    private volatile SerializerTable table;
+
+    /**
+     * A new serializer is available, the lookup table is outdated.
+     *
+     * @param serializer the serializer
+     */
+    @Bind(id = "serializers")
+    public void bindSerializer(ContentSerializer serializer) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * A serializer has left, the lookup table is outdated.
+     *
+     * @param serializer the serializer
+     */
+    @Unbind(id = "serializers")
+    public void unbindSerializer(ContentSerializer serializer) {
+        generation.incrementAndGet();
+    }
+
     /**
      * Gets the body parser that can be used to parse a body with the given content type.
      *
@@ -90,14 +129,63 @@ public class Engine implements ContentEngine {
         if (mediaTypes == null  || mediaTypes.isEmpty()) {
             mediaTypes = ImmutableList.of(MediaType.HTML_UTF_8);
         }
-        for (MediaType type : mediaTypes) {
-            for (ContentSerializer ser : serializers) {
-                MediaType mt = MediaType.parse(ser.getContentType());
-                if (mt.is(type.withoutParameters())) {
-                    return ser;
+        SerializerTable current = table;
+        int expected = generation.get();
+        if (current == null || current.generation != expected) {
+            // The generation is read before the serializers, so a table built while a serializer arrives or leaves
+            // is tagged with the old generation, and is rebuilt on the next lookup.
+            current = new SerializerTable(serializers, expected);
+            table = current;
+        }
+        return current.get(mediaTypes);
+    }
+
+    /**
+     * The serializers with their parsed media types, and the serializer selected for the media types already seen.
+     * The selections are keyed by identity, which is cheap and matches the interned lists of accepted media types.
+     * Only immutable collections are remembered.
+     */
+    private static final class SerializerTable {
+        private final int generation;
+        private final ContentSerializer[] serializers;
+        private final MediaType[] types;
+        private final Cache<Collection<MediaType>, Optional<ContentSerializer>> selections = CacheBuilder.newBuilder()
+                .weakKeys()
+                .maximumSize(1000)
+                .build();
+
+        private SerializerTable(List<ContentSerializer> list, int generation) {
+            this.generation = generation;
+            serializers = list.toArray(new ContentSerializer[list.size()]);
+            types = new MediaType[serializers.length];
+            for (int i = 0; i < serializers.length; i++) {
+                types[i] = RequestMediaTypes.parse(serializers[i].getContentType());
+            }
+        }
+
+        private ContentSerializer get(Collection<MediaType> mediaTypes) {
+            if (!(mediaTypes instanceof ImmutableCollection)) {
+                // A mutable collection may change, it cannot be used as key.
+                return select(mediaTypes);
+            }
+            Optional<ContentSerializer> selected = selections.getIfPresent(mediaTypes);
+            if (selected == null) {
+                selected = Optional.fromNullable(select(mediaTypes));
+                selections.put(mediaTypes, selected);
+            }
+            return selected.orNull();
+        }
+
+        private ContentSerializer select(Collection<MediaType> mediaTypes) {
+            for (MediaType type : mediaTypes) {
+                MediaType range = type.withoutParameters();
+                for (int i = 0; i < serializers.length; i++) {
+                    if (types[i].is(range)) {
+                        return serializers[i];
+                    }
                 }
             }
+            return null;
         }
-        return null;
     }
 }
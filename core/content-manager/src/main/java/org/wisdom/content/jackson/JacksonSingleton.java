@@ -68,19 +68,10 @@ import java.util.Set;
 public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
 
     /**
-     * An object used as lock.
+     * The current mappers. This immutable snapshot is replaced every time a module arrives or leaves, so readers never
+     * lock.
      */
-    private final Object lock = new Object();
-
-    /**
-     * The current object mapper.
-     */
-    private ObjectMapper mapper;
-
-    /**
-     * The current object mapper.
-     */
-    private XmlMapper xml;
+    private volatile Mappers mappers = Mappers.NONE;
 
     /**
      * The document builder factory used to create new document.
@@ -93,9 +84,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
     private static final Logger LOGGER = LoggerFactory.getLogger(JacksonSingleton.class);
 
     /**
-     * The current set of registered modules.
+     * The current set of registered modules. Updates of this set and of the mappers are done while holding its
+     * monitor.
      */
-    private Set<Module> modules = new HashSet<>();
+    private final Set<Module> modules = new HashSet<>();
 
     /**
      * The application configuration to read the jackson enabled / disabled features.
@@ -122,9 +114,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @return the mapper.
      */
     public ObjectMapper mapper() {
-        synchronized (lock) {
-            return mapper;
-        }
+        return mappers.json;
     }
 
     /**
@@ -135,12 +125,26 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the JSON Node cannot be created
      */
     public JsonNode toJson(final Object data) {
-        synchronized (lock) {
-            try {
-                return mapper.valueToTree(data);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return mappers.json.valueToTree(data);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the JSON form of the given object as UTF-8 encoded bytes. The object is written directly by the
+     * Jackson generator (reusing Jackson's recycled buffers), without building a {@link JsonNode} or a String.
+     *
+     * @param data the data to transform to json
+     * @return the JSON representation of the object
+     * @throws java.lang.RuntimeException if the object cannot be written
+     */
+    public byte[] toJsonBytes(final Object data) {
+        try {
+            return mappers.writer.writeValueAsBytes(data);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -152,12 +156,11 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @return the String built as follows: "callback(json(data))"
      */
     public String toJsonP(final String callback, final Object data) {
-        synchronized (lock) {
-            try {
-                return callback + "(" + stringify((JsonNode) mapper.valueToTree(data)) + ");";
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        final Mappers current = mappers;
+        try {
+            return callback + "(" + current.pretty.writeValueAsString(current.json.valueToTree(data)) + ");";
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -170,12 +173,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the object cannot be created
      */
     public <A> A fromJson(JsonNode json, Class<A> clazz) {
-        synchronized (lock) {
-            try {
-                return mapper.treeToValue(json, clazz);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return mappers.json.treeToValue(json, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -188,13 +189,12 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the object cannot be created
      */
     public <A> A fromJson(String json, Class<A> clazz) {
-        synchronized (lock) {
-            try {
-                JsonNode node = mapper.readTree(json);
-                return mapper.treeToValue(node, clazz);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        final ObjectMapper current = mappers.json;
+        try {
+            JsonNode node = current.readTree(json);
+            return current.treeToValue(node, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -208,7 +208,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      */
     public String stringify(JsonNode json) {
         try {
-            return mapper().writerWithDefaultPrettyPrinter().writeValueAsString(json);
+            return mappers.pretty.writeValueAsString(json);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Cannot stringify the input json node", e);
         }
@@ -222,12 +222,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the given string is not a valid JSON String
      */
     public JsonNode parse(String src) {
-        synchronized (lock) {
-            try {
-                return mapper.readValue(src, JsonNode.class);
-            } catch (Exception t) {
-                throw new RuntimeException(t);
-            }
+        try {
+            return mappers.json.readValue(src, JsonNode.class);
+        } catch (Exception t) {
+            throw new RuntimeException(t);
         }
     }
 
@@ -240,12 +238,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the given stream is not a valid JSON String
      */
     public JsonNode parse(InputStream stream) {
-        synchronized (lock) {
-            try {
-                return mapper.readValue(stream, JsonNode.class);
-            } catch (Exception t) {
-                throw new RuntimeException(t);
-            }
+        try {
+            return mappers.json.readValue(stream, JsonNode.class);
+        } catch (Exception t) {
+            throw new RuntimeException(t);
         }
     }
 
@@ -276,22 +272,8 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
     @Validate
     public void validate() {
         LOGGER.info("Starting JSON and XML support services");
-        setMappers(new ObjectMapper(), new XmlMapper());
-    }
-
-    /**
-     * Sets the object mapper.
-     *
-     * @param mapper the object mapper to use
-     */
-    private void setMappers(ObjectMapper mapper, XmlMapper xml) {
-        synchronized (lock) {
-            this.mapper = mapper;
-            this.xml = xml;
-            // mapper and xml are set to null on invalidation.
-            if (mapper != null && xml != null) {
-                applyMapperConfiguration(mapper, xml);
-            }
+        synchronized (modules) {
+            rebuildMappers();
         }
     }
 
@@ -373,7 +355,9 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      */
     @Invalidate
     public void invalidate() {
-        setMappers(null, null);
+        synchronized (modules) {
+            mappers = Mappers.NONE;
+        }
     }
 
     /**
@@ -387,24 +371,29 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
             return;
         }
         LOGGER.info("Adding JSON module {}", module.getModuleName());
-        synchronized (lock) {
+        synchronized (modules) {
             modules.add(module);
             rebuildMappers();
         }
     }
 
+    /**
+     * Creates and configures new mappers, and publishes them once they are ready. Must be called while holding the
+     * monitor of {@link #modules}.
+     */
     private void rebuildMappers() {
-        mapper = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper();
         for (Module module : modules) {
             mapper.registerModule(module);
         }
 
-        xml = new XmlMapper();
+        XmlMapper xml = new XmlMapper();
         for (Module module : modules) {
             xml.registerModule(module);
         }
 
         applyMapperConfiguration(mapper, xml);
+        mappers = new Mappers(mapper, xml);
     }
 
     /**
@@ -419,7 +408,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
             return;
         }
         LOGGER.info("Removing Jackson module {}", module.getModuleName());
-        synchronized (lock) {
+        synchronized (modules) {
             if (modules.remove(module)) {
                 rebuildMappers();
             }
@@ -434,9 +423,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      */
     @Override
     public XmlMapper xmlMapper() {
-        synchronized (lock) {
-            return xml;
-        }
+        return mappers.xml;
     }
 
     /**
@@ -564,7 +551,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @param module the module
      */
     @Bind(optional = true, aggregate = true)
-    public synchronized void bindModule(Module module) {
+    public void bindModule(Module module) {
         register(module);
     }
 
@@ -574,8 +561,36 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @param module the module
      */
     @Unbind
-    public synchronized void unbindModule(Module module) {
+    public void unbindModule(Module module) {
         unregister(module);
     }
 
+
+    /**
+     * An immutable snapshot of the mappers, and of the writers created from them.
+     */
+    private static final class Mappers {
+
+        /**
+         * The snapshot used when the component is not valid.
+         */
+        static final Mappers NONE = new Mappers(null, null);
+
+        final ObjectMapper json;
+        final XmlMapper xml;
+        final ObjectWriter writer;
+        final ObjectWriter pretty;
+
+        Mappers(ObjectMapper json, XmlMapper xml) {
+            this.json = json;
+            this.xml = xml;
+            if (json != null) {
+                this.writer = json.writer();
+                this.pretty = json.writerWithDefaultPrettyPrinter();
+            } else {
+                this.writer = null;
+                this.pretty = null;
+            }
+        }
+    }
 }
@@ -19,7 +19,6 @@
  */
 package org.wisdom.content.serializers;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -51,12 +50,12 @@ public class JSONSerializer implements ContentSerializer {
 
     @Override
     public void serialize(Renderable<?> renderable) {
-        JsonNode node = json.toJson(renderable.content());
-        if (node == null) {
-            LOGGER.error("Cannot serialize result - cannot create a JSON Node from the response content");
+        if (renderable.content() == null) {
+            LOGGER.error("Cannot serialize result - the response content is null");
             renderable.setSerializedForm("");
         } else {
-            renderable.setSerializedForm(node.toString());
+            // The content is written directly, without building the intermediate JSON node and String.
+            renderable.setSerializedForm(json.toJsonBytes(renderable.content()));
         }
     }
 }
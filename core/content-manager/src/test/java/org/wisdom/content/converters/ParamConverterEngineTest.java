@@ -381,7 +381,9 @@ public class ParamConverterEngineTest {
         ParamConverterEngine engine = new ParamConverterEngine();
         engine.factories = ImmutableList.of();
         assertThat(engine.getTypesHandledByFactories()).hasSize(0);
-        engine.factories = ImmutableList.<ParameterFactory>of(new StuffFactory());
+        StuffFactory factory = new StuffFactory();
+        engine.factories = ImmutableList.<ParameterFactory>of(factory);
+        engine.bindFactory(factory);
         assertThat(engine.getTypesHandledByFactories()).hasSize(1).contains(Stuff.class);
         FakeContext context = new FakeContext().setHeader("X-Stuff", "bar");
         // Going to throw an exception.
@@ -389,6 +391,50 @@ public class ParamConverterEngineTest {
 
     }
 
+    @Test
+    public void testThatTypesComputedWhileAFactoryLeavesAreNotKept() {
+        final ParamConverterEngine engine = new ParamConverterEngine();
+        final StuffFactory factory = new StuffFactory();
+        // The factory leaves while the types are being computed.
+        engine.factories = new ArrayList<ParameterFactory>(Collections.singletonList(factory)) {
+            @Override
+            public Iterator<ParameterFactory> iterator() {
+                Iterator<ParameterFactory> iterator = new ArrayList<>(this).iterator();
+                engine.factories = ImmutableList.of();
+                engine.unbindFactory(factory);
+                return iterator;
+            }
+        };
+        assertThat(engine.getTypesHandledByFactories()).containsExactly(Stuff.class);
+        assertThat(engine.getTypesHandledByFactories()).isEmpty();
+    }
+
+    @Test
+    public void testThatConvertersAreCachedUntilTheConvertersChange() {
+        ParamConverterEngine engine = new ParamConverterEngine();
+        engine.converters = Collections.emptyList();
+        assertThat(engine.convertValue("bar", Person.class, null, null).name).isEqualTo("bar");
+
+        ParameterConverter<Person> converter = new ParameterConverter<Person>() {
+            @Override
+            public Person fromString(String input) throws IllegalArgumentException {
+                return new Person(input.toUpperCase());
+            }
+
+            @Override
+            public Class<Person> getType() {
+                return Person.class;
+            }
+        };
+        engine.converters = ImmutableList.<ParameterConverter>of(converter);
+        engine.bindConverter(converter);
+        assertThat(engine.convertValue("bar", Person.class, null, null).name).isEqualTo("BAR");
+
+        engine.converters = Collections.emptyList();
+        engine.unbindConverter(converter);
+        assertThat(engine.convertValue("bar", Person.class, null, null).name).isEqualTo("bar");
+    }
+
     public void listOfMethods(List<HttpMethod> methods) {
         // ...
     }
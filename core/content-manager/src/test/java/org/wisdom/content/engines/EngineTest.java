@@ -24,7 +24,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
 import org.junit.Before;
 import org.junit.Test;
+import org.wisdom.api.content.ContentSerializer;
 import org.wisdom.api.http.MimeTypes;
+import org.wisdom.api.http.RequestMediaTypes;
 import org.wisdom.content.serializers.JSONSerializer;
 import org.wisdom.content.serializers.XMLSerializer;
 
@@ -94,6 +96,39 @@ public class EngineTest {
 
     }
 
+    @Test
+    public void testSerializerTableIsDroppedWhenSerializersChange() throws Exception {
+        List<MediaType> types = RequestMediaTypes.parseAccept("application/xml, application/json");
+        assertThat(engine.getBestSerializer(types)).isEqualTo(xml);
+        assertThat(engine.getBestSerializer(RequestMediaTypes.parseAccept("application/xml, application/json")))
+                .isEqualTo(xml);
+
+        engine.serializers = ImmutableList.<ContentSerializer>of(json);
+        engine.unbindSerializer(xml);
+        assertThat(engine.getBestSerializer(types)).isEqualTo(json);
+
+        engine.serializers = ImmutableList.of(json, xml);
+        engine.bindSerializer(xml);
+        assertThat(engine.getBestSerializer(types)).isEqualTo(xml);
+    }
+
+    @Test
+    public void testThatATableBuiltWhileASerializerLeavesIsNotKept() throws Exception {
+        List<MediaType> types = RequestMediaTypes.parseAccept("application/xml, application/json");
+        // The xml serializer leaves while the table is being built.
+        engine.serializers = new ArrayList<ContentSerializer>(Arrays.asList(json, xml)) {
+            @Override
+            public <T> T[] toArray(T[] array) {
+                T[] result = super.toArray(array);
+                engine.serializers = ImmutableList.<ContentSerializer>of(json);
+                engine.unbindSerializer(xml);
+                return result;
+            }
+        };
+        assertThat(engine.getBestSerializer(types)).isEqualTo(xml);
+        assertThat(engine.getBestSerializer(types)).isEqualTo(json);
+    }
+
     @Test
     public void testMediaType() throws Exception {
         String accept = "text/*;q=0.3, text/html;q=0.7, text/html;level=1, text/html;level=2;q=0.4, */*;q=0.5";
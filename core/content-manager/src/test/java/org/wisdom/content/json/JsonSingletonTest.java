@@ -19,7 +19,11 @@
  */
 package org.wisdom.content.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.io.IOUtils;
@@ -30,6 +34,7 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.content.jackson.JacksonSingleton;
 import org.wisdom.test.parents.FakeConfiguration;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Map;
@@ -166,6 +171,40 @@ public class JsonSingletonTest {
         json.unbindModule(module);
     }
 
+    @Test
+    public void testToJsonBytes() throws Exception {
+        Data data = new Data();
+        data.age = 32;
+        data.name = "clement";
+        data.messages = Arrays.asList("msg 1", "msg 2");
+
+        final byte[] bytes = json.toJsonBytes(data);
+        assertThat(new String(bytes, "UTF-8")).isEqualTo(json.toJson(data).toString());
+        assertThat(json.toJsonBytes("a message")).isEqualTo("\"a message\"".getBytes("UTF-8"));
+    }
+
+    @Test
+    public void testThatModulesReplaceTheMappers() throws Exception {
+        final ObjectMapper initial = json.mapper();
+        final SimpleModule module = new SimpleModule("test");
+        module.addSerializer(Data.class, new JsonSerializer<Data>() {
+            @Override
+            public void serialize(Data value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                gen.writeString(value.name);
+            }
+        });
+        Data data = new Data();
+        data.name = "clement";
+
+        json.register(module);
+        assertThat(json.mapper()).isNotSameAs(initial);
+        assertThat(new String(json.toJsonBytes(data), "UTF-8")).isEqualTo("\"clement\"");
+        assertThat(json.toJson(data).asText()).isEqualTo("clement");
+
+        json.unregister(module);
+        assertThat(json.toJson(data).isObject()).isTrue();
+    }
+
     @Test
     public void testWithCustomConfiguration() throws Exception {
         Map<String, Object> configuration = ImmutableMap.<String, Object>of(
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Hexadecimal and Base64 encoders writing into a per-thread buffer, so encoding a value only allocates the
+ * resulting String. The produced values are identical to the commons-codec ones. Values needing a buffer bigger than
+ * {@link #MAX_RETAINED_BUFFER_SIZE} are encoded into a temporary buffer, so threads do not retain large buffers.
+ */
+final class Codecs {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final Base64.Encoder BASE64 = Base64.getEncoder();
+
+    /**
+     * The maximum size (in characters or bytes) of the buffers kept by the threads.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[128]);
+
+    private static final ThreadLocal<byte[]> BYTES = ThreadLocal.withInitial(() -> new byte[128]);
+
+    private Codecs() {
+        // Avoid direct instantiation, as we only have static methods in this class.
+    }
+
+    /**
+     * Encodes the given bytes in lower case hexadecimal.
+     *
+     * @param bytes the bytes
+     * @return the hexadecimal String
+     */
+    static String hex(byte[] bytes) {
+        int length = bytes.length * 2;
+        char[] buffer = length > MAX_RETAINED_BUFFER_SIZE ? new char[length] : CHARS.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            CHARS.set(buffer);
+        }
+        int j = 0;
+        for (byte b : bytes) {
+            buffer[j++] = DIGITS[(b & 0xF0) >>> 4];
+            buffer[j++] = DIGITS[b & 0x0F];
+        }
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Encodes the given bytes in Base64 (not chunked).
+     *
+     * @param bytes the bytes
+     * @return the Base64 String
+     */
+    static String base64(byte[] bytes) {
+        int length = 4 * ((bytes.length + 2) / 3);
+        byte[] buffer = length > MAX_RETAINED_BUFFER_SIZE ? new byte[length] : BYTES.get();
+        if (buffer.length < length) {
+            buffer = new byte[length];
+            BYTES.set(buffer);
+        }
+        int written = BASE64.encode(bytes, buffer);
+        return new String(buffer, 0, written, StandardCharsets.ISO_8859_1);
+    }
+}
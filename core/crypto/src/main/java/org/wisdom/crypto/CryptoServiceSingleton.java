@@ -21,6 +21,9 @@ package org.wisdom.crypto;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
@@ -40,6 +43,8 @@ import java.nio.charset.Charset;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * An implementation of the crypto service.
@@ -51,6 +56,9 @@ import java.security.spec.KeySpec;
  * the 256+ keys require runtime adaption because of legal limitations (see unlimited crypto package JCE)</li>
  * <li><code>crypto.aes.iterations</code>: the number of iterations used to generate the key (20 by default)</li>
  * </ul>
+ * <p>
+ * {@link Mac}, {@link MessageDigest} and {@link Cipher} objects are expensive to look up, so each thread keeps its
+ * own instances. The keys derived from a private key and a salt (PBKDF2) are cached.
  */
 @Component
 @Provides
@@ -68,6 +76,38 @@ public class CryptoServiceSingleton implements Crypto {
     private final Hash defaultHash;
     private final String secret;
     private final SecureRandom random = new SecureRandom();
+    private final byte[] secretBytes;
+
+    /**
+     * The HMAC-SHA1 objects initialized with the application secret.
+     */
+    private final ThreadLocal<Mac> secretMac;
+
+    /**
+     * The HMAC-SHA1 objects used with other keys, initialized on each use.
+     */
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(() -> createMac(null));
+
+    /**
+     * The message digests, indexed by {@link Hash#ordinal()}, created on first use.
+     */
+    private final ThreadLocal<MessageDigest[]> digests =
+            ThreadLocal.withInitial(() -> new MessageDigest[Hash.values().length]);
+
+    /**
+     * The ciphers used by the AES with CBC methods, initialized on each use.
+     */
+    private final ThreadLocal<Cipher> cbcCipher;
+
+    /**
+     * The ciphers used by the AES (ECB) methods, initialized on each use.
+     */
+    private final ThreadLocal<Cipher> ecbCipher = ThreadLocal.withInitial(() -> createCipher(AES_ECB_ALGORITHM));
+
+    /**
+     * The keys generated from a private key and a salt.
+     */
+    private final Cache<List<String>, SecretKey> derivedKeys = CacheBuilder.newBuilder().maximumSize(256).build();
 
     @SuppressWarnings("UnusedDeclaration")
     public CryptoServiceSingleton(@Requires ApplicationConfiguration configuration) {
@@ -86,6 +126,60 @@ public class CryptoServiceSingleton implements Crypto {
         this.keySize = keySize;
         this.iterationCount = iterationCount;
         this.transformation = transformation;
+        this.secretBytes = secret.getBytes(Charsets.UTF_8);
+        this.secretMac = ThreadLocal.withInitial(() -> createMac(secretBytes));
+        this.cbcCipher = ThreadLocal.withInitial(() -> createCipher(this.transformation));
+    }
+
+    private static Mac createMac(byte[] key) {
+        try {
+            Mac instance = Mac.getInstance(HMAC_SHA_1);
+            if (key != null) {
+                instance.init(new SecretKeySpec(key, HMAC_SHA_1));
+            }
+            return instance;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static Cipher createCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MessageDigest digest(Hash hash) {
+        MessageDigest[] instances = digests.get();
+        MessageDigest digest = instances[hash.ordinal()];
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance(hash.toString());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e);
+            }
+            instances[hash.ordinal()] = digest;
+        }
+        return digest;
+    }
+
+    /**
+     * Gets the AES key generated from the salt and the private key, generating it if not cached.
+     *
+     * @param salt       the salt (hexadecimal)
+     * @param privateKey the private key
+     * @return the generated key.
+     */
+    private SecretKey getAESKey(String privateKey, String salt) {
+        List<String> id = ImmutableList.of(privateKey, salt);
+        SecretKey key = derivedKeys.getIfPresent(id);
+        if (key == null) {
+            key = generateAESKey(privateKey, salt);
+            derivedKeys.put(id, key);
+        }
+        return key;
     }
 
 
@@ -135,7 +229,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String encryptAESWithCBC(String value, String privateKey, String salt, String iv) {
-        SecretKey genKey = generateAESKey(privateKey, salt);
+        SecretKey genKey = getAESKey(privateKey, salt);
         byte[] encrypted = doFinal(Cipher.ENCRYPT_MODE, genKey, iv, value.getBytes(UTF_8));
         return encodeBase64(encrypted);
     }
@@ -168,7 +262,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String decryptAESWithCBC(String value, String privateKey, String salt, String iv) {
-        SecretKey key = generateAESKey(privateKey, salt);
+        SecretKey key = getAESKey(privateKey, salt);
         byte[] decrypted = doFinal(Cipher.DECRYPT_MODE, key, iv, decodeBase64(value));
         return new String(decrypted, UTF_8);
     }
@@ -187,10 +281,10 @@ public class CryptoServiceSingleton implements Crypto {
     private byte[] doFinal(int encryptMode, SecretKey generatedKey, String vector, byte[] message) {
         try {
             byte[] raw = decodeHex(vector);
-            Cipher cipher = Cipher.getInstance(transformation);
+            Cipher cipher = cbcCipher.get();
             cipher.init(encryptMode, generatedKey, new IvParameterSpec(raw));
             return cipher.doFinal(message);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException |
+        } catch (InvalidKeyException |
                 InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
             throw new IllegalStateException(e);
         }
@@ -201,7 +295,8 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String sign(String message) {
-        return sign(message, secret.getBytes(Charsets.UTF_8));
+        Preconditions.checkNotNull(message);
+        return hexToString(secretMac.get().doFinal(message.getBytes(Charsets.UTF_8)));
     }
 
     /**
@@ -215,16 +310,19 @@ public class CryptoServiceSingleton implements Crypto {
     public String sign(String message, byte[] key) {
         Preconditions.checkNotNull(message);
         Preconditions.checkNotNull(key);
+        if (Arrays.equals(key, secretBytes)) {
+            return sign(message);
+        }
         try {
             // Get an hmac_sha1 key from the raw key bytes
             SecretKeySpec signingKey = new SecretKeySpec(key, HMAC_SHA_1);
 
-            // Get an hmac_sha1 Mac instance and initialize with the signing key
-            Mac mac = Mac.getInstance(HMAC_SHA_1);
-            mac.init(signingKey);
+            // Initialize the Mac instance of the current thread with the signing key
+            Mac instance = mac.get();
+            instance.init(signingKey);
 
             // Compute the hmac on input data bytes
-            byte[] rawHmac = mac.doFinal(message.getBytes(Charsets.UTF_8));
+            byte[] rawHmac = instance.doFinal(message.getBytes(Charsets.UTF_8));
 
             // Convert raw bytes to Hex
             return hexToString(rawHmac);
@@ -255,13 +353,8 @@ public class CryptoServiceSingleton implements Crypto {
     public String hash(String input, Hash hashType) {
         Preconditions.checkNotNull(input);
         Preconditions.checkNotNull(hashType);
-        try {
-            MessageDigest m = MessageDigest.getInstance(hashType.toString());
-            byte[] out = m.digest(input.getBytes(Charsets.UTF_8));
-            return encodeBase64(out);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalArgumentException(e);
-        }
+        byte[] out = digest(hashType).digest(input.getBytes(Charsets.UTF_8));
+        return encodeBase64(out);
     }
 
     /**
@@ -288,11 +381,10 @@ public class CryptoServiceSingleton implements Crypto {
         try {
             byte[] raw = privateKey.getBytes(UTF_8);
             SecretKeySpec skeySpec = new SecretKeySpec(raw, AES_ECB_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ECB_ALGORITHM);
+            Cipher cipher = ecbCipher.get();
             cipher.init(Cipher.ENCRYPT_MODE, skeySpec);
             return hexToString(cipher.doFinal(value.getBytes(Charsets.UTF_8)));
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException |
-                InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
+        } catch (InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
             throw new IllegalStateException(e);
         }
     }
@@ -322,11 +414,10 @@ public class CryptoServiceSingleton implements Crypto {
         try {
             byte[] raw = privateKey.getBytes(UTF_8);
             SecretKeySpec skeySpec = new SecretKeySpec(raw, AES_ECB_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ECB_ALGORITHM);
+            Cipher cipher = ecbCipher.get();
             cipher.init(Cipher.DECRYPT_MODE, skeySpec);
             return new String(cipher.doFinal(decodeHex(value)), Charsets.UTF_8);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException |
-                InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
+        } catch (InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
             throw new IllegalStateException(e);
         }
     }
@@ -416,7 +507,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String encodeBase64(byte[] value) {
-        return new String(Base64.encodeBase64(value), Charsets.UTF_8);
+        return Codecs.base64(value);
     }
 
     /**
@@ -438,7 +529,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String hexMD5(String value) {
-        return String.valueOf(Hex.encodeHex(md5(value)));
+        return Codecs.hex(md5(value));
     }
 
     /**
@@ -449,7 +540,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String hexSHA1(String value) {
-        return String.valueOf(Hex.encodeHex(sha1(value)));
+        return Codecs.hex(sha1(value));
     }
 
     /**
@@ -496,15 +587,8 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public byte[] md5(String toHash) {
-        try {
-            MessageDigest messageDigest = MessageDigest.getInstance(Hash.MD5.toString());
-            messageDigest.reset();
-            messageDigest.update(toHash.getBytes(UTF_8));
-            return messageDigest.digest();
-        } catch (NoSuchAlgorithmException e) {
-            // Should not happen as every JVM must support D5, SHA-1 and SHA-256.
-            throw new RuntimeException(e);
-        }
+        // Every JVM must support MD5, SHA-1 and SHA-256.
+        return digest(Hash.MD5).digest(toHash.getBytes(UTF_8));
     }
 
     /**
@@ -515,15 +599,8 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public byte[] sha1(String toHash) {
-        try {
-            MessageDigest messageDigest = MessageDigest.getInstance(Hash.SHA1.toString());
-            messageDigest.reset();
-            messageDigest.update(toHash.getBytes(UTF_8));
-            return messageDigest.digest();
-        } catch (NoSuchAlgorithmException e) {
-            // Should not happen as every JVM must support D5, SHA-1 and SHA-256.
-            throw new RuntimeException(e);
-        }
+        // Every JVM must support MD5, SHA-1 and SHA-256.
+        return digest(Hash.SHA1).digest(toHash.getBytes(UTF_8));
     }
 
     /**
@@ -549,7 +626,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String hexToString(byte[] bytes) {
-        return Hex.encodeHexString(bytes);
+        return Codecs.hex(bytes);
     }
 
     /**
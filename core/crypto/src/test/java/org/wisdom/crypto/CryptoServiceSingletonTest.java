@@ -19,12 +19,22 @@
  */
 package org.wisdom.crypto;
 
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
 import org.junit.Before;
 import org.junit.Test;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.crypto.Hash;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -189,4 +199,54 @@ public class CryptoServiceSingletonTest {
 
         assertThat(crypto.compareSignedTokens(token2, token)).isFalse();
     }
+
+    @Test
+    public void testThatEncodersMatchCommonsCodec() {
+        Random random = new Random();
+        for (int i = 0; i < 300; i++) {
+            byte[] bytes = new byte[i];
+            random.nextBytes(bytes);
+            assertThat(crypto.hexToString(bytes)).isEqualTo(Hex.encodeHexString(bytes));
+            assertThat(crypto.encodeBase64(bytes)).isEqualTo(Base64.encodeBase64String(bytes));
+        }
+
+        // Values larger than the retained buffers use a temporary one, the next values still use the retained one.
+        byte[] large = new byte[Codecs.MAX_RETAINED_BUFFER_SIZE];
+        random.nextBytes(large);
+        assertThat(crypto.hexToString(large)).isEqualTo(Hex.encodeHexString(large));
+        assertThat(crypto.encodeBase64(large)).isEqualTo(Base64.encodeBase64String(large));
+        byte[] small = new byte[10];
+        random.nextBytes(small);
+        assertThat(crypto.hexToString(small)).isEqualTo(Hex.encodeHexString(small));
+        assertThat(crypto.encodeBase64(small)).isEqualTo(Base64.encodeBase64String(small));
+    }
+
+    @Test
+    public void testThatPooledInstancesCanBeUsedConcurrently() throws Exception {
+        String signature = crypto.sign("hello");
+        String hash = crypto.hash("hello", Hash.SHA256);
+        String encrypted = crypto.encryptAESWithCBC("hello", "0123456789abcdef");
+        String withKey = crypto.sign("hello", "another key".getBytes(StandardCharsets.UTF_8));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(executor.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    if (!signature.equals(crypto.sign("hello"))
+                            || !withKey.equals(crypto.sign("hello", "another key".getBytes(StandardCharsets.UTF_8)))
+                            || !hash.equals(crypto.hash("hello", Hash.SHA256))
+                            || !"hello".equals(crypto.decryptAESWithCBC(encrypted, "0123456789abcdef"))) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        executor.shutdown();
+        assertThat(crypto.sign("hello", SECRET.getBytes(StandardCharsets.UTF_8))).isEqualTo(signature);
+    }
 }
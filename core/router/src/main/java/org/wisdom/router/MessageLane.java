@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.http.websockets.MailboxOverflow;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A serial execution lane used to process the frames received from one web socket client.
+ * <p>
+ * Tasks are executed one at a time, in the order they were offered, on the given executor. The lane never
+ * occupies more than one thread, and releases it after a batch of tasks so other clients are not starved. The
+ * mailbox is bounded: when it is full, the {@link MailboxOverflow} policy decides whether the incoming task or the
+ * oldest pending one is dropped.
+ */
+class MessageLane implements Callable<Void> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageLane.class);
+
+    /**
+     * The maximum number of tasks executed before giving the thread back.
+     */
+    static final int BATCH = 32;
+
+    private final String client;
+    private final ExecutorService executor;
+    private final int capacity;
+    private final MailboxOverflow overflow;
+
+    /**
+     * The pending tasks, also used as lock for {@link #scheduled}.
+     */
+    private final Deque<Runnable> mailbox = new ArrayDeque<>();
+
+    /**
+     * Whether or not the lane is submitted to the executor (or running).
+     */
+    private boolean scheduled;
+
+    /**
+     * Creates a new lane.
+     *
+     * @param client   the client id, used in log messages
+     * @param executor the executor running the tasks
+     * @param capacity the maximum number of pending tasks
+     * @param overflow the policy applied when the mailbox is full
+     */
+    MessageLane(String client, ExecutorService executor, int capacity, MailboxOverflow overflow) {
+        this.client = client;
+        this.executor = executor;
+        this.capacity = Math.max(1, capacity);
+        this.overflow = overflow;
+    }
+
+    /**
+     * Enqueues a task.
+     *
+     * @param task the task, must not throw exceptions
+     * @return {@literal false} if the task has been dropped because the mailbox is full, {@literal true} otherwise
+     */
+    boolean offer(Runnable task) {
+        synchronized (mailbox) {
+            if (mailbox.size() >= capacity) {
+                if (overflow == MailboxOverflow.DROP_NEWEST) {
+                    LOGGER.warn("The mailbox of the web socket client {} is full, dropping the received frame", client);
+                    return false;
+                }
+                LOGGER.warn("The mailbox of the web socket client {} is full, dropping the oldest pending frame",
+                        client);
+                mailbox.pollFirst();
+            }
+            mailbox.addLast(task);
+            if (scheduled) {
+                return true;
+            }
+            scheduled = true;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * @return the number of pending tasks.
+     */
+    int size() {
+        synchronized (mailbox) {
+            return mailbox.size();
+        }
+    }
+
+    private void schedule() {
+        try {
+            executor.submit(this);
+        } catch (RejectedExecutionException e) {
+            // The pending tasks stay in the mailbox, the next offer tries again.
+            LOGGER.error("Cannot process the frames received from the web socket client {}", client, e);
+            synchronized (mailbox) {
+                scheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of pending tasks, and re-submits itself if some are left.
+     *
+     * @return {@literal null}
+     */
+    @Override
+    public Void call() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable task;
+            synchronized (mailbox) {
+                task = mailbox.pollFirst();
+                if (task == null) {
+                    scheduled = false;
+                    return null;
+                }
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("An error occurred while processing a frame received from the web socket client {}",
+                        client, e);
+            }
+        }
+        schedule();
+        return null;
+    }
+}
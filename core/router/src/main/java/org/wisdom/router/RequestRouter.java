@@ -29,6 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.Controller;
 import org.wisdom.api.content.ParameterFactories;
+import org.wisdom.api.http.Context;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Request;
 import org.wisdom.api.http.Status;
@@ -43,7 +44,8 @@ import javax.validation.Validator;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The request router responsible for handling request and invoke the action methods.
@@ -85,8 +87,13 @@ public class RequestRouter extends AbstractRouter {
      */
     private Set<Filter> filters = new FilterSet();
 
-    @Requires(optional = true, specification = Interceptor.class)
-    private List<Interceptor<?>> interceptors;
+    private final List<Interceptor<?>> interceptors = new CopyOnWriteArrayList<>();
+
+    /**
+     * Incremented every time a filter or an interceptor arrives or leaves. Routes use it to know when their
+     * interception chain must be recomputed.
+     */
+    private final AtomicLong generation = new AtomicLong();
 
     @Requires(optional = true, proxy = false)
     private Validator validator;
@@ -96,6 +103,11 @@ public class RequestRouter extends AbstractRouter {
 
     private Set<RouteDelegate> routes = new LinkedHashSet<>();
 
+    /**
+     * The index used to find the routes matching a request. It is rebuilt every time the set of routes changes.
+     */
+    private volatile RouteIndex index = new RouteIndex(Collections.<RouteDelegate>emptyList());
+
     /**
      * Binds a new controller.
      *
@@ -126,6 +138,7 @@ public class RequestRouter extends AbstractRouter {
             // remove all new routes as one has failed
             routes.removeAll(newRoutes); //NOSONAR
         }
+        index = new RouteIndex(routes);
     }
 
     /**
@@ -142,6 +155,7 @@ public class RequestRouter extends AbstractRouter {
                 routes.remove(r);
             }
         }
+        index = new RouteIndex(routes);
     }
 
     private void ensureNoConflicts(List<Route> newRoutes) {
@@ -217,8 +231,9 @@ public class RequestRouter extends AbstractRouter {
      * Stopping the router. All routes are cleared.
      */
     @Invalidate
-    public void stop() {
+    public synchronized void stop() {
         routes.clear();
+        index = new RouteIndex(Collections.<RouteDelegate>emptyList());
     }
 
     private synchronized Set<Route> copy() {
@@ -235,64 +250,72 @@ public class RequestRouter extends AbstractRouter {
      */
     @Override
     public Route getRouteFor(HttpMethod method, String uri, Request request) {
-        // Compute the list of matching routes - only the path is check in this first stage
-        List<Route> list = new ArrayList<>(1);
-        //TODO This can be faster by using an immutable list.
-        list.addAll(copy().stream()
-                .filter(route -> route.matches(method, uri))
-                .sorted((r1, r2) -> {
-                    // Exact match first.
-                    if (r1.getUrl().equalsIgnoreCase(uri)) {
-                        return -1;
-                    } else if (r2.getUrl().equalsIgnoreCase(uri)) {
-                        return 1;
-                    }
-                    // Not comparable
-                    return 0;
-                })
-                .collect(Collectors.toList()));
-
-        if (list.isEmpty()) {
-            // Creates an unbound route - 404
-            return new RouteDelegate(this, new Route(method, uri, Status.NOT_FOUND));
+        // Compute the list of matching routes - only the path is check in this first stage. The index returns the
+        // exact matches first.
+        RouteIndex current = index;
+        RouteIndex.Entry[] candidates = current.lookup(method, uri);
+
+        if (candidates.length == 0) {
+            // Unbound route - 404. Unbound routes are kept by the index, and so discarded when the routes change.
+            return current.unbound(this, method, uri, Status.NOT_FOUND);
         }
 
-        // Find the route that accept the request
-        List<Route> fullMatch = new ArrayList<>();
-        List<Route> partialMatch = new ArrayList<>();
-        for (Route route : list) {
-            final int acceptation = route.isCompliantWithRequestContentType(request);
-            switch (acceptation) {
-                case 2:
-                    // It's a full match
-                    fullMatch.add(route);
-                    break;
-                case 1:
-                    // It's a wildcard match, we have to see if we don't have a full match later.
-                    partialMatch.add(route);
-                    break;
-                default:
-                    // Not accepted.
+        // Find the route that accept the request and check against the produce type. Full matches are preferred
+        // to wildcard matches.
+        boolean fullMatch = false;
+        boolean partialMatch = false;
+        for (RouteIndex.Entry candidate : candidates) {
+            final int acceptation = candidate.route.isCompliantWithRequestContentType(request);
+            if (acceptation == 2) {
+                // It's a full match
+                fullMatch = true;
+                if (candidate.route.isCompliantWithRequestAccept(request)) {
+                    return select(candidate, uri, request);
+                }
+            } else if (acceptation == 1) {
+                // It's a wildcard match, we have to see if we don't have a full match later.
+                partialMatch = true;
             }
         }
 
-        if (fullMatch.isEmpty() && partialMatch.isEmpty()) {
-            // Not Acceptable Content
-            return new RouteDelegate(this, new Route(method, uri, Status.UNSUPPORTED_MEDIA_TYPE));
+        if (partialMatch) {
+            for (RouteIndex.Entry candidate : candidates) {
+                if (candidate.route.isCompliantWithRequestContentType(request) == 1
+                        && candidate.route.isCompliantWithRequestAccept(request)) {
+                    return select(candidate, uri, request);
+                }
+            }
         }
 
-        // Check against the produce type
-        fullMatch.addAll(partialMatch);
-        for (Route route : fullMatch) {
-            if (route.isCompliantWithRequestAccept(request)) {
-                return route;
-            }
+        if (!fullMatch && !partialMatch) {
+            // Not Acceptable Content
+            return current.unbound(this, method, uri, Status.UNSUPPORTED_MEDIA_TYPE);
         }
 
-        return new RouteDelegate(this, new Route(method, uri, Status.NOT_ACCEPTABLE));
+        return current.unbound(this, method, uri, Status.NOT_ACCEPTABLE);
 
     }
 
+    /**
+     * Stores the path parameters captured while matching the given entry in the context of the request, so they are
+     * not extracted again by {@link RouteDelegate#getPathParametersEncoded(String)}.
+     *
+     * @param entry   the selected entry
+     * @param uri     the path
+     * @param request the request, may be {@literal null}
+     * @return the route
+     */
+    private Route select(RouteIndex.Entry entry, String uri, Request request) {
+        Context context = Context.CONTEXT.get();
+        if (request != null && context != null && context.request() == request) {
+            RouteIndex.PathParameters parameters = entry.parameters(uri);
+            if (parameters != null) {
+                context.capturedPathParameters(parameters);
+            }
+        }
+        return entry.route;
+    }
+
     /**
      * Gets the URL that would invoke the given action method.
      *
@@ -433,6 +456,14 @@ public class RequestRouter extends AbstractRouter {
         return interceptors;
     }
 
+    /**
+     * @return the current generation of the filters and interceptors, changed every time a filter or an interceptor
+     * is bound or unbound.
+     */
+    protected long getGeneration() {
+        return generation.get();
+    }
+
     protected ParameterFactories getParameterConverterEngine() {
         return engine;
     }
@@ -445,6 +476,7 @@ public class RequestRouter extends AbstractRouter {
     @Bind(aggregate = true, optional = true)
     public void bindFilter(Filter filter) {
         filters.add(filter);
+        generation.incrementAndGet();
     }
 
     /**
@@ -455,6 +487,29 @@ public class RequestRouter extends AbstractRouter {
     @Unbind
     public synchronized void unbindFilter(Filter filter) {
         filters.remove(filter);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Binds an interceptor.
+     *
+     * @param interceptor the interceptor
+     */
+    @Bind(aggregate = true, optional = true, specification = Interceptor.class)
+    public void bindInterceptor(Interceptor<?> interceptor) {
+        interceptors.add(interceptor);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Unbinds an interceptor.
+     *
+     * @param interceptor the interceptor
+     */
+    @Unbind(specification = Interceptor.class)
+    public void unbindInterceptor(Interceptor<?> interceptor) {
+        interceptors.remove(interceptor);
+        generation.incrementAndGet();
     }
 
     /**
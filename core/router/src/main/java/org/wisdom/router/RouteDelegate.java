@@ -23,10 +23,13 @@ import com.google.common.base.Preconditions;
 import com.google.common.net.MediaType;
 import org.wisdom.api.Controller;
 import org.wisdom.api.annotations.Interception;
+import org.wisdom.api.content.ParameterFactories;
 import org.wisdom.api.http.*;
 import org.wisdom.api.interception.Filter;
 import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.ActionInvoker;
+import org.wisdom.api.router.DispatchStrategy;
 import org.wisdom.api.router.Route;
 import org.wisdom.api.router.parameters.ActionParameter;
 import org.wisdom.router.parameter.Bindings;
@@ -51,6 +54,17 @@ public class RouteDelegate extends Route {
     private final RequestRouter router;
     private final boolean mustValidate;
     private final Map<String, Object> interceptors;
+    private final Filter endOfChain = new EndOfChainInvoker();
+
+    /**
+     * The binders computing the action method arguments, resolved once for bound routes.
+     */
+    private final Bindings.Binder[] binders;
+
+    /**
+     * The interception chain, computed lazily and recomputed when the filters or interceptors change.
+     */
+    private volatile Chain chain;
 
     /**
      * Creates a new instance of {@link org.wisdom.router.RouteDelegate}.
@@ -64,12 +78,22 @@ public class RouteDelegate extends Route {
         if (!route.isUnbound()) {
             this.mustValidate = detectValidationRequirement(route.getControllerMethod());
             this.interceptors = extractInterceptors();
+            this.binders = createBinders(route.getArguments());
         } else {
             this.mustValidate = false;
             this.interceptors = Collections.emptyMap();
+            this.binders = new Bindings.Binder[0];
         }
     }
 
+    private static Bindings.Binder[] createBinders(List<ActionParameter> arguments) {
+        Bindings.Binder[] array = new Bindings.Binder[arguments.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Bindings.binder(arguments.get(i));
+        }
+        return array;
+    }
+
     private Map<String, Object> extractInterceptors() {
         Map<String, Object> map = new LinkedHashMap<>();
         Annotation[] classAnnotations = route.getControllerClass().getAnnotations();
@@ -148,6 +172,15 @@ public class RouteDelegate extends Route {
 
     @Override
     public Map<String, String> getPathParametersEncoded(String uri) {
+        // Reuse the parameters captured by the router when it has selected this route.
+        Context context = Context.CONTEXT.get();
+        if (context != null) {
+            Map<String, String> captured = context.capturedPathParameters();
+            if (captured instanceof RouteIndex.PathParameters
+                    && ((RouteIndex.PathParameters) captured).isFor(this, uri)) {
+                return (RouteIndex.PathParameters) captured;
+            }
+        }
         return route.getPathParametersEncoded(uri);
     }
 
@@ -198,6 +231,16 @@ public class RouteDelegate extends Route {
         return route.producing(provide);
     }
 
+    @Override
+    public Route dispatching(DispatchStrategy strategy) {
+        return route.dispatching(strategy);
+    }
+
+    @Override
+    public DispatchStrategy getDispatchStrategy() {
+        return route.getDispatchStrategy();
+    }
+
     @Override
     public boolean isCompliantWithRequestAccept(Request request) {
         return route.isCompliantWithRequestAccept(request);
@@ -213,35 +256,55 @@ public class RouteDelegate extends Route {
         return route.getArguments();
     }
 
+    @Override
+    public ActionInvoker getActionInvoker() {
+        return route.getActionInvoker();
+    }
+
     @Override
     public Result invoke() throws Exception {
         Context context = Context.CONTEXT.get();
         Preconditions.checkNotNull(context);
 
         // Build chain if needed.
+        Chain current = chain;
+        final long generation = router.getGeneration();
+        if (current == null || current.generation != generation) {
+            current = buildChain(generation);
+            chain = current;
+        }
+
+        if (current.missing != null) {
+            return Results.badRequest("Missing interceptor handling " + current.missing);
+        }
+
+        // Ready to call the action.
+        RequestContext ctx = new RequestContext(this, current.filters, current.configuration);
+        return ctx.proceed();
+    }
+
+    private Chain buildChain(long generation) {
         // We get an immutable copy of the set.
         Set<Filter> filters = router.getFilters();
         // Interceptors will be handled after filters.
-        List<Filter> chain = filters.stream()
-                .filter(filter -> !(filter instanceof Interceptor)  && filter.uri().matcher(route.getUrl()).matches())
+        List<Filter> list = filters.stream()
+                .filter(filter -> !(filter instanceof Interceptor) && filter.uri() != null
+                        && filter.uri().matcher(route.getUrl()).matches())
                 .collect(Collectors.toList());
 
         Map<Interceptor<?>, Object> itcpConfiguration = new LinkedHashMap<>();
-        if (!interceptors.isEmpty()) {
-            for (Map.Entry<String, Object> entry : interceptors.entrySet()) {
-                final Interceptor<?> interceptor = getInterceptorForAnnotation(entry.getKey());
-                if (interceptor == null) {
-                    return Results.badRequest("Missing interceptor handling " + entry.getKey());
-                }
-                itcpConfiguration.put(interceptor, entry.getValue());
-                chain.add(interceptor);
+        for (Map.Entry<String, Object> entry : interceptors.entrySet()) {
+            final Interceptor<?> interceptor = getInterceptorForAnnotation(entry.getKey());
+            if (interceptor == null) {
+                return new Chain(generation, null, null, entry.getKey());
             }
+            itcpConfiguration.put(interceptor, entry.getValue());
+            list.add(interceptor);
         }
 
-        // Ready to call the action.
-        Filter endOfChain = new EndOfChainInvoker();
-        RequestContext ctx = new RequestContext(this, chain, itcpConfiguration, null, endOfChain);
-        return ctx.proceed();
+        list.add(endOfChain);
+        return new Chain(generation, list.toArray(new Filter[list.size()]),
+                Collections.unmodifiableMap(itcpConfiguration), null);
     }
 
     private Interceptor<?> getInterceptorForAnnotation(String className) {
@@ -283,6 +346,27 @@ public class RouteDelegate extends Route {
         return route.isUnbound();
     }
 
+    /**
+     * An immutable interception chain, valid for a generation of the router's filters and interceptors.
+     */
+    private static final class Chain {
+        private final long generation;
+        private final Filter[] filters;
+        private final Map<Interceptor<?>, Object> configuration;
+        /**
+         * The name of the annotation having no interceptor, {@code null} if all interceptors are there.
+         */
+        private final String missing;
+
+        private Chain(long generation, Filter[] filters, Map<Interceptor<?>, Object> configuration,
+                      String missing) {
+            this.generation = generation;
+            this.filters = filters;
+            this.configuration = configuration;
+            this.missing = missing;
+        }
+    }
+
     private class EndOfChainInvoker implements Filter {
         /**
          * We are the end of the chain, so we call the action method.
@@ -301,12 +385,10 @@ public class RouteDelegate extends Route {
             } else {
 
                 // The interceptor and filter may have change some values, compute the parameters.
-                final List<ActionParameter> arguments = getArguments();
-                Object[] parameters = new Object[arguments.size()];
-                for (int i = 0; i < arguments.size(); i++) {
-                    ActionParameter argument = arguments.get(i);
-                    parameters[i] = Bindings.create(argument, context.context(),
-                            router.getParameterConverterEngine());
+                final ParameterFactories engine = router.getParameterConverterEngine();
+                Object[] parameters = new Object[binders.length];
+                for (int i = 0; i < binders.length; i++) {
+                    parameters[i] = binders[i].create(context.context(), engine);
                 }
 
                 // Validate if needed.
@@ -327,8 +409,7 @@ public class RouteDelegate extends Route {
                 context.setParameters(parameters);
 
                 // Invoke the action method.
-                final Result result = (Result) getControllerMethod().invoke(
-                        getControllerObject(), parameters);
+                final Result result = getActionInvoker().invoke(parameters);
 
                 // Manage the VARY header if the route has a 'consume' set:
                 if (! result.getHeaders().containsKey(HeaderNames.VARY)) {
@@ -0,0 +1,454 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+
+import java.util.*;
+
+/**
+ * An immutable index of the routes, used by the {@link RequestRouter} to find the routes matching a path without
+ * evaluating the regular expression of every route.
+ * <p>
+ * The index is a segment trie per HTTP method. Each node has literal children, a single {@code {param}} child
+ * and the routes ending with a {@code {path+}} placeholder. Routes using a syntax the trie cannot express (inline
+ * regex such as {@code {id<[0-9]+>}}, {@code *}, placeholders mixed with literal characters in the same segment...)
+ * are kept in a fallback list and matched using their regex. Literal segments are compared exactly: unlike the
+ * regex, a {@literal .} only matches itself.
+ * <p>
+ * Instances are never modified once built. The router creates a new index every time the set of routes changes.
+ * The only exception is the cache of the unbound routes returned for the requests no route handles: as it belongs to
+ * the index, it is dropped with it when a controller arrives or leaves.
+ */
+final class RouteIndex {
+
+    /**
+     * The maximum weight of the unbound routes kept by an index, roughly in bytes.
+     */
+    static final int MAX_UNBOUND_WEIGHT = 2 * 1024 * 1024;
+
+    /**
+     * The estimated weight of an unbound route, without its path.
+     */
+    static final int UNBOUND_ROUTE_WEIGHT = 512;
+
+    /**
+     * The unbound routes of longer paths are not kept, they are mostly sent by scanners and never requested again.
+     */
+    static final int MAX_UNBOUND_PATH_LENGTH = 256;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final String REGEX_CHARACTERS = "{}<>*+?()[]\\^$|";
+
+    private final Map<HttpMethod, Node> roots = new EnumMap<>(HttpMethod.class);
+
+    private final Map<HttpMethod, Entry[]> fallbacks = new EnumMap<>(HttpMethod.class);
+
+    private final Cache<String, RouteDelegate> unbound = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_UNBOUND_WEIGHT)
+            .weigher((String key, RouteDelegate route) -> UNBOUND_ROUTE_WEIGHT + 4 * key.length())
+            .build();
+
+    /**
+     * Builds the index.
+     *
+     * @param routes the routes, in registration order
+     */
+    RouteIndex(Collection<RouteDelegate> routes) {
+        Map<HttpMethod, List<Entry>> regex = new EnumMap<>(HttpMethod.class);
+        int order = 0;
+        for (RouteDelegate route : routes) {
+            Entry entry = compile(route, order);
+            if (entry == null) {
+                regex.computeIfAbsent(route.getHttpMethod(), m -> new ArrayList<>()).add(new Entry(route, order));
+            } else {
+                Node node = roots.computeIfAbsent(route.getHttpMethod(), m -> new Node());
+                node.insert(entry, segments(route.getUrl()), 0);
+            }
+            order++;
+        }
+        for (Map.Entry<HttpMethod, List<Entry>> entry : regex.entrySet()) {
+            fallbacks.put(entry.getKey(), entry.getValue().toArray(new Entry[entry.getValue().size()]));
+        }
+        for (Node node : roots.values()) {
+            node.seal();
+        }
+    }
+
+    /**
+     * Finds the routes matching the given method and path.
+     * <p>
+     * The returned array follows the order used by the router: exact matches first, then the registration order.
+     * When a single node of the trie matches, its own array is returned, so the common case does not allocate.
+     *
+     * @param method the method
+     * @param uri    the path
+     * @return the matching entries, empty if none
+     */
+    Entry[] lookup(HttpMethod method, String uri) {
+        Entry[] result = NO_ENTRIES;
+        Node root = roots.get(method);
+        if (root != null) {
+            result = root.visit(uri, 0);
+        }
+        Entry[] regex = fallbacks.get(method);
+        if (regex != null) {
+            for (Entry entry : regex) {
+                if (entry.route.matches(method, uri)) {
+                    result = merge(result, new Entry[]{entry});
+                }
+            }
+        }
+        return exactMatchesFirst(result, uri);
+    }
+
+    /**
+     * Gets the unbound route returned for the given request. The route is created the first time and then shared by
+     * all the requests with the same method, path and status, so the misses neither allocate a new route nor build
+     * a new interception chain. The routes of paths longer than {@link #MAX_UNBOUND_PATH_LENGTH} are not kept. The
+     * memory used by the kept routes is bounded (the path and the chain are counted), the least recently used are
+     * evicted first.
+     *
+     * @param router the router
+     * @param method the method
+     * @param uri    the path
+     * @param status the status of the unbound route
+     * @return the unbound route
+     */
+    RouteDelegate unbound(RequestRouter router, HttpMethod method, String uri, int status) {
+        if (uri.length() > MAX_UNBOUND_PATH_LENGTH) {
+            return new RouteDelegate(router, new Route(method, uri, status));
+        }
+        String key = status + " " + method + " " + uri;
+        RouteDelegate route = unbound.getIfPresent(key);
+        if (route == null) {
+            // Concurrent misses may create the route twice, the last one wins, both are equivalent.
+            route = new RouteDelegate(router, new Route(method, uri, status));
+            unbound.put(key, route);
+        }
+        return route;
+    }
+
+    /**
+     * @return the number of unbound routes currently kept by the index.
+     */
+    long unboundRoutes() {
+        return unbound.size();
+    }
+
+    private static Entry compile(RouteDelegate route, int order) {
+        List<String> segments = segments(route.getUrl());
+        List<String> names = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        boolean tail = false;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (isParameter(segment)) {
+                names.add(segment.substring(1, segment.length() - 1));
+                positions.add(i);
+            } else if (isTail(segment) && i == segments.size() - 1) {
+                names.add(segment.substring(1, segment.length() - 2));
+                positions.add(i);
+                tail = true;
+            } else if (!isLiteral(segment)) {
+                return null;
+            }
+        }
+        int[] indexes = new int[positions.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = positions.get(i);
+        }
+        return new Entry(route, order, names.toArray(new String[names.size()]), indexes, tail);
+    }
+
+    private static List<String> segments(String url) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = url.indexOf('/', start)) != -1) {
+            segments.add(url.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(url.substring(start));
+        return segments;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(segment.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && isLiteral(segment.substring(1, segment.length() - 1));
+    }
+
+    private static boolean isTail(String segment) {
+        return segment.length() > 3 && segment.startsWith("{") && segment.endsWith("+}")
+                && isLiteral(segment.substring(1, segment.length() - 2));
+    }
+
+    private static Entry[] merge(Entry[] left, Entry[] right) {
+        if (left.length == 0) {
+            return right;
+        }
+        if (right.length == 0) {
+            return left;
+        }
+        Entry[] merged = new Entry[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = left[i].order <= right[j].order ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    private static Entry[] exactMatchesFirst(Entry[] entries, String uri) {
+        if (entries.length < 2) {
+            return entries;
+        }
+        // Only reorder (and so copy) when an exact match is preceded by a non-exact one.
+        boolean seenNonExact = false;
+        boolean mustReorder = false;
+        for (Entry entry : entries) {
+            boolean exact = entry.route.getUrl().equalsIgnoreCase(uri);
+            if (exact && seenNonExact) {
+                mustReorder = true;
+                break;
+            }
+            seenNonExact = seenNonExact || !exact;
+        }
+        if (!mustReorder) {
+            return entries;
+        }
+        Entry[] ordered = new Entry[entries.length];
+        int k = 0;
+        for (Entry entry : entries) {
+            if (entry.route.getUrl().equalsIgnoreCase(uri)) {
+                ordered[k++] = entry;
+            }
+        }
+        for (Entry entry : entries) {
+            if (!entry.route.getUrl().equalsIgnoreCase(uri)) {
+                ordered[k++] = entry;
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * A route stored in the index, with the location of its path parameters.
+     */
+    static final class Entry {
+        final RouteDelegate route;
+        final int order;
+        final String[] names;
+        final int[] segments;
+        final boolean tail;
+
+        Entry(RouteDelegate route, int order, String[] names, int[] segments, boolean tail) {
+            this.route = route;
+            this.order = order;
+            this.names = names;
+            this.segments = segments;
+            this.tail = tail;
+        }
+
+        /**
+         * Creates an entry for a route matched using its regex.
+         */
+        Entry(RouteDelegate route, int order) {
+            this(route, order, null, null, false);
+        }
+
+        /**
+         * Extracts the path parameters of the given path. The path must have been matched by this entry.
+         *
+         * @param uri the path
+         * @return the parameters (encoded), {@code null} if the route has no parameters or if the entry cannot
+         * compute them without the regex
+         */
+        PathParameters parameters(String uri) {
+            if (names == null || names.length == 0) {
+                return null;
+            }
+            PathParameters parameters = new PathParameters(route, uri, names.length);
+            int segment = 0;
+            int start = 0;
+            for (int i = 0; i < names.length; i++) {
+                while (segment < segments[i]) {
+                    start = uri.indexOf('/', start) + 1;
+                    segment++;
+                }
+                if (tail && i == names.length - 1) {
+                    parameters.put(names[i], uri.substring(start));
+                } else {
+                    int end = uri.indexOf('/', start);
+                    parameters.put(names[i], uri.substring(start, end == -1 ? uri.length() : end));
+                }
+            }
+            return parameters;
+        }
+    }
+
+    /**
+     * The path parameters captured while matching a request. It remembers the route and path it has been computed
+     * for, so {@link RouteDelegate#getPathParametersEncoded(String)} can reuse it.
+     */
+    static final class PathParameters extends HashMap<String, String> {
+        private final transient Route route;
+        private final String uri;
+
+        PathParameters(Route route, String uri, int size) {
+            super(Math.max(2, size * 2));
+            this.route = route;
+            this.uri = uri;
+        }
+
+        boolean isFor(Route route, String uri) {
+            return this.route == route && this.uri.equals(uri);
+        }
+    }
+
+    private static final class Node {
+        private Map<String, Node> children = new HashMap<>();
+        private int[] hashes;
+        private String[] keys;
+        private Node[] nodes;
+        private Node parameter;
+        private Entry[] routes = NO_ENTRIES;
+        private Entry[] tails = NO_ENTRIES;
+
+        void insert(Entry entry, List<String> segments, int index) {
+            String segment = segments.get(index);
+            boolean last = index == segments.size() - 1;
+            if (entry.tail && last) {
+                tails = append(tails, entry);
+                return;
+            }
+            Node child;
+            if (isParameter(segment)) {
+                if (parameter == null) {
+                    parameter = new Node();
+                }
+                child = parameter;
+            } else {
+                child = children.computeIfAbsent(segment, s -> new Node());
+            }
+            if (last) {
+                child.routes = append(child.routes, entry);
+            } else {
+                child.insert(entry, segments, index + 1);
+            }
+        }
+
+        /**
+         * Turns the literal children into arrays sorted by hash code, so the lookup can compare the segments in
+         * place without extracting them from the path.
+         */
+        void seal() {
+            List<Map.Entry<String, Node>> list = new ArrayList<>(children.entrySet());
+            list.sort((e1, e2) -> Integer.compare(e1.getKey().hashCode(), e2.getKey().hashCode()));
+            hashes = new int[list.size()];
+            keys = new String[list.size()];
+            nodes = new Node[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                hashes[i] = list.get(i).getKey().hashCode();
+                keys[i] = list.get(i).getKey();
+                nodes[i] = list.get(i).getValue();
+                nodes[i].seal();
+            }
+            children = null;
+            if (parameter != null) {
+                parameter.seal();
+            }
+        }
+
+        Entry[] visit(String uri, int start) {
+            int end = uri.indexOf('/', start);
+            if (end == -1) {
+                end = uri.length();
+            }
+            boolean last = end == uri.length();
+            Entry[] result = NO_ENTRIES;
+
+            Node literal = literal(uri, start, end);
+            if (literal != null) {
+                result = last ? literal.routes : literal.visit(uri, end + 1);
+            }
+            // {param} does not match empty segments.
+            if (parameter != null && end > start) {
+                result = merge(result, last ? parameter.routes : parameter.visit(uri, end + 1));
+            }
+            // {path+} consumes the rest of the path, but needs at least one character.
+            if (tails.length > 0 && start < uri.length()) {
+                result = merge(result, tails);
+            }
+            return result;
+        }
+
+        private Node literal(String uri, int start, int end) {
+            if (keys.length == 0) {
+                return null;
+            }
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + uri.charAt(i);
+            }
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                return null;
+            }
+            // Several keys may share the same hash, look around.
+            while (index > 0 && hashes[index - 1] == hash) {
+                index--;
+            }
+            int length = end - start;
+            for (int i = index; i < hashes.length && hashes[i] == hash; i++) {
+                if (keys[i].length() == length && uri.regionMatches(start, keys[i], 0, length)) {
+                    return nodes[i];
+                }
+            }
+            return null;
+        }
+
+        private static Entry[] append(Entry[] array, Entry entry) {
+            Entry[] copy = Arrays.copyOf(array, array.length + 1);
+            copy[array.length] = entry;
+            return copy;
+        }
+    }
+}
@@ -29,8 +29,10 @@ import org.wisdom.api.annotations.Closed;
 import org.wisdom.api.annotations.OnMessage;
 import org.wisdom.api.annotations.Opened;
 import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.content.ParameterFactories;
+import org.wisdom.api.http.websockets.MailboxOverflow;
 import org.wisdom.api.http.websockets.Publisher;
 import org.wisdom.api.http.websockets.WebSocketDispatcher;
 import org.wisdom.api.http.websockets.WebSocketListener;
@@ -42,10 +44,16 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Component handling web socket frame routing.
+ * <p>
+ * The frames received from a client are processed in order, one at a time, by a {@link MessageLane} dedicated to
+ * this client. The number of frames waiting in a lane is bounded by {@code wisdom.websocket.mailbox.size} (default
+ * to 1000). When a lane is full, {@code wisdom.websocket.mailbox.overflow} decides whether the received frame
+ * ({@code drop-newest}, the default) or the oldest pending frame ({@code drop-oldest}) is dropped.
  */
 @Component(immediate = true)
 @Provides(specifications = Publisher.class)
@@ -54,6 +62,8 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketRouter.class);
 
+    private static final int DEFAULT_MAILBOX_SIZE = 1000;
+
     @Requires
     WebSocketDispatcher[] dispatchers;
 
@@ -70,6 +80,18 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
     @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")")
     ManagedExecutorService executor;
 
+    @Requires(optional = true, nullable = false)
+    ApplicationConfiguration configuration;
+
+    /**
+     * The lanes processing the received frames, by client id.
+     */
+    final ConcurrentMap<String, MessageLane> lanes = new ConcurrentHashMap<>();
+
+    int mailboxSize = DEFAULT_MAILBOX_SIZE;
+
+    MailboxOverflow overflow = MailboxOverflow.DROP_NEWEST;
+
     /**
      * @return the logger.
      */
@@ -93,11 +115,24 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
         dispatcher.unregister(this);
     }
 
+    /**
+     * Reads the mailbox configuration.
+     */
+    @Validate
+    public void start() {
+        if (configuration != null) {
+            mailboxSize = configuration.getIntegerWithDefault("wisdom.websocket.mailbox.size",
+                    DEFAULT_MAILBOX_SIZE);
+            overflow = MailboxOverflow.from(configuration.get("wisdom.websocket.mailbox.overflow"));
+        }
+    }
+
     @Invalidate
     public void stop() {
         for (WebSocketDispatcher dispatcher : dispatchers) {
             dispatcher.unregister(this);
         }
+        lanes.clear();
     }
 
     /**
@@ -195,7 +230,8 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
     }
 
     /**
-     * Handles the reception of a message.
+     * Handles the reception of a message. The message is processed asynchronously, after the messages previously
+     * received from the same client.
      *
      * @param uri     the url of the web socket
      * @param from    the client having sent the message (octal id).
@@ -203,27 +239,33 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
      */
     @Override
     public void received(final String uri, final String from, final byte[] content) {
-        for (final OnMessageWebSocketCallback listener : listeners) {
+        final List<OnMessageWebSocketCallback> targets = new ArrayList<>(1);
+        for (OnMessageWebSocketCallback listener : listeners) {
             if (listener.matches(uri)) {
-                 executor.submit(new Callable<Void>() {
-                     @Override
-                     public Void call() throws Exception {
-                         try {
-                             listener.invoke(uri, from, content);
-                         } catch (InvocationTargetException e) { //NOSONAR
-                             LOGGER.error("An error occurred in the @OnMessage callback {}#{} : {}",
-                                     listener.getController().getClass().getName(), listener.getMethod().getName
-                                             (), e.getTargetException().getMessage(), e.getTargetException()
-                             );
-                         } catch (Exception e) {
-                             LOGGER.error("An error occurred in the @OnMessage callback {}#{} : {}",
-                                     listener.getController().getClass().getName(), listener.getMethod().getName(), e.getMessage(), e);
-                         }
-                         return null;
-                     }
-                 });
+                targets.add(listener);
             }
         }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        MessageLane lane = lanes.computeIfAbsent(from,
+                client -> new MessageLane(client, executor, mailboxSize, overflow));
+        lane.offer(() -> {
+            for (OnMessageWebSocketCallback listener : targets) {
+                try {
+                    listener.invoke(uri, from, content);
+                } catch (InvocationTargetException e) { //NOSONAR
+                    LOGGER.error("An error occurred in the @OnMessage callback {}#{} : {}",
+                            listener.getController().getClass().getName(), listener.getMethod().getName
+                                    (), e.getTargetException().getMessage(), e.getTargetException()
+                    );
+                } catch (Exception e) {
+                    LOGGER.error("An error occurred in the @OnMessage callback {}#{} : {}",
+                            listener.getController().getClass().getName(), listener.getMethod().getName(), e.getMessage(), e);
+                }
+            }
+        });
     }
 
     /**
@@ -259,6 +301,8 @@ public class WebSocketRouter implements WebSocketListener, Publisher {
      */
     @Override
     public void closed(String uri, String client) {
+        // Frames still in the lane are processed, but new frames from this client get a new lane.
+        lanes.remove(client);
         for (DefaultWebSocketCallback close : closes) {
             if (close.matches(uri)) {
                 try {
@@ -26,8 +26,9 @@ import org.wisdom.api.router.parameters.ActionParameter;
 import org.wisdom.api.router.parameters.Source;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Annotation handler's entry point. Notice that the handler are not parsing the annotation but {@link org.wisdom.api
@@ -35,7 +36,13 @@ import java.util.Map;
  */
 public class Bindings {
 
-    private static final Map<Source, RouteParameterHandler> BINDINGS = new HashMap<>(); //NOSONAR
+    private static final Map<Source, RouteParameterHandler> BINDINGS = new ConcurrentHashMap<>(); //NOSONAR
+
+    /**
+     * Incremented every time the bindings change, so {@link Binder} instances can detect that their handler is
+     * outdated.
+     */
+    private static final AtomicInteger VERSION = new AtomicInteger();
 
     static {
         bind(Source.BODY, new BodyHandler());
@@ -59,6 +66,7 @@ public class Bindings {
                     source.name(), handler);
         }
         BINDINGS.put(source, handler);
+        VERSION.incrementAndGet();
     }
 
     /**
@@ -81,6 +89,61 @@ public class Bindings {
         }
     }
 
+    /**
+     * Creates the binder computing the value of the given argument. Unlike {@link #create(ActionParameter, Context,
+     * ParameterFactories)}, the handler is looked up once, when the binder is created.
+     *
+     * @param argument the argument
+     * @return the binder
+     */
+    public static Binder binder(ActionParameter argument) {
+        return new Binder(argument);
+    }
+
+    /**
+     * Computes the value of an action method argument. Binders are created when the route is created and keep
+     * the handler associated with the argument's source.
+     */
+    public static final class Binder {
+        private final ActionParameter argument;
+        private volatile RouteParameterHandler handler;
+        private volatile int version = -1;
+
+        private Binder(ActionParameter argument) {
+            this.argument = argument;
+        }
+
+        /**
+         * @return the argument handled by this binder
+         */
+        public ActionParameter argument() {
+            return argument;
+        }
+
+        /**
+         * Creates the value to be injected.
+         *
+         * @param context the context
+         * @param engine  the engine
+         * @return the created object
+         */
+        public Object create(Context context, ParameterFactories engine) {
+            final int current = VERSION.get();
+            if (version != current) {
+                handler = BINDINGS.get(argument.getSource());
+                version = current;
+            }
+            final RouteParameterHandler local = handler;
+            if (local != null) {
+                return local.create(argument, context, engine);
+            } else {
+                LoggerFactory.getLogger(Bindings.class).warn("Unsupported route parameter in method : {}",
+                        argument.getSource().name());
+                return null;
+            }
+        }
+    }
+
     /**
      * Checks whether or not the given type is a multiple.
      *
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.http.websockets.MailboxOverflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the serial execution of web socket frames.
+ */
+public class MessageLaneTest {
+
+    private ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testThatTasksAreExecutedInOrderOneAtATime() throws InterruptedException {
+        MessageLane lane = new MessageLane("client", pool, 10000, MailboxOverflow.DROP_NEWEST);
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            final int index = i;
+            assertThat(lane.offer(() -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                received.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            })).isTrue();
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(overlaps.get()).isEqualTo(0);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(received.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testOverflowPolicies() throws Exception {
+        ExecutorService executor = mock(ExecutorService.class);
+        final List<String> received = new ArrayList<>();
+
+        MessageLane newest = new MessageLane("client", executor, 2, MailboxOverflow.DROP_NEWEST);
+        assertThat(newest.offer(() -> received.add("a"))).isTrue();
+        assertThat(newest.offer(() -> received.add("b"))).isTrue();
+        assertThat(newest.offer(() -> received.add("c"))).isFalse();
+        assertThat(newest.size()).isEqualTo(2);
+        // Submitted only once.
+        verify(executor, times(1)).submit(any(Callable.class));
+        newest.call();
+        assertThat(received).containsExactly("a", "b");
+
+        received.clear();
+        MessageLane oldest = new MessageLane("client", executor, 2, MailboxOverflow.DROP_OLDEST);
+        assertThat(oldest.offer(() -> received.add("a"))).isTrue();
+        assertThat(oldest.offer(() -> received.add("b"))).isTrue();
+        assertThat(oldest.offer(() -> received.add("c"))).isTrue();
+        oldest.call();
+        assertThat(received).containsExactly("b", "c");
+    }
+
+    @Test
+    public void testThatLongLanesGiveTheThreadBack() throws Exception {
+        ExecutorService executor = mock(ExecutorService.class);
+        final AtomicInteger count = new AtomicInteger();
+        MessageLane lane = new MessageLane("client", executor, 100, MailboxOverflow.DROP_NEWEST);
+        for (int i = 0; i < MessageLane.BATCH + 1; i++) {
+            lane.offer(count::incrementAndGet);
+        }
+        lane.call();
+        assertThat(count.get()).isEqualTo(MessageLane.BATCH);
+        verify(executor, times(2)).submit(any(Callable.class));
+        lane.call();
+        assertThat(count.get()).isEqualTo(MessageLane.BATCH + 1);
+        assertThat(lane.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testOverflowParsing() {
+        assertThat(MailboxOverflow.from(null)).isEqualTo(MailboxOverflow.DROP_NEWEST);
+        assertThat(MailboxOverflow.from("drop-oldest")).isEqualTo(MailboxOverflow.DROP_OLDEST);
+        assertThat(MailboxOverflow.from("DROP_NEWEST")).isEqualTo(MailboxOverflow.DROP_NEWEST);
+        assertThat(MailboxOverflow.from("unknown")).isEqualTo(MailboxOverflow.DROP_NEWEST);
+    }
+}
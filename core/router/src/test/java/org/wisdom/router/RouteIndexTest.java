@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.wisdom.api.http.Context;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.test.parents.FakeContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the route index used by the router.
+ */
+public class RouteIndexTest {
+
+    private final RequestRouter router = new RequestRouter();
+    private final FakeController controller = new FakeController();
+
+    private RouteIndex index(String... urls) {
+        List<RouteDelegate> routes = new ArrayList<>();
+        for (String url : urls) {
+            routes.add(new RouteDelegate(router,
+                    new RouteBuilder().route(HttpMethod.GET).on(url).to(controller, "foo")));
+        }
+        return new RouteIndex(routes);
+    }
+
+    private List<String> urls(RouteIndex.Entry[] entries) {
+        List<String> list = new ArrayList<>();
+        for (RouteIndex.Entry entry : entries) {
+            list.add(entry.route.getUrl());
+        }
+        return list;
+    }
+
+    @Test
+    public void testLiteralRoutes() {
+        RouteIndex index = index("/", "/foo", "/foo/bar", "/foo.txt");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/"))).containsExactly("/");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/foo"))).containsExactly("/foo");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/foo/bar"))).containsExactly("/foo/bar");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/foo.txt"))).containsExactly("/foo.txt");
+        assertThat(index.lookup(HttpMethod.GET, "/foo/")).isEmpty();
+        assertThat(index.lookup(HttpMethod.GET, "/foo/bar/baz")).isEmpty();
+        assertThat(index.lookup(HttpMethod.GET, "/FOO")).isEmpty();
+        assertThat(index.lookup(HttpMethod.POST, "/foo")).isEmpty();
+    }
+
+    @Test
+    public void testParameters() {
+        RouteIndex index = index("/users/{id}", "/users/{id}/friends/{friend}");
+        RouteIndex.Entry[] entries = index.lookup(HttpMethod.GET, "/users/42");
+        assertThat(urls(entries)).containsExactly("/users/{id}");
+        assertThat(entries[0].parameters("/users/42")).containsEntry("id", "42").hasSize(1);
+
+        entries = index.lookup(HttpMethod.GET, "/users/42/friends/a%20b");
+        assertThat(urls(entries)).containsExactly("/users/{id}/friends/{friend}");
+        Map<String, String> parameters = entries[0].parameters("/users/42/friends/a%20b");
+        assertThat(parameters).containsEntry("id", "42").containsEntry("friend", "a%20b");
+
+        // Empty segments are not matched by placeholders
+        assertThat(index.lookup(HttpMethod.GET, "/users/")).isEmpty();
+        assertThat(index.lookup(HttpMethod.GET, "/users//friends/x")).isEmpty();
+    }
+
+    @Test
+    public void testTail() {
+        RouteIndex index = index("/assets/{path+}");
+        RouteIndex.Entry[] entries = index.lookup(HttpMethod.GET, "/assets/js/app.js");
+        assertThat(urls(entries)).containsExactly("/assets/{path+}");
+        assertThat(entries[0].parameters("/assets/js/app.js")).containsEntry("path", "js/app.js");
+        assertThat(index.lookup(HttpMethod.GET, "/assets/")).isEmpty();
+        assertThat(index.lookup(HttpMethod.GET, "/assets")).isEmpty();
+    }
+
+    @Test
+    public void testExactMatchFirstThenRegistrationOrder() {
+        RouteIndex index = index("/{path+}", "/a/{x}", "/a/b");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/a/b"))).containsExactly("/a/b", "/{path+}", "/a/{x}");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/a/c"))).containsExactly("/{path+}", "/a/{x}");
+    }
+
+    @Test
+    public void testRoutesMatchedUsingTheirRegex() {
+        RouteIndex index = index("/files/{id<[0-9]+>}", "/files/{name}.json", "/static/*");
+        RouteIndex.Entry[] entries = index.lookup(HttpMethod.GET, "/files/12");
+        assertThat(urls(entries)).containsExactly("/files/{id<[0-9]+>}");
+        // The regex is used to extract the parameters.
+        assertThat(entries[0].parameters("/files/12")).isNull();
+        assertThat(urls(index.lookup(HttpMethod.GET, "/files/x.json"))).containsExactly("/files/{name}.json");
+        assertThat(urls(index.lookup(HttpMethod.GET, "/static/a/b"))).containsExactly("/static/*");
+        assertThat(index.lookup(HttpMethod.GET, "/files/x")).isEmpty();
+    }
+
+    @Test
+    public void testPathParametersAreReusedByTheRoute() {
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/users/{id}").to(controller, "foo")
+        ));
+        router.bindController(controller);
+
+        Route route = router.getRouteFor(HttpMethod.GET, "/users/1");
+        assertThat(route.isUnbound()).isFalse();
+        assertThat(route.getPathParametersEncoded("/users/1")).containsEntry("id", "1");
+
+        // The parameters captured during the lookup are kept in the context, not in the request data.
+        FakeContext context = new FakeContext();
+        Context.CONTEXT.set(context);
+        try {
+            route = router.getRouteFor(HttpMethod.GET, "/users/2", context.request());
+            Map<String, String> captured = context.capturedPathParameters();
+            assertThat(captured).containsEntry("id", "2");
+            assertThat(context.request().data()).isEmpty();
+            assertThat(route.getPathParametersEncoded("/users/2")).isSameAs(captured);
+            // Not used for another path.
+            assertThat(route.getPathParametersEncoded("/users/3")).isNotSameAs(captured).containsEntry("id", "3");
+        } finally {
+            Context.CONTEXT.remove();
+        }
+
+        router.unbindController(controller);
+        assertThat(router.getRouteFor(HttpMethod.GET, "/users/1").isUnbound()).isTrue();
+    }
+
+    @Test
+    public void testUnboundRoutesAreBounded() {
+        RouteIndex index = index("/foo");
+        RouteDelegate missing = index.unbound(router, HttpMethod.GET, "/bar", 404);
+        assertThat(missing.getUnboundStatus()).isEqualTo(404);
+        assertThat(index.unbound(router, HttpMethod.GET, "/bar", 404)).isSameAs(missing);
+        assertThat(index.unbound(router, HttpMethod.GET, "/bar", 406)).isNotSameAs(missing);
+
+        int max = RouteIndex.MAX_UNBOUND_WEIGHT / RouteIndex.UNBOUND_ROUTE_WEIGHT;
+        for (int i = 0; i < max * 2; i++) {
+            index.unbound(router, HttpMethod.GET, "/missing/" + i, 404);
+        }
+        assertThat(index.unboundRoutes()).isLessThanOrEqualTo(max);
+    }
+
+    @Test
+    public void testUnboundRoutesOfLongPathsAreNotKept() {
+        RouteIndex index = index("/foo");
+        String path = "/" + Strings.repeat("a", RouteIndex.MAX_UNBOUND_PATH_LENGTH);
+        RouteDelegate missing = index.unbound(router, HttpMethod.GET, path, 404);
+        assertThat(missing.getUrl()).isEqualTo(path);
+        assertThat(missing.getUnboundStatus()).isEqualTo(404);
+        assertThat(index.unbound(router, HttpMethod.GET, path, 404)).isNotSameAs(missing);
+        assertThat(index.unboundRoutes()).isEqualTo(0);
+
+        // The weight of the paths is counted.
+        String longest = Strings.repeat("a", RouteIndex.MAX_UNBOUND_PATH_LENGTH);
+        int max = RouteIndex.MAX_UNBOUND_WEIGHT / (RouteIndex.UNBOUND_ROUTE_WEIGHT + 4 * longest.length());
+        for (int i = 0; i < max * 2; i++) {
+            index.unbound(router, HttpMethod.GET, i + longest.substring(String.valueOf(i).length()), 404);
+        }
+        assertThat(index.unboundRoutes()).isLessThanOrEqualTo(max);
+    }
+}
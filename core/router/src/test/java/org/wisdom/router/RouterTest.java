@@ -100,6 +100,35 @@ public class RouterTest {
         assertThat(router.getRouteFor(HttpMethod.GET, "/foo", request).getControllerObject()).isEqualTo(controller);
     }
 
+    @Test
+    public void unboundRoutesAreSharedUntilTheRoutesChange() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/foo").to(controller, "foo")
+        ));
+        router.bindController(controller);
+
+        Route missing = router.getRouteFor(HttpMethod.GET, "/bar", request);
+        assertThat(missing.isUnbound()).isTrue();
+        assertThat(missing.getUrl()).isEqualTo("/bar");
+        assertThat(router.getRouteFor(HttpMethod.GET, "/bar", request)).isSameAs(missing);
+        assertThat(router.getRouteFor(HttpMethod.POST, "/bar", request)).isNotSameAs(missing);
+        assertThat(router.getRouteFor(HttpMethod.GET, "/baz", request)).isNotSameAs(missing);
+
+        // The new controller handles the path, the unbound route must not be returned anymore.
+        FakeController other = new FakeController();
+        other.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/bar").to(other, "foo")
+        ));
+        router.bindController(other);
+        assertThat(router.getRouteFor(HttpMethod.GET, "/bar", request).getControllerObject()).isEqualTo(other);
+
+        router.unbindController(other);
+        Route again = router.getRouteFor(HttpMethod.GET, "/bar", request);
+        assertThat(again.isUnbound()).isTrue();
+        assertThat(again).isNotSameAs(missing);
+    }
+
     @Test
     public void routeMissingBecauseOfBadMethod() throws Exception {
         FakeController controller = new FakeController();
@@ -274,6 +303,38 @@ public class RouterTest {
         assertThat(router.getFilters()).hasSize(0);
     }
 
+    @Test
+    public void testThatTheChainFollowsTheFilterArrivalsAndDepartures() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/foo").to(controller, "foo")
+        ));
+        router.bindController(controller);
+        Filter filter = new Filter() {
+            @Override
+            public Result call(Route route, RequestContext context) throws Exception {
+                return Results.ok("filtered");
+            }
+
+            @Override
+            public Pattern uri() {
+                return Pattern.compile("/foo");
+            }
+
+            @Override
+            public int priority() {
+                return 0;
+            }
+        };
+
+        Route route = router.getRouteFor(HttpMethod.GET, "/foo", request);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.CREATED);
+        router.bindFilter(filter);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.OK);
+        router.unbindFilter(filter);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.CREATED);
+    }
+
     @Test
     public void testThatFiltersCannotBeAddedTwice() {
         Filter filter = new Filter() {
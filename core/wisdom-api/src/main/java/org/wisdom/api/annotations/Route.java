@@ -20,6 +20,7 @@
 package org.wisdom.api.annotations;
 
 import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.DispatchStrategy;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -64,4 +65,12 @@ public @interface Route {
      */
     String[] produces() default {};
 
+    /**
+     * The thread on which the action method is called. By default, it uses the strategy configured on the server.
+     * Action methods doing blocking I/O should use {@link DispatchStrategy#WORKER}.
+     *
+     * @since 0.10.1
+     */
+    DispatchStrategy dispatch() default DispatchStrategy.DEFAULT;
+
 }
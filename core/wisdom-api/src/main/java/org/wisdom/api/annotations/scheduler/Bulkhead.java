@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.annotations.scheduler;
+
+import org.wisdom.api.annotations.Interception;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation running an action method, or all the actions of a controller, on a dedicated executor. This
+ * executor acts as a bulkhead: the annotated actions cannot use the threads of the other actions, and a burst of
+ * requests on them cannot starve the rest of the application.
+ * <p>
+ * The executor is configured under {@code pools.executors.<name>}, usually with the {@code bulkhead} profile. When the
+ * executor is saturated, or when the request waited too long in its queue, a {@code 503 Service Unavailable} result
+ * is returned with a {@code Retry-After} header.
+ */
+@Interception
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    /**
+     * The name of the executor running the actions.
+     */
+    String value();
+}
@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.annotations.scheduler;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to a job executed on a calendar based schedule, expressed using a cron expression:
+ * <code>
+ *     <pre>
+ *         0 3 * * *: every day at 3:00
+ *         *&#47;15 9-17 * * MON-FRI: every 15 minutes, from 9:00 to 17:45, on week days
+ *         30 0 12 1 * *: the first day of every month, at 12:00:30 (the first field is the second)
+ *         &#64;hourly: at the beginning of every hour
+ *     </pre>
+ * </code>
+ *
+ * The expression contains 5 fields (minute, hour, day of month, month, day of week) or 6 fields (the seconds first).
+ * Fields accept {@code *}, lists ({@code 1,15}), ranges ({@code 1-5}), steps ({@code *&#47;10}) and the month and day
+ * names. The time zone of the JVM is used.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cron {
+
+    /**
+     * Sets the cron expression.
+     */
+    String value();
+
+    /**
+     * Sets the maximum random delay added to each run, using the {@link Every} period syntax (for instance "30s").
+     * Spreads the runs of the job across the nodes running it. It is bounded by the time until the next run.
+     */
+    String jitter() default "";
+
+    /**
+     * Sets whether a run is skipped when the previous one is still running. If not, the runs may overlap.
+     */
+    boolean skipIfRunning() default true;
+
+    /**
+     * Sets the name of the lease acquired from the {@link org.wisdom.api.scheduler.LeaseProvider} before each run,
+     * so only one node of the cluster runs the job. The lease is held until the next run. By default, no lease is
+     * used.
+     */
+    String lease() default "";
+}
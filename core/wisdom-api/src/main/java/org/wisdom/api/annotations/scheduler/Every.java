@@ -41,6 +41,9 @@ import java.util.concurrent.TimeUnit;
  * these values are ignored.
  *
  * You need to use one way or the other to configure the period.
+ *
+ * Late runs do not pile up: when the job misses some runs, the next run happens at the next period. For calendar
+ * based schedules, use {@link Cron}.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -68,6 +71,34 @@ public @interface Every {
      */
     TimeUnit unit() default TimeUnit.MINUTES;
 
+    /**
+     * Sets whether the period is the delay between the end of a run and the start of the next one (fixed delay),
+     * instead of the delay between two starts (fixed rate, the default).
+     */
+    boolean fixedDelay() default false;
+
+    /**
+     * Sets the maximum random delay added to each run, using the same syntax as the period (for instance "30s").
+     * Spreads the runs of the job across the nodes running it. It is bounded by the period.
+     */
+    String jitter() default "";
+
+    /**
+     * Sets whether a run is skipped when the previous one is still running. If not, the runs may overlap.
+     */
+    boolean skipIfRunning() default true;
+
+    /**
+     * Sets the name of the lease acquired from the {@link org.wisdom.api.scheduler.LeaseProvider} before each run,
+     * so only one node of the cluster runs the job. The lease is held until the next run. By default, no lease is
+     * used.
+     * <p>
+     * Fixed rate jobs declaring a lease run at the multiples of their period since the epoch (for instance at the
+     * beginning of each hour, UTC, for {@code "1h"}), so all the nodes plan the same runs. Fixed delay jobs are not
+     * aligned: at most one run starts per delay across the nodes.
+     */
+    String lease() default "";
+
 
 
 }
@@ -56,6 +56,11 @@ public class NoHttpBody implements Renderable<Void> {
         return new ByteArrayInputStream(EMPTY);
     }
 
+    @Override
+    public byte[] bytes(Context context, Result result) {
+        return EMPTY;
+    }
+
     @Override
     public long length() {
         return 0;
@@ -73,6 +73,11 @@ public class RenderableByteArray implements Renderable<byte[]> {
         return new ByteArrayInputStream(bytes);
     }
 
+    @Override
+    public byte[] bytes(Context context, Result result) {
+        return bytes;
+    }
+
     /**
      * @return as the length of the byte array
      */
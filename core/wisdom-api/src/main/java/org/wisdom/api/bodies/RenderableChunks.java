@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.bodies;
+
+import org.wisdom.api.http.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * A renderable object whose content is pushed by a producer, chunk by chunk, using {@link Chunks}. The server
+ * invokes the producer once the response headers are sent, on the thread writing the response (see {@link Chunks}
+ * for the threading rules).
+ * <p>
+ * Servers not supporting this renderable use {@link #render(Context, Result)}, which returns the chunks written
+ * synchronously by the producer.
+ */
+public class RenderableChunks implements Renderable<Consumer<Chunks>> {
+
+    private final Consumer<Chunks> producer;
+
+    /**
+     * Creates a new {@link RenderableChunks}.
+     *
+     * @param producer the producer writing the chunks, must not be {@literal null}
+     */
+    public RenderableChunks(Consumer<Chunks> producer) {
+        if (producer == null) {
+            throw new NullPointerException("producer");
+        }
+        this.producer = producer;
+    }
+
+    @Override
+    public InputStream render(Context context, Result result) throws RenderableException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        producer.accept(new Chunks() {
+            private boolean closed;
+
+            @Override
+            public Chunks write(byte[] data) {
+                if (!closed) {
+                    try {
+                        stream.write(data);
+                    } catch (IOException e) { //NOSONAR cannot happen with a byte array output stream
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return this;
+            }
+
+            @Override
+            public Chunks write(String data) {
+                return write(data.getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public boolean writeQueueFull() {
+                return false;
+            }
+
+            @Override
+            public Chunks drainHandler(Runnable handler) {
+                return this;
+            }
+
+            @Override
+            public boolean isClosed() {
+                return closed;
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        });
+        return new ByteArrayInputStream(stream.toByteArray());
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public String mimetype() {
+        return null;
+    }
+
+    @Override
+    public Consumer<Chunks> content() {
+        return producer;
+    }
+
+    @Override
+    public boolean requireSerializer() {
+        return false;
+    }
+
+    @Override
+    public void setSerializedForm(String serialized) {
+        // Nothing because serialization is not supported for this renderable class.
+    }
+
+    @Override
+    public boolean mustBeChunked() {
+        return true;
+    }
+}
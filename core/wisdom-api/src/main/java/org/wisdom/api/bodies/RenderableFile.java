@@ -20,6 +20,8 @@
 package org.wisdom.api.bodies;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.wisdom.api.http.*;
 
 import java.io.File;
@@ -33,6 +35,8 @@ public class RenderableFile implements Renderable<File> {
 
 
     private final File file;
+    private final long offset;
+    private final long length;
     private boolean mustBeChunked;
 
     /**
@@ -54,9 +58,29 @@ public class RenderableFile implements Renderable<File> {
      */
     public RenderableFile(File file, boolean chunk) {
         this.file = file;
+        this.offset = 0;
+        this.length = -1;
         this.mustBeChunked = chunk;
     }
 
+    /**
+     * Creates a new instance of {@link RenderableFile} serving a region of the given file, typically to answer a
+     * request containing a {@literal Range} header. The region is sent chunk by chunk.
+     *
+     * @param file   the file to serve
+     * @param offset the position of the first byte to serve
+     * @param length the number of bytes to serve
+     */
+    public RenderableFile(File file, long offset, long length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid file region " + offset + " / " + length);
+        }
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.mustBeChunked = true;
+    }
+
     /**
      * Renders the file. If just returns an empty stream on the served file.
      *
@@ -68,7 +92,12 @@ public class RenderableFile implements Renderable<File> {
     @Override
     public InputStream render(Context context, Result result) throws RenderableException {
         try {
-            return FileUtils.openInputStream(file);
+            InputStream stream = FileUtils.openInputStream(file);
+            if (length < 0) {
+                return stream;
+            }
+            IOUtils.skipFully(stream, offset);
+            return new BoundedInputStream(stream, length);
         } catch (IOException e) {
             throw new RenderableException("Cannot read file " + file.getAbsolutePath(), e);
         }
@@ -76,9 +105,19 @@ public class RenderableFile implements Renderable<File> {
 
     @Override
     public long length() {
+        if (length >= 0) {
+            return length;
+        }
         return file.length();
     }
 
+    /**
+     * @return the position of the first byte to serve, 0 if the whole file is served.
+     */
+    public long offset() {
+        return offset;
+    }
+
     @Override
     public String mimetype() {
         return MimeTypes.getMimeTypeForFile(file);
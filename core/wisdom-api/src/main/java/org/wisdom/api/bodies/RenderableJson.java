@@ -56,6 +56,14 @@ public class RenderableJson implements Renderable<JsonNode> {
         return new ByteArrayInputStream(rendered);
     }
 
+    @Override
+    public byte[] bytes(Context context, Result result) throws RenderableException {
+        if (rendered == null) {
+            render();
+        }
+        return rendered;
+    }
+
     /**
      * Renders the JSON object as a byte array. Be aware that this method does not use the {@link org.wisdom.api
      * .content.Json} service.
@@ -76,6 +76,14 @@ public class RenderableJsonP implements Renderable<String> {
         return new ByteArrayInputStream(rendered);
     }
 
+    @Override
+    public byte[] bytes(Context context, Result result) throws RenderableException {
+        if (rendered == null) {
+            _render();
+        }
+        return rendered;
+    }
+
     private void _render() throws RenderableException {
         try {
             rendered = (padding + "(" + OBJECT_WRITER.writeValueAsString(node) + ");").getBytes(Charsets.UTF_8);
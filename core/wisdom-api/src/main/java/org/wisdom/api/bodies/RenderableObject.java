@@ -34,7 +34,7 @@ import java.io.InputStream;
 public class RenderableObject implements Renderable<Object> {
 
     private final Object object;
-    private String serialized;
+    private byte[] serialized;
 
     public RenderableObject(Object o) {
         this.object = o;
@@ -45,11 +45,24 @@ public class RenderableObject implements Renderable<Object> {
         if (serialized == null) {
             throw new RenderableException("Serialization required before rendering");
         }
-        return new ByteArrayInputStream(serialized.getBytes(Charsets.UTF_8));
+        return new ByteArrayInputStream(serialized);
+    }
+
+    @Override
+    public byte[] bytes(Context context, Result result) throws RenderableException {
+        if (serialized == null) {
+            throw new RenderableException("Serialization required before rendering");
+        }
+        return serialized;
     }
 
     @Override
     public void setSerializedForm(String serialized) {
+        this.serialized = serialized.getBytes(Charsets.UTF_8);
+    }
+
+    @Override
+    public void setSerializedForm(byte[] serialized) {
         this.serialized = serialized;
     }
 
@@ -60,7 +73,10 @@ public class RenderableObject implements Renderable<Object> {
 
     @Override
     public long length() {
-        return -1; // Unknown
+        if (serialized == null) {
+            return -1; // Unknown
+        }
+        return serialized.length;
     }
 
     @Override
@@ -126,6 +126,18 @@ public class RenderableString implements Renderable<String> {
      */
     @Override
     public InputStream render(Context context, Result result) throws RenderableException {
+        return new ByteArrayInputStream(bytes(context, result));
+    }
+
+    /**
+     * Encodes the String using the charset of the result, UTF-8 if not set.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @return the encoded String
+     */
+    @Override
+    public byte[] bytes(Context context, Result result) {
         byte[] bytes;
 
         // We have a result, charset have to be provided
@@ -140,7 +152,7 @@ public class RenderableString implements Renderable<String> {
             bytes = rendered.getBytes(Charsets.UTF_8);
         }
 
-        return new ByteArrayInputStream(bytes);
+        return bytes;
     }
 
     /**
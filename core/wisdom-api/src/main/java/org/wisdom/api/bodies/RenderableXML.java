@@ -58,6 +58,14 @@ public class RenderableXML implements Renderable<Document> {
         return new ByteArrayInputStream(rendered);
     }
 
+    @Override
+    public byte[] bytes(Context context, Result result) throws RenderableException {
+        if (rendered == null) {
+            render();
+        }
+        return rendered;
+    }
+
     private void render() throws RenderableException {
         try {
             StringWriter sw = new StringWriter();
@@ -21,11 +21,35 @@ package org.wisdom.api.cache;
 
 import org.joda.time.Duration;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * Interface of the case service.
+ * <p>
+ * Besides the single-key operations, the cache supports bulk operations, atomic loading of missing entries, and
+ * asynchronous variants. The default implementations of these methods are built on top of the single-key operations;
+ * implementations should override them to provide atomicity and avoid round-trips.
+ * <p>
+ * All the methods taking a {@link Duration} expiration interpret it the same way: a {@literal null} or zero expiration
+ * means eternity, as does a {@literal 0} second expiration in {@link #set(String, Object, int)}. Pass
+ * {@link #DEFAULT_EXPIRATION} to use the default expiration of the cache (or of the region).
  */
 public interface Cache {
 
+    /**
+     * Marker expiration requesting the default expiration of the cache (or of the region) instead of an explicit
+     * one. It is compared by identity.
+     *
+     * @since 0.10.1
+     */
+    Duration DEFAULT_EXPIRATION = new Duration(-1L);
+
     /**
      * Sets a value into the cache.
      *
@@ -41,7 +65,8 @@ public interface Cache {
      *
      * @param key        Item key.
      * @param value      Item value.
-     * @param expiration Expiration time.
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use the
+     *                   default expiration of the cache.
      * @param <T> the type of the value.
      */
     public <T> void set(String key, T value, Duration expiration);
@@ -62,4 +87,134 @@ public interface Cache {
      * @return {@literal true} if the value was effectively removed form the cache, {@literal false} otherwise.
      */
     public boolean remove(String key);
+
+    /**
+     * Retrieves several values from the cache.
+     *
+     * @param keys the keys
+     * @param <T>  the expected type of the values.
+     * @return the cached values by key, missing and expired keys are not contained in the map.
+     * @since 0.10.1
+     */
+    default <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            T value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sets several values into the cache.
+     *
+     * @param values     the values by key
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use
+     *                   the default expiration of the cache
+     * @since 0.10.1
+     */
+    default void setAll(Map<String, ?> values, Duration expiration) {
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue(), expiration);
+        }
+    }
+
+    /**
+     * Retrieves a value from the cache, loading and storing it if not cached. Implementations guarantee that,
+     * for a given key, only one caller invokes the loader at a time, the others waiting for the loaded value. The
+     * default implementation does not provide this guarantee.
+     *
+     * @param key        Item key.
+     * @param loader     the function computing the value, if it returns {@literal null} nothing is stored
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use
+     *                   the default expiration of the cache
+     * @param <T>        the type of the value.
+     * @return the cached or loaded value
+     * @since 0.10.1
+     */
+    default <T> T computeIfAbsent(String key, Function<String, ? extends T> loader, Duration expiration) {
+        T value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                set(key, value, expiration);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves a value from the cache asynchronously.
+     *
+     * @param key Item key.
+     * @param <T> the expected type of result.
+     * @return a future completed with the cached value, or {@literal null} if not cached.
+     * @since 0.10.1
+     */
+    default <T> CompletableFuture<T> getAsync(String key) {
+        return CompletableFuture.completedFuture(this.<T>get(key));
+    }
+
+    /**
+     * Sets a value into the cache asynchronously.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use
+     *                   the default expiration of the cache
+     * @return a future completed when the value is stored.
+     * @since 0.10.1
+     */
+    default CompletableFuture<Void> setAsync(String key, Object value, Duration expiration) {
+        set(key, value, expiration);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Asynchronous version of {@link #computeIfAbsent(String, Function, Duration)}. The loader is invoked on an
+     * executor managed by the implementation.
+     *
+     * @param key        Item key.
+     * @param loader     the function computing the value
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use
+     *                   the default expiration of the cache
+     * @param <T>        the type of the value.
+     * @return a future completed with the cached or loaded value
+     * @since 0.10.1
+     */
+    default <T> CompletableFuture<T> computeIfAbsentAsync(String key, Function<String, ? extends T> loader,
+                                                          Duration expiration) {
+        return CompletableFuture.completedFuture(computeIfAbsent(key, loader, expiration));
+    }
+
+    /**
+     * Gets a named region of the cache. Regions have their own keys, size and expiration policies. The region is
+     * created if it does not exist yet.
+     *
+     * @param name the region name
+     * @return the region
+     * @throws UnsupportedOperationException if the implementation does not support regions
+     * @since 0.10.1
+     */
+    default Cache region(String name) {
+        throw new UnsupportedOperationException("Regions are not supported by " + getClass().getName());
+    }
+
+    /**
+     * @return the names of the regions created using {@link #region(String)}.
+     * @since 0.10.1
+     */
+    default Set<String> regions() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return the usage statistics of the cache (or region), {@literal null} if not supported.
+     * @since 0.10.1
+     */
+    default CacheStatistics statistics() {
+        return null;
+    }
 }
@@ -28,8 +28,11 @@ import java.lang.annotation.Target;
 
 /**
  * Mark an action to be cached on server side using the Cache Service.
- * So the result of the action is stored in the cache service for the specified time. All requests on this action
- * reuse this stored result (until it is invalidated).
+ * So the result of the action is rendered and stored in the cache service for the specified time. All requests on
+ * this action reuse this stored response (until it is invalidated).
+ * <p>
+ * Responses varying with some request headers, session attributes or parameters must declare them using
+ * {@link #varyHeaders()}, {@link #varySession()} and {@link #varyParameters()}, so each variant gets its own entry.
  */
 @Interception
 @Target({ElementType.TYPE, ElementType.METHOD})
@@ -47,4 +50,33 @@ public @interface Cached {
      */
     int duration() default 0;
 
+    /**
+     * The request headers the response depends on, such as {@literal Accept} or {@literal Accept-Language}.
+     *
+     * @since 0.10.1
+     */
+    String[] varyHeaders() default {};
+
+    /**
+     * The session attributes the response depends on, such as the authenticated user.
+     *
+     * @since 0.10.1
+     */
+    String[] varySession() default {};
+
+    /**
+     * The parameters (query or path parameters) the response depends on.
+     *
+     * @since 0.10.1
+     */
+    String[] varyParameters() default {};
+
+    /**
+     * The time (in second) during which an expired response can still be served while a single request computes
+     * the new one. Defaults to 0, meaning that expired responses are never served.
+     *
+     * @since 0.10.1
+     */
+    int staleWhileRevalidate() default 0;
+
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies, recorded concurrently without locks.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split into 16 buckets, so the value returned for a
+ * percentile is at most 1/16 (6.25%) above the recorded value. Values below 32 are counted exactly. Each bucket is a
+ * {@link LongAdder}, so threads recording values concurrently do not contend on the same counter.
+ * <p>
+ * Reading the histogram ({@link #snapshot()}) does not block the writers. As the buckets are read one by one, a
+ * snapshot taken while values are recorded may miss some of them, but never counts a value twice.
+ * <p>
+ * The histogram is cumulative. {@link #recentSnapshot()} returns the values recorded during the last one or two
+ * windows (one minute by default), which reflects the current load better in long running processes.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets needed to cover all the positive {@code long} values.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    private final long window;
+
+    /**
+     * The snapshot the recent values are computed from, and the snapshot replacing it at the end of the window.
+     */
+    private Mark base;
+    private Mark next;
+
+    /**
+     * Creates an empty histogram, with a window of one minute.
+     */
+    public LatencyHistogram() {
+        this(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param window the duration of the window used by {@link #recentSnapshot()}
+     * @param unit   the unit of the window
+     */
+    public LatencyHistogram(long window, TimeUnit unit) {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.window = unit.toNanos(window);
+        long now = System.nanoTime();
+        this.base = new Mark(Snapshot.EMPTY, now);
+        this.next = base;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[index(v)].increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return a snapshot of the histogram, computed without blocking the writers.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+
+    /**
+     * Gets a snapshot of the recent values: the values recorded since the beginning of the previous window, so
+     * covering between one and two windows when read regularly. A new window starts when this method is called
+     * after the end of the current one.
+     *
+     * @return the snapshot of the recent values
+     */
+    public synchronized Snapshot recentSnapshot() {
+        Snapshot current = snapshot();
+        long now = System.nanoTime();
+        if (now - next.time >= window) {
+            base = next;
+            next = new Mark(current, now);
+        }
+        return current.since(base.snapshot);
+    }
+
+    private static final class Mark {
+        private final Snapshot snapshot;
+        private final long time;
+
+        private Mark(Snapshot snapshot, long time) {
+            this.snapshot = snapshot;
+            this.time = time;
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    static long highestValue(int index) {
+        if (index == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return lowestValue(index + 1) - 1;
+    }
+
+    /**
+     * An immutable view of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        /**
+         * A snapshot without any value.
+         */
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0, 0);
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Computes the values recorded between the given snapshot and this one, both taken from the same histogram.
+         * The maximum is approximated by the upper bound of the highest bucket containing values.
+         *
+         * @param previous the previous snapshot
+         * @return the snapshot of the values recorded since the previous snapshot
+         */
+        public Snapshot since(Snapshot previous) {
+            long[] delta = new long[counts.length];
+            long total = 0;
+            int highest = -1;
+            for (int i = 0; i < counts.length; i++) {
+                delta[i] = Math.max(0, counts[i] - previous.counts[i]);
+                total += delta[i];
+                if (delta[i] > 0) {
+                    highest = i;
+                }
+            }
+            long m = highest == -1 ? 0 : Math.min(highestValue(highest), max);
+            return new Snapshot(delta, total, Math.max(0, sum - previous.sum), m);
+        }
+
+        /**
+         * @return the number of recorded values.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the largest recorded value, 0 if none.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the arithmetic mean of the recorded values, 0 if none.
+         */
+        public double getMean() {
+            return count == 0 ? 0.0d : (double) sum / count;
+        }
+
+        /**
+         * Gets the value at the given percentile: the given percentage of the recorded values are lower or equal to
+         * the returned value.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the value, 0 if no values were recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            // Values recorded while the snapshot was taken may make the total slightly inconsistent.
+            return max;
+        }
+
+        /**
+         * @return the median (50th percentile).
+         */
+        public long getMedian() {
+            return getValueAtPercentile(50);
+        }
+
+        /**
+         * @return the 99th percentile.
+         */
+        public long get99thPercentile() {
+            return getValueAtPercentile(99);
+        }
+
+        /**
+         * @return the 99.9th percentile.
+         */
+        public long get999thPercentile() {
+            return getValueAtPercentile(99.9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{count=%d, mean=%f, p50=%d, p99=%d, p999=%d, max=%d}",
+                    getClass().getSimpleName(), count, getMean(), getMedian(), get99thPercentile(),
+                    get999thPercentile(), max);
+        }
+    }
+}
@@ -26,6 +26,8 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Executor Service exposed as a service to execute tasks. This interface
@@ -187,14 +189,49 @@ public interface ManagedExecutorService extends ListeningExecutorService {
     public ExecutionStatistics getExecutionTimeStatistics();
 
     /**
-     * Represents execution statistics of a thread pool.
+     * @return the distribution of the time spent by the submitted tasks in the queue before being run, in
+     * microseconds, since the creation of the executor. Scheduled tasks are not included, as they wait on purpose.
+     * The default implementation returns an empty snapshot.
+     */
+    public default LatencyHistogram.Snapshot getQueueWaitTimeHistogram() {
+        return LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    /**
+     * @return the distribution of the run time of the tasks, in microseconds, since the creation of the executor.
+     * The default implementation returns an empty snapshot.
+     */
+    public default LatencyHistogram.Snapshot getRunTimeHistogram() {
+        return LatencyHistogram.Snapshot.EMPTY;
+    }
+
+    /**
+     * @return the distribution of the time spent by the tasks in the queue during the last minute or two, in
+     * microseconds. See {@link LatencyHistogram#recentSnapshot()}. The default implementation returns
+     * {@link #getQueueWaitTimeHistogram()}.
+     */
+    public default LatencyHistogram.Snapshot getRecentQueueWaitTimeHistogram() {
+        return getQueueWaitTimeHistogram();
+    }
+
+    /**
+     * @return the distribution of the run time of the tasks during the last minute or two, in microseconds. See
+     * {@link LatencyHistogram#recentSnapshot()}. The default implementation returns {@link #getRunTimeHistogram()}.
+     */
+    public default LatencyHistogram.Snapshot getRecentRunTimeHistogram() {
+        return getRunTimeHistogram();
+    }
+
+    /**
+     * Represents execution statistics of a thread pool. Values are recorded without locking, so threads completing
+     * tasks concurrently do not contend.
      */
     public static class ExecutionStatistics {
 
-        private long count;
-        private long sum;
-        private long min = Long.MAX_VALUE;
-        private long max = Long.MIN_VALUE;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
 
         /**
          * Records a new {@code int} value into the statistics.
@@ -210,11 +247,11 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @param value the input value
          */
-        public synchronized void accept(long value) {
-            ++count;
-            sum += value;
-            min = Math.min(min, value);
-            max = Math.max(max, value);
+        public void accept(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
         }
 
         /**
@@ -224,11 +261,11 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * @param other another {@code ExecutionStatistics}
          * @throws NullPointerException if {@code other} is null
          */
-        public synchronized void combine(final ExecutionStatistics other) {
-            count += other.getCount();
-            sum += other.getTotalExecutionTime();
-            min = Math.min(min, other.getMinimumExecutionTime());
-            max = Math.max(max, other.getMaximumExecutionTime());
+        public void combine(final ExecutionStatistics other) {
+            count.add(other.getCount());
+            sum.add(other.getTotalExecutionTime());
+            min.accumulate(other.getMinimumExecutionTime());
+            max.accumulate(other.getMaximumExecutionTime());
         }
 
         /**
@@ -236,7 +273,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the copied object
          */
-        public synchronized ExecutionStatistics copy() {
+        public ExecutionStatistics copy() {
             ExecutionStatistics statistics = new ExecutionStatistics();
             statistics.combine(this);
             return statistics;
@@ -247,8 +284,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the count of values
          */
-        public final synchronized long getCount() {
-            return count;
+        public final long getCount() {
+            return count.sum();
         }
 
         /**
@@ -256,7 +293,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the number of tasks
          */
-        public final synchronized long getNumberOfTasks() {
+        public final long getNumberOfTasks() {
             return getCount();
         }
 
@@ -266,8 +303,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the sum of values, or zero if none
          */
-        public final synchronized long getTotalExecutionTime() {
-            return sum;
+        public final long getTotalExecutionTime() {
+            return sum.sum();
         }
 
         /**
@@ -276,8 +313,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the minimum value, or {@code Long.MAX_VALUE} if none
          */
-        public final synchronized long getMinimumExecutionTime() {
-            return min;
+        public final long getMinimumExecutionTime() {
+            return min.get();
         }
 
         /**
@@ -286,8 +323,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the maximum value, or {@code Long.MIN_VALUE} if none
          */
-        public final synchronized long getMaximumExecutionTime() {
-            return max;
+        public final long getMaximumExecutionTime() {
+            return max.get();
         }
 
         /**
@@ -296,7 +333,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return The arithmetic mean of values, or zero if none
          */
-        public final synchronized double getAverageExecutionTime() {
+        public final double getAverageExecutionTime() {
             return getCount() > 0 ? (double) getTotalExecutionTime() / getNumberOfTasks() : 0.0d;
         }
 
@@ -308,7 +345,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * debugging. The exact presentation format is unspecified and may vary
          * between implementations and versions.
          */
-        public synchronized String toString() {
+        public String toString() {
             return String.format(
                     "%s{count=%d, sum=%d, min=%d, average=%f, max=%d}",
                     this.getClass().getSimpleName(),
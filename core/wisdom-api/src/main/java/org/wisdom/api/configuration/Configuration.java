@@ -23,6 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 /**
  * Configuration object used to retrieve values.
@@ -395,4 +399,57 @@ public interface Configuration {
      * external files.
      */
     Map<String, Object> asMap();
+
+    /**
+     * Gets a handle on an integer value. The handle is meant to be retrieved once, and read each time the value is
+     * needed. It always returns the current value, even when the configuration is reloaded. Implementations can read
+     * the value without lookup and allocation.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue the value returned if the key is not set
+     * @return the handle
+     * @since 0.10.1
+     */
+    default IntSupplier intHandle(String key, int defaultValue) {
+        return () -> getIntegerWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Gets a handle on a long value. The handle is meant to be retrieved once, and read each time the value is
+     * needed. It always returns the current value, even when the configuration is reloaded.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue the value returned if the key is not set
+     * @return the handle
+     * @since 0.10.1
+     */
+    default LongSupplier longHandle(String key, long defaultValue) {
+        return () -> getLongWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Gets a handle on a boolean value. The handle is meant to be retrieved once, and read each time the value is
+     * needed. It always returns the current value, even when the configuration is reloaded.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue the value returned if the key is not set
+     * @return the handle
+     * @since 0.10.1
+     */
+    default BooleanSupplier booleanHandle(String key, boolean defaultValue) {
+        return () -> getBooleanWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Gets a handle on a String value. The handle is meant to be retrieved once, and read each time the value is
+     * needed. It always returns the current value, even when the configuration is reloaded.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue the value returned if the key is not set
+     * @return the handle
+     * @since 0.10.1
+     */
+    default Supplier<String> stringHandle(String key, String defaultValue) {
+        return () -> getWithDefault(key, defaultValue);
+    }
 }
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * A service interface used to handle Json objects and String.
@@ -49,6 +50,19 @@ public interface Json {
      */
     public JsonNode toJson(final Object data);
 
+    /**
+     * Writes the JSON form of the given object as UTF-8 encoded bytes. Unlike {@link #toJson(Object)}, no
+     * intermediate JsonNode is built, so it should be preferred when the JSON form is sent as it is.
+     * <p>
+     * The default implementation goes through {@link #toJson(Object)}, implementations should override it.
+     *
+     * @param data the data to transform to json
+     * @return the JSON form of the data
+     */
+    public default byte[] toJsonBytes(final Object data) {
+        return toJson(data).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Builds a new instance of the given class <em>clazz</em> from the given Json object.
      *
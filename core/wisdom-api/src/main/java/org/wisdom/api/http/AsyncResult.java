@@ -20,11 +20,16 @@
 package org.wisdom.api.http;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 
 /**
  * An extension of result instructing the engine to render the result asynchronously. That means that the result
  * computation is delegated to another thread (and not the request thread), and is written and sent to the client
  * when the computation is completed.
+ * <p>
+ * The result is either computed by a {@link Callable} that the engine submits to the system executor, or given as a
+ * {@link CompletionStage} already in progress. In the latter case, no thread waits for the result: it is written
+ * once the stage completes.
  */
 public class AsyncResult extends Result {
 
@@ -33,6 +38,11 @@ public class AsyncResult extends Result {
      */
     private final Callable<Result> callable;
 
+    /**
+     * The stage completed with the result, {@literal null} if the result is computed by {@link #callable}.
+     */
+    private final CompletionStage<Result> stage;
+
     /**
      * Creates a new asynchronous result.
      *
@@ -41,12 +51,33 @@ public class AsyncResult extends Result {
      */
     public AsyncResult(Callable<Result> callable) {
         this.callable = callable;
+        this.stage = null;
+    }
+
+    /**
+     * Creates a new asynchronous result from a computation already in progress.
+     *
+     * @param stage the stage completed with the result. If it completes exceptionally, the error is handled as if
+     *              it was thrown by the action method. This stage must not be {@literal null}.
+     */
+    public AsyncResult(CompletionStage<Result> stage) {
+        this.stage = stage;
+        this.callable = () -> stage.toCompletableFuture().get();
     }
 
     /**
-     * @return the callable.
+     * @return the callable. When the result was created from a {@link CompletionStage}, the returned callable waits
+     * for the completion of the stage.
      */
     public Callable<Result> callable() {
         return callable;
     }
+
+    /**
+     * @return the stage completed with the result, {@literal null} if the result is computed by the
+     * {@link #callable()}.
+     */
+    public CompletionStage<Result> stage() {
+        return stage;
+    }
 }
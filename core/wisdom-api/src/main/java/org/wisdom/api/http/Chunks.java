@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+/**
+ * Lets controllers push the content of a response chunk by chunk, without blocking a thread until the whole content
+ * is available. Instances are given to the producer passed to {@link Results#stream(java.util.function.Consumer)}
+ * once the response headers are ready to be sent. It is typically used for Server-Sent Events or newline-delimited
+ * JSON.
+ * <p>
+ * Chunks can be written from any thread. They are sent in the order they are written. Producers should stop
+ * writing when {@link #writeQueueFull()} returns {@code true}, and resume in the handler given to
+ * {@link #drainHandler(Runnable)}. The response is completed by {@link #close()}.
+ * <p>
+ * The producer is called on the thread writing the response, which may be an event loop thread of the server. It
+ * must not block: a producer waiting for its data should keep the {@link Chunks} and write them from its own
+ * thread (or executor). The drain handler is called on the event loop thread. The written arrays are copied, so
+ * the producer may reuse them once {@link #write(byte[])} returns.
+ */
+public interface Chunks {
+
+    /**
+     * Writes a chunk. The array is not retained.
+     *
+     * @param data the data
+     * @return the current {@link Chunks}
+     */
+    Chunks write(byte[] data);
+
+    /**
+     * Writes a chunk, encoded using UTF-8.
+     *
+     * @param data the data
+     * @return the current {@link Chunks}
+     */
+    Chunks write(String data);
+
+    /**
+     * Checks whether the chunks written so far are still waiting to be sent to the client, in which case the
+     * producer should stop writing until the drain handler is called.
+     *
+     * @return {@code true} if the write queue is full
+     */
+    boolean writeQueueFull();
+
+    /**
+     * Sets the handler called when the write queue is no longer full.
+     *
+     * @param handler the handler
+     * @return the current {@link Chunks}
+     */
+    Chunks drainHandler(Runnable handler);
+
+    /**
+     * Checks whether the response is completed, either because {@link #close()} was called or because the client
+     * has closed the connection.
+     *
+     * @return {@code true} if no more chunks can be written
+     */
+    boolean isClosed();
+
+    /**
+     * Completes the response. Calling this method more than once has no effect.
+     */
+    void close();
+}
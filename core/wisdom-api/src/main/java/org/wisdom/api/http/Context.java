@@ -26,7 +26,9 @@ import org.wisdom.api.cookies.SessionCookie;
 import org.wisdom.api.router.Route;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.List;
@@ -324,6 +326,22 @@ public interface Context {
      */
     byte[] raw();
 
+    /**
+     * Retrieves a stream to read the request body, as sent in the request. Unlike {@link #body()} and {@link #raw()},
+     * the body is not copied, so parsers should prefer this method. If the request has no body, {@code null} is
+     * returned. By default, the stream reads the array returned by {@link #raw()}.
+     *
+     * @return the stream on the body, {@code null} if there is no body
+     * @since 0.10.1
+     */
+    default InputStream stream() {
+        byte[] raw = raw();
+        if (raw == null) {
+            return null;
+        }
+        return new ByteArrayInputStream(raw);
+    }
+
     /**
      * Get the reader to read the request.
      * <p>
@@ -347,6 +365,28 @@ public interface Context {
      */
     void route(Route route);
 
+    /**
+     * Gets the path parameters captured by the router while selecting the route of this context, so they are not
+     * extracted again.
+     *
+     * @return the captured parameters, {@literal null} if none or if the context does not keep them
+     * @since 0.10.1
+     */
+    default Map<String, String> capturedPathParameters() {
+        return null;
+    }
+
+    /**
+     * Sets the path parameters captured by the router while selecting the route of this context.
+     * Must only be called by the router.
+     *
+     * @param parameters the parameters
+     * @since 0.10.1
+     */
+    default void capturedPathParameters(Map<String, String> parameters) {
+        // Not kept by default.
+    }
+
     /**
      * Check if request is of type multipart. Important when you want to process
      * uploads for instance.
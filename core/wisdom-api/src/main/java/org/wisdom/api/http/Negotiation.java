@@ -56,7 +56,7 @@ public final class Negotiation {
         for (MediaType media : accepted) {
             // Do we have a matching key.
             for (Map.Entry<String, ? extends Result> entry : results.entrySet()) {
-                MediaType input = MediaType.parse(entry.getKey());
+                MediaType input = RequestMediaTypes.parse(entry.getKey());
                 if (input.is(media)) {
                     return entry.getValue().with(HeaderNames.VARY, HeaderNames.ACCEPT);
                 }
@@ -20,6 +20,7 @@
 package org.wisdom.api.http;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Renderable is a placeholder for the content to be sent to the client. It allows customizing the rendering process.
@@ -38,6 +39,22 @@ public interface Renderable<T> {
      */
     InputStream render(Context context, Result result) throws RenderableException;
 
+    /**
+     * Retrieves the content as a byte array when it is already available in memory. This is a fast path letting the
+     * server write the content directly, instead of reading the stream returned by
+     * {@link #render(Context, Result)}. Like {@link #render(Context, Result)}, this method is called after the
+     * serialization. The returned array must not be modified.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @return the content, {@literal null} if the content is not available as a byte array. In this case, the
+     * server uses {@link #render(Context, Result)}.
+     * @throws RenderableException if the content cannot be rendered
+     */
+    default byte[] bytes(Context context, Result result) throws RenderableException {
+        return null;
+    }
+
     /**
      * Gets the length of the rendered content. If the length is non known or cannot be determined at that time
      * {@literal -1} is returned.
@@ -79,6 +96,17 @@ public interface Renderable<T> {
      */
     void setSerializedForm(String serialized);
 
+    /**
+     * Variant of {@link #setSerializedForm(String)} used by {@link org.wisdom.api.content.ContentSerializer}
+     * producing UTF-8 encoded bytes, avoiding an intermediate String when the renderable keeps the bytes. By default,
+     * the bytes are decoded and given to {@link #setSerializedForm(String)}.
+     *
+     * @param serialized the serialized form, encoded in UTF-8
+     */
+    default void setSerializedForm(byte[] serialized) {
+        setSerializedForm(new String(serialized, StandardCharsets.UTF_8));
+    }
+
     /**
      * Checks whether the current renderable must be sent as chunk to the client. It's often the case for large
      * files, or content with unknown length.
@@ -30,6 +30,11 @@ public abstract class Request extends RequestHeader {
 
     private String username = null;
 
+    /**
+     * The media types of the request, computed on the first access.
+     */
+    private RequestMediaTypes negotiation;
+
     /**
      * The user name for this request, if defined.
      * This is usually set by annotating your Action with <code>@Authenticated</code>.
@@ -80,6 +85,26 @@ public abstract class Request extends RequestHeader {
         }
     }
 
+    /**
+     * Gets the media types of the request: the types accepted by the client ({@literal Accept} header) and the type
+     * of the body ({@literal Content-Type} header). The headers are parsed on the first call, and the result is
+     * reused as long as the headers do not change.
+     *
+     * @return the media types of the request
+     * @throws IllegalArgumentException if one of the headers cannot be parsed
+     */
+    public RequestMediaTypes negotiation() {
+        // The instance is immutable, computing it twice when accessed concurrently is harmless.
+        String accept = getHeader(HeaderNames.ACCEPT);
+        String contentType = contentType();
+        RequestMediaTypes types = negotiation;
+        if (types == null || !types.isFor(accept, contentType)) {
+            types = RequestMediaTypes.of(accept, contentType);
+            negotiation = types;
+        }
+        return types;
+    }
+
     /**
      * Retrieves the charset part of the content-type header. For instance on {@code Content-Type: text/html;
      * charset=ISO-8859-4}, it retrieves {@code ISO-8859-4}.
@@ -0,0 +1,231 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.MediaType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The media types of a request: the types accepted by the client ({@literal Accept} header) and the type of the
+ * body ({@literal Content-Type} header). Instances are immutable, and kept by the request while its headers do not
+ * change (see {@link Request#negotiation()}).
+ * <p>
+ * Parsing media types is costly, and clients keep sending the same headers. So, the parsed media types and the
+ * parsed {@literal Accept} headers are interned in bounded caches shared by all the requests. As a consequence,
+ * requests sending the same {@literal Accept} header get the same {@link #accepted()} list instance.
+ */
+public final class RequestMediaTypes {
+
+    /**
+     * The maximum number of media types and {@literal Accept} headers kept in the caches.
+     */
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final Cache<String, MediaType> TYPES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    private static final Cache<String, List<MediaType>> ACCEPTS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .build();
+
+    /**
+     * Used when the request has no {@literal Accept} header, any text is accepted.
+     */
+    private static final List<MediaType> ANY_TEXT = ImmutableList.of(MediaType.ANY_TEXT_TYPE);
+
+    /**
+     * Sorts the media ranges by quality, and then from the most specific to the less specific. The sort is stable,
+     * so ranges having the same quality and specificity keep the order of the header.
+     */
+    private static final Comparator<MediaType> PREFERENCE = new Comparator<MediaType>() {
+        @Override
+        public int compare(MediaType o1, MediaType o2) {
+            int c = Double.compare(quality(o2), quality(o1));
+            if (c != 0) {
+                return c;
+            }
+            return Integer.compare(specificity(o2), specificity(o1));
+        }
+    };
+
+    private final String acceptHeader;
+    private final String contentTypeHeader;
+    private final List<MediaType> accepted;
+    private final MediaType contentType;
+
+    private RequestMediaTypes(String acceptHeader, String contentTypeHeader) {
+        this.acceptHeader = acceptHeader;
+        this.contentTypeHeader = contentTypeHeader;
+        this.accepted = parseAccept(acceptHeader);
+        this.contentType = contentTypeHeader == null ? null : parse(contentTypeHeader);
+    }
+
+    /**
+     * Creates the media types of a request.
+     *
+     * @param accept      the {@literal Accept} header, {@literal null} if not set
+     * @param contentType the {@literal Content-Type} header, {@literal null} if not set
+     * @return the media types
+     * @throws IllegalArgumentException if one of the headers cannot be parsed
+     */
+    public static RequestMediaTypes of(String accept, String contentType) {
+        return new RequestMediaTypes(accept, contentType);
+    }
+
+    /**
+     * Checks whether the current instance has been computed from the given headers.
+     *
+     * @param accept      the {@literal Accept} header
+     * @param contentType the {@literal Content-Type} header
+     * @return {@literal true} if the headers are the one used to build the current instance
+     */
+    public boolean isFor(String accept, String contentType) {
+        return Objects.equals(acceptHeader, accept) && Objects.equals(contentTypeHeader, contentType);
+    }
+
+    /**
+     * Parses the given media type. Unlike {@link MediaType#parse(String)}, the parsed media types are interned, so
+     * parsing a media type already seen does not allocate.
+     *
+     * @param type the media type
+     * @return the parsed media type
+     * @throws IllegalArgumentException if the input cannot be parsed
+     */
+    public static MediaType parse(String type) {
+        MediaType parsed = TYPES.getIfPresent(type);
+        if (parsed == null) {
+            parsed = MediaType.parse(type);
+            TYPES.put(type, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses an {@literal Accept} header.
+     *
+     * @param header the header, {@literal null} if not set
+     * @return the accepted media types, sorted by preference (preferred first). If the header is not set,
+     * the singleton list [text/*] is returned.
+     * @throws IllegalArgumentException if the header cannot be parsed
+     */
+    public static List<MediaType> parseAccept(String header) {
+        if (header == null) {
+            return ANY_TEXT;
+        }
+        List<MediaType> accepted = ACCEPTS.getIfPresent(header);
+        if (accepted == null) {
+            List<MediaType> types = new ArrayList<>();
+            for (String segment : header.split(",")) {
+                String trimmed = segment.trim();
+                if (!trimmed.isEmpty()) {
+                    types.add(parse(trimmed));
+                }
+            }
+            Collections.sort(types, PREFERENCE);
+            accepted = ImmutableList.copyOf(types);
+            ACCEPTS.put(header, accepted);
+        }
+        return accepted;
+    }
+
+    private static double quality(MediaType type) {
+        List<String> q = type.parameters().get("q");
+        if (q == null || q.isEmpty()) {
+            return 1.0;
+        }
+        return Double.parseDouble(q.get(0));
+    }
+
+    private static int specificity(MediaType type) {
+        if (type.type().equals("*")) {
+            return 0;
+        }
+        if (type.subtype().equals("*")) {
+            return 1;
+        }
+        // Parameters other than q make the range more specific (text/html;level=1 is more specific than text/html).
+        return type.parameters().size() > type.parameters().get("q").size() ? 3 : 2;
+    }
+
+    /**
+     * @return the media types from the {@literal Accept} header, sorted by preference (preferred first). If the
+     * header is not set, the singleton list [text/*] is returned. Media types having the same quality are all kept.
+     */
+    public List<MediaType> accepted() {
+        return accepted;
+    }
+
+    /**
+     * @return the preferred media type, {@literal text/*} if the header is not set or accepts any type.
+     */
+    public MediaType preferred() {
+        List<MediaType> types = accepted;
+        if (types.isEmpty() || types.size() == 1 && types.get(0).equals(MediaType.ANY_TYPE)) {
+            return MediaType.ANY_TEXT_TYPE;
+        }
+        return types.get(0);
+    }
+
+    /**
+     * Checks whether the given mime type is accepted by the client. When the {@literal Accept} header is not set,
+     * {@literal text/html} is considered as accepted.
+     *
+     * @param mimeType the mime type
+     * @return {@literal true} if the mime type is accepted, {@literal false} otherwise
+     */
+    public boolean accepts(String mimeType) {
+        String header = acceptHeader == null ? MimeTypes.HTML : acceptHeader;
+        // For performance reason, we first try a full match:
+        return header.contains(mimeType) || accepts(parse(mimeType));
+    }
+
+    /**
+     * Checks whether the given media type is accepted by the client. As the parameters of the accepted media types
+     * are kept, a media range with a quality only matches media types declaring the same quality.
+     *
+     * @param type the media type
+     * @return {@literal true} if the media type is accepted, {@literal false} otherwise
+     */
+    public boolean accepts(MediaType type) {
+        for (MediaType range : accepted) {
+            if (type.is(range)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the media type of the request body, {@literal null} if the request has no {@literal Content-Type}
+     * header.
+     */
+    public MediaType contentType() {
+        return contentType;
+    }
+}
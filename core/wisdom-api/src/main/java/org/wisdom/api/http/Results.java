@@ -28,6 +28,8 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 
 /**
@@ -468,6 +470,24 @@ public abstract class Results {
         return result;
     }
 
+    /**
+     * Creates a new result with the status {@literal 200 - OK} whose content is pushed chunk by chunk by the given
+     * producer. The producer is called once the response headers are sent, and must close the given {@link Chunks}
+     * when the content is complete. The connection is kept alive.
+     * <p/>
+     * The producer is called on the thread writing the response, which may be an event loop thread, so it must not
+     * block. Long-running producers should write the chunks from their own thread, see {@link Chunks}.
+     * <p/>
+     * The content type should be set on the returned result, for instance {@link MimeTypes#EVENT_STREAM} for
+     * Server-Sent Events.
+     *
+     * @param producer the producer writing the content
+     * @return a new configured result
+     */
+    public static Result stream(Consumer<Chunks> producer) {
+        return status(Result.OK).render(new RenderableChunks(producer));
+    }
+
     /**
      * Creates a new result with the status {@literal 200 - OK} sending the given file to the client. Wisdom
      * tries to guess the  {@literal Content-Type} header value from the given file.
@@ -491,4 +511,15 @@ public abstract class Results {
         return new AsyncResult(task);
     }
 
+    /**
+     * Creates a new async result from a computation already in progress. The result is sent to the client once the
+     * given stage completes, without any thread waiting for it.
+     *
+     * @param stage the stage completed with the result.
+     * @return the async result.
+     */
+    public static AsyncResult async(CompletionStage<Result> stage) {
+        return new AsyncResult(stage);
+    }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http.websockets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * What to do when a frame is offered to a full web socket mailbox, i.e. when a client is too slow to send or to
+ * process its frames. The policy is configured using {@code wisdom.websocket.mailbox.overflow}.
+ *
+ * @since 0.10.1
+ */
+public enum MailboxOverflow {
+    /**
+     * Drops the offered frame.
+     */
+    DROP_NEWEST,
+    /**
+     * Drops the oldest pending frame, and enqueues the offered one.
+     */
+    DROP_OLDEST;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailboxOverflow.class);
+
+    /**
+     * Parses a policy name, such as {@code drop-newest}.
+     *
+     * @param value the value, case-insensitive
+     * @return the policy, {@link #DROP_NEWEST} if the value is {@literal null} or unknown
+     */
+    public static MailboxOverflow from(String value) {
+        if (value == null) {
+            return DROP_NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+        } catch (IllegalArgumentException e) { //NOSONAR
+            LOGGER.warn("Unknown web socket mailbox overflow policy '{}', using drop-newest", value);
+            return DROP_NEWEST;
+        }
+    }
+}
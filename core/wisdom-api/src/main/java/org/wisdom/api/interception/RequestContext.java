@@ -41,9 +41,9 @@ public class RequestContext {
     private final Route route;
 
     /**
-     * The filter chain.
+     * The filter chain, ending with the filter invoking the action method.
      */
-    private final List<Filter> chain;
+    private final Filter[] chain;
 
     /**
      * The map storing the configuration for interceptors.
@@ -56,9 +56,9 @@ public class RequestContext {
     private Object[] parameters;
 
     /**
-     * The iterator to retrieve the ordered set of filters.
+     * The index of the next filter to call.
      */
-    private ListIterator<Filter> iterator;
+    private int index;
 
     /**
      * Creates a new Interception Context. Instances should only be created by the router.
@@ -73,16 +73,32 @@ public class RequestContext {
         this.route = route;
         this.interceptors = interceptors;
 
-        this.chain = new LinkedList<>(chain);
+        this.chain = chain.toArray(new Filter[chain.size() + 1]);
         if (parameters != null) {
             this.parameters = Arrays.copyOf(parameters, parameters.length);
         }
 
         // Add the action invocation
         if (endOfChainInvoker == null) {
-            endOfChainInvoker = new ActionInvoker();
+            endOfChainInvoker = new EndOfChainInvoker();
         }
-        this.chain.add(endOfChainInvoker);
+        this.chain[chain.size()] = endOfChainInvoker;
+    }
+
+    /**
+     * Creates a new Interception Context from a pre-computed chain. Instances should only be created by the router.
+     * The chain array is not copied, so it must not be modified once given to this constructor. Its last element
+     * must be the filter invoking the action method.
+     *
+     * @param route        the intercepted route
+     * @param chain        the ordered interception chain containing filters, interceptors and the filter invoking
+     *                     the action method.
+     * @param interceptors the set of interceptors and their configuration
+     */
+    public RequestContext(Route route, Filter[] chain, Map<Interceptor<?>, Object> interceptors) {
+        this.route = route;
+        this.interceptors = interceptors;
+        this.chain = chain;
     }
 
     /**
@@ -114,13 +130,10 @@ public class RequestContext {
      * @throws java.lang.Exception if the invocation fails.
      */
     public Result proceed() throws Exception {
-        if (iterator == null) {
-            iterator = chain.listIterator();
-        }
-        if (!iterator.hasNext()) {
+        if (index >= chain.length) {
             throw new IllegalStateException("Reached the end of the chain without result.");
         }
-        Filter filter = iterator.next();
+        Filter filter = chain[index++];
         return filter.call(route, this);
     }
 
@@ -160,7 +173,7 @@ public class RequestContext {
      * The end (actually middle) of the chain. This interceptor is a fake calling the action method.
      * It does not call {@link RequestContext#proceed()}.
      */
-    private class ActionInvoker implements Filter {
+    private class EndOfChainInvoker implements Filter {
 
         /**
          * We are the end of the chain, so we call the action method.
@@ -177,8 +190,7 @@ public class RequestContext {
             if (RequestContext.this.route.isUnbound()) {
                 return Results.notFound();
             } else {
-                return (Result) RequestContext.this.route.getControllerMethod().invoke(
-                        RequestContext.this.route.getControllerObject(), parameters);
+                return RequestContext.this.route.getActionInvoker().invoke(parameters);
             }
         }
 
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.http.AsyncResult;
+import org.wisdom.api.http.Result;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Creates the {@link ActionInvoker} used to call action methods.
+ * <p>
+ * The action method is turned into a {@link MethodHandle} bound to the controller instance, and adapted to take the
+ * parameters as an array. Unlike {@link Method#invoke(Object, Object...)}, there are no access checks and argument
+ * copies on each call. If the method handle cannot be created (because of the security manager or of the class
+ * loader), it falls back to reflection.
+ * <p>
+ * In both cases, exceptions thrown by the action method are wrapped into an {@link InvocationTargetException}, as
+ * error handlers rely on it. Action methods may also return a {@link CompletionStage} of {@link Result}, which is
+ * wrapped into an {@link AsyncResult}.
+ */
+public final class ActionInvokers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionInvokers.class);
+
+    private static final MethodType ACTION_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private ActionInvokers() {
+        // Avoid direct instantiation, as we only have static methods in this class.
+    }
+
+    /**
+     * Creates the invoker calling the given method on the given object.
+     *
+     * @param target the controller object
+     * @param method the action method, must be accessible
+     * @return the invoker
+     */
+    public static ActionInvoker create(Object target, Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(ACTION_TYPE);
+            return new MethodHandleInvoker(handle, method.getParameterCount());
+        } catch (Exception e) { //NOSONAR
+            LOGGER.debug("Cannot create a method handle for {}, using reflection instead", method, e);
+            return reflective(target, method);
+        }
+    }
+
+    /**
+     * Creates an invoker using reflection to call the given method on the given object.
+     *
+     * @param target the controller object
+     * @param method the action method, must be accessible
+     * @return the invoker
+     */
+    public static ActionInvoker reflective(Object target, Method method) {
+        return parameters -> toResult(method.invoke(target, parameters));
+    }
+
+    /**
+     * Gets the result to return for the object returned by an action method.
+     *
+     * @param returned the returned object, either a {@link Result} or a {@link CompletionStage} of {@link Result}
+     * @return the result
+     */
+    @SuppressWarnings("unchecked")
+    static Result toResult(Object returned) {
+        if (returned instanceof CompletionStage) {
+            return new AsyncResult((CompletionStage<Result>) returned);
+        }
+        return (Result) returned;
+    }
+
+    private static final class MethodHandleInvoker implements ActionInvoker {
+
+        private static final Object[] NO_PARAMETERS = new Object[0];
+
+        private final MethodHandle handle;
+        private final int arity;
+
+        private MethodHandleInvoker(MethodHandle handle, int arity) {
+            this.handle = handle;
+            this.arity = arity;
+        }
+
+        @Override
+        public Result invoke(Object... parameters) throws InvocationTargetException {
+            Object[] arguments = parameters == null ? NO_PARAMETERS : parameters;
+            if (arguments.length != arity) {
+                throw new IllegalArgumentException("Wrong number of arguments, expected " + arity + " but got "
+                        + arguments.length);
+            }
+            Object result;
+            try {
+                result = handle.invokeExact(arguments);
+            } catch (Throwable e) { //NOSONAR
+                throw new InvocationTargetException(e);
+            }
+            return toResult(result);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.router;
+
+/**
+ * Defines on which thread the action method of a route is called. The strategy can be set on the route (using
+ * {@link org.wisdom.api.annotations.Route#dispatch()} or {@link Route#dispatching(DispatchStrategy)}), or on the
+ * server configuration for all the routes using {@link #DEFAULT}.
+ * <p>
+ * The routing is always done on the thread having received the request. The selected strategy applies to the
+ * filters, the parameter binding, the action method, and the serialization of the result. The response is always
+ * written by the thread having received the request.
+ *
+ * @since 0.10.1
+ */
+public enum DispatchStrategy {
+
+    /**
+     * Uses the strategy configured on the server, {@link #EVENT_LOOP} if not set.
+     */
+    DEFAULT,
+
+    /**
+     * The action method is called directly by the event loop thread having received the request. This is the
+     * fastest strategy, but the action method must never block, as it would block all the connections handled by
+     * the event loop.
+     */
+    EVENT_LOOP,
+
+    /**
+     * The action method is called from a bounded pool of worker threads. When the pool and its queue are full,
+     * the request is rejected with a {@literal 503 - Service Unavailable} response. This strategy is appropriate for
+     * action methods doing blocking I/O (JDBC calls...).
+     */
+    WORKER,
+
+    /**
+     * The action method is called from the shared blocking thread pool of the engine. Requests received on the same
+     * connection are executed in order, one after the other, while requests of other connections run concurrently.
+     */
+    ORDERED
+}
@@ -95,6 +95,16 @@ public class Route {
      */
     protected int unboundStatus;
 
+    /**
+     * The invoker calling the action method, only if the route is `bound`.
+     */
+    protected final ActionInvoker invoker;
+
+    /**
+     * The strategy used to dispatch the requests to the action method.
+     */
+    protected DispatchStrategy dispatch = DispatchStrategy.DEFAULT;
+
     /**
      * Constructor used in case of delegation.
      */
@@ -106,6 +116,7 @@ public class Route {
         parameterNames = null;
         regex = null;
         arguments = null;
+        invoker = null;
     }
 
     /**
@@ -132,10 +143,13 @@ public class Route {
             this.arguments = RouteUtils.buildActionParameterList(this.controllerMethod);
             parameterNames = ImmutableList.copyOf(RouteUtils.extractParameters(uri));
             regex = Pattern.compile(RouteUtils.convertRawUriToRegex(uri));
+            invoker = controller == null ? ActionInvokers.reflective(null, controllerMethod)
+                    : ActionInvokers.create(controller, controllerMethod);
         } else {
             parameterNames = Collections.emptyList();
             regex = null;
             arguments = Collections.emptyList();
+            invoker = null;
         }
 
         if (controller == null) {
@@ -219,6 +233,28 @@ public class Route {
         return this;
     }
 
+    /**
+     * Sets the thread on which the action method is called.
+     *
+     * @param strategy the strategy, {@link DispatchStrategy#DEFAULT} to use the strategy configured on the server
+     * @return the current route
+     * @since 0.10.1
+     */
+    public Route dispatching(DispatchStrategy strategy) {
+        this.dispatch = Preconditions.checkNotNull(strategy);
+        return this;
+    }
+
+    /**
+     * Gets the thread on which the action method is called.
+     *
+     * @return the strategy, {@link DispatchStrategy#DEFAULT} if the strategy configured on the server must be used
+     * @since 0.10.1
+     */
+    public DispatchStrategy getDispatchStrategy() {
+        return dispatch;
+    }
+
     /**
      * Gets the route uri.
      *
@@ -331,10 +367,19 @@ public class Route {
         if (isUnbound()) {
             return new Result().status(unboundStatus).noContentIfNone();
         } else {
-            return (Result) controllerMethod.invoke(controller);
+            return invoker.invoke();
         }
     }
 
+    /**
+     * Gets the invoker calling the action method. The invoker is created once, when the route is created.
+     *
+     * @return the invoker, {@literal null} for unbound routes.
+     */
+    public ActionInvoker getActionInvoker() {
+        return invoker;
+    }
+
     /**
      * The list of arguments.
      *
@@ -466,7 +511,7 @@ public class Route {
                 return 2;
             } else {
                 // For all consume, check whether we accept it
-                MediaType contentMimeType = MediaType.parse(request.contentMimeType());
+                MediaType contentMimeType = RequestMediaTypes.parse(content);
                 for (MediaType type : acceptedMediaTypes) {
                     if (contentMimeType.is(type)) {
                         if (type.hasWildcard()) {
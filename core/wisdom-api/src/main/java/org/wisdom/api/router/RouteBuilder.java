@@ -25,6 +25,7 @@ import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Result;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Builder object to create routes.
@@ -107,7 +108,7 @@ public class RouteBuilder {
         Preconditions.checkNotNull(method);
         this.controller = controller;
         this.controllerMethod = method;
-        if (!method.getReturnType().isAssignableFrom(Result.class)) {
+        if (!isAction(method)) {
             throw new IllegalArgumentException(ERROR_CTRL + method + ERROR_IN + controller
                     .getClass() + "`, or the method does not return a " + Result.class.getName() + " object");
         }
@@ -161,8 +162,8 @@ public class RouteBuilder {
         }
 
         // make sure that the return type of that controller method
-        // is of type Result.
-        if (methodFromQueryingClass.getReturnType().isAssignableFrom(Result.class)) {
+        // is of type Result (or a stage of Result).
+        if (isAction(methodFromQueryingClass)) {
             return methodFromQueryingClass;
         } else {
             throw new NoSuchMethodException("The method " + controllerMethod + " is declared in " + controller
@@ -170,4 +171,16 @@ public class RouteBuilder {
         }
     }
 
+    /**
+     * Checks whether the given method can be used as action method, i.e. returns a {@link Result} or a
+     * {@link CompletionStage} of {@link Result}.
+     *
+     * @param method the method
+     * @return {@code true} if the method returns a result
+     */
+    private static boolean isAction(Method method) {
+        return method.getReturnType().isAssignableFrom(Result.class)
+                || CompletionStage.class.isAssignableFrom(method.getReturnType());
+    }
+
 }
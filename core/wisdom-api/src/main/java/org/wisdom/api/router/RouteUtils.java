@@ -187,7 +187,8 @@ public class RouteUtils {
                             .on(uri)
                             .to(controller, method)
                             .accepting(annotation.accepts())
-                            .producing(annotation.produces());
+                            .producing(annotation.produces())
+                            .dispatching(annotation.dispatch());
                     routes.add(route);
                 }
             }
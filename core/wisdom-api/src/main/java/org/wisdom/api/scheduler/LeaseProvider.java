@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service granting named leases, used to run a scheduled job on a single node of a cluster. Before each run of a
+ * job declaring a lease, the scheduler tries to acquire it, and skips the run if another node holds it.
+ * <p>
+ * Implementations must grant a lease to a single holder at a time, across all the nodes sharing the leases.
+ */
+public interface LeaseProvider {
+
+    /**
+     * Tries to acquire a lease.
+     *
+     * @param name    the name of the lease
+     * @param atLeast the minimum time the lease is held, even if released before. It prevents the other nodes from
+     *                running the same run of a job when their clocks or jitters differ.
+     * @param atMost  the time after which the lease expires if it is not released, for instance because the holder
+     *                crashed
+     * @param unit    the unit of the two durations
+     * @return the acquired lease, {@code null} if the lease is held by someone else
+     */
+    Lease acquire(String name, long atLeast, long atMost, TimeUnit unit);
+
+    /**
+     * A lease granted by a {@link LeaseProvider}.
+     */
+    interface Lease {
+
+        /**
+         * @return the name of the lease
+         */
+        String name();
+
+        /**
+         * Releases the lease. The lease stays held until its minimum duration is reached.
+         */
+        void release();
+    }
+}
@@ -21,7 +21,8 @@ package org.wisdom.api.scheduler;
 
 /**
  * Marker interface exposed as service by components having periodic jobs.
- * The job are specified using the {@link org.wisdom.api.annotations.scheduler.Every} annotation.
+ * The job are specified using the {@link org.wisdom.api.annotations.scheduler.Every} and
+ * {@link org.wisdom.api.annotations.scheduler.Cron} annotations.
  */
 public interface Scheduled {
 }
@@ -252,4 +252,28 @@ public class RenderableTest {
         assertThat(new String(bytes, Charsets.UTF_8)).isEqualTo("a,b,c");
     }
 
+    @Test
+    public void testThatInMemoryContentIsExposedAsBytes() throws Exception {
+        assertThat(NoHttpBody.INSTANCE.bytes(null, null)).isEmpty();
+
+        final byte[] array = "hello".getBytes(Charsets.UTF_8);
+        assertThat(new RenderableByteArray(array).bytes(null, null)).isSameAs(array);
+
+        RenderableString string = new RenderableString("h\u00e9llo");
+        assertThat(string.bytes(null, null)).isEqualTo("h\u00e9llo".getBytes(Charsets.UTF_8));
+        assertThat(string.bytes(null, null)).isEqualTo(IOUtils.toByteArray(string.render(null, null)));
+
+        ObjectNode node = new ObjectMapper().createObjectNode().put("name", "wisdom");
+        RenderableJson json = new RenderableJson(node);
+        assertThat(json.bytes(null, null)).isEqualTo(IOUtils.toByteArray(json.render(null, null)));
+
+        RenderableObject object = new RenderableObject(node);
+        object.setSerializedForm(array);
+        assertThat(object.bytes(null, null)).isSameAs(array);
+        assertThat(object.length()).isEqualTo(array.length);
+
+        // Files and streams are not in memory.
+        assertThat(new RenderableFile(new File("target/test-classes/a_file.txt")).bytes(null, null)).isNull();
+    }
+
 }
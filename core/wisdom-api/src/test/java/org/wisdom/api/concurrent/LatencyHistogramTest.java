@@ -0,0 +1,144 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(0);
+        assertThat(snapshot.getMedian()).isEqualTo(0);
+        assertThat(snapshot.getMean()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long previous = -1;
+        for (int i = 0; i < (Long.SIZE - 4) * 16; i++) {
+            assertThat(LatencyHistogram.lowestValue(i)).isEqualTo(previous + 1);
+            assertThat(LatencyHistogram.index(LatencyHistogram.lowestValue(i))).isEqualTo(i);
+            assertThat(LatencyHistogram.index(LatencyHistogram.highestValue(i))).isEqualTo(i);
+            previous = LatencyHistogram.highestValue(i);
+        }
+        assertThat(previous).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(1000);
+        assertThat(snapshot.getMean()).isEqualTo(500.5);
+        // Values are at most 1/16 above the real percentile.
+        assertThat(snapshot.getMedian()).isBetween(500L, 500L + 500 / 16);
+        assertThat(snapshot.get99thPercentile()).isBetween(990L, 1000L);
+        assertThat(snapshot.get999thPercentile()).isEqualTo(1000);
+        assertThat(snapshot.getValueAtPercentile(0)).isEqualTo(1);
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    public void testSmallAndNegativeValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(3);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getValueAtPercentile(33)).isEqualTo(0);
+        assertThat(snapshot.getMedian()).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        new LatencyHistogram().snapshot().getValueAtPercentile(101);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(histogram.snapshot().getCount()).isEqualTo(40000);
+        assertThat(histogram.snapshot().getMax()).isEqualTo(9999);
+    }
+
+    @Test
+    public void testSince() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10000);
+        }
+        LatencyHistogram.Snapshot first = histogram.snapshot();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot delta = histogram.snapshot().since(first);
+        assertThat(delta.getCount()).isEqualTo(100);
+        assertThat(delta.getMean()).isEqualTo(50.5);
+        assertThat(delta.get99thPercentile()).isBetween(99L, 100L + 100 / 16);
+        assertThat(delta.getMax()).isLessThan(10000);
+        assertThat(LatencyHistogram.Snapshot.EMPTY.getCount()).isEqualTo(0);
+        assertThat(first.since(LatencyHistogram.Snapshot.EMPTY).getCount()).isEqualTo(100);
+    }
+
+    @Test
+    public void testRecentSnapshotForgetsOldValues() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(100, TimeUnit.MILLISECONDS);
+        histogram.record(10000);
+        assertThat(histogram.recentSnapshot().getCount()).isEqualTo(1);
+        Thread.sleep(150);
+        histogram.record(10);
+        // Still in the previous window.
+        assertThat(histogram.recentSnapshot().getCount()).isEqualTo(2);
+        Thread.sleep(150);
+        histogram.record(20);
+        // The window started at the previous read, the first value is forgotten.
+        LatencyHistogram.Snapshot recent = histogram.recentSnapshot();
+        assertThat(recent.getCount()).isEqualTo(1);
+        assertThat(recent.getMax()).isEqualTo(20);
+        // The cumulative snapshot keeps everything.
+        assertThat(histogram.snapshot().getCount()).isEqualTo(3);
+        assertThat(histogram.snapshot().getMax()).isEqualTo(10000);
+    }
+}
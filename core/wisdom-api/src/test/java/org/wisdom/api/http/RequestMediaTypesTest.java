@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+import com.google.common.net.MediaType;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the parsing of the Accept and Content-Type headers.
+ */
+public class RequestMediaTypesTest {
+
+    @Test
+    public void testOrderByQualityAndSpecificity() {
+        RequestMediaTypes types = RequestMediaTypes.of(
+                "text/*;q=0.3, text/html;q=0.7, text/html;level=1, text/html;level=2;q=0.4, */*;q=0.5", null);
+        assertThat(types.accepted()).containsExactly(
+                MediaType.parse("text/html").withParameter("level", "1"),
+                MediaType.parse("text/html").withParameter("q", "0.7"),
+                MediaType.parse("*/*").withParameter("q", "0.5"),
+                MediaType.parse("text/html").withParameter("level", "2").withParameter("q", "0.4"),
+                MediaType.parse("text/*").withParameter("q", "0.3")
+        );
+        assertThat(types.preferred()).isEqualTo(MediaType.parse("text/html").withParameter("level", "1"));
+
+        // Types with the same quality are all kept, the most specific first.
+        types = RequestMediaTypes.of("*/*, application/json, text/*, application/xml", null);
+        assertThat(types.accepted()).containsExactly(
+                MediaType.parse("application/json"),
+                MediaType.parse("application/xml"),
+                MediaType.ANY_TEXT_TYPE,
+                MediaType.ANY_TYPE
+        );
+    }
+
+    @Test
+    public void testMissingHeaders() {
+        RequestMediaTypes types = RequestMediaTypes.of(null, null);
+        assertThat(types.accepted()).containsExactly(MediaType.ANY_TEXT_TYPE);
+        assertThat(types.preferred()).isEqualTo(MediaType.ANY_TEXT_TYPE);
+        assertThat(types.accepts(MimeTypes.HTML)).isTrue();
+        assertThat(types.accepts(MimeTypes.JSON)).isFalse();
+        assertThat(types.contentType()).isNull();
+
+        assertThat(RequestMediaTypes.of("*/*", null).preferred()).isEqualTo(MediaType.ANY_TEXT_TYPE);
+    }
+
+    @Test
+    public void testAccepts() {
+        RequestMediaTypes types = RequestMediaTypes.of("text/html, application/*, image/png;q=0.5", null);
+        assertThat(types.accepts(MimeTypes.HTML)).isTrue();
+        assertThat(types.accepts(MediaType.HTML_UTF_8.withoutParameters())).isTrue();
+        assertThat(types.accepts(MimeTypes.JSON)).isTrue();
+        assertThat(types.accepts(MediaType.parse("image/png").withParameter("q", "0.5"))).isTrue();
+        assertThat(types.accepts(MimeTypes.CSS)).isFalse();
+    }
+
+    @Test
+    public void testParsedValuesAreInterned() {
+        String accept = "application/json, text/plain;q=0.5";
+        assertThat(RequestMediaTypes.of(accept, null).accepted())
+                .isSameAs(RequestMediaTypes.of(new String(accept), null).accepted());
+        assertThat(RequestMediaTypes.parse("application/json"))
+                .isSameAs(RequestMediaTypes.parse("application/json"));
+
+        RequestMediaTypes types = RequestMediaTypes.of(null, "application/json; charset=utf-8");
+        assertThat(types.contentType().withoutParameters()).isEqualTo(MediaType.JSON_UTF_8.withoutParameters());
+        assertThat(types.contentType()).isSameAs(RequestMediaTypes.of(null, "application/json; charset=utf-8")
+                .contentType());
+        assertThat(types.isFor(null, "application/json; charset=utf-8")).isTrue();
+        assertThat(types.isFor(MimeTypes.JSON, "application/json; charset=utf-8")).isFalse();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.router;
+
+import org.junit.Test;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.http.AsyncResult;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Result;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the invokers calling the action methods.
+ */
+public class ActionInvokersTest {
+
+    public static class MyController extends DefaultController {
+        public Result noParameter() {
+            return ok("hello");
+        }
+
+        public Result parameters(String name, int count, boolean flag) {
+            return ok(name + count + flag);
+        }
+
+        private Result hidden(Integer i) {
+            return ok(String.valueOf(i));
+        }
+
+        public Result failing() {
+            throw new IllegalStateException("bad");
+        }
+
+        public CompletionStage<Result> stage() {
+            return CompletableFuture.completedFuture(ok("later"));
+        }
+    }
+
+    private final MyController controller = new MyController();
+
+    private ActionInvoker invoker(String name, Class<?>... types) throws NoSuchMethodException {
+        Method method = MyController.class.getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        return ActionInvokers.create(controller, method);
+    }
+
+    @Test
+    public void testInvocation() throws Exception {
+        assertThat(invoker("noParameter").invoke().getRenderable().content()).isEqualTo("hello");
+        assertThat(invoker("parameters", String.class, Integer.TYPE, Boolean.TYPE)
+                .invoke("wisdom", 1, true).getRenderable().content()).isEqualTo("wisdom1true");
+        assertThat(invoker("hidden", Integer.class).invoke(2).getRenderable().content()).isEqualTo("2");
+    }
+
+    @Test
+    public void testThatExceptionsAreWrapped() throws Exception {
+        for (ActionInvoker invoker : new ActionInvoker[]{invoker("failing"),
+                ActionInvokers.reflective(controller, MyController.class.getMethod("failing"))}) {
+            try {
+                invoker.invoke();
+                fail("Exception expected");
+            } catch (InvocationTargetException e) {
+                assertThat(e.getTargetException()).isInstanceOf(IllegalStateException.class).hasMessage("bad");
+            }
+        }
+    }
+
+    @Test
+    public void testThatRoutesUseTheInvoker() throws Exception {
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "noParameter");
+        assertThat(route.getActionInvoker()).isNotNull();
+        assertThat(route.invoke().getRenderable().content()).isEqualTo("hello");
+        assertThat(new Route(HttpMethod.GET, "/", 404).getActionInvoker()).isNull();
+    }
+
+    @Test
+    public void testThatStagesAreWrappedIntoAsyncResults() throws Exception {
+        for (ActionInvoker invoker : new ActionInvoker[]{invoker("stage"),
+                ActionInvokers.reflective(controller, MyController.class.getMethod("stage"))}) {
+            Result result = invoker.invoke();
+            assertThat(result).isInstanceOf(AsyncResult.class);
+            assertThat(((AsyncResult) result).stage().toCompletableFuture().get().getRenderable().content())
+                    .isEqualTo("later");
+        }
+
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "stage");
+        assertThat(route.invoke()).isInstanceOf(AsyncResult.class);
+    }
+}
@@ -164,6 +164,25 @@ public class RouteAnnotationCollectionTest {
                 .contains(MediaType.create("application", "json"));
     }
 
+    @Test
+    public void testDispatchStrategy() {
+        Controller instance = new Controller() {
+
+            @org.wisdom.api.annotations.Route(method = HttpMethod.GET, uri = "/", dispatch = DispatchStrategy.WORKER)
+            public Result method1() {
+                return null;
+            }
+
+            @Override
+            public List<Route> routes() {
+                return null;
+            }
+        };
+        List<Route> routes = RouteUtils.collectRouteFromControllerAnnotations(instance);
+        assertThat(routes.get(0).getDispatchStrategy()).isEqualTo(DispatchStrategy.WORKER);
+        assertThat(RouteUtils.collectRouteFromControllerAnnotations(new Foo()).get(0).getDispatchStrategy())
+                .isEqualTo(DispatchStrategy.DEFAULT);
+    }
 
     @Test
     public void testMatches() {
@@ -42,11 +42,25 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     protected ListeningExecutorService executor;
     protected ThreadPoolExecutor internalPool;
 
-    protected final Set<Task<?>> tasks = new LinkedHashSet<>();
+    /**
+     * The submitted tasks that are not completed yet. This set is concurrent so tasks can be registered and removed,
+     * and the hung tasks looked up, without locking the executor.
+     */
+    protected final Set<Task<?>> tasks = ConcurrentHashMap.newKeySet();
     protected final Logger logger;
 
     protected ExecutionStatistics statistics = new ExecutionStatistics();
 
+    /**
+     * The time spent in the queue by the submitted tasks, in microseconds.
+     */
+    protected final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    /**
+     * The run time of the tasks, in microseconds.
+     */
+    protected final LatencyHistogram runTimes = new LatencyHistogram();
+
     protected List<ExecutionContextService> ecs;
 
     protected AbstractManagedExecutorService(String name, long hungTime, List<ExecutionContextService> ecs) {
@@ -81,25 +95,45 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     @Override
-    public synchronized Collection<ManagedFutureTask> getHungTasks() {
+    public LatencyHistogram.Snapshot getQueueWaitTimeHistogram() {
+        return waitTimes.snapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getRunTimeHistogram() {
+        return runTimes.snapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getRecentQueueWaitTimeHistogram() {
+        return waitTimes.recentSnapshot();
+    }
+
+    @Override
+    public LatencyHistogram.Snapshot getRecentRunTimeHistogram() {
+        return runTimes.recentSnapshot();
+    }
+
+    @Override
+    public Collection<ManagedFutureTask> getHungTasks() {
         return tasks.stream().filter(task -> task.isTaskHang()).collect(Collectors.toList());
     }
 
     @Override
-    public synchronized void shutdown() {
+    public void shutdown() {
         executor.shutdown();
     }
 
 
     @Override
-    public synchronized List<Runnable> shutdownNow() {
+    public List<Runnable> shutdownNow() {
         for (Task task : tasks) {
             task.cancel(true);
         }
         return executor.shutdownNow();
     }
 
-    protected synchronized ExecutionContext createExecutionContext() {
+    protected ExecutionContext createExecutionContext() {
         if (ecs == null) {
             return null;
         }
@@ -112,7 +146,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     @Override
-    public synchronized boolean isShutdown() {
+    public boolean isShutdown() {
         return executor.isShutdown();
     }
 
@@ -124,18 +158,18 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return {@code true} if all tasks have completed following shut down
      */
     @Override
-    public synchronized boolean isTerminated() {
+    public boolean isTerminated() {
         return executor.isTerminated();
     }
 
     @Override
-    public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+    public boolean awaitTermination(long timeout, TimeUnit unit)
             throws InterruptedException {
         return executor.awaitTermination(timeout, unit);
     }
 
     @Override
-    public synchronized <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
         List<Future<T>> futures = executor.invokeAll(tasks);
         List<Future<T>> manageable = new ArrayList<>(futures.size());
         int i = 0;
@@ -154,7 +188,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
 
 
     @Override
-    public synchronized <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
         List<Future<T>> futures = executor.invokeAll(tasks, timeout, unit);
         List<Future<T>> manageable = new ArrayList<>(futures.size());
         int i = 0;
@@ -169,22 +203,21 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
 
 
     @Override
-    public synchronized <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
             throws InterruptedException, ExecutionException {
         return executor.invokeAny(tasks);
     }
 
     @Override
-    public synchronized <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
                            long timeout, TimeUnit unit)
             throws InterruptedException, ExecutionException, TimeoutException {
         return executor.invokeAny(tasks, timeout, unit);
     }
 
     @Override
-    public synchronized void execute(Runnable command) {
-        Task<Void> task = getNewTaskFor(command, null);
-        task.execute();
+    public void execute(Runnable command) {
+        track(getNewTaskFor(command, null));
     }
 
 
@@ -195,7 +228,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getLargestPoolSize() {
+    public int getLargestPoolSize() {
         return internalPool.getLargestPoolSize();
     }
 
@@ -205,7 +238,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the maximum allowed number of threads
      */
     @Override
-    public synchronized int getMaximumPoolSize() {
+    public int getMaximumPoolSize() {
         return internalPool.getMaximumPoolSize();
     }
 
@@ -215,7 +248,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getPoolSize() {
+    public int getPoolSize() {
         return internalPool.getPoolSize();
     }
 
@@ -225,7 +258,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the core number of threads
      */
     @Override
-    public synchronized int getCorePoolSize() {
+    public int getCorePoolSize() {
         return internalPool.getCorePoolSize();
     }
 
@@ -239,7 +272,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of tasks
      */
     @Override
-    public synchronized long getCompletedTaskCount() {
+    public long getCompletedTaskCount() {
         return internalPool.getCompletedTaskCount();
     }
 
@@ -250,7 +283,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getActiveCount() {
+    public int getActiveCount() {
         return internalPool.getActiveCount();
     }
 
@@ -263,7 +296,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the task queue
      */
     @Override
-    public synchronized BlockingQueue<Runnable> getQueue() {
+    public BlockingQueue<Runnable> getQueue() {
         return internalPool.getQueue();
     }
 
@@ -278,7 +311,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * the presence of interference by other threads.
      */
     @Override
-    public synchronized void purge() {
+    public void purge() {
         internalPool.purge();
     }
 
@@ -299,7 +332,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return {@code true} if the task was removed
      */
     @Override
-    public synchronized boolean remove(Runnable task) {
+    public boolean remove(Runnable task) {
         return internalPool.remove(task);
     }
 
@@ -312,7 +345,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of tasks
      */
     @Override
-    public synchronized long getTaskCount() {
+    public long getTaskCount() {
         return internalPool.getTaskCount();
     }
 
@@ -325,27 +358,24 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the time limit
      */
     @Override
-    public synchronized long getKeepAliveTime(TimeUnit unit) {
+    public long getKeepAliveTime(TimeUnit unit) {
         return internalPool.getKeepAliveTime(unit);
     }
 
     @Override
-    public synchronized <T> ManagedFutureTask<T> submit(Callable<T> task) {
+    public <T> ManagedFutureTask<T> submit(Callable<T> task) {
         if (task == null) {
             throw new NullPointerException();
         }
-        return getNewTaskFor(task).execute();
+        return track(getNewTaskFor(task));
     }
 
     @Override
-    public synchronized <T> ManagedFutureTask<T> submit(Runnable task, T result) {
+    public <T> ManagedFutureTask<T> submit(Runnable task, T result) {
         if (task == null) {
             throw new NullPointerException();
         }
-        final Task t = getNewTaskFor(task, result).execute();
-        t.addListener(() -> tasks.remove(t));
-        tasks.add(t);
-        return t;
+        return track(getNewTaskFor(task, result));
     }
 
     @Override
@@ -355,11 +385,40 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     /**
-     * Computes the execution time of the completed task (given), and add it to the statistics.
+     * Submits the given task and keeps track of it until its completion. The task is registered before being
+     * submitted, so it cannot complete before being registered, and it is removed by the thread completing it.
+     *
+     * @param task the task
+     * @param <T>  the type of result
+     * @return the submitted task
+     */
+    protected <T> Task<T> track(final Task<T> task) {
+        tasks.add(task);
+        try {
+            task.execute();
+        } catch (RejectedExecutionException e) {
+            tasks.remove(task);
+            throw e;
+        }
+        task.addListener(() -> tasks.remove(task), MoreExecutors.sameThreadExecutor());
+        return task;
+    }
+
+    /**
+     * Computes the execution time of the completed task (given), and add it to the statistics. This method is
+     * called concurrently by the threads completing the tasks, and does not lock.
      *
      * @param task the completed task
      */
-    protected synchronized void addToStatistics(Task task) {
+    protected void addToStatistics(Task task) {
         statistics.accept(task.getTaskCompletionTime() - task.getTaskStartTime());
+        if (task.startNanos == 0) {
+            // The execution context could not be applied, the task has not run.
+            return;
+        }
+        if (task.submissionNanos != 0) {
+            waitTimes.record(TimeUnit.NANOSECONDS.toMicros(task.startNanos - task.submissionNanos));
+        }
+        runTimes.record(TimeUnit.NANOSECONDS.toMicros(task.completionNanos - task.startNanos));
     }
 }
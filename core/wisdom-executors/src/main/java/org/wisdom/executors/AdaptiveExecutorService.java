@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.Configuration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ManagedExecutorService} adjusting its number of threads from the time spent by the tasks in the queue.
+ * <p>
+ * At most once per interval, the mean queue wait of the tasks started during the interval is compared to the
+ * target: the pool grows by a quarter (at least one thread) when it is above, or when tasks are queued but none could
+ * start. It shrinks by one thread when the wait is far below the target, the queue is empty and at most half of the
+ * threads are busy. The check is done by the threads submitting and starting the tasks, there is no additional
+ * thread.
+ */
+public class AdaptiveExecutorService extends ManagedExecutorServiceImpl {
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetQueueTime;
+    private final long interval;
+
+    private final LongAdder waitSum = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final AtomicLong nextCheck;
+
+    public AdaptiveExecutorService(String name, Configuration configuration, List<ExecutionContextService> ecs) {
+        this(
+                name,
+                configuration.get("threadType", ThreadType.class, ThreadType.POOLED),
+                configuration.getDuration("hungTime", TimeUnit.MILLISECONDS, 60000),
+                configuration.getIntegerWithDefault("coreSize", 5),
+                configuration.getIntegerWithDefault("maxSize", 25),
+                configuration.getDuration("keepAlive", TimeUnit.MILLISECONDS, 5000),
+                configuration.getDuration("targetQueueTime", TimeUnit.MILLISECONDS, 10),
+                configuration.getDuration("adaptInterval", TimeUnit.MILLISECONDS, 1000),
+                configuration.getIntegerWithDefault("priority", Thread.NORM_PRIORITY),
+                ecs);
+    }
+
+    /**
+     * Creates the executor.
+     *
+     * @param name            the name
+     * @param tu              the type of thread
+     * @param hungTime        the hung threshold in milliseconds
+     * @param minSize         the minimum number of threads
+     * @param maxSize         the maximum number of threads
+     * @param keepAlive       the idle time in milliseconds before disposing a thread above the current size
+     * @param targetQueueTime the targeted mean queue wait in milliseconds
+     * @param interval        the minimum time in milliseconds between two adjustments
+     * @param priority        the thread priority
+     * @param ecs             the execution context services
+     */
+    public AdaptiveExecutorService(
+            String name,
+            ThreadType tu,
+            long hungTime,
+            int minSize,
+            int maxSize,
+            long keepAlive,
+            long targetQueueTime,
+            long interval,
+            int priority,
+            List<ExecutionContextService> ecs) {
+        super(name, tu, hungTime, minSize, maxSize, keepAlive, false, Integer.MAX_VALUE, priority, ecs);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetQueueTime = TimeUnit.MILLISECONDS.toNanos(targetQueueTime);
+        this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.nextCheck = new AtomicLong(System.nanoTime() + this.interval);
+    }
+
+    @Override
+    protected <V> Task<V> getNewTaskFor(Runnable task, V result) {
+        return getNewTaskFor(Executors.callable(task, result));
+    }
+
+    @Override
+    protected <V> Task<V> getNewTaskFor(final Callable<V> callable) {
+        final long submission = System.nanoTime();
+        return super.getNewTaskFor(() -> {
+            waitSum.add(System.nanoTime() - submission);
+            waitCount.increment();
+            adapt();
+            return callable.call();
+        });
+    }
+
+    @Override
+    protected <T> Task<T> track(Task<T> task) {
+        Task<T> submitted = super.track(task);
+        // When all the threads are blocked, no task starts, so check from the submitting thread too.
+        adapt();
+        return submitted;
+    }
+
+    /**
+     * Resizes the pool if the last adjustment is older than the interval.
+     */
+    void adapt() {
+        long now = System.nanoTime();
+        long next = nextCheck.get();
+        if (now - next < 0 || !nextCheck.compareAndSet(next, now + interval)) {
+            return;
+        }
+        long count = waitCount.sumThenReset();
+        long mean = count == 0 ? 0 : waitSum.sumThenReset() / count;
+        boolean queued = !internalPool.getQueue().isEmpty();
+        int size = internalPool.getCorePoolSize();
+        if (size < maxSize && (mean > targetQueueTime || (count == 0 && queued))) {
+            resize(Math.min(maxSize, size + Math.max(1, size / 4)), mean);
+        } else if (size > minSize && mean < targetQueueTime / 4 && !queued
+                && internalPool.getActiveCount() <= size / 2) {
+            resize(size - 1, mean);
+        }
+    }
+
+    private void resize(int size, long mean) {
+        logger.debug("Resizing the executor {} from {} to {} threads (mean queue time: {} us)", name,
+                internalPool.getCorePoolSize(), size, TimeUnit.NANOSECONDS.toMicros(mean));
+        internalPool.setCorePoolSize(size);
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.wisdom.executors;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -28,18 +29,22 @@ import org.slf4j.LoggerFactory;
 import org.wisdom.api.annotations.scheduler.Async;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
+import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
 import org.wisdom.api.exceptions.HttpException;
 import org.wisdom.api.http.AsyncResult;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.interception.RequestContext;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The interceptor managing {@link Async} actions.
+ * <p>
+ * The action is submitted to the system executor, and the returned {@link AsyncResult} is completed by the thread
+ * running it. No thread waits for the action: the timeout is a timer of the system scheduler completing the result
+ * with a {@code GATEWAY_TIMEOUT} error.
  */
 @Component
 @Provides(specifications = Interceptor.class)
@@ -51,59 +56,8 @@ public class AsyncInterceptor extends Interceptor<Async> {
     @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", proxy = false)
     protected ManagedExecutorService executor;
 
-    private class ResultRetriever implements Callable<Result> {
-
-        private final RequestContext context;
-        private final Async configuration;
-
-        /**
-         * Creates a {@link org.wisdom.executors.AsyncInterceptor.ResultRetriever}.
-         *
-         * @param context       the context
-         * @param configuration the annotation configuration
-         */
-        public ResultRetriever(RequestContext context, Async configuration) {
-            this.context = context;
-            this.configuration = configuration;
-        }
-
-        @Override
-        public Result call() throws Exception {
-            final ManagedFutureTask<Result> task = executor.submit(new Callable<Result>() {
-                @Override
-                public Result call() throws Exception {
-                    return context.proceed();
-                }
-            });
-
-            Result result;
-            try {
-                result = task.get(configuration.timeout(), configuration.unit());
-            } catch (TimeoutException e) {
-                LOGGER.debug("Call on {} was cancelled because it took more than {} {}",
-                        context.route().getUrl(),
-                        configuration.unit(),
-                        configuration.timeout()
-                );
-                // Interrupt the computation if supported.
-                task.cancel(true);
-                throw new HttpException(Result.GATEWAY_TIMEOUT, "Request timeout");
-            } catch (InterruptedException e) {
-                LOGGER.debug("Call on {} was interrupted", context.route().getUrl());
-                throw new HttpException(Result.GATEWAY_TIMEOUT, "Request timeout");
-            } catch (ExecutionException e) {
-                throw new HttpException(Result.INTERNAL_SERVER_ERROR, "Computation error", e);
-            }
-
-            if (result == null) {
-                throw new HttpException(Result.INTERNAL_SERVER_ERROR, "Computation error");
-            }
-
-            return result;
-        }
-
-
-    }
+    @Requires(filter = "(name=" + ManagedScheduledExecutorService.SYSTEM + ")", proxy = false)
+    protected ManagedScheduledExecutorService scheduler;
 
     /**
      * Wrap the action method as an asynchronous method. The result is computed asynchronously and returned to the
@@ -116,20 +70,41 @@ public class AsyncInterceptor extends Interceptor<Async> {
      */
     @Override
     public Result call(final Async configuration, final RequestContext context) throws Exception {
-        Callable<Result> callable;
-        if (configuration.timeout() > 0) {
-            callable = new ResultRetriever(context, configuration);
-        } else {
-            callable = new Callable<Result>() {
-                @Override
-                public Result call() throws Exception {
-                    return context.proceed();
+        final CompletableFuture<Result> result = new CompletableFuture<>();
+        final boolean timeout = configuration.timeout() > 0;
+        final ManagedFutureTask<Result> task = executor.submit(context::proceed);
+        task.onSuccess((future, computed) -> {
+            if (computed == null) {
+                result.completeExceptionally(new HttpException(Result.INTERNAL_SERVER_ERROR, "Computation error"));
+            } else {
+                result.complete(computed);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        task.onFailure((future, throwable) -> {
+            if (timeout) {
+                result.completeExceptionally(new HttpException(Result.INTERNAL_SERVER_ERROR, "Computation error",
+                        throwable));
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        if (timeout) {
+            final ManagedScheduledFutureTask<?> timer = scheduler.schedule(() -> {
+                if (result.completeExceptionally(new HttpException(Result.GATEWAY_TIMEOUT, "Request timeout"))) {
+                    LOGGER.debug("Call on {} was cancelled because it took more than {} {}",
+                            context.route().getUrl(),
+                            configuration.timeout(),
+                            configuration.unit()
+                    );
+                    // Interrupt the computation if supported.
+                    task.cancel(true);
                 }
-            };
+            }, configuration.timeout(), configuration.unit());
+            result.whenComplete((computed, throwable) -> timer.cancel(false));
         }
-        return new AsyncResult(callable);
+        return new AsyncResult(result);
     }
-
     /**
      * Gets the annotation class configuring the current interceptor.
      *
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.Configuration;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded {@link ManagedExecutorService} isolating the actions of a route or of a controller from the rest of the
+ * application (see {@link org.wisdom.api.annotations.scheduler.Bulkhead}).
+ * <p>
+ * The number of threads and the size of the queue are fixed, so a burst of requests on the isolated actions cannot
+ * use more resources. Tasks submitted when the queue is full are rejected, and tasks that waited in the queue longer
+ * than the configured maximum queue time are not run: they fail with a {@link RejectedExecutionException}, as the
+ * client has likely given up.
+ */
+public class BulkheadExecutorService extends ManagedExecutorServiceImpl {
+
+    private final long maxQueueTime;
+
+    private final long retryAfter;
+
+    public BulkheadExecutorService(String name, Configuration configuration, List<ExecutionContextService> ecs) {
+        this(
+                name,
+                configuration.get("threadType", ThreadType.class, ThreadType.POOLED),
+                configuration.getDuration("hungTime", TimeUnit.MILLISECONDS, 60000),
+                configuration.getIntegerWithDefault("size", 10),
+                configuration.getIntegerWithDefault("workQueueCapacity", 20),
+                configuration.getDuration("maxQueueTime", TimeUnit.MILLISECONDS, 0),
+                configuration.getDuration("retryAfter", TimeUnit.SECONDS, 1),
+                configuration.getIntegerWithDefault("priority", Thread.NORM_PRIORITY),
+                ecs);
+    }
+
+    /**
+     * Creates the executor.
+     *
+     * @param name              the name
+     * @param tu                the type of thread
+     * @param hungTime          the hung threshold in milliseconds
+     * @param size              the number of threads
+     * @param workQueueCapacity the size of the queue, must be bounded
+     * @param maxQueueTime      the maximum time in milliseconds a task can wait in the queue, 0 for no limit
+     * @param retryAfter        the delay in seconds clients should wait before retrying a rejected request
+     * @param priority          the thread priority
+     * @param ecs               the execution context services
+     */
+    public BulkheadExecutorService(
+            String name,
+            ThreadType tu,
+            long hungTime,
+            int size,
+            int workQueueCapacity,
+            long maxQueueTime,
+            long retryAfter,
+            int priority,
+            List<ExecutionContextService> ecs) {
+        super(name, tu, hungTime, size, size, 0, false, checkBounded(workQueueCapacity), priority, ecs);
+        this.maxQueueTime = maxQueueTime;
+        this.retryAfter = retryAfter;
+    }
+
+    private static int checkBounded(int workQueueCapacity) {
+        if (workQueueCapacity == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The queue of a bulkhead must be bounded");
+        }
+        return workQueueCapacity;
+    }
+
+    /**
+     * @return the maximum time in milliseconds a task can wait in the queue, 0 if there is no limit.
+     */
+    public long getMaxQueueTime() {
+        return maxQueueTime;
+    }
+
+    /**
+     * @return the delay in seconds clients should wait before retrying a rejected request.
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    protected <V> Task<V> getNewTaskFor(Runnable task, V result) {
+        return getNewTaskFor(Executors.callable(task, result));
+    }
+
+    @Override
+    protected <V> Task<V> getNewTaskFor(final Callable<V> callable) {
+        if (maxQueueTime <= 0) {
+            return super.getNewTaskFor(callable);
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxQueueTime);
+        return super.getNewTaskFor(() -> {
+            if (System.nanoTime() - deadline > 0) {
+                throw new RejectedExecutionException("The task waited more than " + maxQueueTime + " ms in the "
+                        + "queue of " + name);
+            }
+            return callable.call();
+        });
+    }
+}
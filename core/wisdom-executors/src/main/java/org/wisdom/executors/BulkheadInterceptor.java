@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.annotations.scheduler.Bulkhead;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.http.AsyncResult;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.MimeTypes;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
+import org.wisdom.api.interception.Interceptor;
+import org.wisdom.api.interception.RequestContext;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The interceptor managing {@link Bulkhead} actions. The action is submitted to the executor named in the
+ * annotation, and the result is sent once computed. Rejected requests get a {@code 503 Service Unavailable} result
+ * with a {@code Retry-After} header.
+ */
+@Component
+@Provides(specifications = Interceptor.class)
+@Instantiate
+public class BulkheadInterceptor extends Interceptor<Bulkhead> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    /**
+     * The delay in seconds sent in the {@code Retry-After} header when the executor does not define one.
+     */
+    static final long DEFAULT_RETRY_AFTER = 1;
+
+    @Requires(specification = ManagedExecutorService.class, optional = true, proxy = false)
+    protected List<ManagedExecutorService> executors;
+
+    /**
+     * Runs the action method on the executor of the bulkhead.
+     *
+     * @param configuration the interception configuration
+     * @param context       the interception context
+     * @return an async result wrapping the action method invocation, or the result of the action if the executor
+     * does not exist.
+     */
+    @Override
+    public Result call(final Bulkhead configuration, final RequestContext context) throws Exception {
+        final ManagedExecutorService executor = find(configuration.value());
+        if (executor == null) {
+            LOGGER.warn("No executor named '{}', the action {} is not isolated", configuration.value(),
+                    context.route().getUrl());
+            return context.proceed();
+        }
+
+        final CompletableFuture<Result> result = new CompletableFuture<>();
+        final ManagedFutureTask<Result> task;
+        try {
+            task = executor.submit(context::proceed);
+        } catch (RejectedExecutionException e) { //NOSONAR the rejection is reported to the client
+            return rejected(executor);
+        }
+        task.onSuccess((future, computed) -> result.complete(computed), MoreExecutors.sameThreadExecutor());
+        task.onFailure((future, throwable) -> {
+            if (throwable instanceof RejectedExecutionException) {
+                // Waited too long in the queue.
+                result.complete(rejected(executor));
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        }, MoreExecutors.sameThreadExecutor());
+        return new AsyncResult(result);
+    }
+
+    private ManagedExecutorService find(String name) {
+        if (executors == null) {
+            return null;
+        }
+        for (ManagedExecutorService executor : executors) {
+            if (name.equals(executor.name())) {
+                return executor;
+            }
+        }
+        return null;
+    }
+
+    private static Result rejected(ManagedExecutorService executor) {
+        long retryAfter = executor instanceof BulkheadExecutorService
+                ? ((BulkheadExecutorService) executor).getRetryAfter() : DEFAULT_RETRY_AFTER;
+        return new Result(Status.SERVICE_UNAVAILABLE)
+                .render("Server overloaded - request rejected").as(MimeTypes.TEXT)
+                .with(HeaderNames.RETRY_AFTER, Long.toString(retryAfter));
+    }
+
+    /**
+     * Gets the annotation class configuring the current interceptor.
+     *
+     * @return the annotation
+     */
+    @Override
+    public Class<Bulkhead> annotation() {
+        return Bulkhead.class;
+    }
+}
@@ -53,6 +53,26 @@ public class Creator {
             ManagedScheduledExecutorService.class.getName()
     };
 
+    /**
+     * The default profile: a thread pool with a core and a maximum size.
+     */
+    static final String PROFILE_POOLED = "pooled";
+
+    /**
+     * A fork/join pool, see {@link WorkStealingExecutorService}.
+     */
+    static final String PROFILE_WORK_STEALING = "work-stealing";
+
+    /**
+     * A bounded pool isolating some actions, see {@link BulkheadExecutorService}.
+     */
+    static final String PROFILE_BULKHEAD = "bulkhead";
+
+    /**
+     * A pool sized from the queue wait of the tasks, see {@link AdaptiveExecutorService}.
+     */
+    static final String PROFILE_ADAPTIVE = "adaptive";
+
     @Requires
     ApplicationConfiguration configuration;
 
@@ -112,10 +132,9 @@ public class Creator {
 
     private void createExecutor(String name, Configuration conf) {
         LOGGER.info("Creating executor {}", name);
-        ManagedExecutorServiceImpl executor;
+        AbstractManagedExecutorService executor;
         if (conf != null) {
-            executor = new ManagedExecutorServiceImpl(name, conf, ecs);
-
+            executor = createExecutor(name, conf, ecs);
         } else {
             executor = new ManagedExecutorServiceImpl(
                     ManagedExecutorService.SYSTEM,
@@ -136,6 +155,33 @@ public class Creator {
         instances.put(reg, executor);
     }
 
+    /**
+     * Creates an executor according to the {@code profile} set in its configuration.
+     *
+     * @param name the name of the executor
+     * @param conf the configuration of the executor
+     * @param ecs  the execution context services
+     * @return the executor
+     */
+    static AbstractManagedExecutorService createExecutor(String name, Configuration conf,
+                                                         List<ExecutionContextService> ecs) {
+        String profile = conf.getWithDefault("profile", PROFILE_POOLED);
+        switch (profile) {
+            case PROFILE_POOLED:
+                return new ManagedExecutorServiceImpl(name, conf, ecs);
+            case PROFILE_WORK_STEALING:
+                return new WorkStealingExecutorService(name, conf, ecs);
+            case PROFILE_BULKHEAD:
+                return new BulkheadExecutorService(name, conf, ecs);
+            case PROFILE_ADAPTIVE:
+                return new AdaptiveExecutorService(name, conf, ecs);
+            default:
+                throw new IllegalArgumentException("Unknown profile '" + profile + "' for the executor " + name
+                        + ", must be one of " + PROFILE_POOLED + ", " + PROFILE_WORK_STEALING + ", "
+                        + PROFILE_BULKHEAD + " or " + PROFILE_ADAPTIVE);
+        }
+    }
+
     private void createScheduler(String name, Configuration conf) {
         LOGGER.info("Creating scheduler {}", name);
         ManagedScheduledExecutorServiceImpl executor;
@@ -81,7 +81,10 @@ public class ManagedExecutorServiceImpl extends AbstractManagedExecutorService
                 TimeUnit.MILLISECONDS, queue, builder.build(), new RejectedExecutionHandler() {
             @Override
             public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-                System.out.println("REJECTED EXECUTION : " + r);
+                // The submitter gets the exception, so the task does not silently disappear.
+                logger.debug("Task rejected by the executor {} (queue: {}, active threads: {})", name,
+                        executor.getQueue().size(), executor.getActiveCount());
+                throw new RejectedExecutionException("The executor " + name + " is saturated");
             }
         });
         executor.allowCoreThreadTimeOut(allowCoreThreadTimeOut);
@@ -103,7 +106,7 @@ public class ManagedExecutorServiceImpl extends AbstractManagedExecutorService
         return queue;
     }
 
-    protected synchronized <V> Task<V> getNewTaskFor(Runnable task, V result) {
+    protected <V> Task<V> getNewTaskFor(Runnable task, V result) {
         return new Task<>(executor, task, result, createExecutionContext(),
                 hungTime, this);
     }
@@ -41,8 +41,16 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     private final AbstractManagedExecutorService parent;
 
     protected long submissionDate;
-    private long startDate;
-    private long completionDate;
+    private volatile long startDate;
+    private volatile long completionDate;
+
+    /**
+     * The {@link System#nanoTime()} values used to compute the queue wait and run times. {@code submissionNanos}
+     * stays at 0 for scheduled tasks, as their delay is not a queue wait.
+     */
+    volatile long submissionNanos;
+    volatile long startNanos;
+    volatile long completionNanos;
     private long hungTime;
 
     protected Task(
@@ -84,6 +92,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     }
 
     protected Task<V> execute() {
+        submissionNanos = System.nanoTime();
         ListenableFuture<V> future = executor.submit(callable);
         submitted(future);
         return this;
@@ -247,6 +256,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
                 if (executionContext != null) {
                     executionContext.apply();
                 }
+                startNanos = System.nanoTime();
                 startDate = System.currentTimeMillis();
                 return delegate.call();
             } catch (Throwable e) { //NOSONAR
@@ -254,6 +264,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
                 setException(e);
                 throw e;
             } finally {
+                completionNanos = System.nanoTime();
                 completionDate = System.currentTimeMillis();
                 if (executionContext != null) {
                     executionContext.unapply();
@@ -0,0 +1,265 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.Configuration;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A {@link ManagedExecutorService} backed by a {@link ForkJoinPool}, for CPU-bound tasks fanning out sub-tasks.
+ * <p>
+ * Each thread of the pool has its own deque, and idle threads steal tasks from the busy ones. Tasks running on this
+ * executor can fork {@link ForkJoinTask}s, and parallel streams started from them use this pool instead of the
+ * common pool.
+ * <p>
+ * A fork/join pool has no shared work queue and no core / maximum sizes: {@link #getQueue()} is a read-only view
+ * whose size is the number of queued tasks, and the sizes are the parallelism level.
+ */
+public class WorkStealingExecutorService extends AbstractManagedExecutorService implements ManagedExecutorService {
+
+    private final ForkJoinPool pool;
+
+    private final BlockingQueue<Runnable> queue;
+
+    public WorkStealingExecutorService(String name, Configuration configuration, List<ExecutionContextService> ecs) {
+        this(
+                name,
+                configuration.get("threadType", ThreadType.class, ThreadType.POOLED),
+                configuration.getDuration("hungTime", TimeUnit.MILLISECONDS, 60000),
+                configuration.getIntegerWithDefault("parallelism", Runtime.getRuntime().availableProcessors()),
+                configuration.getBooleanWithDefault("asyncMode", false),
+                configuration.getIntegerWithDefault("priority", Thread.NORM_PRIORITY),
+                ecs);
+    }
+
+    /**
+     * Creates the executor.
+     *
+     * @param name        the name
+     * @param tu          the type of thread
+     * @param hungTime    the hung threshold in milliseconds
+     * @param parallelism the parallelism level, i.e. the targeted number of active threads
+     * @param asyncMode   {@code true} to run the forked tasks that are never joined in FIFO order, {@code false}
+     *                    to use the LIFO order best suited to divide and conquer tasks
+     * @param priority    the thread priority
+     * @param ecs         the execution context services
+     */
+    public WorkStealingExecutorService(
+            String name,
+            final ThreadType tu,
+            long hungTime,
+            int parallelism,
+            boolean asyncMode,
+            final int priority,
+            List<ExecutionContextService> ecs) {
+        super(name, hungTime, ecs);
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName(name + "-" + thread.getPoolIndex());
+            thread.setDaemon(tu == ThreadType.DAEMON);
+            thread.setPriority(priority);
+            return thread;
+        };
+        this.pool = new ForkJoinPool(parallelism, factory,
+                (t, e) -> logger.error("Uncaught exception in thread '{}'", t.getName(), e), asyncMode);
+        this.executor = MoreExecutors.listeningDecorator(pool);
+        this.queue = new QueueView(pool);
+    }
+
+    /**
+     * @return the underlying fork/join pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    protected <T> Task getNewTaskFor(Callable<T> callable) {
+        return new Task(executor, callable, createExecutionContext(), hungTime, this);
+    }
+
+    @Override
+    protected <V> Task<V> getNewTaskFor(Runnable task, V result) {
+        return new Task<>(executor, task, result, createExecutionContext(), hungTime, this);
+    }
+
+    /**
+     * @return the parallelism level, as the pool can add threads to compensate for blocked ones, the number of
+     * threads may be larger.
+     */
+    @Override
+    public int getLargestPoolSize() {
+        return Math.max(pool.getParallelism(), pool.getPoolSize());
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return the number of tasks submitted to this executor that have completed.
+     */
+    @Override
+    public long getCompletedTaskCount() {
+        return statistics.getCount();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    /**
+     * @return a read-only view of the queued tasks, only supporting {@code size}.
+     */
+    @Override
+    public BlockingQueue<Runnable> getQueue() {
+        return queue;
+    }
+
+    /**
+     * Does nothing, cancelled tasks are dropped when polled.
+     */
+    @Override
+    public void purge() {
+        // Nothing to do.
+    }
+
+    /**
+     * @param task the task
+     * @return {@code false}, tasks cannot be removed from a fork/join pool.
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        return false;
+    }
+
+    @Override
+    public long getTaskCount() {
+        return getCompletedTaskCount() + pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount()
+                + pool.getActiveThreadCount();
+    }
+
+    /**
+     * @param unit the desired time unit of the result
+     * @return 0, the release of idle threads is managed by the fork/join pool.
+     */
+    @Override
+    public long getKeepAliveTime(TimeUnit unit) {
+        return 0;
+    }
+
+    /**
+     * A read-only view of the tasks queued in a fork/join pool.
+     */
+    private static final class QueueView extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+        private final ForkJoinPool pool;
+
+        private QueueView(ForkJoinPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Iterator<Runnable> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !pool.hasQueuedSubmissions() && pool.getQueuedTaskCount() == 0;
+        }
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public void put(Runnable runnable) {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public boolean offer(Runnable runnable, long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public Runnable take() {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public Runnable poll() {
+            throw new UnsupportedOperationException("Read-only view of a fork/join pool");
+        }
+
+        @Override
+        public Runnable peek() {
+            return null;
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c) {
+            return 0;
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import com.google.common.base.Splitter;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A parsed cron expression, computing the next execution times of a {@link org.wisdom.api.annotations.scheduler.Cron}
+ * job.
+ * <p>
+ * The expression contains 5 fields (minute, hour, day of month, month, day of week) or 6 fields (the seconds
+ * first). Each field is {@code *} (or {@code ?}), or a list of values, ranges ({@code 1-5}) and steps
+ * ({@code *}{@code /10}, {@code 5/15}, {@code 1-30/2}). Months and days of week can be given by name ({@code JAN},
+ * {@code MON}), Sunday being either 0 or 7. When both the day of month and the day of week are restricted, a day
+ * matching either of them is selected, like the Unix cron. The {@code @yearly}, {@code @monthly}, {@code @weekly},
+ * {@code @daily} and {@code @hourly} shortcuts are also supported.
+ */
+public final class CronExpression {
+
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+            "NOV", "DEC"};
+    private static final String[] DAYS = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    /**
+     * The number of years looked ahead before considering the expression never matches (e.g. 30th of February).
+     */
+    private static final int MAX_YEARS = 5;
+
+    private final String expression;
+    private final BitSet seconds;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean dayOfMonthRestricted;
+    private final boolean dayOfWeekRestricted;
+
+    /**
+     * Parses a cron expression.
+     *
+     * @param expression the expression
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public CronExpression(String expression) {
+        this.expression = expression;
+        List<String> fields = Arrays.asList(expand(expression).trim().split("\\s+"));
+        if (fields.size() != 5 && fields.size() != 6) {
+            throw new IllegalArgumentException("Invalid cron expression '" + expression + "', 5 or 6 fields expected");
+        }
+        int offset = fields.size() - 5;
+        this.seconds = offset == 0 ? parse("0", 0, 59, null, 0) : parse(fields.get(0), 0, 59, null, 0);
+        this.minutes = parse(fields.get(offset), 0, 59, null, 0);
+        this.hours = parse(fields.get(offset + 1), 0, 23, null, 0);
+        this.daysOfMonth = parse(fields.get(offset + 2), 1, 31, null, 0);
+        this.months = parse(fields.get(offset + 3), 1, 12, MONTHS, 1);
+        this.daysOfWeek = parse(fields.get(offset + 4), 0, 7, DAYS, 0);
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        this.dayOfMonthRestricted = !isWildcard(fields.get(offset + 2));
+        this.dayOfWeekRestricted = !isWildcard(fields.get(offset + 4));
+    }
+
+    private static String expand(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("The cron expression must not be null");
+        }
+        switch (expression.trim().toLowerCase()) {
+            case "@yearly":
+            case "@annually":
+                return "0 0 1 1 *";
+            case "@monthly":
+                return "0 0 1 * *";
+            case "@weekly":
+                return "0 0 * * 0";
+            case "@daily":
+            case "@midnight":
+                return "0 0 * * *";
+            case "@hourly":
+                return "0 * * * *";
+            default:
+                return expression;
+        }
+    }
+
+    private static boolean isWildcard(String field) {
+        return "*".equals(field) || "?".equals(field);
+    }
+
+    private BitSet parse(String field, int min, int max, String[] names, int firstName) {
+        BitSet set = new BitSet(max + 1);
+        for (String part : Splitter.on(',').split(field)) {
+            int step = 1;
+            String range = part;
+            int slash = part.indexOf('/');
+            if (slash != -1) {
+                range = part.substring(0, slash);
+                step = value(part.substring(slash + 1), 1, max, null, 0);
+            }
+            int from;
+            int to;
+            if (isWildcard(range)) {
+                from = min;
+                to = max;
+            } else if (range.indexOf('-') > 0) {
+                int dash = range.indexOf('-');
+                from = value(range.substring(0, dash), min, max, names, firstName);
+                to = value(range.substring(dash + 1), min, max, names, firstName);
+            } else {
+                from = value(range, min, max, names, firstName);
+                // 5/15 means from 5 to the max, every 15.
+                to = slash != -1 ? max : from;
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid range '" + part + "' in the cron expression '"
+                        + expression + "'");
+            }
+            for (int i = from; i <= to; i += step) {
+                set.set(i);
+            }
+        }
+        return set;
+    }
+
+    private int value(String value, int min, int max, String[] names, int firstName) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(value)) {
+                    return i + firstName;
+                }
+            }
+        }
+        int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' in the cron expression '"
+                    + expression + "'", e);
+        }
+        if (result < min || result > max) {
+            throw new IllegalArgumentException("The value '" + value + "' of the cron expression '" + expression
+                    + "' is not in [" + min + ", " + max + "]");
+        }
+        return result;
+    }
+
+    /**
+     * Computes the next time matching the expression, strictly after the given time.
+     *
+     * @param after the time
+     * @return the next matching time, {@literal null} if the expression never matches
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZonedDateTime time = after.plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        ZonedDateTime limit = after.plusYears(MAX_YEARS);
+        while (time.isBefore(limit)) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.plusMonths(1).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            } else if (!matchesDay(time)) {
+                time = time.plusDays(1).truncatedTo(ChronoUnit.DAYS);
+            } else if (!hours.get(time.getHour())) {
+                time = time.plusHours(1).truncatedTo(ChronoUnit.HOURS);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1).truncatedTo(ChronoUnit.MINUTES);
+            } else if (!seconds.get(time.getSecond())) {
+                time = time.plusSeconds(1);
+            } else {
+                return time;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesDay(ZonedDateTime time) {
+        boolean dayOfMonth = daysOfMonth.get(time.getDayOfMonth());
+        // DayOfWeek goes from 1 (Monday) to 7 (Sunday), while cron uses 0 for Sunday.
+        boolean dayOfWeek = daysOfWeek.get(time.getDayOfWeek().getValue() % DayOfWeek.values().length);
+        if (dayOfMonthRestricted && dayOfWeekRestricted) {
+            return dayOfMonth || dayOfWeek;
+        }
+        return dayOfMonth && dayOfWeek;
+    }
+
+    /**
+     * @return the expression.
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import com.google.common.base.Charsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.scheduler.LeaseProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link LeaseProvider} storing each lease in a file of a directory. When the directory is shared by the nodes
+ * (network file system, shared volume), a lease is held by a single node at a time.
+ * <p>
+ * Each file contains the expiration time of the lease and its holder. The files are only read and written while
+ * holding a file lock, so the clocks of the nodes must be synchronized.
+ */
+public class FileLeaseProvider implements LeaseProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileLeaseProvider.class);
+
+    private final File directory;
+
+    /**
+     * Creates a new instance of {@link FileLeaseProvider}.
+     *
+     * @param directory the directory storing the leases, created if it does not exist
+     */
+    public FileLeaseProvider(File directory) {
+        this.directory = directory;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create the lease directory " + directory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Tries to acquire a lease.
+     *
+     * @param name    the name of the lease
+     * @param atLeast the minimum time the lease is held
+     * @param atMost  the time after which the lease expires if not released
+     * @param unit    the unit of the two durations
+     * @return the acquired lease, {@code null} if the lease is held, or if the lease file cannot be accessed
+     */
+    @Override
+    public synchronized Lease acquire(String name, long atLeast, long atMost, TimeUnit unit) {
+        File file = getFile(name);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            String[] content = read(channel);
+            if (content != null && Long.parseLong(content[0]) > now) {
+                return null;
+            }
+            String holder = UUID.randomUUID().toString();
+            write(channel, now + unit.toMillis(atMost), holder);
+            return new FileLease(name, holder, now + unit.toMillis(atLeast));
+        } catch (OverlappingFileLockException e) {
+            // Another provider of this JVM is using the file.
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot acquire the lease {} from {}", name, file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private synchronized void release(FileLease lease) {
+        File file = getFile(lease.name);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            channel.lock();
+            String[] content = read(channel);
+            // Only shorten the lease if it was not taken over after its expiration.
+            if (content != null && lease.holder.equals(content[1])) {
+                long until = Math.min(Long.parseLong(content[0]),
+                        Math.max(System.currentTimeMillis(), lease.minimum));
+                write(channel, until, lease.holder);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot release the lease {} from {}, it is going to expire", lease.name,
+                    file.getAbsolutePath(), e);
+        }
+    }
+
+    private File getFile(String name) {
+        return new File(directory, name.replaceAll("[^A-Za-z0-9._-]", "_") + ".lease");
+    }
+
+    private static String[] read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) != -1) {
+            // Read the whole file.
+        }
+        String[] content = new String(buffer.array(), 0, buffer.position(), Charsets.UTF_8).trim().split(" ");
+        if (content.length != 2) {
+            return null;
+        }
+        return content;
+    }
+
+    private static void write(FileChannel channel, long until, String holder) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((until + " " + holder).getBytes(Charsets.UTF_8));
+        channel.truncate(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+
+    private final class FileLease implements Lease {
+
+        private final String name;
+        private final String holder;
+        private final long minimum;
+
+        private FileLease(String name, String holder, long minimum) {
+            this.name = name;
+            this.holder = holder;
+            this.minimum = minimum;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void release() {
+            FileLeaseProvider.this.release(this);
+        }
+    }
+}
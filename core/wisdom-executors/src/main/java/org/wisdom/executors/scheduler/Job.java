@@ -23,13 +23,22 @@ import com.google.common.base.Strings;
 import org.joda.time.Period;
 import org.joda.time.format.PeriodFormatter;
 import org.joda.time.format.PeriodFormatterBuilder;
+import org.wisdom.api.annotations.scheduler.Cron;
 import org.wisdom.api.annotations.scheduler.Every;
+import org.wisdom.api.concurrent.LatencyHistogram;
 import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
+import org.wisdom.api.scheduler.LeaseProvider;
 import org.wisdom.api.scheduler.Scheduled;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Structure holding a job.
@@ -56,8 +65,25 @@ public class Job {
     private final Method method;
     private final Scheduled scheduled;
     private final TimeUnit unit;
-    private ManagedScheduledFutureTask task;
-    private long period;
+    private final long period;
+    private final CronExpression cron;
+    private final boolean fixedDelay;
+    private final long jitter;
+    private final boolean skipIfRunning;
+    private final String lease;
+
+    private volatile ManagedScheduledFutureTask task;
+    private volatile boolean active = true;
+    /**
+     * The time of the last computed run, without jitter, in milliseconds since the epoch.
+     */
+    private long nominal;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final LatencyHistogram runTimes = new LatencyHistogram();
+    private final LatencyHistogram lateness = new LatencyHistogram();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder leaseDenied = new LongAdder();
 
     /**
      * Creates a new instance of Job.
@@ -79,7 +105,42 @@ public class Job {
                 throw new IllegalArgumentException("Cannot retrieve the period of the @Every annotation of " + method
                         .getName() + ", neither the period as String nor as long was given");
             }
+            if (this.period == 0) {
+                throw new IllegalArgumentException("The period of the @Every annotation of " + method.getName()
+                        + " must not be zero");
+            }
         }
+        this.cron = null;
+        this.fixedDelay = every.fixedDelay();
+        this.jitter = getJitter(every.jitter());
+        this.skipIfRunning = every.skipIfRunning();
+        this.lease = every.lease();
+    }
+
+    /**
+     * Creates a new instance of Job executed on a cron schedule.
+     *
+     * @param scheduled the scheduled object, must not be {@literal null}
+     * @param method    the method to call on this scheduled object, must not be {@literal null}
+     * @param cron      the cron annotation
+     */
+    public Job(Scheduled scheduled, Method method, Cron cron) {
+        this.method = method;
+        this.scheduled = scheduled;
+        this.period = -1;
+        this.unit = TimeUnit.MILLISECONDS;
+        this.cron = new CronExpression(cron.value());
+        this.fixedDelay = false;
+        this.jitter = getJitter(cron.jitter());
+        this.skipIfRunning = cron.skipIfRunning();
+        this.lease = cron.lease();
+    }
+
+    private static long getJitter(String jitter) {
+        if (Strings.isNullOrEmpty(jitter)) {
+            return 0;
+        }
+        return TimeUnit.SECONDS.toMillis(toDuration(PERIOD_FORMATTER.parsePeriod(jitter)));
     }
 
     /**
@@ -132,6 +193,128 @@ public class Job {
         };
     }
 
+    /**
+     * Computes the time of the next run, jitter included. Fixed rate jobs do not catch up the missed runs: if the
+     * next run is already late, it moves to the first period in the future. Fixed rate jobs declaring a lease are
+     * aligned on the multiples of their period since the epoch, so all the nodes plan the same runs whenever they
+     * started. The jitter is bounded by the time until the next run.
+     *
+     * @param now the current time in milliseconds since the epoch, the end of the last run for fixed delay jobs
+     * @return the time of the next run in milliseconds since the epoch, -1 if the job never runs again
+     */
+    synchronized long next(long now) {
+        if (cron != null) {
+            // The run may start a few milliseconds early, do not compute the same time again.
+            ZonedDateTime next = cron.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(Math.max(now, nominal)),
+                    ZoneId.systemDefault()));
+            if (next == null) {
+                return -1;
+            }
+            nominal = next.toInstant().toEpochMilli();
+        } else {
+            long millis = periodInMillis();
+            if (fixedDelay) {
+                nominal = now + millis;
+            } else if (nominal == 0) {
+                nominal = Strings.isNullOrEmpty(lease) ? now + millis : (now / millis + 1) * millis;
+            } else {
+                nominal += millis;
+                if (nominal <= now) {
+                    nominal += ((now - nominal) / millis + 1) * millis;
+                }
+            }
+        }
+        long bound = Math.min(jitter, interval(nominal));
+        if (bound > 0) {
+            return nominal + ThreadLocalRandom.current().nextLong(bound);
+        }
+        return nominal;
+    }
+
+    /**
+     * @return the time of the last run computed by {@link #next(long)}, without jitter, in milliseconds since the
+     * epoch.
+     */
+    synchronized long nominal() {
+        return nominal;
+    }
+
+    /**
+     * Executes a run of the job. The run is skipped if the previous one is still running and the job does not allow
+     * overlapping runs, or if the lease of the job is held by another node.
+     * <p>
+     * The lease is held until the time of the next run, even if the run completes before, so the nodes running late
+     * or with a larger jitter do not run it again. Fixed delay jobs are not aligned, their lease is held during the
+     * delay after its acquisition, so at most one run starts per delay across the nodes.
+     *
+     * @param planned the time at which the run was planned, jitter included, in milliseconds since the epoch
+     * @param nominal the time of the run without jitter, in milliseconds since the epoch
+     * @param leases  the lease provider, {@literal null} if none
+     */
+    void run(long planned, long nominal, LeaseProvider leases) {
+        if (skipIfRunning) {
+            if (!running.compareAndSet(0, 1)) {
+                skipped.increment();
+                WisdomTaskScheduler.getLogger().debug("Skipping a run of {}, the previous run is still running",
+                        this);
+                return;
+            }
+        } else {
+            running.incrementAndGet();
+        }
+        try {
+            LeaseProvider.Lease acquired = null;
+            if (!Strings.isNullOrEmpty(lease) && leases != null) {
+                long now = System.currentTimeMillis();
+                long end = fixedDelay ? now + interval(now) : nominal + interval(nominal);
+                long hold = Math.max(1, end - now);
+                acquired = leases.acquire(lease, hold, hold, TimeUnit.MILLISECONDS);
+                if (acquired == null) {
+                    leaseDenied.increment();
+                    WisdomTaskScheduler.getLogger().debug("Skipping a run of {}, the lease {} is held by another " +
+                            "node", this, lease);
+                    return;
+                }
+            }
+            lateness.record(Math.max(0, System.currentTimeMillis() - planned));
+            long start = System.nanoTime();
+            try {
+                function().run();
+            } finally {
+                runTimes.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (acquired != null) {
+                    acquired.release();
+                }
+            }
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    /**
+     * @param from a run time, in milliseconds since the epoch
+     * @return the time between the given run and the following one, in milliseconds.
+     */
+    private long interval(long from) {
+        if (cron != null) {
+            ZonedDateTime after = cron.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(from),
+                    ZoneId.systemDefault()));
+            if (after == null) {
+                return TimeUnit.MINUTES.toMillis(1);
+            }
+            return after.toInstant().toEpochMilli() - from;
+        }
+        return periodInMillis();
+    }
+
+    /**
+     * @return the period in milliseconds, periods shorter than a millisecond being rounded up to one millisecond, as
+     * runs are planned with a millisecond precision.
+     */
+    private long periodInMillis() {
+        return Math.max(1, unit.toMillis(period));
+    }
+
     /**
      * Method called when the job is submitted. It provides a reference to the task object.
      *
@@ -148,6 +331,32 @@ public class Job {
         return task;
     }
 
+    /**
+     * Cancels the pending run of the job and stops rescheduling it, until {@link #activate()} is called.
+     */
+    public synchronized void cancel() {
+        active = false;
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+    }
+
+    /**
+     * Allows the job to be scheduled again, starting a new schedule.
+     */
+    public synchronized void activate() {
+        active = true;
+        nominal = 0;
+    }
+
+    /**
+     * @return whether the job is scheduled, or can be.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
     /**
      * @return the scheduled object.
      */
@@ -156,16 +365,85 @@ public class Job {
     }
 
     /**
-     * @return the period.
+     * @return the period, -1 for cron jobs.
      */
     public long period() {
         return period;
     }
 
+    /**
+     * @return the cron expression, {@literal null} for periodic jobs.
+     */
+    public CronExpression cron() {
+        return cron;
+    }
+
+    /**
+     * @return whether the period is the delay between the end of a run and the start of the next one.
+     */
+    public boolean isFixedDelay() {
+        return fixedDelay;
+    }
+
+    /**
+     * @return the maximum random delay added to each run, in milliseconds.
+     */
+    public long jitter() {
+        return jitter;
+    }
+
+    /**
+     * @return whether a run is skipped when the previous one is still running.
+     */
+    public boolean isSkipIfRunning() {
+        return skipIfRunning;
+    }
+
+    /**
+     * @return the name of the lease acquired before each run, {@literal null} or empty if none.
+     */
+    public String lease() {
+        return lease;
+    }
+
+    /**
+     * @return the duration of the runs, in milliseconds.
+     */
+    public LatencyHistogram.Snapshot getRunTimeHistogram() {
+        return runTimes.snapshot();
+    }
+
+    /**
+     * @return the delay between the planned start of the runs, jitter included, and their actual start, in
+     * milliseconds.
+     */
+    public LatencyHistogram.Snapshot getLatenessHistogram() {
+        return lateness.snapshot();
+    }
+
+    /**
+     * @return the number of runs skipped because the previous run was still running.
+     */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return the number of runs skipped because the lease was held by another node.
+     */
+    public long getLeaseDeniedCount() {
+        return leaseDenied.sum();
+    }
+
     /**
      * @return the time unit.
      */
     public TimeUnit unit() {
         return unit;
     }
+
+    @Override
+    public String toString() {
+        return scheduled.getClass().getName() + "#" + method.getName();
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.wisdom.api.scheduler.LeaseProvider;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link LeaseProvider} keeping the leases in memory. It only guarantees a single holder within the JVM, so it is
+ * meant for tests and for applications running several schedulers in the same process.
+ */
+public class LocalLeaseProvider implements LeaseProvider {
+
+    private final ConcurrentMap<String, LocalLease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * Tries to acquire a lease.
+     *
+     * @param name    the name of the lease
+     * @param atLeast the minimum time the lease is held
+     * @param atMost  the time after which the lease expires if not released
+     * @param unit    the unit of the two durations
+     * @return the acquired lease, {@code null} if the lease is held
+     */
+    @Override
+    public Lease acquire(String name, long atLeast, long atMost, TimeUnit unit) {
+        long now = System.currentTimeMillis();
+        LocalLease lease = new LocalLease(name, now + unit.toMillis(atLeast), now + unit.toMillis(atMost));
+        LocalLease current = leases.putIfAbsent(name, lease);
+        if (current == null) {
+            return lease;
+        }
+        if (current.until > now || !leases.replace(name, current, lease)) {
+            return null;
+        }
+        return lease;
+    }
+
+    private final class LocalLease implements Lease {
+
+        private final String name;
+        private final long minimum;
+        private volatile long until;
+
+        private LocalLease(String name, long minimum, long until) {
+            this.name = name;
+            this.minimum = minimum;
+            this.until = until;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void release() {
+            until = Math.min(until, Math.max(System.currentTimeMillis(), minimum));
+        }
+    }
+}
@@ -22,17 +22,25 @@ package org.wisdom.executors.scheduler;
 import org.apache.felix.ipojo.annotations.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.base.Strings;
+import org.wisdom.api.annotations.scheduler.Cron;
 import org.wisdom.api.annotations.scheduler.Every;
 import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
-import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
+import org.wisdom.api.scheduler.LeaseProvider;
 import org.wisdom.api.scheduler.Scheduled;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manage scheduled job using the system scheduler.
+ * <p>
+ * Each run of a job is scheduled when the previous one starts (or ends for fixed delay jobs), so the time of every
+ * run can be computed independently, jitter included. When a {@link LeaseProvider} is available, jobs declaring a
+ * lease only run on the node acquiring it.
  */
 @Component(immediate = true)
 @Instantiate
@@ -43,6 +51,9 @@ public class WisdomTaskScheduler {
     @Requires(filter = "(name=" + ManagedScheduledExecutorService.SYSTEM + ")", proxy = false)
     ManagedScheduledExecutorService scheduler;
 
+    @Requires(optional = true, nullable = false, proxy = false)
+    LeaseProvider leases;
+
     List<Job> jobs = new ArrayList<>();
 
     /**
@@ -63,9 +74,11 @@ public class WisdomTaskScheduler {
         List<Job> extracted = extractJobsFromScheduled(scheduled);
         for (Job job : extracted) {
             LOGGER.info("Job extracted from {} : {}", scheduled, job.method().getName());
-            ManagedScheduledFutureTask task = scheduler.scheduleAtFixedRate(job.function(),
-                    job.period(), job.period(), job.unit());
-            job.submitted(task);
+            if (!Strings.isNullOrEmpty(job.lease()) && leases == null) {
+                LOGGER.warn("The job {} uses the lease {}, but no lease provider is available, the job runs on " +
+                        "every node", job, job.lease());
+            }
+            schedule(job);
         }
         jobs.addAll(extracted);
     }
@@ -79,8 +92,7 @@ public class WisdomTaskScheduler {
         for (Job job : jobs) {
             LOGGER.info("Cancelling periodic task {}#{} on invalidation", job.scheduled().getClass().getName(),
                     job.method().getName());
-            job.task().cancel(true);
-            job.submitted(null);
+            job.cancel();
         }
     }
 
@@ -91,10 +103,9 @@ public class WisdomTaskScheduler {
     @Validate
     public synchronized void validate() {
         for (Job job : jobs) {
-            if (job.task() == null) {
-                ManagedScheduledFutureTask task = scheduler.scheduleAtFixedRate(job.function(),
-                        job.period(), job.period(), job.unit());
-                job.submitted(task);
+            if (!job.isActive()) {
+                job.activate();
+                schedule(job);
             }
         }
     }
@@ -110,15 +121,60 @@ public class WisdomTaskScheduler {
             if (job.scheduled().equals(scheduled)) {
                 LOGGER.info("Cancelling periodic task {}#{}", job.scheduled().getClass().getName(),
                         job.method().getName());
-                job.task().cancel(true);
+                job.cancel();
                 jobs.remove(job);
             }
         }
     }
 
+    /**
+     * Schedules the next run of the given job, unless the job has been cancelled.
+     *
+     * @param job the job
+     */
+    void schedule(final Job job) {
+        synchronized (job) {
+            if (!job.isActive()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            final long planned = job.next(now);
+            final long nominal = job.nominal();
+            if (planned == -1) {
+                LOGGER.warn("The job {} does not have any future run, it is not scheduled anymore", job);
+                job.submitted(null);
+                return;
+            }
+            try {
+                job.submitted(scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        fire(job, planned, nominal);
+                    }
+                }, planned - now, TimeUnit.MILLISECONDS));
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Cannot schedule the job {}, the scheduler is shutting down", job, e);
+            }
+        }
+    }
+
+    private void fire(Job job, long planned, long nominal) {
+        if (!job.isFixedDelay()) {
+            // Schedule the next run first to keep the pace, long runs skip or overlap the next ones.
+            schedule(job);
+        }
+        try {
+            job.run(planned, nominal, leases);
+        } finally {
+            if (job.isFixedDelay()) {
+                schedule(job);
+            }
+        }
+    }
+
     /**
      * Extracts the {@link Job} from a {@link Scheduled} service. If creates an instance of {@link Job} for each
-     * method annotated with {@link Every} contained in the {@link Scheduled} class.
+     * method annotated with {@link Every} or {@link Cron} contained in the {@link Scheduled} class.
      *
      * @param scheduled the scheduled object
      * @return the list of job
@@ -136,6 +192,15 @@ public class WisdomTaskScheduler {
                             scheduled.getClass().getName(), method.getName(), e);
                 }
             }
+            Cron cron = method.getAnnotation(Cron.class);
+            if (cron != null) {
+                try {
+                    listOfJobs.add(new Job(scheduled, method, cron));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.error("Cannot parse the cron expression '{}' from scheduled method {}.{}", cron.value(),
+                            scheduled.getClass().getName(), method.getName(), e);
+                }
+            }
         }
         return listOfJobs;
     }
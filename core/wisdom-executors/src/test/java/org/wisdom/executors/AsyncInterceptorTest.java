@@ -28,7 +28,7 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.wisdom.api.annotations.scheduler.Async;
 import org.wisdom.api.concurrent.ManagedExecutorService;
-import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
 import org.wisdom.api.exceptions.HttpException;
 import org.wisdom.api.http.AsyncResult;
 import org.wisdom.api.http.Result;
@@ -39,9 +39,12 @@ import org.wisdom.api.router.Route;
 import org.wisdom.test.parents.FakeConfiguration;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 
 /**
@@ -51,6 +54,8 @@ public class AsyncInterceptorTest {
 
     AsyncInterceptor interceptor = new AsyncInterceptor();
     ManagedExecutorService executor = new ManagedExecutorServiceImpl("test", new FakeConfiguration(Collections.<String, Object>emptyMap()), null);
+    ManagedScheduledExecutorService scheduler = new ManagedScheduledExecutorServiceImpl("test-scheduler",
+            new FakeConfiguration(Collections.<String, Object>emptyMap()), null);
 
     @Before
     public void setUp() throws ClassNotFoundException {
@@ -67,11 +72,29 @@ public class AsyncInterceptorTest {
                 }
         ).when(bundle).loadClass(anyString());
         interceptor.executor = executor;
+        interceptor.scheduler = scheduler;
     }
 
     @After
     public void tearDown() {
         executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<Result> stage(Result result) {
+        assertThat(result).isInstanceOf(AsyncResult.class);
+        assertThat(((AsyncResult) result).stage()).isNotNull();
+        return ((AsyncResult) result).stage().toCompletableFuture();
+    }
+
+    private Throwable failure(CompletableFuture<Result> future) throws InterruptedException {
+        try {
+            future.get();
+            fail("Failure expected");
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
     }
 
     @Test
@@ -86,18 +109,7 @@ public class AsyncInterceptorTest {
         when(async.unit()).thenReturn(TimeUnit.SECONDS);
 
         Result result = interceptor.call(async, rc);
-        assertThat(result).isInstanceOf(AsyncResult.class);
-
-        final int[] code = {0};
-        ManagedFutureTask<Result> r = executor.submit(((AsyncResult) result).callable())
-                .onSuccess(new ManagedFutureTask.SuccessCallback<Result>() {
-                    @Override
-                    public void onSuccess(ManagedFutureTask<Result> future, Result result) {
-                        code[0] = result.getStatusCode();
-                    }
-                });
-        Thread.sleep(100);
-        assertThat(code[0]).isEqualTo(200);
+        assertThat(stage(result).get().getStatusCode()).isEqualTo(200);
     }
 
     @Test
@@ -110,19 +122,10 @@ public class AsyncInterceptorTest {
         when(async.unit()).thenReturn(TimeUnit.SECONDS);
 
         Result result = interceptor.call(async, rc);
-        assertThat(result).isInstanceOf(AsyncResult.class);
-
-        final int[] code = {0};
-        ManagedFutureTask<Result> r = executor.submit(((AsyncResult) result).callable())
-                .onSuccess(new ManagedFutureTask.SuccessCallback<Result>() {
-                    @Override
-                    public void onSuccess(ManagedFutureTask<Result> future, Result result) {
-                        code[0] = result.getStatusCode();
-                    }
-                });
-
+        assertThat(stage(result).get().getStatusCode()).isEqualTo(200);
+        // The timer is cancelled once the result is computed.
         Thread.sleep(100);
-        assertThat(code[0]).isEqualTo(200);
+        assertThat(scheduler.getQueue()).isEmpty();
     }
 
     @Test
@@ -144,21 +147,9 @@ public class AsyncInterceptorTest {
         when(async.unit()).thenReturn(TimeUnit.SECONDS);
 
         Result result = interceptor.call(async, rc);
-        assertThat(result).isInstanceOf(AsyncResult.class);
-
-        final Throwable[] errors = {null};
-
-        ManagedFutureTask<Result> r = executor.submit(((AsyncResult) result).callable())
-                .onFailure(new ManagedFutureTask.FailureCallback<Result>() {
-                    @Override
-                    public void onFailure(ManagedFutureTask<Result> future, Throwable throwable) {
-                        errors[0] = throwable;
-                    }
-                });
-
-        Thread.sleep(100);
-        assertThat(errors[0]).isNotNull().isInstanceOf(HttpException.class);
-        assertThat(errors[0].getCause().getMessage())
+        Throwable error = failure(stage(result));
+        assertThat(error).isNotNull().isInstanceOf(HttpException.class);
+        assertThat(error.getCause().getMessage())
                 .contains("Bad, but expected");
     }
 
@@ -183,30 +174,35 @@ public class AsyncInterceptorTest {
         when(async.unit()).thenReturn(TimeUnit.MILLISECONDS);
 
         Result result = interceptor.call(async, rc);
-        assertThat(result).isInstanceOf(AsyncResult.class);
-
-        final Result[] retrieved = {null};
-        final Throwable[] errors = {null};
-
-        ManagedFutureTask<Result> r = executor.submit(((AsyncResult) result).callable())
-                .onSuccess(new ManagedFutureTask.SuccessCallback<Result>() {
-                    @Override
-                    public void onSuccess(ManagedFutureTask<Result> future, Result result) {
-                        retrieved[0] = result;
-                    }
-                })
-                .onFailure(new ManagedFutureTask.FailureCallback() {
-                    @Override
-                    public void onFailure(ManagedFutureTask future, Throwable throwable) {
-                        errors[0] = throwable;
-                    }
-                });
-        Thread.sleep(100);
-        assertThat(retrieved[0]).isNull();
-        assertThat(errors[0]).isNotNull().isInstanceOf(HttpException.class);
-        assertThat(errors[0].getMessage())
+        Throwable error = failure(stage(result));
+        assertThat(error).isNotNull().isInstanceOf(HttpException.class);
+        assertThat(error.getMessage())
                 .contains("Request timeout");
+        assertThat(((HttpException) error).toResult().getStatusCode()).isEqualTo(Result.GATEWAY_TIMEOUT);
+        // The computation is interrupted, so the pool thread is released.
+        Thread.sleep(100);
+        assertThat(executor.getActiveCount()).isEqualTo(0);
     }
 
+    @Test
+    public void testThatOnlyOneThreadIsUsedPerAction() throws Exception {
+        RequestContext rc = mock(RequestContext.class);
+        doAnswer(new Answer<Result>() {
 
+            @Override
+            public Result answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(200);
+                return Results.ok("Done");
+            }
+        }).when(rc).proceed();
+
+        Async async = mock(Async.class);
+        when(async.timeout()).thenReturn(10l);
+        when(async.unit()).thenReturn(TimeUnit.SECONDS);
+
+        Result result = interceptor.call(async, rc);
+        Thread.sleep(50);
+        assertThat(executor.getActiveCount()).isEqualTo(1);
+        assertThat(stage(result).get().getStatusCode()).isEqualTo(200);
+    }
 }
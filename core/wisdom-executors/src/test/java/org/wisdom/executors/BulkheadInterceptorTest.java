@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.annotations.scheduler.Bulkhead;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.http.AsyncResult;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+import org.wisdom.api.interception.RequestContext;
+import org.wisdom.api.router.Route;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the Bulkhead Interceptor.
+ */
+public class BulkheadInterceptorTest {
+
+    private final BulkheadInterceptor interceptor = new BulkheadInterceptor();
+
+    private final BulkheadExecutorService executor = new BulkheadExecutorService("checkout",
+            ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 0, 3, Thread.NORM_PRIORITY,
+            Collections.emptyList());
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Bulkhead bulkhead(String name) {
+        Bulkhead bulkhead = mock(Bulkhead.class);
+        when(bulkhead.value()).thenReturn(name);
+        return bulkhead;
+    }
+
+    private RequestContext context(boolean blocking) throws Exception {
+        RequestContext rc = mock(RequestContext.class);
+        Route route = mock(Route.class);
+        when(route.getUrl()).thenReturn("/checkout");
+        when(rc.route()).thenReturn(route);
+        when(rc.proceed()).then(invocation -> {
+            if (blocking) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return Results.ok(Thread.currentThread().getName());
+        });
+        return rc;
+    }
+
+    @Test
+    public void testThatActionsRunOnTheBulkhead() throws Exception {
+        interceptor.executors = ImmutableList.<ManagedExecutorService>of(executor);
+        Result result = interceptor.call(bulkhead("checkout"), context(false));
+        assertThat(result).isInstanceOf(AsyncResult.class);
+        Result computed = ((AsyncResult) result).stage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat((String) computed.getRenderable().content()).startsWith("checkout-");
+    }
+
+    @Test
+    public void testThatSaturatedBulkheadsReturn503() throws Exception {
+        interceptor.executors = ImmutableList.<ManagedExecutorService>of(executor);
+        // One running, one queued.
+        interceptor.call(bulkhead("checkout"), context(true));
+        interceptor.call(bulkhead("checkout"), context(true));
+
+        Result result = interceptor.call(bulkhead("checkout"), context(true));
+        assertThat(result.getStatusCode()).isEqualTo(503);
+        assertThat(result.getHeaders().get(HeaderNames.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    public void testThatActionsRunInlineWithoutExecutor() throws Exception {
+        interceptor.executors = Collections.emptyList();
+        Result result = interceptor.call(bulkhead("missing"), context(false));
+        assertThat(result).isNotInstanceOf(AsyncResult.class);
+        assertThat(result.getStatusCode()).isEqualTo(200);
+    }
+}
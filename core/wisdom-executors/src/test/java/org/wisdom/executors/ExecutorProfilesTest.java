@@ -0,0 +1,178 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.test.parents.FakeConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the executor profiles.
+ */
+public class ExecutorProfilesTest {
+
+    private final List<ManagedExecutorService> created = new ArrayList<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        for (ManagedExecutorService executor : created) {
+            executor.shutdownNow();
+        }
+    }
+
+    private AbstractManagedExecutorService create(ImmutableMap<String, Object> configuration) {
+        AbstractManagedExecutorService executor = Creator.createExecutor("test",
+                new FakeConfiguration(configuration), Collections.emptyList());
+        created.add(executor);
+        return executor;
+    }
+
+    private Runnable blocking() {
+        return () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    public void testProfileSelection() {
+        assertThat(create(ImmutableMap.<String, Object>of())).isExactlyInstanceOf(ManagedExecutorServiceImpl.class);
+        assertThat(create(ImmutableMap.<String, Object>of("profile", "work-stealing")))
+                .isInstanceOf(WorkStealingExecutorService.class);
+        assertThat(create(ImmutableMap.<String, Object>of("profile", "bulkhead")))
+                .isInstanceOf(BulkheadExecutorService.class);
+        assertThat(create(ImmutableMap.<String, Object>of("profile", "adaptive")))
+                .isInstanceOf(AdaptiveExecutorService.class);
+        try {
+            create(ImmutableMap.<String, Object>of("profile", "unknown"));
+            fail("Unknown profile accepted");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage()).contains("unknown");
+        }
+    }
+
+    @Test
+    public void testThatSaturatedExecutorsRejectTasks() {
+        ManagedExecutorService executor = create(ImmutableMap.<String, Object>of("coreSize", 1, "maxSize", 1,
+                "workQueueCapacity", 1));
+        executor.submit(blocking());
+        executor.submit(blocking());
+        try {
+            executor.submit(blocking());
+            fail("Task accepted by a saturated executor");
+        } catch (RejectedExecutionException e) {
+            // Expected.
+        }
+        assertThat(((AbstractManagedExecutorService) executor).tasks).hasSize(2);
+    }
+
+    @Test
+    public void testWorkStealingExecutor() throws Exception {
+        WorkStealingExecutorService executor = (WorkStealingExecutorService) create(
+                ImmutableMap.<String, Object>of("profile", "work-stealing", "parallelism", 2));
+        assertThat(executor.getCorePoolSize()).isEqualTo(2);
+        assertThat(executor.getMaximumPoolSize()).isEqualTo(2);
+
+        // Parallel streams started from the executor use its pool.
+        Future<Long> sum = executor.submit(() -> LongStream.rangeClosed(1, 100000).parallel().sum());
+        assertThat(sum.get(10, TimeUnit.SECONDS)).isEqualTo(5000050000L);
+        Future<String> thread = executor.submit(() -> Thread.currentThread().getName());
+        assertThat(thread.get(10, TimeUnit.SECONDS)).startsWith("test-");
+        assertThat(executor.getCompletedTaskCount()).isEqualTo(2);
+        assertThat(executor.getQueue()).isEmpty();
+        assertThat(executor.getRunTimeHistogram().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testBulkheadRejectsWhenFull() {
+        BulkheadExecutorService executor = (BulkheadExecutorService) create(ImmutableMap.<String, Object>of(
+                "profile", "bulkhead", "size", 1, "workQueueCapacity", 1, "retryAfter", 5L));
+        assertThat(executor.getRetryAfter()).isEqualTo(5);
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+        assertThat(executor.getMaximumPoolSize()).isEqualTo(1);
+        executor.submit(blocking());
+        executor.submit(blocking());
+        try {
+            executor.submit(blocking());
+            fail("Task accepted by a full bulkhead");
+        } catch (RejectedExecutionException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testBulkheadDropsTasksWaitingTooLong() throws Exception {
+        BulkheadExecutorService executor = (BulkheadExecutorService) create(ImmutableMap.<String, Object>of(
+                "profile", "bulkhead", "size", 1, "workQueueCapacity", 5, "maxQueueTime", 50L));
+        executor.submit(blocking());
+        Future<String> late = executor.submit(() -> "too late");
+        Thread.sleep(100);
+        release.countDown();
+        try {
+            late.get(10, TimeUnit.SECONDS);
+            fail("Task run after the maximum queue time");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+        }
+        assertThat(executor.submit(() -> "on time").get(10, TimeUnit.SECONDS)).isEqualTo("on time");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatBulkheadsAreBounded() {
+        create(ImmutableMap.<String, Object>of("profile", "bulkhead", "workQueueCapacity", Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testAdaptiveExecutorGrowsWhenTasksWait() throws Exception {
+        AdaptiveExecutorService executor = (AdaptiveExecutorService) create(ImmutableMap.<String, Object>of(
+                "profile", "adaptive", "coreSize", 1, "maxSize", 4, "targetQueueTime", 1L, "adaptInterval", 10L));
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(blocking());
+            Thread.sleep(20);
+        }
+        assertThat(executor.getCorePoolSize()).isGreaterThan(1).isLessThanOrEqualTo(4);
+        release.countDown();
+
+        // Once idle, it shrinks back to its minimum size.
+        for (int i = 0; i < 100 && executor.getCorePoolSize() > 1; i++) {
+            Thread.sleep(20);
+            executor.submit(() -> { });
+        }
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+    }
+}
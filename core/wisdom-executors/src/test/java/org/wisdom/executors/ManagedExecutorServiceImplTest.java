@@ -326,6 +326,34 @@ public class ManagedExecutorServiceImplTest {
         assertThat(future.get()).isEqualToIgnoringCase("hello");
     }
 
+    @Test
+    public void testLatencyHistogramsAndTaskRegistry() throws ExecutionException, InterruptedException {
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(5);
+                return "hello";
+            }));
+        }
+        for (Future<String> future : futures) {
+            assertThat(future.get()).isEqualTo("hello");
+        }
+
+        assertThat(executor.getQueueWaitTimeHistogram().getCount()).isEqualTo(20);
+        assertThat(executor.getRunTimeHistogram().getCount()).isEqualTo(20);
+        // Run times are in microseconds.
+        assertThat(executor.getRunTimeHistogram().getMedian()).isGreaterThanOrEqualTo(4000);
+        assertThat(executor.getRunTimeHistogram().get999thPercentile())
+                .isLessThanOrEqualTo(executor.getRunTimeHistogram().getMax());
+        assertThat(executor.getExecutionTimeStatistics().getCount()).isEqualTo(20);
+
+        // The completed tasks are removed from the registry by the thread completing them.
+        for (int i = 0; i < 100 && !executor.tasks.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.tasks).isEmpty();
+    }
+
     @Test
     public void testCreationWithUnboundQueue() throws ExecutionException, InterruptedException {
         ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("unbound",
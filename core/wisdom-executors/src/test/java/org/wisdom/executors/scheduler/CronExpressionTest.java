@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the cron expression parsing and the computation of the next runs.
+ */
+public class CronExpressionTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    // 2015-03-11 is a Wednesday.
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2015, 3, 11, 10, 17, 23, 0, UTC);
+
+    private static ZonedDateTime at(int month, int day, int hour, int minute, int second) {
+        return ZonedDateTime.of(2015, month, day, hour, minute, second, 0, UTC);
+    }
+
+    @Test
+    public void testEveryMinute() {
+        CronExpression cron = new CronExpression("* * * * *");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 11, 10, 18, 0));
+        assertThat(cron.next(at(3, 11, 10, 18, 0))).isEqualTo(at(3, 11, 10, 19, 0));
+    }
+
+    @Test
+    public void testSecondsField() {
+        CronExpression cron = new CronExpression("*/20 * * * * *");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 11, 10, 17, 40));
+        assertThat(cron.next(at(3, 11, 10, 17, 40))).isEqualTo(at(3, 11, 10, 18, 0));
+    }
+
+    @Test
+    public void testDaily() {
+        CronExpression cron = new CronExpression("30 3 * * *");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 12, 3, 30, 0));
+        assertThat(new CronExpression("@daily").next(NOW)).isEqualTo(at(3, 12, 0, 0, 0));
+        assertThat(new CronExpression("@hourly").next(NOW)).isEqualTo(at(3, 11, 11, 0, 0));
+    }
+
+    @Test
+    public void testRangesListsAndSteps() {
+        CronExpression cron = new CronExpression("0,30 9-17/4 * * *");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 11, 13, 0, 0));
+        assertThat(cron.next(at(3, 11, 13, 0, 0))).isEqualTo(at(3, 11, 13, 30, 0));
+        assertThat(cron.next(at(3, 11, 17, 30, 0))).isEqualTo(at(3, 12, 9, 0, 0));
+
+        cron = new CronExpression("5/15 * * * *");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 11, 10, 20, 0));
+        assertThat(cron.next(at(3, 11, 10, 50, 0))).isEqualTo(at(3, 11, 11, 5, 0));
+    }
+
+    @Test
+    public void testNames() {
+        CronExpression cron = new CronExpression("0 8 * jun-aug MON-FRI");
+        assertThat(cron.next(NOW)).isEqualTo(at(6, 1, 8, 0, 0));
+        assertThat(cron.next(at(6, 5, 8, 0, 0))).isEqualTo(at(6, 8, 8, 0, 0));
+    }
+
+    @Test
+    public void testDayOfWeek() {
+        // Sunday is 0 or 7.
+        assertThat(new CronExpression("0 0 * * 0").next(NOW)).isEqualTo(at(3, 15, 0, 0, 0));
+        assertThat(new CronExpression("0 0 * * 7").next(NOW)).isEqualTo(at(3, 15, 0, 0, 0));
+        assertThat(new CronExpression("@weekly").next(NOW)).isEqualTo(at(3, 15, 0, 0, 0));
+    }
+
+    @Test
+    public void testDayOfMonthOrDayOfWeek() {
+        // Restricting both fields selects the days matching either of them.
+        CronExpression cron = new CronExpression("0 0 20 * FRI");
+        assertThat(cron.next(NOW)).isEqualTo(at(3, 13, 0, 0, 0));
+        assertThat(cron.next(at(3, 13, 0, 0, 0))).isEqualTo(at(3, 20, 0, 0, 0));
+        assertThat(cron.next(at(3, 20, 0, 0, 0))).isEqualTo(at(3, 27, 0, 0, 0));
+        // With only the day of month.
+        assertThat(new CronExpression("0 0 31 * ?").next(NOW)).isEqualTo(at(3, 31, 0, 0, 0));
+        assertThat(new CronExpression("0 0 31 * ?").next(at(3, 31, 0, 0, 0))).isEqualTo(at(5, 31, 0, 0, 0));
+    }
+
+    @Test
+    public void testNeverMatching() {
+        assertThat(new CronExpression("0 0 30 2 *").next(NOW)).isNull();
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        String[] invalid = {"* * * *", "* * * * * * *", "60 * * * *", "* 24 * * *", "* * 0 * *", "* * * 13 *",
+                "* * * * 8", "a * * * *", "5-1 * * * *", "*/0 * * * *", "* * * FOO *"};
+        for (String expression : invalid) {
+            try {
+                new CronExpression(expression);
+                fail("Expected '" + expression + "' to be rejected");
+            } catch (IllegalArgumentException e) {
+                // Expected.
+            }
+        }
+    }
+}
@@ -21,9 +21,14 @@ package org.wisdom.executors.scheduler;
 
 import org.joda.time.Period;
 import org.junit.Test;
+import org.wisdom.api.annotations.scheduler.Cron;
 import org.wisdom.api.annotations.scheduler.Every;
+import org.wisdom.api.scheduler.LeaseProvider;
 import org.wisdom.api.scheduler.Scheduled;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -85,6 +90,110 @@ public class JobTest {
         assertThat(job.unit()).isEqualTo(TimeUnit.HOURS);
     }
 
+    @Test
+    public void testFixedRateDoesNotCatchUpMissedRuns() {
+        Job job = new Job(null, null, create(1, TimeUnit.SECONDS));
+        assertThat(job.next(10000)).isEqualTo(11000);
+        assertThat(job.next(11000)).isEqualTo(12000);
+        // The run at 12000 started late, the runs at 13000 and 14000 are missed.
+        assertThat(job.next(14500)).isEqualTo(15000);
+        assertThat(job.next(15000)).isEqualTo(16000);
+    }
+
+    @Test
+    public void testSubMillisecondPeriodsAreRoundedUpToOneMillisecond() {
+        Job job = new Job(null, null, create(500, TimeUnit.MICROSECONDS));
+        assertThat(job.next(10000)).isEqualTo(10001);
+        assertThat(job.next(10001)).isEqualTo(10002);
+        assertThat(job.next(10005)).isEqualTo(10006);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroPeriodsAreRejected() throws NoSuchMethodException {
+        new Job(null, JobTest.class.getMethod("testZeroPeriodsAreRejected"), create("0s"));
+    }
+
+    @Test
+    public void testFixedDelay() {
+        Every every = create(1, TimeUnit.SECONDS);
+        when(every.fixedDelay()).thenReturn(true);
+        Job job = new Job(null, null, every);
+        assertThat(job.next(10000)).isEqualTo(11000);
+        assertThat(job.next(11500)).isEqualTo(12500);
+    }
+
+    @Test
+    public void testJitter() {
+        Every every = create(1, TimeUnit.MINUTES);
+        when(every.jitter()).thenReturn("10s");
+        Job job = new Job(null, null, every);
+        assertThat(job.jitter()).isEqualTo(10000);
+        for (int i = 1; i <= 100; i++) {
+            // The jitter does not accumulate.
+            assertThat(job.next(0)).isBetween(i * 60000L, i * 60000L + 9999);
+        }
+    }
+
+    @Test
+    public void testRunsAreSkippedWhenTheLeaseIsHeld() throws NoSuchMethodException {
+        MyScheduled scheduled = new MyScheduled();
+        Every every = create("60s");
+        when(every.lease()).thenReturn("my-lease");
+        Job job = new Job(scheduled, MyScheduled.class.getMethod("operation"), every);
+        LocalLeaseProvider leases = new LocalLeaseProvider();
+        LeaseProvider.Lease lease = leases.acquire("my-lease", 0, 1, TimeUnit.MINUTES);
+
+        long nominal = job.next(System.currentTimeMillis());
+        job.run(nominal, nominal, leases);
+        assertThat(scheduled.called).isFalse();
+        assertThat(job.getLeaseDeniedCount()).isEqualTo(1);
+        assertThat(job.getRunTimeHistogram().getCount()).isEqualTo(0);
+
+        lease.release();
+        job.run(System.currentTimeMillis() - 100, nominal, leases);
+        assertThat(scheduled.called).isTrue();
+        assertThat(job.getRunTimeHistogram().getCount()).isEqualTo(1);
+        assertThat(job.getLatenessHistogram().getMax()).isGreaterThanOrEqualTo(100);
+        // The lease is still held until the next run.
+        assertThat(leases.acquire("my-lease", 0, 1, TimeUnit.MINUTES)).isNull();
+    }
+
+    @Test
+    public void testLeasedFixedRateJobsAreAligned() {
+        Every every = create(1, TimeUnit.MINUTES);
+        when(every.lease()).thenReturn("my-lease");
+        Job job = new Job(null, null, every);
+        assertThat(job.next(10000)).isEqualTo(60000);
+        assertThat(job.next(60000)).isEqualTo(120000);
+        // Another node started later plans the same runs.
+        job = new Job(null, null, every);
+        assertThat(job.next(100000)).isEqualTo(120000);
+    }
+
+    @Test
+    public void testJitterIsBoundedByThePeriod() {
+        Every every = create(2, TimeUnit.SECONDS);
+        when(every.jitter()).thenReturn("1m");
+        Job job = new Job(null, null, every);
+        for (int i = 1; i <= 100; i++) {
+            assertThat(job.next(0)).isBetween(i * 2000L, i * 2000L + 1999);
+        }
+    }
+
+    @Test
+    public void testCronJob() throws NoSuchMethodException {
+        Cron cron = mock(Cron.class);
+        when(cron.value()).thenReturn("0 3 * * *");
+        Job job = new Job(new MyScheduled(), MyScheduled.class.getMethod("operation"), cron);
+        assertThat(job.cron().toString()).isEqualTo("0 3 * * *");
+        assertThat(job.period()).isEqualTo(-1);
+        long next = job.next(System.currentTimeMillis());
+        ZonedDateTime time = ZonedDateTime.ofInstant(Instant.ofEpochMilli(next), ZoneId.systemDefault());
+        assertThat(time.getHour()).isEqualTo(3);
+        assertThat(time.getMinute()).isEqualTo(0);
+        assertThat(job.next(next)).isGreaterThan(next);
+    }
+
     @Test
     public void testGetFunction() throws NoSuchMethodException {
         MyScheduled scheduled = new MyScheduled();
@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors.scheduler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wisdom.api.scheduler.LeaseProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the {@link LocalLeaseProvider} and {@link FileLeaseProvider}.
+ */
+public class LeaseProviderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLocalLeases() throws InterruptedException {
+        check(new LocalLeaseProvider(), null);
+    }
+
+    @Test
+    public void testFileLeases() throws Exception {
+        check(new FileLeaseProvider(folder.newFolder()), null);
+        // Two providers sharing a directory act as two nodes.
+        FileLeaseProvider node1 = new FileLeaseProvider(folder.newFolder("shared"));
+        FileLeaseProvider node2 = new FileLeaseProvider(folder.getRoot().toPath().resolve("shared").toFile());
+        check(node1, node2);
+    }
+
+    /**
+     * Checks the leases of the given provider, and that the second provider sees them when given.
+     */
+    private void check(LeaseProvider node1, LeaseProvider node2) throws InterruptedException {
+        LeaseProvider other = node2 == null ? node1 : node2;
+
+        LeaseProvider.Lease lease = node1.acquire("job", 0, 1, TimeUnit.MINUTES);
+        assertThat(lease).isNotNull();
+        assertThat(lease.name()).isEqualTo("job");
+        assertThat(other.acquire("job", 0, 1, TimeUnit.MINUTES)).isNull();
+        // Other leases are independent.
+        LeaseProvider.Lease another = other.acquire("another job", 0, 1, TimeUnit.MINUTES);
+        assertThat(another).isNotNull();
+        another.release();
+
+        lease.release();
+        lease = other.acquire("job", 200, 1000, TimeUnit.MILLISECONDS);
+        assertThat(lease).isNotNull();
+        // Released, but still held for at least 200 ms.
+        lease.release();
+        assertThat(node1.acquire("job", 0, 1, TimeUnit.MINUTES)).isNull();
+        Thread.sleep(300);
+        lease = node1.acquire("job", 0, 100, TimeUnit.MILLISECONDS);
+        assertThat(lease).isNotNull();
+
+        // Not released, the lease expires.
+        Thread.sleep(200);
+        LeaseProvider.Lease next = other.acquire("job", 0, 1, TimeUnit.MINUTES);
+        assertThat(next).isNotNull();
+        // Releasing the expired lease does not release the new one.
+        lease.release();
+        assertThat(node1.acquire("job", 0, 1, TimeUnit.MINUTES)).isNull();
+        next.release();
+    }
+}
@@ -26,12 +26,15 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.wisdom.api.annotations.scheduler.Cron;
 import org.wisdom.api.annotations.scheduler.Every;
 import org.wisdom.api.scheduler.Scheduled;
 import org.wisdom.executors.ManagedScheduledExecutorServiceImpl;
 import org.wisdom.test.parents.FakeConfiguration;
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -91,6 +94,78 @@ public class WisdomSchedulerTest {
         assertThat(scheduler.jobs).hasSize(0);
     }
 
+    @Test
+    public void testCron() throws InterruptedException {
+        MyCronScheduled scheduled = new MyCronScheduled();
+        scheduler.bindScheduled(scheduled);
+        assertThat(scheduler.jobs).hasSize(1);
+        assertThat(scheduler.jobs.get(0).cron()).isNotNull();
+        Thread.sleep(2500);
+        assertThat(scheduled.counter.get()).isGreaterThan(0);
+        assertThat(scheduler.jobs.get(0).getLatenessHistogram().getCount()).isEqualTo(scheduled.counter.get());
+        scheduler.unbindScheduled(scheduled);
+        assertThat(scheduler.jobs).hasSize(0);
+    }
+
+    @Test
+    public void testRunsDoNotOverlap() throws InterruptedException {
+        SlowScheduled scheduled = new SlowScheduled();
+        scheduler.bindScheduled(scheduled);
+        Job job = scheduler.jobs.get(0);
+        assertThat(job.isSkipIfRunning()).isTrue();
+        Thread.sleep(1500);
+        scheduler.unbindScheduled(scheduled);
+        assertThat(scheduled.counter.get()).isGreaterThan(0);
+        assertThat(scheduled.overlapped).isFalse();
+        assertThat(job.getSkippedCount()).isGreaterThan(0);
+        assertThat(job.getRunTimeHistogram().getMax()).isGreaterThanOrEqualTo(350);
+    }
+
+    @Test
+    public void testInvalidationCancelsTheJobs() throws InterruptedException {
+        MySecondScheduled scheduled = new MySecondScheduled();
+        scheduler.bindScheduled(scheduled);
+        scheduler.invalidate();
+        assertThat(scheduler.jobs.get(0).task()).isNull();
+        Thread.sleep(1500);
+        assertThat(scheduled.counter.get()).isEqualTo(0);
+        scheduler.validate();
+        assertThat(scheduler.jobs.get(0).task()).isNotNull();
+        Thread.sleep(1500);
+        assertThat(scheduled.counter.get()).isGreaterThan(0);
+        scheduler.unbindScheduled(scheduled);
+    }
+
+    @Test
+    public void testLeasedJobsRunOnASingleNode() throws InterruptedException {
+        LocalLeaseProvider leases = new LocalLeaseProvider();
+        scheduler.leases = leases;
+        WisdomTaskScheduler node2 = new WisdomTaskScheduler();
+        node2.scheduler = scheduler.scheduler;
+        node2.leases = leases;
+
+        // The nodes start more than half a period apart.
+        Map<Long, AtomicInteger> runs = new ConcurrentHashMap<>();
+        LeasedScheduled scheduled1 = new LeasedScheduled(runs);
+        LeasedScheduled scheduled2 = new LeasedScheduled(runs);
+        scheduler.bindScheduled(scheduled1);
+        Thread.sleep(LeasedScheduled.PERIOD * 3 / 4);
+        node2.bindScheduled(scheduled2);
+        Job job1 = scheduler.jobs.get(0);
+        Job job2 = node2.jobs.get(0);
+        Thread.sleep(LeasedScheduled.PERIOD * 6);
+        scheduler.unbindScheduled(scheduled1);
+        node2.unbindScheduled(scheduled2);
+
+        assertThat(runs.size()).isGreaterThanOrEqualTo(4);
+        assertThat(scheduled1.counter.get()).isGreaterThan(0);
+        assertThat(job1.getLeaseDeniedCount() + job2.getLeaseDeniedCount()).isGreaterThan(0);
+        // Each planned run happened once, on a single node.
+        for (Map.Entry<Long, AtomicInteger> entry : runs.entrySet()) {
+            assertThat(entry.getValue().get()).as("Runs of the period " + entry.getKey()).isEqualTo(1);
+        }
+    }
+
     private class MyScheduled implements Scheduled {
 
         AtomicInteger counter = new AtomicInteger();
@@ -115,4 +190,52 @@ public class WisdomSchedulerTest {
         }
     }
 
+
+    private class MyCronScheduled implements Scheduled {
+
+        AtomicInteger counter = new AtomicInteger();
+
+        @Cron("* * * * * *")
+        public void operation() {
+            counter.incrementAndGet();
+        }
+    }
+
+    private class SlowScheduled implements Scheduled {
+
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        volatile boolean overlapped;
+
+        @Every(period = 100, unit = TimeUnit.MILLISECONDS)
+        public void operation() throws InterruptedException {
+            if (running.incrementAndGet() > 1) {
+                overlapped = true;
+            }
+            counter.incrementAndGet();
+            Thread.sleep(350);
+            running.decrementAndGet();
+        }
+    }
+
+    private static class LeasedScheduled implements Scheduled {
+
+        static final long PERIOD = 400;
+
+        final AtomicInteger counter = new AtomicInteger();
+        final Map<Long, AtomicInteger> runs;
+
+        LeasedScheduled(Map<Long, AtomicInteger> runs) {
+            this.runs = runs;
+        }
+
+        @Every(period = PERIOD, unit = TimeUnit.MILLISECONDS, lease = "leased")
+        public void operation() {
+            counter.incrementAndGet();
+            // The runs are aligned on the period, so the period index identifies the planned run.
+            long period = System.currentTimeMillis() / PERIOD;
+            runs.putIfAbsent(period, new AtomicInteger());
+            runs.get(period).incrementAndGet();
+        }
+    }
 }
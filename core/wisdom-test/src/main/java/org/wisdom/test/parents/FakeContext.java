@@ -31,10 +31,13 @@ import org.wisdom.api.http.Request;
 import org.wisdom.api.router.Route;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -108,6 +111,11 @@ public class FakeContext implements Context {
      */
     private Route route;
 
+    /**
+     * The path parameters captured by the router.
+     */
+    private Map<String, String> capturedPathParameters;
+
     /**
      * Creates a new instance of {@link FakeContext}.
      */
@@ -467,6 +475,20 @@ public class FakeContext implements Context {
         return null;
     }
 
+    /**
+     * Returns a stream on the UTF-8 encoded String form of the body object, {@code null} if none.
+     *
+     * @return the stream on the body
+     */
+    @Override
+    public InputStream stream() {
+        String body = body();
+        if (body != null) {
+            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+
     /**
      * @return a reader on the body to retrieve it as stream, {@literal null} if no body.
      * @throws IOException if the body cannot be read.
@@ -500,6 +522,24 @@ public class FakeContext implements Context {
         this.route = route;
     }
 
+    /**
+     * @return the path parameters captured by the router, {@literal null} if none.
+     */
+    @Override
+    public Map<String, String> capturedPathParameters() {
+        return capturedPathParameters;
+    }
+
+    /**
+     * Sets the path parameters captured by the router.
+     *
+     * @param parameters the parameters
+     */
+    @Override
+    public void capturedPathParameters(Map<String, String> parameters) {
+        this.capturedPathParameters = parameters;
+    }
+
     /**
      * Sets the context's path.
      *
@@ -19,6 +19,7 @@
  */
 package org.wisdom.framework.vertx;
 
+import io.netty.buffer.Unpooled;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
@@ -59,9 +60,9 @@ public class AsyncInputStream implements ReadStream<Buffer> {
     static final int DEFAULT_CHUNK_SIZE = 8192;
 
     /**
-     * An empty byte array.
+     * An empty buffer.
      */
-    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+    private static final Buffer EMPTY_BUFFER = Buffer.buffer(0);
 
     /**
      * The Vert.X instance.
@@ -79,9 +80,9 @@ public class AsyncInputStream implements ReadStream<Buffer> {
     private final PushbackInputStream in;
 
     /**
-     * The chunk size.
+     * The array receiving the bytes read from the stream, reused for every chunk.
      */
-    private final int chunkSize;
+    private final byte[] chunk;
 
     /**
      * The current state.
@@ -148,7 +149,7 @@ public class AsyncInputStream implements ReadStream<Buffer> {
         } else {
             this.in = new PushbackInputStream(in);
         }
-        this.chunkSize = chunkSize;
+        this.chunk = new byte[chunkSize];
         this.executor = executor;
     }
 
@@ -204,9 +205,9 @@ public class AsyncInputStream implements ReadStream<Buffer> {
             executor.submit(
                     (Runnable) () -> {
                         try {
-                            final byte[] bytes = readChunk();
+                            final Buffer bytes = readChunk();
 
-                            if (bytes == null || bytes.length == 0) {
+                            if (bytes == null || bytes.length() == 0) {
                                 // null or 0 means we reach the end of the stream, invoke the close handler.
                                 state = STATUS_CLOSED;
                                 IOUtils.closeQuietly(in);
@@ -218,7 +219,7 @@ public class AsyncInputStream implements ReadStream<Buffer> {
                             } else {
                                 // We still have data, dispatch it.
                                 context.runOnContext(event -> {
-                                    dataHandler.handle(Buffer.buffer(bytes));
+                                    dataHandler.handle(bytes);
                                     // The next chunk will be read in another call, and maybe another thread.
                                     // As the data was already given to the data handler, this is fine.
                                     doRead();
@@ -319,27 +320,25 @@ public class AsyncInputStream implements ReadStream<Buffer> {
     }
 
     /**
-     * Reads a chunk.
-     * @return the read bytes, empty if we reached the end of the stream. The returned array has exactly the sisize
-     * of the chunk.
+     * Reads a chunk. The bytes are read in an array reused for all the chunks, and copied once in a buffer having
+     * exactly the size of the chunk. This buffer is handed to Vert.x as it is.
+     *
+     * @return the read bytes, empty if we reached the end of the stream.
      * @throws Exception if the stream cannot be read.
      */
-    private byte[] readChunk() throws Exception {
+    private Buffer readChunk() throws Exception {
         if (isEndOfInput()) {
-            return EMPTY_BYTE_ARRAY;
+            return EMPTY_BUFFER;
         }
 
         try {
             // transfer to buffer
-            byte[] tmp = new byte[chunkSize];
-            int readBytes = in.read(tmp);
+            int readBytes = in.read(chunk);
             if (readBytes <= 0) {
                 return null;
             }
-            byte[] buffer = new byte[readBytes];
-            System.arraycopy(tmp, 0, buffer, 0, readBytes);
             offset += readBytes;
-            return buffer;
+            return Buffer.buffer(Unpooled.copiedBuffer(chunk, 0, readBytes));
         } catch (IOException e) {
             // Close the stream, and propagate the exception.
             IOUtils.closeQuietly(in);
@@ -0,0 +1,182 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import org.wisdom.api.http.Chunks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link Chunks} writing the chunks to a Vert.x response. All the operations on the response are
+ * executed on the Vert.x context of the request, in the order they were requested, so chunks can be written from
+ * any thread.
+ * <p>
+ * The chunks scheduled on the context but not yet handed to the response are counted in the write queue, so
+ * {@link #writeQueueFull()} stays accurate when the producer writes faster than the context runs.
+ */
+final class ChunksFromVertx implements Chunks {
+
+    /**
+     * The number of bytes scheduled on the context above which the write queue is considered full.
+     */
+    static final int MAX_PENDING_BYTES = 64 * 1024;
+
+    private final Context context;
+    private final HttpServerResponse response;
+    private final boolean closeConnection;
+    private final Runnable onEnd;
+
+    /**
+     * Set when no more chunks are accepted, i.e. when the response was closed by the producer or by the client.
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Set when the response is completed. Only accessed from the Vert.x context.
+     */
+    private boolean ended;
+
+    /**
+     * The number of bytes scheduled on the context and not yet written to the response.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * The drain handler set by the producer. Only accessed from the Vert.x context.
+     */
+    private Runnable drain;
+
+    /**
+     * Creates a new instance of {@link ChunksFromVertx}.
+     *
+     * @param context         the Vert.x context of the request
+     * @param response        the response, must be chunked or have a content length
+     * @param closeConnection whether or not the connection must be closed once the response is completed
+     * @param onEnd           called on the Vert.x context once the response is completed
+     */
+    ChunksFromVertx(Context context, HttpServerResponse response, boolean closeConnection, Runnable onEnd) {
+        this.context = context;
+        this.response = response;
+        this.closeConnection = closeConnection;
+        this.onEnd = onEnd;
+        // The client may close the connection before the end.
+        response.closeHandler(v -> {
+            closed.set(true);
+            end(false);
+        });
+    }
+
+    @Override
+    public Chunks write(byte[] data) {
+        // The caller keeps the ownership of the array, and may reuse it once this method returns.
+        return enqueue(data.clone());
+    }
+
+    @Override
+    public Chunks write(String data) {
+        // The encoded array is not shared, so it is not copied.
+        return enqueue(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Chunks enqueue(byte[] data) {
+        if (!closed.get()) {
+            final Buffer buffer = Buffer.buffer(Unpooled.wrappedBuffer(data));
+            final int length = data.length;
+            pending.addAndGet(length);
+            context.runOnContext(v -> {
+                long left = pending.addAndGet(-length);
+                if (ended) {
+                    return;
+                }
+                response.write(buffer);
+                // The producer may be waiting for the scheduled chunks only, the response itself not being full.
+                if (left + length >= MAX_PENDING_BYTES && left < MAX_PENDING_BYTES
+                        && !response.writeQueueFull() && drain != null) {
+                    drain.run();
+                }
+            });
+        }
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return !closed.get() && (pending.get() >= MAX_PENDING_BYTES || response.writeQueueFull());
+    }
+
+    @Override
+    public Chunks drainHandler(Runnable handler) {
+        final Handler<Void> callback = handler == null ? null : v -> handler.run();
+        context.runOnContext(v -> {
+            if (!ended) {
+                drain = handler;
+                response.drainHandler(callback);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            // Executed after the chunks written before.
+            context.runOnContext(v -> end(true));
+        }
+    }
+
+    /**
+     * Closes the connection without completing the response, used when the producer fails.
+     */
+    void abort() {
+        closed.set(true);
+        context.runOnContext(v -> {
+            if (!ended) {
+                response.close();
+            }
+            end(false);
+        });
+    }
+
+    private void end(boolean complete) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        if (complete) {
+            response.end();
+            if (closeConnection) {
+                response.close();
+            }
+        }
+        onEnd.run();
+    }
+}
@@ -24,6 +24,7 @@ import com.google.common.base.Strings;
 import io.vertx.core.*;
 import io.vertx.core.http.HttpServerRequest;
 import org.apache.commons.io.IOUtils;
+import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.BodyParser;
 import org.wisdom.api.cookies.Cookie;
 import org.wisdom.api.cookies.Cookies;
@@ -38,8 +39,8 @@ import org.wisdom.framework.vertx.cookies.SessionCookieImpl;
 import org.wisdom.framework.vertx.file.VertxFileUpload;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.net.URI;
@@ -56,12 +57,22 @@ public class ContextFromVertx implements Context {
     private static AtomicLong ids = new AtomicLong();
     private final long id;
     private final ServiceAccessor services;
-    private final FlashCookieImpl flash;
-    private final SessionCookieImpl session;
+    /**
+     * The flash cookie, created and decoded on first access.
+     */
+    private FlashCookieImpl flash;
+    /**
+     * The session cookie, created and verified on first access.
+     */
+    private SessionCookieImpl session;
     private final Vertx vertx;
 
 
     private /*not final*/ Route route;
+    /**
+     * The path parameters captured by the router while selecting the route.
+     */
+    private Map<String, String> capturedPathParameters;
     /**
      * the request object, created lazily.
      */
@@ -80,10 +91,6 @@ public class ContextFromVertx implements Context {
         services = accessor;
         request = new RequestFromVertx(req);
         this.vertx = vertx;
-        flash = new FlashCookieImpl(accessor.getConfiguration());
-        session = new SessionCookieImpl(accessor.getCrypto(), accessor.getConfiguration());
-        flash.init(this);
-        session.init(this);
 
         if (vertxContext == null) {
             throw new IllegalArgumentException("Creating a context from vert.x outside of an event loop");
@@ -145,6 +152,10 @@ public class ContextFromVertx implements Context {
      */
     @Override
     public FlashCookie flash() {
+        if (flash == null) {
+            flash = new FlashCookieImpl(services.getConfiguration());
+            flash.init(this);
+        }
         return flash;
     }
 
@@ -159,9 +170,37 @@ public class ContextFromVertx implements Context {
      */
     @Override
     public SessionCookie session() {
+        if (session == null) {
+            session = new SessionCookieImpl(services.getCrypto(), services.getConfiguration());
+            session.init(this);
+        }
         return session;
     }
 
+    /**
+     * Adds the flash and session cookies to the given result. The cookies that have not been accessed during the
+     * request processing are not decoded: a flash cookie sent by the request is cleared, and a session cookie sent
+     * by the request is only decoded when it must be sent back on every response (to be prolonged). Otherwise, the
+     * session is left untouched, its expiration is checked when it is read.
+     *
+     * @param result the result
+     */
+    void saveFlashAndSession(Result result) {
+        ApplicationConfiguration configuration = services.getConfiguration();
+        String prefix = configuration.getWithDefault(Cookie.APPLICATION_COOKIE_PREFIX, "wisdom");
+        if (flash != null) {
+            flash.save(this, result);
+        } else if (hasCookie(prefix + FlashCookieImpl.FLASH_SUFFIX)) {
+            result.with(FlashCookieImpl.expired(prefix));
+        }
+        if (session != null) {
+            session.save(this, result);
+        } else if (hasCookie(prefix + SessionCookieImpl.SESSION_SUFFIX)
+                && !configuration.getBooleanWithDefault(SessionCookie.SESSION_SEND_ONLY_IF_CHANGED, true)) {
+            session().save(this, result);
+        }
+    }
+
     /**
      * Get cookie from context.
      *
@@ -519,13 +558,24 @@ public class ContextFromVertx implements Context {
      */
     @Override
     public BufferedReader reader() throws IOException {
-        byte[] raw = request.getRawBody();
-        if (raw != null) {
-            return IOUtils.toBufferedReader(new InputStreamReader(new ByteArrayInputStream(raw)));
+        InputStream stream = request.getRawBodyAsStream();
+        if (stream != null) {
+            return IOUtils.toBufferedReader(new InputStreamReader(stream));
         }
         return null;
     }
 
+    /**
+     * Retrieves a stream to read the request body. The stream reads the received buffer directly, without copying
+     * it. If the request has no body, {@code null} is returned.
+     *
+     * @return the stream on the body
+     */
+    @Override
+    public InputStream stream() {
+        return request.getRawBodyAsStream();
+    }
+
     /**
      * Get the route for this context.
      *
@@ -548,6 +598,24 @@ public class ContextFromVertx implements Context {
         this.route = route;
     }
 
+    /**
+     * @return the path parameters captured by the router while selecting the route, {@literal null} if none.
+     */
+    @Override
+    public Map<String, String> capturedPathParameters() {
+        return capturedPathParameters;
+    }
+
+    /**
+     * Sets the path parameters captured by the router while selecting the route.
+     *
+     * @param parameters the parameters
+     */
+    @Override
+    public void capturedPathParameters(Map<String, String> parameters) {
+        this.capturedPathParameters = parameters;
+    }
+
     /**
      * Check if request is of type multipart. Important when you want to process
      * uploads for instance.
@@ -19,19 +19,24 @@
  */
 package org.wisdom.framework.vertx;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.core.streams.Pump;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.bodies.RenderableChunks;
+import org.wisdom.api.bodies.RenderableFile;
 import org.wisdom.api.concurrent.ManagedFutureTask;
 import org.wisdom.api.exceptions.ExceptionMapper;
 import org.wisdom.api.exceptions.HttpException;
@@ -41,10 +46,13 @@ import org.wisdom.framework.vertx.cookies.CookieHelper;
 import org.wisdom.framework.vertx.file.DiskFileUpload;
 import org.wisdom.framework.vertx.file.MixedFileUpload;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -98,7 +106,8 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                     false,
                     true);
         } else {
-            Buffer raw = Buffer.buffer(0);
+            // The received chunks are aggregated without being copied.
+            CompositeByteBuf raw = Unpooled.compositeBuffer(Integer.MAX_VALUE);
             RequestFromVertx req = (RequestFromVertx) context.request();
             AtomicBoolean error = new AtomicBoolean();
             if (HttpUtils.isPostOrPut(request)) {
@@ -124,12 +133,14 @@ public class HttpHandler implements Handler<HttpServerRequest> {
 
                 // To avoid we run out of memory we cut the read body to 100Kb. This can be configured using the
                 // "request.body.max.size" property.
-                boolean exceeded = raw.length() >= maxBodySize;
+                boolean exceeded = raw.readableBytes() >= maxBodySize;
 
                 // We may have the content in different HTTP message, check if we already have a content.
                 // Issue #257.
                 if (!exceeded) {
-                    raw.appendBuffer(event);
+                    ByteBuf chunk = event.getByteBuf();
+                    raw.addComponent(chunk);
+                    raw.writerIndex(raw.writerIndex() + chunk.readableBytes());
                 } else {
                     // Remove the handler as we stop reading the request.
                     request.handler(null);
@@ -146,7 +157,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                     // Error already written.
                     return;
                 }
-                req.setRawBody(raw);
+                req.setRawBody(Buffer.buffer(raw));
                 // Notifies the context that the request has been read, we start the dispatching.
                 if (context.ready()) {
                     // Dispatch.
@@ -179,39 +190,79 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         Context.CONTEXT.set(context);
         // 3 Get route for context
         Route route = accessor.getRouter().getRouteFor(context.request().method(), context.path(), request);
-        Result result;
 
         if (route == null) {
             // 3.1 : no route to destination
             // Should never return null, but an unbound route instead.
             LOGGER.error("The router has returned 'null' instead of an unbound route for " + context.path());
-            result = Results.notFound();
-        } else {
-            // 3.2 : route found
-            context.route(route);
-            result = invoke(route);
+            write(context, request, Results.notFound());
+            return;
+        }
+
+        // 3.2 : route found, call it on the thread selected by the dispatch strategy.
+        context.route(route);
+        switch (server.dispatch(route)) {
+            case WORKER:
+                Context.CONTEXT.remove();
+                if (!server.workers().submit(() -> process(context, request, route))) {
+                    LOGGER.warn("Worker pool of {} saturated, rejecting {} {}", server.name(),
+                            context.request().method(), context.path());
+                    writeResponse(context, request, new Result(Status.SERVICE_UNAVAILABLE)
+                            .render("Server overloaded - request rejected").as(MimeTypes.TEXT), false, false);
+                }
+                break;
+            case ORDERED:
+                Context.CONTEXT.remove();
+                SocketAddress remote = request.getVertxRequest().remoteAddress();
+                server.lanes().submit(context.vertxContext(), remote.host() + ":" + remote.port(),
+                        () -> process(context, request, route));
+                break;
+            default:
+                process(context, request, route);
+        }
+    }
 
+    /**
+     * Invokes the route and writes the result. When called from a worker thread, the response is serialized on the
+     * calling thread, and written from the Vert.x context of the request.
+     */
+    private void process(ContextFromVertx context, RequestFromVertx request, Route route) {
+        boolean offloaded = !isOnRequestContext(context);
+        if (offloaded) {
+            Context.CONTEXT.set(context);
+        }
+        try {
+            Result result = invoke(route);
             if (result instanceof AsyncResult) {
                 // Asynchronous operation in progress.
                 handleAsyncResult(context, request, (AsyncResult) result);
                 return;
             }
+            // Synchronous processing.
+            write(context, request, result);
+        } finally {
+            if (offloaded) {
+                Context.CONTEXT.remove();
+            }
         }
+    }
 
-        // Synchronous processing or not found.
+    private static boolean isOnRequestContext(ContextFromVertx context) {
+        return io.vertx.core.Context.isOnEventLoopThread() && Vertx.currentContext() == context.vertxContext();
+    }
+
+    private void write(ContextFromVertx context, RequestFromVertx request, Result result) {
         try {
             writeResponse(context, request, result, true, false);
         } catch (Exception e) {
             LOGGER.error("Cannot write response", e);
-            result = Results.internalServerError(e);
             try {
-                writeResponse(context, request, result, false, false);
+                writeResponse(context, request, Results.internalServerError(e), false, false);
             } catch (Exception e1) {
                 LOGGER.error("Cannot even write the error response...", e1);
                 // Ignore.
             }
         }
-        // If we reach this point, it means we did not write anything... Annoying.
     }
 
     private Result invoke(Route route) {
@@ -229,49 +280,74 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
     }
 
+    /**
+     * Writes the result of an asynchronous action once it is computed. No thread waits for the result: the response
+     * is serialized by the thread completing the computation, and written from the Vert.x context of the request.
+     */
     private void handleAsyncResult(
             final ContextFromVertx context,
             final RequestFromVertx request,
             final AsyncResult asyncResult) {
-
-        ManagedFutureTask<Result> future = accessor.getExecutor().submit(asyncResult.callable());
-        Futures.addCallback(future, new FutureCallback<Result>() {
-            @Override
-            public void onSuccess(Result result) {
-                // We got a result, write it here.
-                // Merge the headers of the initial result and the async results.
-                final Map<String, String> headers = result.getHeaders();
-                for (Map.Entry<String, String> header : asyncResult.getHeaders().entrySet()) {
-                    if (!headers.containsKey(header.getKey())) {
-                        headers.put(header.getKey(), header.getValue());
+        CompletionStage<Result> stage = asyncResult.stage();
+        if (stage == null) {
+            // The result is computed by a callable, run it on the system executor.
+            final CompletableFuture<Result> future = new CompletableFuture<>();
+            ManagedFutureTask<Result> task = accessor.getExecutor().submit(asyncResult.callable());
+            task.onSuccess((t, result) -> future.complete(result), MoreExecutors.sameThreadExecutor());
+            task.onFailure((t, throwable) -> future.completeExceptionally(throwable),
+                    MoreExecutors.sameThreadExecutor());
+            stage = future;
+        }
+        stage.whenComplete((result, throwable) -> {
+            try {
+                if (throwable == null && result != null) {
+                    // We got a result, merge the headers of the initial result and the async results.
+                    final Map<String, String> headers = result.getHeaders();
+                    for (Map.Entry<String, String> header : asyncResult.getHeaders().entrySet()) {
+                        if (!headers.containsKey(header.getKey())) {
+                            headers.put(header.getKey(), header.getValue());
+                        }
                     }
+                    writeResponse(context, request, result, true, false);
+                } else {
+                    writeResponse(context, request, toErrorResult(throwable), false, false);
                 }
-                writeResponse(context, request, result, true, false);
+            } catch (Exception e) {
+                LOGGER.error("Cannot write the asynchronous response", e);
+                writeResponse(context, request, Results.internalServerError(e), false, false);
             }
+        });
+    }
 
-            @Override
-            public void onFailure(Throwable t) {
-                //We got a failure, handle it here
-
-                // Check whether it's a HTTPException
-                if (t instanceof HttpException) {
-                    writeResponse(context, request, ((HttpException) t).toResult(), false, false);
-                    return;
-                }
+    /**
+     * Computes the result to send when an asynchronous result fails.
+     *
+     * @param throwable the failure, {@literal null} if the computation completed without result
+     * @return the error result
+     */
+    private Result toErrorResult(Throwable throwable) {
+        Throwable t = throwable;
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t == null) {
+            return Results.internalServerError("Computation error");
+        }
 
-                // Check if we have a mapper
-                if (t instanceof Exception) {
-                    ExceptionMapper mapper = accessor.getExceptionMapper((Exception) t);
-                    if (mapper != null) {
-                        writeResponse(context, request, mapper.toResult((Exception) t), false, false);
-                        return;
-                    }
-                }
+        // Check whether it's a HTTPException
+        if (t instanceof HttpException) {
+            return ((HttpException) t).toResult();
+        }
 
-                writeResponse(context, request, Results.internalServerError(t), false, false);
+        // Check if we have a mapper
+        if (t instanceof Exception) {
+            ExceptionMapper mapper = accessor.getExceptionMapper((Exception) t);
+            if (mapper != null) {
+                return mapper.toResult((Exception) t);
             }
-        }/*, MoreExecutors.directExecutor()*/);
-        //TODO Which executor should we use here ?
+        }
+
+        return Results.internalServerError(t);
     }
 
     private void writeResponse(
@@ -286,14 +362,34 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             renderable = NoHttpBody.INSTANCE;
         }
 
-        InputStream stream;
+        InputStream stream = null;
+        byte[] content = null;
+        RenderableFile file = null;
         boolean success = true;
         try {
-            // Process the result, and apply serialization if required.
-            stream = HttpUtils.processResult(accessor, context, renderable, result);
+            // Apply serialization if required.
+            Renderable<?> serialized = HttpUtils.serialize(accessor, context, renderable, result);
+            if (serialized instanceof RenderableChunks) {
+                // The content is pushed by the producer once the headers are sent.
+                LOGGER.debug("Streaming the response to {}", request.uri());
+            } else if (serialized instanceof RenderableFile) {
+                // Files are sent using 'sendFile', avoiding to copy them in memory.
+                file = (RenderableFile) serialized;
+                if (!file.content().isFile()) {
+                    throw new RenderableException("Cannot read file " + file.content().getAbsolutePath());
+                }
+            } else {
+                // Use the content directly when it's available in memory, read the stream otherwise.
+                content = serialized.bytes(context, result);
+                if (content == null) {
+                    stream = serialized.render(context, result);
+                }
+            }
         } catch (Exception e) {
             LOGGER.error("Cannot render the response to " + request.uri(), e);
-            stream = new ByteArrayInputStream(NoHttpBody.empty());
+            stream = null;
+            file = null;
+            content = NoHttpBody.empty();
             success = false;
         }
 
@@ -312,8 +408,24 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             result.withoutCompression();
         }
 
-        finalizeWriteReponse(context, request.getVertxRequest(),
-                result, stream, success, handleFlashAndSessionCookie, closeConnection);
+        final Body body = new Body(stream, content, file);
+        final boolean successful = success;
+        if (isOnRequestContext(context)) {
+            finalizeWriteReponse(context, request.getVertxRequest(),
+                    result, body, successful, handleFlashAndSessionCookie, closeConnection);
+        } else {
+            // The response is not thread-safe, it must be written from the request context.
+            context.vertxContext().runOnContext(v -> {
+                try {
+                    finalizeWriteReponse(context, request.getVertxRequest(),
+                            result, body, successful, handleFlashAndSessionCookie, closeConnection);
+                } catch (Exception e) {
+                    LOGGER.error("Cannot write response", e);
+                    request.getVertxRequest().response().close();
+                    cleanup(context);
+                }
+            });
+        }
     }
 
     /**
@@ -322,7 +434,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
      * @param context                     the HTTP context
      * @param request                     the Vert.x request
      * @param result                      the computed result
-     * @param stream                      the stream of the result
+     * @param body                        the content of the result
      * @param success                     a flag indicating whether or not the request was successfully handled
      * @param handleFlashAndSessionCookie if the flash and session cookie need to be send with the response
      * @param closeConnection             whehter or not the (underlying) TCP connection must be closed
@@ -331,7 +443,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             final ContextFromVertx context,
             final HttpServerRequest request,
             Result result,
-            InputStream stream,
+            Body body,
             boolean success,
             boolean handleFlashAndSessionCookie,
             boolean closeConnection) {
@@ -367,8 +479,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
 
         // copy cookies / flash and session
         if (handleFlashAndSessionCookie) {
-            context.flash().save(context, result);
-            context.session().save(context, result);
+            context.saveFlashAndSession(result);
         }
 
         // copy cookies
@@ -380,7 +491,24 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             response.headers().add(HeaderNames.SET_COOKIE, encoded);
         }
         response.setStatusCode(HttpUtils.getStatusFromResult(result, success));
-        if (renderable.mustBeChunked()) {
+        if (body.file != null) {
+            final File file = body.file.content();
+            LOGGER.debug("Sending file {} for {} {} ({})", file, request.method(), request.uri(), context);
+            if (keepAlive) {
+                response.putHeader(HeaderNames.CONNECTION, "keep-alive");
+            }
+            // Vert.x sets the content length and uses a zero-copy transfer when possible. Only the requested region
+            // is sent when the file answers a range request.
+            response.sendFile(file.getAbsolutePath(), body.file.offset(), body.file.length(), ar -> {
+                if (ar.failed()) {
+                    LOGGER.error("Cannot send the file {}", file.getAbsolutePath(), ar.cause());
+                    response.close();
+                } else if (!keepAlive || closeConnection) {
+                    response.close();
+                }
+                cleanup(context);
+            });
+        } else if (renderable.mustBeChunked()) {
             LOGGER.debug("Building the chunked response for {} {} ({})", request.method(), request.uri(), context);
             if (renderable.length() > 0 && !response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
                 response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(renderable.length()));
@@ -391,36 +519,77 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 response.putHeader(HeaderNames.CONTENT_TYPE, MimeTypes.BINARY);
             }
 
-            // Can't determine the size, so switch to chunked.
-            response.setChunked(true);
-            response.putHeader(HeaderNames.TRANSFER_ENCODING, "chunked");
-            // In addition, we can't keep the connection open.
-            response.putHeader(HeaderNames.CONNECTION, "close");
+            if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
+                // Can't determine the size, so switch to chunked.
+                response.setChunked(true);
+            }
+            // The end of the content is delimited by the last chunk or by the length, so the connection can be
+            // kept open.
+            if (keepAlive && !closeConnection) {
+                response.putHeader(HeaderNames.CONNECTION, "keep-alive");
+            }
+            final boolean close = !keepAlive || closeConnection;
+
+            if (body.content != null) {
+                // The content is already in memory, write it at once.
+                response.end(Buffer.buffer(Unpooled.wrappedBuffer(body.content)));
+                if (close) {
+                    response.close();
+                }
+                cleanup(context);
+                return;
+            }
 
-            final AsyncInputStream s = new AsyncInputStream(vertx, accessor.getExecutor(), stream);
+            if (renderable instanceof RenderableChunks) {
+                // The content is pushed by the producer.
+                final ChunksFromVertx chunks = new ChunksFromVertx(context.vertxContext(), response, close,
+                        () -> cleanup(context));
+                try {
+                    ((RenderableChunks) renderable).content().accept(chunks);
+                } catch (Exception e) {
+                    LOGGER.error("Cannot produce the chunks of the response to {}", request.uri(), e);
+                    chunks.abort();
+                }
+                return;
+            }
+
+            final AsyncInputStream s = new AsyncInputStream(vertx, accessor.getExecutor(), body.stream);
             s.setContext(context.vertxContext());
             final Pump pump = Pump.pump(s, response);
             s.endHandler(event -> context.vertxContext().runOnContext(event1 -> {
                         LOGGER.debug("Ending chunked response for {}", request.uri());
                         response.end();
-                        response.close();
+                        if (close) {
+                            response.close();
+                        }
                         cleanup(context);
                     })
             );
             s.exceptionHandler(event -> context.vertxContext().runOnContext(event1 -> {
-                        LOGGER.error("Cannot read the result stream", event1);
+                        LOGGER.error("Cannot read the result stream", event);
                         response.close();
                         cleanup(context);
                     })
             );
             context.vertxContext().runOnContext(event -> pump.start());
 
+        } else if (isHeadOfUnknownLength(request, result, body)) {
+            // Vert.x would send a zero length, and a chunked response would be followed by the last chunk. So only
+            // the headers are sent, and the connection is closed to end the response.
+            LOGGER.debug("Answering {} {} without a content length ({})", request.method(), request.uri(), context);
+            response.setChunked(true);
+            response.write(Buffer.buffer());
+            response.close();
+            cleanup(context);
         } else {
-            byte[] cont = new byte[0];
-            try {
-                cont = IOUtils.toByteArray(stream);
-            } catch (IOException e) {
-                LOGGER.error("Cannot copy the response to {}", request.uri(), e);
+            byte[] cont = body.content;
+            if (cont == null) {
+                cont = new byte[0];
+                try {
+                    cont = IOUtils.toByteArray(body.stream);
+                } catch (IOException e) {
+                    LOGGER.error("Cannot copy the response to {}", request.uri(), e);
+                }
             }
 
             if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
@@ -434,7 +603,8 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 // - http://www.w3.org/Protocols/HTTP/1.1/draft-ietf-http-v11-spec-01.html#Connection
                 response.putHeader(HeaderNames.CONNECTION, "keep-alive");
             }
-            response.write(Buffer.buffer(cont));
+            // Wrap the content instead of copying it into a new buffer.
+            response.write(Buffer.buffer(Unpooled.wrappedBuffer(cont)));
             if (HttpUtils.isKeepAlive(request) && !closeConnection) {
                 response.end();
             } else {
@@ -445,6 +615,34 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
     }
 
+    /**
+     * Checks whether the response answers a {@literal HEAD} request for a content whose length is unknown. Such
+     * results declare the chunked transfer encoding the {@literal GET} request would use, and no content length
+     * (see {@code DefaultPageErrorHandler#head}).
+     */
+    private static boolean isHeadOfUnknownLength(HttpServerRequest request, Result result, Body body) {
+        return request.method() == io.vertx.core.http.HttpMethod.HEAD
+                && !result.getHeaders().containsKey(HeaderNames.CONTENT_LENGTH)
+                && "chunked".equalsIgnoreCase(result.getHeaders().get(HeaderNames.TRANSFER_ENCODING))
+                && body.content != null && body.content.length == 0;
+    }
+
+    /**
+     * The content of a response. Only one of the fields is set: the file to send, the content when it is available
+     * in memory, or the stream to read otherwise.
+     */
+    private static final class Body {
+        private final InputStream stream;
+        private final byte[] content;
+        private final RenderableFile file;
+
+        private Body(InputStream stream, byte[] content, RenderableFile file) {
+            this.stream = stream;
+            this.content = content;
+            this.file = file;
+        }
+    }
+
     private boolean shouldEncodingBeDisabledForResponse(long length, Result result) {
         return server.hasCompressionEnabled()
                 && (
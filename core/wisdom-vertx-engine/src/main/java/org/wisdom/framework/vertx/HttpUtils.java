@@ -90,6 +90,21 @@ public class HttpUtils {
      */
     public static InputStream processResult(ServiceAccessor accessor, Context context, Renderable renderable,
                                             Result result) throws Exception {
+        return serialize(accessor, context, renderable, result).render(context, result);
+    }
+
+    /**
+     * Applies the serialization required by the given renderable object if any.
+     *
+     * @param accessor   the service accessor
+     * @param context    the current HTTP context
+     * @param renderable the renderable object
+     * @param result     the computed result
+     * @return the renderable object to render, which may differ from the given one when there are no content to
+     * serialize
+     */
+    public static Renderable<?> serialize(ServiceAccessor accessor, Context context, Renderable renderable,
+                                          Result result) {
         if (renderable.requireSerializer()) {
             ContentSerializer serializer = null;
             if (result.getContentType() != null) {
@@ -122,7 +137,7 @@ public class HttpUtils {
                 }
             }
         }
-        return renderable.render(context, result);
+        return renderable;
     }
 
     /**
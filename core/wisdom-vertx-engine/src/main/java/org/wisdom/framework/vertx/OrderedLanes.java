@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.vertx.core.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The serial lanes used by the {@link org.wisdom.api.router.DispatchStrategy#ORDERED} strategy. Each connection has
+ * its own lane: the requests of a connection are executed one after the other on the Vert.x blocking pool, while the
+ * requests of different connections are executed concurrently.
+ * <p>
+ * A lane only exists while it has pending tasks, the first task submitted to an idle lane starts draining it.
+ */
+final class OrderedLanes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderedLanes.class);
+
+    private final ConcurrentMap<String, Queue<Runnable>> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Submits a task to the lane of the given connection.
+     *
+     * @param context    the Vert.x context used to reach the blocking pool
+     * @param connection the key identifying the connection
+     * @param task       the task
+     */
+    void submit(Context context, String connection, Runnable task) {
+        boolean[] idle = {false};
+        lanes.compute(connection, (key, queue) -> {
+            Queue<Runnable> lane = queue;
+            if (lane == null) {
+                lane = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            lane.add(task);
+            return lane;
+        });
+        if (idle[0]) {
+            // Not ordered by Vert.x, the ordering is handled by the lane.
+            context.<Void>executeBlocking(future -> {
+                drain(connection);
+                future.complete();
+            }, false, ar -> {
+                if (ar.failed()) {
+                    LOGGER.error("Cannot process the requests of {}", connection, ar.cause());
+                }
+            });
+        }
+    }
+
+    private void drain(String connection) {
+        while (true) {
+            Runnable[] next = new Runnable[1];
+            // The lane is removed atomically once empty, so a new task starts a new drain.
+            lanes.computeIfPresent(connection, (key, queue) -> {
+                next[0] = queue.poll();
+                return next[0] == null ? null : queue;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            try {
+                next[0].run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Cannot process a request of {}", connection, e);
+            }
+        }
+    }
+
+    /**
+     * @return the number of lanes having pending tasks.
+     */
+    int size() {
+        return lanes.size();
+    }
+}
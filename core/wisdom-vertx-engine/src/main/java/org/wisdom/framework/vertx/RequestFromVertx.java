@@ -20,9 +20,9 @@
 package org.wisdom.framework.vertx;
 
 import com.google.common.base.Charsets;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.net.MediaType;
+import io.netty.buffer.ByteBufInputStream;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
@@ -35,6 +35,7 @@ import org.wisdom.api.http.Request;
 import org.wisdom.framework.vertx.cookies.CookiesImpl;
 import org.wisdom.framework.vertx.file.VertxFileUpload;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -220,14 +221,7 @@ public class RequestFromVertx extends Request {
      */
     @Override
     public MediaType mediaType() {
-        Collection<MediaType> types = mediaTypes();
-        if (types == null || types.isEmpty()) {
-            return MediaType.ANY_TEXT_TYPE;
-        } else if (types.size() == 1 && types.iterator().next().equals(MediaType.ANY_TYPE)) {
-            return MediaType.ANY_TEXT_TYPE;
-        } else {
-            return types.iterator().next();
-        }
+        return negotiation().preferred();
     }
 
     /**
@@ -246,40 +240,7 @@ public class RequestFromVertx extends Request {
      */
     @Override
     public Collection<MediaType> mediaTypes() {
-        String contentType = request.headers().get(HeaderNames.ACCEPT);
-
-        if (contentType == null) {
-            // Any text by default.
-            return ImmutableList.of(MediaType.ANY_TEXT_TYPE);
-        }
-
-        TreeSet<MediaType> set = new TreeSet<>(new Comparator<MediaType>() {
-            @Override
-            public int compare(MediaType o1, MediaType o2) {
-                double q1 = 1.0, q2 = 1.0;
-                List<String> ql1 = o1.parameters().get("q");
-                List<String> ql2 = o2.parameters().get("q");
-
-                if (ql1 != null && !ql1.isEmpty()) {
-                    q1 = Double.parseDouble(ql1.get(0));
-                }
-
-                if (ql2 != null && !ql2.isEmpty()) {
-                    q2 = Double.parseDouble(ql2.get(0));
-                }
-
-                return new Double(q2).compareTo(q1);
-            }
-        });
-
-        // Split and sort.
-        String[] segments = contentType.split(",");
-        for (String segment : segments) {
-            MediaType type = MediaType.parse(segment.trim());
-            set.add(type);
-        }
-
-        return set;
+        return negotiation().accepted();
     }
 
     /**
@@ -289,22 +250,7 @@ public class RequestFromVertx extends Request {
      */
     @Override
     public boolean accepts(String mimeType) {
-        String contentType = request.headers().get(HeaderNames.ACCEPT);
-        if (contentType == null) {
-            contentType = MimeTypes.HTML;
-        }
-        // For performance reason, we first try a full match:
-        if (contentType.contains(mimeType)) {
-            return true;
-        }
-        // Else check the media types:
-        MediaType input = MediaType.parse(mimeType);
-        for (MediaType type : mediaTypes()) {
-            if (input.is(type)) {
-                return true;
-            }
-        }
-        return false;
+        return negotiation().accepts(mimeType);
     }
 
     /**
@@ -327,6 +273,17 @@ public class RequestFromVertx extends Request {
         return cookies.get(name);
     }
 
+    /**
+     * Retrieves a single header, without copying all the headers.
+     *
+     * @param headerName the header name
+     * @return the first value of the header, {@literal null} if not set
+     */
+    @Override
+    public String getHeader(String headerName) {
+        return request.headers().get(headerName);
+    }
+
     /**
      * Retrieves all headers.
      *
@@ -553,6 +510,18 @@ public class RequestFromVertx extends Request {
         return raw.getBytes();
     }
 
+    /**
+     * Gets a stream on the 'raw' body. The stream reads the underlying Netty buffer, the body is not copied.
+     *
+     * @return the stream, {@code null} if there is no body.
+     */
+    public InputStream getRawBodyAsStream() {
+        if (raw == null) {
+            return null;
+        }
+        return new ByteBufInputStream(raw.getByteBuf());
+    }
+
     /**
      * Gets the uploaded files.
      *
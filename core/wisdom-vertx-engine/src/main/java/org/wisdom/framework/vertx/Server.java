@@ -30,16 +30,27 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.configuration.Configuration;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.Results;
+import org.wisdom.api.router.DispatchStrategy;
+import org.wisdom.api.router.Route;
 import org.wisdom.framework.vertx.ssl.SSLServerContext;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 /**
  * Class representing the server configuration and configuring the server.
+ * <p>
+ * The same server object is shared by all the deployed instances of {@link WisdomServiceVerticle}. Each instance
+ * binds its own {@link HttpServer} on its own context, and Vert.x shares the listening socket between them,
+ * so connections are spread among the event loops.
  */
 public class Server {
 
@@ -84,7 +95,7 @@ public class Server {
     /**
      * The listened port, updated once the server is bound (that's why the field is not final).
      */
-    private int port;
+    private volatile int port;
 
     /**
      * whether or not SSL is enabled.
@@ -113,11 +124,24 @@ public class Server {
     private String onDenied;
 
     /**
-     * The HTTP server.
+     * The strategy used for the routes not specifying their own strategy.
      */
-    private HttpServer http;
+    private final DispatchStrategy dispatch;
 
-    private Context context;
+    /**
+     * The worker pool, created on the first request using the {@link DispatchStrategy#WORKER} strategy.
+     */
+    private volatile WorkerPool workers;
+
+    /**
+     * The per connection lanes used by the {@link DispatchStrategy#ORDERED} strategy.
+     */
+    private final OrderedLanes lanes = new OrderedLanes();
+
+    /**
+     * The HTTP servers, one per context (so per verticle instance) having bound this server.
+     */
+    private final Map<Context, HttpServer> http = new ConcurrentHashMap<>();
 
     /**
      * Creates the default HTTP server (listening on port 9000 / `http.port`), no SSL, no mutual authentication,
@@ -135,7 +159,7 @@ public class Server {
                 accessor.getConfiguration().getIntegerWithDefault("http.port", 9000),
                 false, false,
                 null,
-                Collections.<String>emptyList(), Collections.<String>emptyList(), null);
+                Collections.<String>emptyList(), Collections.<String>emptyList(), null, null);
     }
 
     /**
@@ -154,7 +178,7 @@ public class Server {
                 accessor.getConfiguration().getIntegerWithDefault("https.port", 9001),
                 true, false,
                 null,
-                Collections.<String>emptyList(), Collections.<String>emptyList(), null);
+                Collections.<String>emptyList(), Collections.<String>emptyList(), null, null);
     }
 
     /**
@@ -180,12 +204,14 @@ public class Server {
                 configuration.get("host"),
                 configuration.getList("allow"),
                 configuration.getList("deny"),
-                configuration.get("onDenied")
+                configuration.get("onDenied"),
+                configuration.get("dispatch")
         );
     }
 
     /**
-     * Creates a new server.
+     * Creates a new server, dispatching the requests using the {@code vertx.dispatch} configuration
+     * ({@code event_loop} by default).
      *
      * @param accessor       the service accessor
      * @param vertx          the vertx singleton
@@ -204,6 +230,31 @@ public class Server {
                   boolean ssl, boolean authentication,
                   String host,
                   List<String> allow, List<String> deny, String onDenied) {
+        this(accessor, vertx, name, port, ssl, authentication, host, allow, deny, onDenied, null);
+    }
+
+    /**
+     * Creates a new server.
+     *
+     * @param accessor       the service accessor
+     * @param vertx          the vertx singleton
+     * @param name           the server name
+     * @param port           the port
+     * @param ssl            whether or not SSL is enabled
+     * @param host           the listened interface
+     * @param allow          the set of path with wildcards accepted by the server
+     * @param deny           the set of path with wildcards rejected by the server
+     * @param authentication whether or not mutual authentication is enabled
+     * @param onDenied       the redirection URL if a request is denied by the server
+     * @param dispatch       the dispatch strategy used when the route does not specify one, {@code null} to use the
+     *                       {@code vertx.dispatch} configuration ({@code event_loop} by default)
+     */
+    public Server(ServiceAccessor accessor,
+                  Vertx vertx,
+                  String name, int port,
+                  boolean ssl, boolean authentication,
+                  String host,
+                  List<String> allow, List<String> deny, String onDenied, String dispatch) {
         Preconditions.checkNotNull(accessor);
         Preconditions.checkNotNull(vertx);
         Preconditions.checkNotNull(name);
@@ -236,21 +287,35 @@ public class Server {
         this.allow = allowedPatterns;
         this.deny = deniedPatterns;
         this.onDenied = onDenied;
+        this.dispatch = parseDispatchStrategy(dispatch == null ? configuration.get("vertx.dispatch") : dispatch);
 
         this.logger = LoggerFactory.getLogger("server-" + name);
     }
 
+    private static DispatchStrategy parseDispatchStrategy(String value) {
+        if (value == null) {
+            return DispatchStrategy.EVENT_LOOP;
+        }
+        DispatchStrategy strategy = DispatchStrategy.valueOf(value.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+        if (strategy == DispatchStrategy.DEFAULT) {
+            return DispatchStrategy.EVENT_LOOP;
+        }
+        return strategy;
+    }
+
     /**
      * Starts the server. The server is going to try to listen on the given host / port. Startup is asynchronous. You
      * can pull {@link #port()} to know when the server has successfully be bound (in case of a random port).
+     * <p>
+     * This method can be called from several contexts, each call creates a HTTP server bound to the calling context.
+     * Once the port is known (after the first successful bind), the other calls share the same port.
      */
     public void bind(Handler<AsyncResult<Void>> completion) {
         logger.info("Starting server {}", name);
-        context = vertx.getOrCreateContext();
-        bind(port, completion);
+        bind(vertx.getOrCreateContext(), completion);
     }
 
-    private void bind(int p, Handler<AsyncResult<Void>> completion) {
+    private void bind(Context context, Handler<AsyncResult<Void>> completion) {
         // Get port number.
         final int thePort = pickAPort(port);
         HttpServerOptions options = new HttpServerOptions();
@@ -286,18 +351,19 @@ public class Server {
             options.setSendBufferSize(configuration.getInteger("vertx.sendBufferSize"));
         }
 
-        http = vertx.createHttpServer(options)
+        HttpServer server = vertx.createHttpServer(options)
                 .requestHandler(new HttpHandler(vertx, accessor, this))
                 .websocketHandler(new WebSocketHandler(accessor, this));
+        http.put(context, server);
 
-        http.listen(thePort, host, event -> {
+        server.listen(thePort, host, event -> {
             if (event.succeeded()) {
                 logger.info("Wisdom is going to serve HTTP requests on port {}.", thePort);
                 port = thePort;
                 completion.handle(Future.succeededFuture());
             } else if (port == 0) {
                 logger.debug("Cannot bind on port {} (port already used probably)", thePort, event.cause());
-                bind(0, completion);
+                bind(context, completion);
             } else {
                 logger.error("Cannot bind on port {} (port already used probably)", thePort, event.cause());
                 completion.handle(Future.failedFuture("Cannot bind on port " + thePort));
@@ -360,21 +426,92 @@ public class Server {
     }
 
     /**
-     * Stops / Closes the server.
+     * Stops / Closes the HTTP server bound from the calling context. When called from outside of the contexts having
+     * bound the server, all the HTTP servers are closed.
      */
     public void close(Handler<AsyncResult<Void>> completion) {
-        if (context == null) {
-            context = vertx.getOrCreateContext();
+        Context current = Vertx.currentContext();
+        Map<Context, HttpServer> closed = new HashMap<>();
+        if (current != null && http.containsKey(current)) {
+            closed.put(current, http.remove(current));
+        } else {
+            for (Context context : new ArrayList<>(http.keySet())) {
+                HttpServer server = http.remove(context);
+                if (server != null) {
+                    closed.put(context, server);
+                }
+            }
+        }
+        if (http.isEmpty()) {
+            shutdownWorkers();
+        }
+        if (closed.isEmpty()) {
+            completion.handle(Future.<Void>succeededFuture());
+            return;
         }
 
-        context.runOnContext(v -> {
-            if (http != null) {
-                http.close(event -> {
+        AtomicInteger remaining = new AtomicInteger(closed.size());
+        for (Map.Entry<Context, HttpServer> entry : closed.entrySet()) {
+            // Each server is closed from the context having bound it.
+            entry.getKey().runOnContext(v -> entry.getValue().close(event -> {
+                if (remaining.decrementAndGet() == 0) {
                     logger.info("The server '{}' has been stopped (bound port: {})", name, port);
                     completion.handle(Future.<Void>succeededFuture());
-                });
+                }
+            }));
+        }
+    }
+
+    /**
+     * Gets the strategy used to dispatch the requests to the given route.
+     *
+     * @param route the route
+     * @return the strategy of the route, or the strategy of the server if the route does not specify one. It never
+     * returns {@link DispatchStrategy#DEFAULT}.
+     */
+    public DispatchStrategy dispatch(Route route) {
+        if (route == null || route.getDispatchStrategy() == DispatchStrategy.DEFAULT) {
+            return dispatch;
+        }
+        return route.getDispatchStrategy();
+    }
+
+    /**
+     * Gets the pool of threads used by the {@link DispatchStrategy#WORKER} strategy. The pool is created on the first
+     * call. Its size is configured using {@code vertx.worker.threads} (20 by default), and its queue is limited to
+     * {@code vertx.worker.queue} tasks (1000 by default).
+     *
+     * @return the pool
+     */
+    WorkerPool workers() {
+        // Double-checked, so the requests dispatched once the pool exists do not take the server monitor.
+        WorkerPool pool = workers;
+        if (pool == null) {
+            synchronized (this) {
+                pool = workers;
+                if (pool == null) {
+                    pool = new WorkerPool(name,
+                            Math.max(1, configuration.getIntegerWithDefault("vertx.worker.threads", 20)),
+                            Math.max(1, configuration.getIntegerWithDefault("vertx.worker.queue", 1000)));
+                    workers = pool;
+                }
             }
-        });
+        }
+        return pool;
+    }
+
+    /**
+     * @return the per connection lanes used by the {@link DispatchStrategy#ORDERED} strategy.
+     */
+    OrderedLanes lanes() {
+        return lanes;
+    }
+
+    private synchronized void shutdownWorkers() {
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
     }
 
     /**
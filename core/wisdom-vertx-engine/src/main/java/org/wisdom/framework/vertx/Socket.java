@@ -20,38 +20,121 @@
 package org.wisdom.framework.vertx;
 
 
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
+import io.vertx.core.http.impl.FrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * A class abstracting the differences between the WebSocket API and the SockJs API.
+ * <p>
+ * Frames are written directly on the socket, from the event loop owning the socket. When the caller runs on
+ * another thread, the write is scheduled on that event loop, so frames sent from one thread keep their order.
+ * Payloads are encoded once, and wrapped (not copied) for each socket, so publishing a message to many clients does
+ * not encode or copy it per client.
+ * <p>
+ * When the write queue of the socket is full (slow client), the frames wait in a bounded queue until the socket is
+ * drained. When this queue is full, either the new frame or the oldest pending frame is dropped, as configured by
+ * {@code wisdom.websocket.mailbox.size} and {@code wisdom.websocket.mailbox.overflow}. The dropped frames are counted,
+ * and reported at most once per {@link #DROP_REPORT_INTERVAL} for each client.
  * TODO: Add sockjs support back.
  */
 public class Socket {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Socket.class);
+
+    /**
+     * The default maximum number of frames waiting for a slow client.
+     */
+    static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * The minimum delay, in nanoseconds, between two reports of dropped frames for the same client.
+     */
+    static final long DROP_REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
     /**
      * The underlying socket, a {@link ServerWebSocket} instance.
      */
     private final ServerWebSocket delegate;
 
+    /**
+     * The context owning the socket, {@literal null} if the socket was not created from a Vert.x context.
+     */
+    private final Context context;
+
+    /**
+     * The maximum number of pending frames.
+     */
+    private final int capacity;
+
+    /**
+     * Whether the oldest pending frame is dropped when the pending queue is full, instead of the new one.
+     */
+    private final boolean dropOldest;
+
+    /**
+     * The frames waiting for the write queue of the socket to be drained, also used as lock for {@link #draining}.
+     */
+    private final Deque<Supplier<WebSocketFrame>> pending = new ArrayDeque<>();
+
+    /**
+     * Whether or not a drain handler is waiting to flush the pending frames.
+     */
+    private boolean draining;
+
+    /**
+     * The number of frames dropped since the last report. Guarded by {@link #pending}.
+     */
+    private long dropped;
+
+    /**
+     * The time of the last report of dropped frames, from {@link System#nanoTime()}. Guarded by {@link #pending}.
+     */
+    private long reported;
+
+    /**
+     * Whether dropped frames have already been reported. Guarded by {@link #pending}.
+     */
+    private boolean hasReported;
+
     /**
      * Creates an instance of {@link org.wisdom.framework.vertx.Socket} delegating to
-     * a {@link ServerWebSocket} instance.
+     * a {@link ServerWebSocket} instance. The socket is bound to the current Vert.x context (if any). When the
+     * client is too slow, up to 1000 frames are kept, and the newest frames are dropped.
      *
      * @param delegate the delegate
      */
     public Socket(ServerWebSocket delegate) {
-        this.delegate = delegate;
-    }
-
-
-    private String getWriteHandlerId() {
-        return delegate.textHandlerID();
+        this(delegate, DEFAULT_CAPACITY, false);
     }
 
-    private String getBinaryWriteHandlerId() {
-        return delegate.binaryHandlerID();
+    /**
+     * Creates an instance of {@link org.wisdom.framework.vertx.Socket} delegating to
+     * a {@link ServerWebSocket} instance. The socket is bound to the current Vert.x context (if any).
+     *
+     * @param delegate   the delegate
+     * @param capacity   the maximum number of frames waiting when the client is too slow
+     * @param dropOldest whether the oldest waiting frame is dropped when the limit is reached, instead of the new one
+     */
+    public Socket(ServerWebSocket delegate, int capacity, boolean dropOldest) {
+        this.delegate = delegate;
+        this.context = Vertx.currentContext();
+        this.capacity = Math.max(1, capacity);
+        this.dropOldest = dropOldest;
     }
 
     @Override
@@ -80,19 +163,168 @@ public class Socket {
      * Sends a text frame on the socket.
      *
      * @param message the message
+     */
+    public void publish(String message) {
+        write(text(message));
+    }
+
+    /**
+     * Sends a binary frame on the socket.
+     *
+     * @param message the message
+     */
+    public void publish(byte[] message) {
+        write(binary(message));
+    }
+
+    /**
+     * Sends a text frame on the socket, through the event bus.
+     *
+     * @param message the message
      * @param bus     the Vert.x event bus.
+     * @deprecated use {@link #publish(String)}, writing the frame directly on the socket
      */
+    @Deprecated
     public void publish(String message, EventBus bus) {
-        bus.publish(getWriteHandlerId(), message);
+        bus.publish(delegate.textHandlerID(), message);
     }
 
     /**
-     * Sends a binary frame on the socket.
+     * Sends a binary frame on the socket, through the event bus.
      *
      * @param message the message
      * @param bus     the Vert.x event bus.
+     * @deprecated use {@link #publish(byte[])}, writing the frame directly on the socket
      */
+    @Deprecated
     public void publish(byte[] message, EventBus bus) {
-        bus.publish(getBinaryWriteHandlerId(), Buffer.buffer(message));
+        bus.publish(delegate.binaryHandlerID(), Buffer.buffer(message));
+    }
+
+    /**
+     * Creates the factory of the final text frames containing the given message, so it can be written on several
+     * sockets using {@link #write(Supplier)}. The message is encoded once, and the frames share the encoded payload.
+     *
+     * @param message the message
+     * @return the frame factory
+     */
+    static Supplier<WebSocketFrame> text(String message) {
+        final byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        return () -> new WebSocketFrameImpl(FrameType.TEXT, Unpooled.wrappedBuffer(payload), true);
+    }
+
+    /**
+     * Creates the factory of the final binary frames containing the given payload, so it can be written on several
+     * sockets using {@link #write(Supplier)}. The payload is shared, and must not be modified afterwards.
+     *
+     * @param payload the payload
+     * @return the frame factory
+     */
+    static Supplier<WebSocketFrame> binary(byte[] payload) {
+        return () -> WebSocketFrame.binaryFrame(Buffer.buffer(Unpooled.wrappedBuffer(payload)), true);
+    }
+
+    /**
+     * Writes a frame on the socket. The frame is created from the event loop of the socket, when it is written.
+     *
+     * @param frame the frame factory
+     */
+    void write(Supplier<WebSocketFrame> frame) {
+        if (context == null
+                || Vertx.currentContext() == context && Context.isOnEventLoopThread()) {
+            writeOrQueue(frame);
+        } else {
+            context.runOnContext(v -> writeOrQueue(frame));
+        }
+    }
+
+    /**
+     * @return the number of frames dropped and not reported yet.
+     */
+    long dropped() {
+        synchronized (pending) {
+            return dropped;
+        }
+    }
+
+    /**
+     * @return the number of frames waiting for the client.
+     */
+    int pending() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void writeOrQueue(Supplier<WebSocketFrame> frame) {
+        synchronized (pending) {
+            if (!pending.isEmpty() || delegate.writeQueueFull()) {
+                enqueue(frame);
+                return;
+            }
+        }
+        writeNow(frame);
+    }
+
+    /**
+     * Enqueues a frame, must be called while holding the lock on {@link #pending}.
+     */
+    private void enqueue(Supplier<WebSocketFrame> frame) {
+        if (pending.size() >= capacity) {
+            countDrop();
+            if (!dropOldest) {
+                return;
+            }
+            pending.pollFirst();
+        }
+        pending.addLast(frame);
+        if (!draining) {
+            draining = true;
+            delegate.drainHandler(v -> flush());
+        }
+    }
+
+    /**
+     * Counts a dropped frame, and reports the dropped frames if the last report is old enough. Must be called while
+     * holding the lock on {@link #pending}.
+     */
+    private void countDrop() {
+        dropped++;
+        long now = System.nanoTime();
+        if (!hasReported || now - reported >= DROP_REPORT_INTERVAL) {
+            LOGGER.warn("The web socket client {} is too slow, {} frame(s) dropped ({} policy)", path(), dropped,
+                    dropOldest ? "drop-oldest" : "drop-newest");
+            dropped = 0;
+            reported = now;
+            hasReported = true;
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            Supplier<WebSocketFrame> frame;
+            synchronized (pending) {
+                if (delegate.writeQueueFull()) {
+                    // Called again on the next drain.
+                    return;
+                }
+                frame = pending.pollFirst();
+                if (frame == null) {
+                    draining = false;
+                    delegate.drainHandler(null);
+                    return;
+                }
+            }
+            writeNow(frame);
+        }
+    }
+
+    private void writeNow(Supplier<WebSocketFrame> frame) {
+        try {
+            delegate.writeFrame(frame.get());
+        } catch (IllegalStateException e) { //NOSONAR
+            // The socket has been closed in the meantime.
+            LOGGER.debug("Cannot write on the web socket {}, it has been closed", path());
+        }
     }
 }
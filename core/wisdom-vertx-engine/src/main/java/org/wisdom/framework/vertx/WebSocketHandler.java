@@ -23,6 +23,8 @@ import io.vertx.core.Handler;
 import io.vertx.core.http.ServerWebSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.http.websockets.MailboxOverflow;
 
 /**
  * Handles web socket frames.
@@ -70,7 +72,7 @@ public class WebSocketHandler implements Handler<ServerWebSocket> {
             return;
         }
 
-        final Socket sock = new Socket(socket);
+        final Socket sock = createSocket(socket);
         accessor.getDispatcher().addSocket(socket.path(), sock);
 
         socket.closeHandler(event -> {
@@ -81,4 +83,21 @@ public class WebSocketHandler implements Handler<ServerWebSocket> {
         socket.handler(event -> accessor.getDispatcher().received(socket.path(), event.getBytes(), sock));
 
     }
+
+    /**
+     * Wraps the opening socket, using the configured limit of frames waiting for slow clients
+     * ({@code wisdom.websocket.mailbox.size}) and overflow policy ({@code wisdom.websocket.mailbox.overflow}).
+     *
+     * @param socket the opening socket
+     * @return the socket
+     */
+    private Socket createSocket(ServerWebSocket socket) {
+        ApplicationConfiguration conf = accessor.getConfiguration();
+        if (conf == null) {
+            return new Socket(socket);
+        }
+        return new Socket(socket,
+                conf.getIntegerWithDefault("wisdom.websocket.mailbox.size", Socket.DEFAULT_CAPACITY),
+                MailboxOverflow.from(conf.get("wisdom.websocket.mailbox.overflow")) == MailboxOverflow.DROP_OLDEST);
+    }
 }
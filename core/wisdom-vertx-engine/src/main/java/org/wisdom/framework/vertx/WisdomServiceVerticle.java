@@ -62,6 +62,7 @@ public class WisdomServiceVerticle extends AbstractVerticle {
             } catch (InterruptedException e) {
                 // Ignore it.
             }
+            f.complete();
         }, ar -> {
             if (inError[0]) {
                 startFuture.fail("One of the server was not able to start correctly");
@@ -100,6 +101,7 @@ public class WisdomServiceVerticle extends AbstractVerticle {
             } catch (InterruptedException e) {
                 // ignore it.
             }
+            f.complete();
         }, ar -> {
             if (inError[0]) {
                 future.fail("One of the server did not stopped correctly");
@@ -19,7 +19,9 @@
  */
 package org.wisdom.framework.vertx;
 
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocketFrame;
 import io.vertx.core.spi.VerticleFactory;
 import org.apache.felix.ipojo.annotations.*;
 import org.slf4j.Logger;
@@ -37,6 +39,9 @@ import org.wisdom.api.router.Router;
 
 import java.net.InetAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 
 /**
@@ -55,12 +60,13 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     /**
      * The set of Web Socket Listeners used to dispatch data received on web sockets.
      */
-    private List<WebSocketListener> listeners = new ArrayList<>();
+    private final List<WebSocketListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * The map of uri / list of channel context keeping a reference on all opened web sockets.
+     * The map of uri / set of sockets keeping a reference on all opened web sockets. The sets are concurrent, so
+     * publishing iterates over them without copying.
      */
-    private Map<String, List<Socket>> socketsByUri = new HashMap<>();
+    private final Map<String, Set<Socket>> socketsByUri = new ConcurrentHashMap<>();
 
     /**
      * The vertx singleton.
@@ -113,7 +119,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     private InetAddress address;
 
     protected List<Server> servers = new ArrayList<>(2);
-    private String deploymentId;
+    private final List<String> deploymentIds = new CopyOnWriteArrayList<>();
 
     /**
      * Starts the servers (HTTP and HTTPS).
@@ -167,9 +173,31 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
             vertx.registerVerticleFactory(new WisdomInternalVerticleFactory(accessor, this.servers));
         }
 
+        // Number of verticle instances sharing the servers, by default one per core.
+        int instances = Math.max(1, accessor.getConfiguration().getIntegerWithDefault("vertx.http.instances",
+                Runtime.getRuntime().availableProcessors()));
+
+        // The first instance is deployed alone, so random ports are picked only once. Then, the other instances
+        // are bound to the same ports, Vert.x dispatches the connections among them.
         vertx.runOnContext(v -> vertx.deployVerticle("wisdom-internal:wisdom", ar -> {
-            LOGGER.info("Wisdom verticle deployed : " + ar.result());
-            deploymentId = ar.result();
+            if (ar.failed()) {
+                LOGGER.error("Cannot deploy the Wisdom verticle", ar.cause());
+                return;
+            }
+            LOGGER.info("Wisdom verticle deployed : {}", ar.result());
+            deploymentIds.add(ar.result());
+            if (instances > 1) {
+                vertx.deployVerticle("wisdom-internal:wisdom", new DeploymentOptions().setInstances(instances - 1),
+                        others -> {
+                            if (others.succeeded()) {
+                                LOGGER.info("{} additional Wisdom verticle instances deployed : {}", instances - 1,
+                                        others.result());
+                                deploymentIds.add(others.result());
+                            } else {
+                                LOGGER.error("Cannot deploy the additional Wisdom verticle instances", others.cause());
+                            }
+                        });
+            }
         }));
     }
 
@@ -198,9 +226,10 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
         LOGGER.info("Stopping the vert.x server");
 
         vertx.runOnContext(v -> {
-            if (deploymentId != null) {
+            for (String deploymentId : deploymentIds) {
                 vertx.undeploy(deploymentId, ar -> LOGGER.info("Wisdom verticle un-deployed"));
             }
+            deploymentIds.clear();
         });
 
     }
@@ -245,46 +274,38 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     /**
      * Publishes the given message to all clients subscribed to the socket (either a web socket of a SockJS socket)
      * specified using its url. For SockJS, it must match one of the configured prefix.
+     * <p>
+     * The message is written directly on each socket from its own event loop.
      *
      * @param url  the url of the web socket, must not be {@literal null}
      * @param data the data, must not be {@literal null}
      */
     @Override
     public void publish(String url, String data) {
-        List<Socket> sockets;
-        synchronized (this) {
-            List<Socket> ch = this.socketsByUri.get(url);
-            if (ch != null) {
-                sockets = new ArrayList<>(ch);
-            } else {
-                sockets = Collections.emptyList();
-            }
-        }
-        for (Socket socket : sockets) {
-            socket.publish(data, vertx.eventBus());
-        }
+        publish(url, Socket.text(data));
     }
 
     /**
      * Publishes the given message to all clients subscribed to the socket ((either a web socket of a SockJS socket))
      * specified using its url. For SockJS, it must match one of the configured prefix.
+     * <p>
+     * The message is written directly on each socket from its own event loop. It must not be modified afterwards.
      *
      * @param url  the url of the socket, must not be {@literal null}
      * @param data the data, must not be {@literal null}
      */
     @Override
-    public synchronized void publish(String url, byte[] data) {
-        List<Socket> sockets;
-        synchronized (this) {
-            List<Socket> ch = this.socketsByUri.get(url);
-            if (ch != null) {
-                sockets = new ArrayList<>(ch);
-            } else {
-                sockets = Collections.emptyList();
-            }
+    public void publish(String url, byte[] data) {
+        publish(url, Socket.binary(data));
+    }
+
+    private void publish(String url, Supplier<WebSocketFrame> frame) {
+        Set<Socket> sockets = socketsByUri.get(url);
+        if (sockets == null) {
+            return;
         }
         for (Socket socket : sockets) {
-            socket.publish(data, vertx.eventBus());
+            socket.write(frame);
         }
     }
 
@@ -296,18 +317,13 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     public void addSocket(String url, Socket socket) {
         LOGGER.info("Adding web socket on {} bound to {}", url, socket);
-        List<WebSocketListener> webSocketListeners;
-        synchronized (this) {
-            List<Socket> channels = socketsByUri.get(url);
-            if (channels == null) {
-                channels = new ArrayList<>();
-            }
-            channels.add(socket);
-            socketsByUri.put(url, channels);
-            webSocketListeners = new ArrayList<>(this.listeners);
-        }
+        socketsByUri.compute(url, (key, sockets) -> {
+            Set<Socket> set = sockets == null ? ConcurrentHashMap.newKeySet() : sockets;
+            set.add(socket);
+            return set;
+        });
 
-        for (WebSocketListener listener : webSocketListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.opened(url, id(socket));
         }
     }
@@ -320,19 +336,12 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     public void removeSocket(String url, Socket socket) {
         LOGGER.info("Removing web socket on {} bound to {}", url, socket.path());
-        List<WebSocketListener> webSocketListeners;
-        synchronized (this) {
-            List<Socket> channels = socketsByUri.get(url);
-            if (channels != null) {
-                channels.remove(socket);
-                if (channels.isEmpty()) {
-                    socketsByUri.remove(url);
-                }
-            }
-            webSocketListeners = new ArrayList<>(this.listeners);
-        }
+        socketsByUri.computeIfPresent(url, (key, sockets) -> {
+            sockets.remove(socket);
+            return sockets.isEmpty() ? null : sockets;
+        });
 
-        for (WebSocketListener listener : webSocketListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.closed(url, id(socket));
         }
     }
@@ -345,14 +354,10 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Override
     public void register(WebSocketListener listener) {
-        Map<String, List<Socket>> copy;
-        synchronized (this) {
-            listeners.add(listener);
-            copy = new HashMap<>(socketsByUri);
-        }
+        listeners.add(listener);
 
         // Call open on each opened web socket
-        for (Map.Entry<String, List<Socket>> entry : copy.entrySet()) {
+        for (Map.Entry<String, Set<Socket>> entry : socketsByUri.entrySet()) {
             for (Socket client : entry.getValue()) {
                 listener.opened(entry.getKey(), id(client));
             }
@@ -366,9 +371,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Override
     public void unregister(WebSocketListener listener) {
-        synchronized (this) {
-            listeners.remove(listener);
-        }
+        listeners.remove(listener);
     }
 
     /**
@@ -381,20 +384,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Override
     public void send(String uri, String client, String message) {
-        List<Socket> sockets;
-        synchronized (this) {
-            List<Socket> ch = this.socketsByUri.get(uri);
-            if (ch != null) {
-                sockets = new ArrayList<>(ch);
-            } else {
-                sockets = Collections.emptyList();
-            }
-        }
-        for (Socket socket : sockets) {
-            if (client.equals(id(socket))) {
-                socket.publish(message, vertx.eventBus());
-            }
-        }
+        send(uri, client, Socket.text(message));
     }
 
     /**
@@ -417,18 +407,17 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Override
     public void send(String uri, String client, byte[] message) {
-        List<Socket> sockets;
-        synchronized (this) {
-            List<Socket> ch = this.socketsByUri.get(uri);
-            if (ch != null) {
-                sockets = new ArrayList<>(ch);
-            } else {
-                sockets = Collections.emptyList();
-            }
+        send(uri, client, Socket.binary(message));
+    }
+
+    private void send(String uri, String client, Supplier<WebSocketFrame> frame) {
+        Set<Socket> sockets = socketsByUri.get(uri);
+        if (sockets == null) {
+            return;
         }
         for (Socket socket : sockets) {
             if (client.equals(id(socket))) {
-                socket.publish(message, vertx.eventBus());
+                socket.write(frame);
             }
         }
     }
@@ -441,12 +430,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      * @param socket  the client channel
      */
     public void received(String uri, byte[] content, Socket socket) {
-        List<WebSocketListener> localListeners;
-        synchronized (this) {
-            localListeners = new ArrayList<>(this.listeners);
-        }
-
-        for (WebSocketListener listener : localListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.received(uri, id(socket), content);
         }
     }
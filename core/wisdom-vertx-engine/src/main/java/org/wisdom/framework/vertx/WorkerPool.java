@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bounded pool of threads calling the action methods using the
+ * {@link org.wisdom.api.router.DispatchStrategy#WORKER} strategy. Tasks are rejected when all the threads are busy
+ * and the queue is full, instead of piling up.
+ */
+final class WorkerPool {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates the pool.
+     *
+     * @param name    the name of the server using the pool, used to name the threads
+     * @param threads the maximum number of threads
+     * @param queue   the maximum number of waiting tasks
+     */
+    WorkerPool(String name, int threads, int queue) {
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue),
+                new ThreadFactoryBuilder().setNameFormat("wisdom-worker-" + name + "-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a task.
+     *
+     * @param task the task
+     * @return {@code true} if the task has been accepted, {@code false} if the pool is saturated
+     */
+    boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) { //NOSONAR the rejection is reported to the caller
+            return false;
+        }
+    }
+
+    /**
+     * Shuts down the pool, running tasks are completed.
+     */
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -76,13 +76,7 @@ public class FlashCookieImpl implements FlashCookie {
             if (context.hasCookie(applicationCookiePrefix
                     + FLASH_SUFFIX)) {
                 // Clear the cookie.
-                Cookie.Builder cookie = Cookie.builder(applicationCookiePrefix
-                        + FLASH_SUFFIX, "");
-                cookie.setPath("/");
-                cookie.setSecure(false);
-                cookie.setMaxAge(0);
-                result.with(cookie.build());
-
+                result.with(expired(applicationCookiePrefix));
             }
         } else {
             try {
@@ -101,6 +95,22 @@ public class FlashCookieImpl implements FlashCookie {
         }
     }
 
+    /**
+     * Creates the cookie clearing the flash cookie of the client. Sending it does not require decoding the incoming
+     * flash cookie.
+     *
+     * @param applicationCookiePrefix the prefix of the application cookies
+     * @return the cookie
+     */
+    public static Cookie expired(String applicationCookiePrefix) {
+        Cookie.Builder cookie = Cookie.builder(applicationCookiePrefix
+                + FLASH_SUFFIX, "");
+        cookie.setPath("/");
+        cookie.setSecure(false);
+        cookie.setMaxAge(0);
+        return cookie.build();
+    }
+
     @Override
     public void put(String key, String value) {
         if (key.contains(":")) {
@@ -21,6 +21,9 @@
 
 package org.wisdom.framework.vertx.cookies;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.configuration.ApplicationConfiguration;
@@ -34,6 +37,7 @@ import org.wisdom.api.utils.CookieDataCodec;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -47,6 +51,27 @@ public class SessionCookieImpl implements SessionCookie {
     private static final String TIMESTAMP_KEY = "___TS";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionCookieImpl.class);
+
+    /**
+     * The recently verified session cookies (signature and payload), and their decoded data. It avoids computing
+     * the signature and decoding the payload on each request of the same client. Only cookies whose signature
+     * has been checked are stored. An entry is only used while the signing key is the one having verified it (see
+     * {@link #fingerprint()}).
+     */
+    private static final Cache<String, VerifiedPayload> VERIFIED = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    /**
+     * The message signed to compute the fingerprint of the signing key.
+     */
+    private static final String FINGERPRINT_MESSAGE = "wisdom-session-key-fingerprint";
+
+    /**
+     * The fingerprint of the signing key, computed once per crypto service and application secret.
+     */
+    private static volatile KeyFingerprint fingerprint;
+
     private final Integer sessionExpireTimeInMs;
     private final Boolean sessionSendOnlyIfChanged;
     private final Boolean sessionTransferredOverHttpsOnly;
@@ -57,6 +82,10 @@ public class SessionCookieImpl implements SessionCookie {
      * The crypto service.
      */
     private final Crypto crypto;
+    /**
+     * The application secret, used to detect a change of the signing key.
+     */
+    private final String secret;
     /**
      * Has cookie been changed => only send new cookie stuff has been changed.
      */
@@ -65,6 +94,7 @@ public class SessionCookieImpl implements SessionCookie {
     public SessionCookieImpl(Crypto crypto, ApplicationConfiguration configuration) {
         applicationCookiePrefix = configuration.getWithDefault(Cookie.APPLICATION_COOKIE_PREFIX, "wisdom");
         this.crypto = crypto;
+        this.secret = configuration.get(ApplicationConfiguration.APPLICATION_SECRET);
 
         // read configuration stuff:
         sessionExpireTimeInMs =
@@ -96,17 +126,23 @@ public class SessionCookieImpl implements SessionCookie {
                     && !"".equals(cookie.value().trim())
                     && cookie.value().contains("-")) {
                 String value = cookie.value();
-                // the first substring until "-" is the sign
-                String sign = value.substring(0, value.indexOf('-'));
-
-                // rest from "-" until the end is the payload of the cookie
-                String payload = value.substring(value.indexOf('-') + 1);
-
-                if (CookieDataCodec.safeEquals(sign,
-                        crypto.sign(payload))) {
-                    CookieDataCodec.decode(data, payload);
+                VerifiedPayload verified = VERIFIED.getIfPresent(value);
+                if (verified != null && Objects.equals(verified.fingerprint, fingerprint())) {
+                    data.putAll(verified.data);
                 } else {
-                    LOGGER.warn("Invalid session cookie - signature check failed");
+                    // the first substring until "-" is the sign
+                    String sign = value.substring(0, value.indexOf('-'));
+
+                    // rest from "-" until the end is the payload of the cookie
+                    String payload = value.substring(value.indexOf('-') + 1);
+
+                    if (CookieDataCodec.safeEquals(sign,
+                            crypto.sign(payload))) {
+                        CookieDataCodec.decode(data, payload);
+                        VERIFIED.put(value, new VerifiedPayload(fingerprint(), ImmutableMap.copyOf(data)));
+                    } else {
+                        LOGGER.warn("Invalid session cookie - signature check failed");
+                    }
                 }
 
                 // Make sure session contains valid timestamp
@@ -270,4 +306,48 @@ public class SessionCookieImpl implements SessionCookie {
         return data.isEmpty() || data.size() == 1 && data.containsKey(TIMESTAMP_KEY);
     }
 
+    /**
+     * Gets the fingerprint of the key currently used to sign the cookies. It changes when the crypto service or the
+     * application secret changes, so cookies verified with the previous key are checked again. It is only computed
+     * once per crypto service and secret.
+     *
+     * @return the fingerprint
+     */
+    private String fingerprint() {
+        KeyFingerprint current = fingerprint;
+        if (current == null || current.crypto != crypto || !Objects.equals(current.secret, secret)) {
+            current = new KeyFingerprint(crypto, secret, crypto.sign(FINGERPRINT_MESSAGE));
+            fingerprint = current;
+        }
+        return current.value;
+    }
+
+    /**
+     * The fingerprint of a signing key, and the crypto service and secret it has been computed for.
+     */
+    private static final class KeyFingerprint {
+        private final Crypto crypto;
+        private final String secret;
+        private final String value;
+
+        private KeyFingerprint(Crypto crypto, String secret, String value) {
+            this.crypto = crypto;
+            this.secret = secret;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The decoded data of a session cookie whose signature has been verified, and the fingerprint of the key
+     * having verified it.
+     */
+    private static final class VerifiedPayload {
+        private final String fingerprint;
+        private final Map<String, String> data;
+
+        private VerifiedPayload(String fingerprint, Map<String, String> data) {
+            this.fingerprint = fingerprint;
+            this.data = data;
+        }
+    }
 }
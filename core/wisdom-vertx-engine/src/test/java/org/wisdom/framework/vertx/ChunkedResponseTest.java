@@ -27,13 +27,16 @@ import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Test;
 import org.wisdom.api.Controller;
+import org.wisdom.api.bodies.RenderableFile;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.exceptions.ExceptionMapper;
 import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.MimeTypes;
 import org.wisdom.api.http.Request;
 import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
 import org.wisdom.api.router.Route;
 import org.wisdom.api.router.RouteBuilder;
 import org.wisdom.api.router.Router;
@@ -44,6 +47,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -264,6 +268,66 @@ public class ChunkedResponseTest extends VertxBaseTest {
         assertThat(success).hasSize(NUMBER_OF_CLIENTS);
     }
 
+    @Test
+    public void testStreamedResponse() throws InterruptedException, IOException {
+        // Prepare the configuration
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        // Prepare the router with a controller pushing the chunks from another thread
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                return stream(chunks -> executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        chunks.write("{\"id\":" + i + "}\n");
+                    }
+                    chunks.close();
+                })).as(MimeTypes.TEXT);
+            }
+        };
+        Router router = mock(Router.class);
+        Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        // Configure the server.
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append("{\"id\":").append(i).append("}\n");
+        }
+
+        URL url = new URL("http://localhost:" + server.httpPort() + "/");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        assertThat(connection.getHeaderField("Transfer-Encoding")).isEqualTo("chunked");
+        assertThat(connection.getHeaderField("Connection")).isNotEqualTo("close");
+        assertThat(IOUtils.toString(connection.getInputStream(), "UTF-8")).isEqualTo(expected.toString());
+    }
+
     @Test
     public void testFileDownload() throws InterruptedException, IOException {
 
@@ -327,6 +391,60 @@ public class ChunkedResponseTest extends VertxBaseTest {
         assertThat(success).hasSize(NUMBER_OF_CLIENTS);
     }
 
+    @Test
+    public void testFileRegionDownload() throws InterruptedException, IOException {
+
+        // Prepare the configuration
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        // Prepare the router with a controller
+        final File file = new File("src/test/resources/owl.png");
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() throws IOException {
+                return status(Status.PARTIAL_CONTENT).render(new RenderableFile(file, 10, 100));
+            }
+        };
+
+        Router router = mock(Router.class);
+        final Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        doAnswer(invocationOnMock -> route).when(router).getRouteFor(anyString(), anyString(), any(Request.class));
+
+        // Configure the server.
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.vertx = vertx;
+
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+
+        URL url = new URL("http://localhost:" + server.httpPort() + "/");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(206);
+        assertThat(connection.getHeaderField("Content-Length")).isEqualTo("100");
+        byte[] expected = Arrays.copyOfRange(FileUtils.readFileToByteArray(file), 10, 110);
+        assertThat(IOUtils.toByteArray(connection.getInputStream())).isEqualTo(expected);
+    }
+
     @Test
     public void testFileAsUrlDownload() throws InterruptedException, IOException {
 
@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the behavior of {@link ChunksFromVertx}.
+ */
+public class ChunksFromVertxTest {
+
+    private final List<Handler<Void>> scheduled = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private Context context() {
+        Context context = mock(Context.class);
+        doAnswer(invocation -> scheduled.add((Handler<Void>) invocation.getArguments()[0]))
+                .when(context).runOnContext(any(Handler.class));
+        return context;
+    }
+
+    private void run() {
+        List<Handler<Void>> handlers = new ArrayList<>(scheduled);
+        scheduled.clear();
+        for (Handler<Void> handler : handlers) {
+            handler.handle(null);
+        }
+    }
+
+    @Test
+    public void testThatScheduledChunksAreCountedInTheWriteQueue() {
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        ChunksFromVertx chunks = new ChunksFromVertx(context(), response, false, () -> {
+        });
+        AtomicInteger drained = new AtomicInteger();
+        chunks.drainHandler(drained::incrementAndGet);
+        run();
+
+        chunks.write(new byte[ChunksFromVertx.MAX_PENDING_BYTES - 1]);
+        assertThat(chunks.writeQueueFull()).isFalse();
+        chunks.write(new byte[1]);
+        assertThat(chunks.writeQueueFull()).isTrue();
+
+        // Once the context has handed the chunks to the response, the producer is resumed.
+        run();
+        assertThat(chunks.writeQueueFull()).isFalse();
+        assertThat(drained.get()).isEqualTo(1);
+        verify(response, times(2)).write(any(Buffer.class));
+    }
+
+    @Test
+    public void testThatTheWrittenArrayIsCopied() {
+        HttpServerResponse response = mock(HttpServerResponse.class);
+        ChunksFromVertx chunks = new ChunksFromVertx(context(), response, false, () -> {
+        });
+        byte[] data = "hello".getBytes(StandardCharsets.UTF_8);
+        chunks.write(data);
+        // The producer reuses its array.
+        data[0] = 'j';
+        run();
+
+        ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(response).write(captor.capture());
+        assertThat(captor.getValue().toString(StandardCharsets.UTF_8.name())).isEqualTo("hello");
+    }
+}
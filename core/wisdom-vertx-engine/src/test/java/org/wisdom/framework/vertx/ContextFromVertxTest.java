@@ -32,13 +32,21 @@ import org.wisdom.api.Controller;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.cookies.Cookie;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
 import org.wisdom.api.router.Route;
+import org.wisdom.api.utils.CookieDataCodec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class ContextFromVertxTest {
 
@@ -201,4 +209,87 @@ public class ContextFromVertxTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testThatTheSessionIsVerifiedLazilyAndOnlyOnce() throws Exception {
+        Crypto crypto = mock(Crypto.class);
+        when(accessor.getCrypto()).thenReturn(crypto);
+        when(configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600)).thenReturn(3600);
+        Map<String, String> data = new HashMap<>();
+        data.put("user", UUID.randomUUID().toString());
+        data.put("___TS", Long.toString(System.currentTimeMillis()));
+        String payload = CookieDataCodec.encode(data);
+        when(crypto.sign(anyString())).thenReturn("key");
+        when(crypto.sign(payload)).thenReturn("signature");
+
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=signature-" + payload);
+
+        ContextFromVertx context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+        verify(crypto, never()).sign(anyString());
+        assertThat(context.session().get("user")).isEqualTo(data.get("user"));
+        verify(crypto, times(1)).sign(payload);
+
+        // The same cookie is not verified again, and the key fingerprint is not computed again.
+        verify(crypto, times(2)).sign(anyString());
+        context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isEqualTo(data.get("user"));
+        verify(crypto, times(1)).sign(payload);
+        verify(crypto, times(2)).sign(anyString());
+
+        // A tampered cookie is rejected.
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=forged-" + payload);
+        context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isNull();
+    }
+
+    @Test
+    public void testThatVerifiedSessionsAreCheckedAgainWhenTheSecretChanges() throws Exception {
+        Crypto crypto = mock(Crypto.class);
+        when(accessor.getCrypto()).thenReturn(crypto);
+        when(configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600)).thenReturn(3600);
+        Map<String, String> data = new HashMap<>();
+        data.put("user", UUID.randomUUID().toString());
+        data.put("___TS", Long.toString(System.currentTimeMillis()));
+        String payload = CookieDataCodec.encode(data);
+        when(configuration.get(ApplicationConfiguration.APPLICATION_SECRET)).thenReturn("old");
+        when(crypto.sign(anyString())).thenReturn("old-key");
+        when(crypto.sign(payload)).thenReturn("oldsignature");
+
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=oldsignature-" + payload);
+        ContextFromVertx context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isEqualTo(data.get("user"));
+
+        // The same crypto service now signs with another secret.
+        when(configuration.get(ApplicationConfiguration.APPLICATION_SECRET)).thenReturn("new");
+        when(crypto.sign(anyString())).thenReturn("new-key");
+        when(crypto.sign(payload)).thenReturn("newsignature");
+        context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isNull();
+    }
+
+    @Test
+    public void testThatCookiesNotAccessedAreNotDecodedWhenSaved() throws Exception {
+        Crypto crypto = mock(Crypto.class);
+        when(accessor.getCrypto()).thenReturn(crypto);
+        when(configuration.getBooleanWithDefault(SessionCookie.SESSION_SEND_ONLY_IF_CHANGED, true))
+                .thenReturn(true);
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=signature-payload; wisdom_FLASH=message");
+        ContextFromVertx context = new ContextFromVertx(vertx, vertx.getOrCreateContext(), accessor,
+                RequestFromVertXTest.create(req));
+
+        Result result = Results.ok();
+        context.saveFlashAndSession(result);
+        verifyZeroInteractions(crypto);
+        // The flash cookie is cleared, the session cookie is left untouched.
+        assertThat(result.getCookies()).hasSize(1);
+        assertThat(result.getCookie("wisdom_FLASH").maxAge()).isEqualTo(0);
+    }
+}
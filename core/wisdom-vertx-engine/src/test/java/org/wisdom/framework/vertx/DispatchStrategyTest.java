@@ -0,0 +1,217 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.exceptions.HttpException;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Request;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.router.DispatchStrategy;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the thread on which the action methods are called depending on the dispatch strategy.
+ */
+public class DispatchStrategyTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    @Test
+    public void testThatTheActionsAreCalledOnTheThreadSelectedByTheStrategy() throws Exception {
+        start(null);
+        assertThat(get("/inline")).startsWith("vert.x-eventloop-thread");
+        assertThat(get("/worker")).startsWith("wisdom-worker-default-http-");
+        assertThat(get("/ordered")).startsWith("vert.x-worker-thread");
+    }
+
+    @Test
+    public void testTheStrategyOfTheServer() throws Exception {
+        start("worker");
+        assertThat(get("/inline")).startsWith("vert.x-eventloop-thread");
+        assertThat(get("/default")).startsWith("wisdom-worker-default-http-");
+    }
+
+    @Test
+    public void testThatRequestsAreRejectedWhenTheWorkerPoolIsSaturated() throws Exception {
+        start(null);
+        // The first request holds the only thread, the second one fills the queue.
+        Future<String> first = clients.submit(() -> get("/blocking"));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<String> second = clients.submit(() -> get("/blocking"));
+        Thread.sleep(500);
+
+        HttpURLConnection connection = (HttpURLConnection) url("/blocking").openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(503);
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+
+    @Test
+    public void testThatOrderedRequestsOfOtherConnectionsAreNotDelayed() throws Exception {
+        start(null);
+        // The first connection is blocked in an ordered action.
+        Future<String> first = clients.submit(() -> get("/ordered-blocking"));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // A request on another connection is not queued behind it.
+        Future<String> second = clients.submit(() -> get("/ordered"));
+        assertThat(second.get(5, TimeUnit.SECONDS)).startsWith("vert.x-worker-thread");
+        assertThat(first.isDone()).isFalse();
+
+        release.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+
+    @Test
+    public void testThatActionsCanReturnACompletionStage() throws Exception {
+        start(null);
+        assertThat(get("/stage")).isEqualTo("later");
+
+        HttpURLConnection connection = (HttpURLConnection) url("/failed-stage").openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(Result.CONFLICT);
+    }
+
+    private URL url(String path) throws IOException {
+        return new URL("http://localhost:" + server.httpPort() + path);
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url(path).openConnection();
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        return IOUtils.toString(connection.getInputStream());
+    }
+
+    private void start(String dispatch) throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("request.body.max.size", 100 * 1024)).thenReturn(100 * 1024);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault(eq("vertx.worker.threads"), anyInt())).thenReturn(1);
+        when(configuration.getIntegerWithDefault(eq("vertx.worker.queue"), anyInt())).thenReturn(1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+        when(configuration.get("vertx.dispatch")).thenReturn(dispatch);
+
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result thread() {
+                return ok(Thread.currentThread().getName());
+            }
+
+            @SuppressWarnings("unused")
+            public Result blocking() throws InterruptedException {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return ok("done");
+            }
+
+            @SuppressWarnings("unused")
+            public CompletionStage<Result> stage() {
+                // Completed by another thread, once the action method has returned.
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ok("later");
+                });
+            }
+
+            @SuppressWarnings("unused")
+            public CompletionStage<Result> failedStage() {
+                CompletableFuture<Result> future = new CompletableFuture<>();
+                future.completeExceptionally(new HttpException(Result.CONFLICT, "failed"));
+                return future;
+            }
+        };
+        Router router = mock(Router.class);
+        route(router, controller, "/inline", "thread").dispatching(DispatchStrategy.EVENT_LOOP);
+        route(router, controller, "/default", "thread");
+        route(router, controller, "/worker", "thread").dispatching(DispatchStrategy.WORKER);
+        route(router, controller, "/ordered", "thread").dispatching(DispatchStrategy.ORDERED);
+        route(router, controller, "/blocking", "blocking").dispatching(DispatchStrategy.WORKER);
+        route(router, controller, "/ordered-blocking", "blocking").dispatching(DispatchStrategy.ORDERED);
+        route(router, controller, "/stage", "stage").dispatching(DispatchStrategy.EVENT_LOOP);
+        route(router, controller, "/failed-stage", "failedStage");
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.vertx = vertx;
+        server.start();
+        waitForStart(server);
+    }
+
+    private Route route(Router router, Controller controller, String path, String method) {
+        Route route = new RouteBuilder().route(HttpMethod.GET).on(path).to(controller, method);
+        when(router.getRouteFor(anyString(), eq(path), any(Request.class))).thenReturn(route);
+        return route;
+    }
+}
@@ -19,7 +19,10 @@
  */
 package org.wisdom.framework.vertx;
 
+import com.google.common.base.Charsets;
 import com.google.common.net.MediaType;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
@@ -27,9 +30,11 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.impl.HttpServerRequestImpl;
+import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -290,4 +295,20 @@ public class RequestFromVertXTest {
         RequestFromVertx request = new RequestFromVertx(create(req));
         assertThat(request.parameterMultipleValues("k")).containsExactly("v", "v2", "v3");
     }
+
+    @Test
+    public void testRawBodyAsStream() throws Exception {
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+        RequestFromVertx request = new RequestFromVertx(create(req));
+
+        CompositeByteBuf body = Unpooled.compositeBuffer();
+        body.addComponents(Unpooled.copiedBuffer("{\"name\":", Charsets.UTF_8),
+                Unpooled.copiedBuffer("\"wisdom\"}", Charsets.UTF_8));
+        body.writerIndex(body.capacity());
+        request.setRawBody(Buffer.buffer(body));
+
+        assertThat(IOUtils.toString(request.getRawBodyAsStream(), Charsets.UTF_8)).isEqualTo("{\"name\":\"wisdom\"}");
+        // The stream does not consume the body.
+        assertThat(request.getRawBodyAsString()).isEqualTo("{\"name\":\"wisdom\"}");
+    }
 }
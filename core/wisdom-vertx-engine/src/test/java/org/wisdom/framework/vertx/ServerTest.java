@@ -54,9 +54,12 @@ import javax.net.ssl.SSLContext;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.ServerSocket;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
@@ -113,6 +116,24 @@ public class ServerTest extends VertxBaseTest {
     }
 
 
+    @Test
+    public void testCloseFromOutsideTheBindingContext() throws Exception {
+        Server server = new Server(wisdom.accessor, vertx, "outside", 0, false, false, null,
+                Collections.<String>emptyList(), Collections.<String>emptyList(), null);
+        CountDownLatch bound = new CountDownLatch(1);
+        server.bind(ar -> bound.countDown());
+        assertThat(bound.await(10, TimeUnit.SECONDS)).isTrue();
+        int port = server.port();
+
+        CountDownLatch closed = new CountDownLatch(1);
+        server.close(ar -> closed.countDown());
+        assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+        // The port is released.
+        try (ServerSocket socket = new ServerSocket(port)) {
+            assertThat(socket.getLocalPort()).isEqualTo(port);
+        }
+    }
+
     @Test
     public void testCreationFromConfiguration() throws InterruptedException {
         FakeConfiguration configuration = new FakeConfiguration(ImmutableMap.<String, Object>builder()
@@ -20,11 +20,14 @@
 package org.wisdom.framework.vertx;
 
 import com.google.common.base.Charsets;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketFrame;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.exceptions.ExceptionMapper;
@@ -268,6 +271,95 @@ public class VertxDispatcherTest extends VertxBaseTest {
 
     }
 
+    @Test
+    public void testThatPublishWritesTheSameFrameOnEachSocket() throws InterruptedException, IOException {
+        prepareServer();
+
+        final ServerWebSocket socket1 = mock(ServerWebSocket.class);
+        final Socket sock1 = new Socket(socket1);
+        final ServerWebSocket socket2 = mock(ServerWebSocket.class);
+        final Socket sock2 = new Socket(socket2);
+        server.addSocket("/hello", sock1);
+        server.addSocket("/hello", sock2);
+
+        server.publish("/hello", "héllo");
+        server.send("/hello", WisdomVertxServer.id(sock2), "only 2".getBytes(Charsets.UTF_8));
+
+        ArgumentCaptor<WebSocketFrame> frames1 = ArgumentCaptor.forClass(WebSocketFrame.class);
+        verify(socket1, times(1)).writeFrame(frames1.capture());
+        assertThat(frames1.getValue().isText()).isTrue();
+        assertThat(frames1.getValue().isFinal()).isTrue();
+        assertThat(frames1.getValue().textData()).isEqualTo("héllo");
+
+        ArgumentCaptor<WebSocketFrame> frames2 = ArgumentCaptor.forClass(WebSocketFrame.class);
+        verify(socket2, times(2)).writeFrame(frames2.capture());
+        assertThat(frames2.getAllValues().get(0).textData()).isEqualTo("héllo");
+        assertThat(frames2.getAllValues().get(1).isBinary()).isTrue();
+        assertThat(frames2.getAllValues().get(1).binaryData().toString()).isEqualTo("only 2");
+
+        server.removeSocket("/hello", sock1);
+        server.removeSocket("/hello", sock2);
+        server.publish("/hello", "nobody");
+        verify(socket1, times(1)).writeFrame(any(WebSocketFrame.class));
+        verify(socket2, times(2)).writeFrame(any(WebSocketFrame.class));
+    }
+
+    @Test
+    public void testThatFramesWaitForSlowClientsUpToTheLimit() throws InterruptedException, IOException {
+        prepareServer();
+
+        final ServerWebSocket newest = mock(ServerWebSocket.class);
+        final Socket dropNewest = new Socket(newest, 2, false);
+        final ServerWebSocket oldest = mock(ServerWebSocket.class);
+        final Socket dropOldest = new Socket(oldest, 2, true);
+        server.addSocket("/hello", dropNewest);
+        server.addSocket("/hello", dropOldest);
+
+        when(newest.writeQueueFull()).thenReturn(true);
+        when(oldest.writeQueueFull()).thenReturn(true);
+        server.publish("/hello", "1");
+        server.publish("/hello", "2");
+        server.publish("/hello", "3");
+
+        verify(newest, never()).writeFrame(any(WebSocketFrame.class));
+        verify(oldest, never()).writeFrame(any(WebSocketFrame.class));
+        assertThat(dropNewest.pending()).isEqualTo(2);
+        assertThat(dropOldest.pending()).isEqualTo(2);
+        // The first drop is reported at once, the next ones are counted until the next report.
+        assertThat(dropNewest.dropped()).isEqualTo(0);
+        assertThat(dropOldest.dropped()).isEqualTo(0);
+        dropNewest.publish("3");
+        assertThat(dropNewest.dropped()).isEqualTo(1);
+
+        // Drain the sockets.
+        ArgumentCaptor<Handler> drain = ArgumentCaptor.forClass(Handler.class);
+        when(newest.writeQueueFull()).thenReturn(false);
+        when(oldest.writeQueueFull()).thenReturn(false);
+        verify(newest).drainHandler(drain.capture());
+        drain.getValue().handle(null);
+        verify(oldest).drainHandler(drain.capture());
+        drain.getValue().handle(null);
+
+        ArgumentCaptor<WebSocketFrame> frames = ArgumentCaptor.forClass(WebSocketFrame.class);
+        verify(newest, times(2)).writeFrame(frames.capture());
+        assertThat(frames.getAllValues().get(0).textData()).isEqualTo("1");
+        assertThat(frames.getAllValues().get(1).textData()).isEqualTo("2");
+        frames = ArgumentCaptor.forClass(WebSocketFrame.class);
+        verify(oldest, times(2)).writeFrame(frames.capture());
+        assertThat(frames.getAllValues().get(0).textData()).isEqualTo("2");
+        assertThat(frames.getAllValues().get(1).textData()).isEqualTo("3");
+        assertThat(dropNewest.pending()).isEqualTo(0);
+        verify(newest).drainHandler(null);
+
+        // Once drained, frames are written directly.
+        server.publish("/hello", "4");
+        verify(newest, times(3)).writeFrame(any(WebSocketFrame.class));
+        verify(oldest, times(3)).writeFrame(any(WebSocketFrame.class));
+
+        server.removeSocket("/hello", dropNewest);
+        server.removeSocket("/hello", dropOldest);
+    }
+
     private void prepareServer() throws IOException, InterruptedException {
         ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
         when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
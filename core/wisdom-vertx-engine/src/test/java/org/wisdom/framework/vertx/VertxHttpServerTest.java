@@ -35,8 +35,12 @@ import org.wisdom.framework.vertx.ssl.SSLServerContext;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.Socket;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -108,6 +112,71 @@ public class VertxHttpServerTest extends VertxBaseTest {
         assertThat(body).isEqualTo("Alright");
     }
 
+    @Test
+    public void testThatHeadResponsesOfUnknownLengthDoNotDeclareAnEmptyContent() throws Exception {
+        Router router = prepareServer();
+
+        // The result built for a HEAD request when the length of the content is unknown.
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                return ok().as(MimeTypes.JSON).with(HeaderNames.TRANSFER_ENCODING, "chunked");
+            }
+        };
+        Route route = new RouteBuilder().route(HttpMethod.HEAD)
+                .on("/")
+                .to(controller, "index");
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        server.start();
+        waitForStart(server);
+
+        try (Socket socket = new Socket("localhost", server.httpPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write("HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            // The connection is closed once the headers are sent.
+            String response = IOUtils.toString(socket.getInputStream(), StandardCharsets.US_ASCII);
+            assertThat(response).startsWith("HTTP/1.1 200");
+            assertThat(response.toLowerCase()).contains("transfer-encoding: chunked")
+                    .doesNotContain("content-length");
+            assertThat(response).endsWith("\r\n\r\n");
+        }
+    }
+
+    @Test
+    public void testThatConnectionsAreSpreadAmongInstances() throws InterruptedException, IOException {
+        Router router = prepareServer();
+        when(server.configuration.getIntegerWithDefault(eq("vertx.http.instances"), anyInt())).thenReturn(4);
+
+        // The action runs on the event loop having accepted the connection.
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                return ok(Thread.currentThread().getName());
+            }
+        };
+        Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        server.start();
+        waitForStart(server);
+        // Wait until the other instances are deployed.
+        Thread.sleep(1000);
+
+        Set<String> threads = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            URL url = new URL("http://localhost:" + server.httpPort() + "/");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestProperty("Connection", "close");
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            threads.add(IOUtils.toString(connection.getInputStream()));
+        }
+        assertThat(threads.size()).isGreaterThan(1);
+    }
+
     @Test
     public void testInternalError() throws InterruptedException, IOException {
         Router router = prepareServer();
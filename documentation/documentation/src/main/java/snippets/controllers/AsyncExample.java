@@ -36,6 +36,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Controller
 public class AsyncExample extends DefaultController {
@@ -61,6 +63,15 @@ public class AsyncExample extends DefaultController {
     }
     // end::async2[]
 
+    // tag::async3[]
+    @Route(method = HttpMethod.GET, uri = "/async/stage")
+    public CompletionStage<Result> stage() {
+        // Any computation already in progress, such as a non-blocking client call.
+        return CompletableFuture.supplyAsync(() -> "Computation done")
+                .thenApply(message -> ok(message));
+    }
+    // end::async3[]
+
 
     // tag::hello[]
     public Result hello() {
@@ -78,6 +78,11 @@ public class ProxyFilter implements Filter {
     private String proxyTo;
     protected String prefix;
 
+    /**
+     * The pattern returned by {@link #uri()}, compiled on first access.
+     */
+    private volatile Pattern pattern;
+
     /**
      * Default constructor, not configuration.
      */
@@ -350,7 +355,10 @@ public class ProxyFilter implements Filter {
      */
     @Override
     public Pattern uri() {
-        return Pattern.compile(getPrefix() + ".*");
+        if (pattern == null) {
+            pattern = Pattern.compile(getPrefix() + ".*");
+        }
+        return pattern;
     }
 
     /**
@@ -62,6 +62,11 @@ public class RedirectFilter implements Filter {
     private String redirectTo;
     private String prefix;
 
+    /**
+     * The pattern returned by {@link #uri()}, compiled on first access.
+     */
+    private volatile Pattern pattern;
+
     /**
      * Default constructor, not configuration.
      */
@@ -170,7 +175,10 @@ public class RedirectFilter implements Filter {
      */
     @Override
     public Pattern uri() {
-        return Pattern.compile(getPrefix() + ".*");
+        if (pattern == null) {
+            pattern = Pattern.compile(getPrefix() + ".*");
+        }
+        return pattern;
     }
 
     /**
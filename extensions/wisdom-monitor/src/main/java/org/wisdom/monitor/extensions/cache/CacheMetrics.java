@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.cache;
+
+import com.codahale.metrics.*;
+import com.google.common.collect.ImmutableMap;
+import org.apache.felix.ipojo.annotations.*;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+
+import java.util.Map;
+
+/**
+ * Exposes the statistics of the cache service into the monitor metric registry. The metrics are registered under the
+ * {@code cache} prefix ({@code cache.hits}, {@code cache.misses}, {@code cache.evictions}, {@code cache.size},
+ * {@code cache.hit-ratio} and {@code cache.regions}) while both the cache service and the registry are available.
+ */
+@Component
+@Instantiate
+public class CacheMetrics {
+
+    static final String PREFIX = "cache";
+
+    @Requires
+    MetricRegistry metrics;
+
+    @Requires
+    Cache cache;
+
+    /**
+     * Registers the cache metrics.
+     */
+    @Validate
+    public void start() {
+        metrics.register(PREFIX, new MetricSet() {
+            @Override
+            public Map<String, Metric> getMetrics() {
+                return ImmutableMap.<String, Metric>builder()
+                        .put("hits", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return statistics().getHits();
+                            }
+                        })
+                        .put("misses", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return statistics().getMisses();
+                            }
+                        })
+                        .put("evictions", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return statistics().getEvictions();
+                            }
+                        })
+                        .put("size", new Gauge<Long>() {
+                            @Override
+                            public Long getValue() {
+                                return statistics().getSize();
+                            }
+                        })
+                        .put("hit-ratio", new Gauge<Double>() {
+                            @Override
+                            public Double getValue() {
+                                return statistics().getHitRatio();
+                            }
+                        })
+                        .put("regions", new Gauge<Integer>() {
+                            @Override
+                            public Integer getValue() {
+                                return cache.regions().size();
+                            }
+                        })
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Removes the cache metrics.
+     */
+    @Invalidate
+    public void stop() {
+        metrics.removeMatching(new MetricFilter() {
+            @Override
+            public boolean matches(String name, Metric metric) {
+                return name.startsWith(PREFIX + ".");
+            }
+        });
+    }
+
+    /**
+     * @return the statistics of the cache service, empty statistics if the implementation does not collect them.
+     */
+    CacheStatistics statistics() {
+        CacheStatistics statistics = cache.statistics();
+        if (statistics == null) {
+            return new CacheStatistics(0, 0, 0, 0);
+        }
+        return statistics;
+    }
+}
@@ -28,6 +28,7 @@ import org.wisdom.api.DefaultController;
 import org.wisdom.api.annotations.Controller;
 import org.wisdom.api.annotations.Route;
 import org.wisdom.api.annotations.View;
+import org.wisdom.api.concurrent.LatencyHistogram;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.concurrent.ManagedScheduledExecutorService;
 import org.wisdom.api.http.HttpMethod;
@@ -171,11 +172,33 @@ public class ExecutorExtension extends DefaultController implements MonitorExten
                                 return executor.getExecutionTimeStatistics().getAverageExecutionTime();
                             }
                         })
+                        .put("wait_p50", percentile(executor, true, 50))
+                        .put("wait_p99", percentile(executor, true, 99))
+                        .put("wait_p999", percentile(executor, true, 99.9))
+                        .put("run_p50", percentile(executor, false, 50))
+                        .put("run_p99", percentile(executor, false, 99))
+                        .put("run_p999", percentile(executor, false, 99.9))
                         .build();
             }
         };
     }
 
+    /**
+     * Creates a gauge reading a percentile of the recent queue wait or run times of the given executor, in
+     * microseconds. The histograms are read without blocking the threads recording the task executions.
+     */
+    private static Gauge<Long> percentile(final ManagedExecutorService executor, final boolean wait,
+                                          final double percentile) {
+        return new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                LatencyHistogram.Snapshot snapshot = wait ? executor.getRecentQueueWaitTimeHistogram()
+                        : executor.getRecentRunTimeHistogram();
+                return snapshot.getValueAtPercentile(percentile);
+            }
+        };
+    }
+
     private ManagedExecutorService[] getExecutors() {
         return executors;
     }
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.wisdom.api.annotations.Service;
+import org.wisdom.api.concurrent.LatencyHistogram;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 
 import java.io.IOException;
@@ -54,6 +55,15 @@ public class ManagedExecutorModule extends SimpleModule {
                 jsonGenerator.writeNumberField("max_exec", statistics.getMaximumExecutionTime());
                 jsonGenerator.writeNumberField("min_exec", statistics.getMinimumExecutionTime());
                 jsonGenerator.writeNumberField("total", statistics.getTotalExecutionTime());
+                // Percentiles are in microseconds, computed over the last minute or two.
+                final LatencyHistogram.Snapshot wait = executor.getRecentQueueWaitTimeHistogram();
+                jsonGenerator.writeNumberField("wait_p50", wait.getMedian());
+                jsonGenerator.writeNumberField("wait_p99", wait.get99thPercentile());
+                jsonGenerator.writeNumberField("wait_p999", wait.get999thPercentile());
+                final LatencyHistogram.Snapshot run = executor.getRecentRunTimeHistogram();
+                jsonGenerator.writeNumberField("run_p50", run.getMedian());
+                jsonGenerator.writeNumberField("run_p99", run.get99thPercentile());
+                jsonGenerator.writeNumberField("run_p999", run.get999thPercentile());
                 jsonGenerator.writeEndObject();
             }
         });
@@ -0,0 +1,71 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.monitor.extensions.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the cache metrics.
+ */
+public class CacheMetricsTest {
+
+    @Test
+    public void testThatMetricsAreRegisteredAndRemoved() {
+        Cache cache = mock(Cache.class);
+        when(cache.statistics()).thenReturn(new CacheStatistics(3, 1, 2, 10));
+        when(cache.regions()).thenReturn(ImmutableSet.of("users"));
+
+        CacheMetrics extension = new CacheMetrics();
+        extension.metrics = new MetricRegistry();
+        extension.cache = cache;
+        extension.start();
+
+        assertThat(extension.metrics.getGauges()).containsKeys("cache.hits", "cache.misses", "cache.evictions",
+                "cache.size", "cache.hit-ratio", "cache.regions");
+        assertThat(extension.metrics.getGauges().get("cache.hits").getValue()).isEqualTo(3L);
+        assertThat(extension.metrics.getGauges().get("cache.size").getValue()).isEqualTo(10L);
+        assertThat(extension.metrics.getGauges().get("cache.hit-ratio").getValue()).isEqualTo(0.75);
+        assertThat(extension.metrics.getGauges().get("cache.regions").getValue()).isEqualTo(1);
+
+        extension.stop();
+        assertThat(extension.metrics.getGauges()).isEmpty();
+    }
+
+    @Test
+    public void testWithoutStatistics() {
+        CacheMetrics extension = new CacheMetrics();
+        extension.metrics = new MetricRegistry();
+        extension.cache = mock(Cache.class);
+        extension.start();
+
+        Gauge gauge = extension.metrics.getGauges().get("cache.hits");
+        assertThat(gauge.getValue()).isEqualTo(0L);
+        extension.stop();
+    }
+}
@@ -41,6 +41,7 @@ import org.wisdom.api.templates.Template;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -68,11 +69,17 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
      */
     public static final String EMPTY_CONTENT = "";
 
+    /**
+     * The configuration key enabling the rendering of the 404 template. It is enabled by default in dev mode only,
+     * other modes return the bare 404 response.
+     */
+    public static final String NOT_FOUND_TEMPLATE_KEY = "application.error.not-found.template";
+
     /**
      * The 404 template.
      */
     @Requires(filter = "(name=error/404)", proxy = false, optional = true, id = "404")
-    private Template noroute;
+    protected Template noroute;
 
     /**
      * The 500 template.
@@ -115,6 +122,10 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
      */
     private File pipelineErrorDirectory;
 
+    /**
+     * Whether or not the 404 template is rendered.
+     */
+    private boolean renderNotFoundTemplate;
 
     /**
      * Methods called when this component is starting. It builds the pipeline error directory from the
@@ -123,6 +134,7 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
     @Validate
     public void start() {
         pipelineErrorDirectory = new File(configuration.getBaseDir().getParentFile(), "pipeline");
+        renderNotFoundTemplate = configuration.getBooleanWithDefault(NOT_FOUND_TEMPLATE_KEY, configuration.isDev());
     }
 
     /**
@@ -333,13 +345,14 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
     }
 
     private Result renderNotFound(Route route, Result result) {
-        if (noroute == null) {
+        if (noroute == null || !renderNotFoundTemplate) {
             return result;
         } else {
+            // The route list is only given in dev mode, as it exposes the whole application.
             return Results.notFound(render(noroute,
                     "method", route.getHttpMethod(),
                     "uri", route.getUrl(),
-                    "routes", router.getRoutes()
+                    "routes", configuration.isDev() ? router.getRoutes() : Collections.<Route>emptyList()
             ));
         }
     }
@@ -351,29 +364,7 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
             return renderNotFound(route, Results.notFound());
         } else {
             try {
-                Result result = getRoute.invoke();
-                // Replace the content with EMPTY_CONTENT but we need to preserve the headers (CONTENT-TYPE and
-                // CONTENT-LENGTH). These headers may not have been set, so we searches values in the renderable
-                // objects too.
-                final Renderable renderable = result.getRenderable();
-                final String type = result.getHeaders().get(HeaderNames.CONTENT_TYPE);
-                final String length = result.getHeaders().get(HeaderNames.CONTENT_LENGTH);
-
-                Result newResult = result.render(EMPTY_CONTENT);
-
-                if (type != null) {
-                    newResult.with(HeaderNames.CONTENT_TYPE, type);
-                } else if (renderable != null) {
-                    newResult.with(HeaderNames.CONTENT_TYPE, renderable.mimetype());
-                }
-
-                if (length != null) {
-                    newResult.with(HeaderNames.CONTENT_LENGTH, length);
-                } else if (renderable != null) {
-                    logger().info("Length from renderable : " + renderable.length());
-                    newResult.with(HeaderNames.CONTENT_LENGTH, String.valueOf(renderable.length()));
-                }
-                return newResult;
+                return head(getRoute.invoke());
             } catch (Exception exception) {
                 LOGGER.error("An exception occurred while processing request {} {}", route.getHttpMethod(),
                         route.getUrl(), exception);
@@ -382,6 +373,40 @@ public class DefaultPageErrorHandler extends DefaultController implements Filter
         }
     }
 
+    /**
+     * Turns the result of a GET request into the response to a HEAD request. The body is dropped without being
+     * rendered, but the headers are preserved (CONTENT-TYPE and CONTENT-LENGTH). These headers may not have been set,
+     * so the values are taken from the renderable object, which is only asked for its mime type and length. When
+     * the length is not known without rendering the content (streams, chunks, objects not serialized yet...),
+     * the CONTENT-LENGTH header is omitted, and the TRANSFER-ENCODING header is set to {@literal chunked}, as the
+     * GET response would be chunked. The server then sends the headers only, and closes the connection.
+     *
+     * @param result the result of the GET request
+     * @return the result to send to the HEAD request
+     */
+    static Result head(Result result) {
+        final Renderable<?> renderable = result.getRenderable();
+        final String type = result.getHeaders().get(HeaderNames.CONTENT_TYPE);
+        final String length = result.getHeaders().get(HeaderNames.CONTENT_LENGTH);
+
+        Result newResult = result.render(NoHttpBody.INSTANCE);
+
+        if (type != null) {
+            newResult.with(HeaderNames.CONTENT_TYPE, type);
+        } else if (renderable != null && renderable.mimetype() != null) {
+            newResult.with(HeaderNames.CONTENT_TYPE, renderable.mimetype());
+        }
+
+        if (length != null) {
+            newResult.with(HeaderNames.CONTENT_LENGTH, length);
+        } else if (renderable != null && renderable.length() >= 0) {
+            newResult.with(HeaderNames.CONTENT_LENGTH, String.valueOf(renderable.length()));
+        } else if (renderable != null) {
+            newResult.with(HeaderNames.TRANSFER_ENCODING, "chunked");
+        }
+        return newResult;
+    }
+
     /**
      * Gets the Regex Pattern used to determine whether the route is handled by the filter or not.
      * Notice that the router are caching these patterns and so cannot changed.
@@ -28,6 +28,8 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.wisdom.api.Controller;
 import org.wisdom.api.DefaultController;
+import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.bodies.RenderableString;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.Json;
 import org.wisdom.api.exceptions.ExceptionMapper;
@@ -46,9 +48,10 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * Check the behavior of the default page error handler.
@@ -128,6 +131,72 @@ public class DefaultPageErrorHandlerTest {
         assertThat(result.getRenderable().length()).isEqualTo(0);
     }
 
+    @Test
+    public void headKeepsTheLengthAndTypeWithoutRenderingTheContent() throws Exception {
+        File file = new File("src/test/resources/pipeline/error.json");
+        Result result = DefaultPageErrorHandler.head(Results.ok(file));
+        assertThat(result.getRenderable()).isInstanceOf(NoHttpBody.class);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_LENGTH)).isEqualTo(String.valueOf(file.length()));
+        assertThat(result.getContentType()).isEqualTo(MimeTypes.JSON);
+
+        // The length of an object is only known once serialized.
+        result = DefaultPageErrorHandler.head(Results.ok(Collections.singletonMap("key", "value")).json());
+        assertThat(result.getRenderable()).isInstanceOf(NoHttpBody.class);
+        assertThat(result.getHeaders()).doesNotContainKey(HeaderNames.CONTENT_LENGTH);
+        assertThat(result.getHeaders()).containsEntry(HeaderNames.TRANSFER_ENCODING, "chunked");
+        assertThat(result.getContentType()).isEqualTo(MimeTypes.JSON);
+    }
+
+    @Test
+    public void notFoundTemplateIsNotRenderedInProduction() throws Exception {
+        DefaultPageErrorHandler handler = new DefaultPageErrorHandler();
+        handler.configuration = mock(ApplicationConfiguration.class);
+        when(handler.configuration.isDev()).thenReturn(false);
+        when(handler.configuration.getBaseDir()).thenReturn(new File("junk"));
+        handler.router = mock(Router.class);
+        handler.noroute = mock(Template.class);
+        handler.start();
+
+        Route route = new Route(HttpMethod.GET, "/missing", null, null);
+        RequestContext rc = new RequestContext(route, Collections.<Filter>emptyList(),
+                Collections.<Interceptor<?>, Object>emptyMap(), new Object[0], null);
+
+        Result result = handler.call(route, rc);
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_FOUND);
+        assertThat(result.getRenderable()).isInstanceOf(NoHttpBody.class);
+        verify(handler.noroute, never()).render(any(Controller.class), anyMapOf(String.class, Object.class));
+        verify(handler.router, never()).getRoutes();
+    }
+
+    @Test
+    public void notFoundTemplateIsRenderedInDevMode() throws Exception {
+        DefaultPageErrorHandler handler = new DefaultPageErrorHandler();
+        handler.configuration = mock(ApplicationConfiguration.class);
+        when(handler.configuration.isDev()).thenReturn(true);
+        when(handler.configuration.getBooleanWithDefault(DefaultPageErrorHandler.NOT_FOUND_TEMPLATE_KEY, true))
+                .thenReturn(true);
+        when(handler.configuration.getBaseDir()).thenReturn(new File("junk"));
+        handler.router = mock(Router.class);
+        handler.noroute = mock(Template.class);
+        when(handler.noroute.render(any(Controller.class), anyMapOf(String.class, Object.class)))
+                .thenReturn(new RenderableString("not found", MimeTypes.HTML));
+        handler.start();
+
+        Request request = mock(Request.class);
+        Context context = mock(Context.class);
+        when(context.request()).thenReturn(request);
+        Context.CONTEXT.set(context);
+
+        Route route = new Route(HttpMethod.GET, "/missing", null, null);
+        RequestContext rc = new RequestContext(route, Collections.<Filter>emptyList(),
+                Collections.<Interceptor<?>, Object>emptyMap(), new Object[0], null);
+
+        Result result = handler.call(route, rc);
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_FOUND);
+        assertThat(result.getRenderable().content()).isEqualTo("not found");
+        verify(handler.router).getRoutes();
+    }
+
     @Test
     public void pipelineErrorWithoutError() throws Exception {
         DefaultPageErrorHandler handler = new DefaultPageErrorHandler();
@@ -20,6 +20,8 @@
 package org.wisdom.cache.ehcache;
 
 import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -27,34 +29,74 @@ import org.apache.felix.ipojo.annotations.Requires;
 import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.bodies.RenderableChunks;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
-import org.wisdom.api.http.HeaderNames;
-import org.wisdom.api.http.Result;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.http.*;
 import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.interception.RequestContext;
 
+import java.io.InputStream;
+import java.util.concurrent.*;
+
 /**
- * An action interceptor caching the result of an action and returning the cached result if it was cached already.
+ * An action interceptor caching the response of an action and returning the cached response if it was cached
+ * already.
+ * <p>
+ * The result of the action is rendered once, and the cache stores the status, headers and content bytes. The cache
+ * key is the {@link Cached#key()} (or the request's URI), extended with the values of the request headers, session
+ * attributes and parameters listed in the annotation.
+ * <p>
+ * When the response is serialized using the serializer negotiated from the {@literal Accept} header, the response
+ * has a {@literal Vary: Accept} header, and is cached under a key including this header. Asynchronous results are
+ * cached once completed.
+ * <p>
+ * When an entry is missing, only one request computes it, concurrent requests for the same key get an
+ * {@link AsyncResult} completed with the computed response, so no thread waits for it. If the response cannot be
+ * cached, these requests invoke the action on the system executor. When an entry is expired but within the
+ * {@link Cached#staleWhileRevalidate()} window, one request recomputes it while the others are served the stale
+ * response.
  */
 @Component
 @Provides(specifications = Interceptor.class)
 @Instantiate
 public class CachedActionInterceptor extends Interceptor<Cached> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachedActionInterceptor.class);
+
+    /**
+     * Eternity == 1 year.
+     */
+    private static final Duration ETERNITY = Duration.standardDays(365);
+
+    private static final String[] NONE = new String[0];
+
     @Requires
     protected Cache cache;
 
+    @Requires(optional = true, nullable = false)
+    protected ContentEngine engine;
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(CachedActionInterceptor.class);
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", optional = true, nullable = false)
+    protected ManagedExecutorService executor;
+
+    /**
+     * The responses being computed, by cache key.
+     */
+    final ConcurrentMap<String, CompletableFuture<CachedResponse>> computations = new ConcurrentHashMap<>();
 
     /**
      * Intercepts a @Cached action method.
-     * If the result of the action is cached, returned it immediately without having actually invoked the action method.
-     * In this case, the interception chain is cut.
+     * If the response of the action is cached, returned it immediately without having actually invoked the action
+     * method. In this case, the interception chain is cut.
      * <p>
-     * If the result is not yet cached, the interception chain continues, and the result is cached to be used during
-     * the next invocation.
+     * If the response is not yet cached, the interception chain continues, and the response is cached to be used
+     * during the next invocation. Concurrent invocations wait for this response, or use the stale response if any.
      *
      * @param configuration the interception configuration
      * @param context       the interception context
@@ -67,6 +109,284 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
         boolean nocache =
                 HeaderNames.NOCACHE_VALUE.equalsIgnoreCase(context.context().header(HeaderNames.CACHE_CONTROL));
 
+        final String base = key(configuration, context);
+        String variant = base;
+        Object value = cache.get(base);
+        if (value == Negotiation.ACCEPT) {
+            // The response is negotiated, each accepted media type has its own entry.
+            variant = withAccept(base, context.context());
+            value = cache.get(variant);
+        }
+        final String key = variant;
+
+        CachedResponse cached = null;
+        if (!nocache && value instanceof CachedResponse) {
+            cached = (CachedResponse) value;
+            if (cached.isFresh(System.currentTimeMillis())) {
+                LOGGER.debug("Returning cached result for {} (key:{})", context.request().uri(), key);
+                return cached.toResult();
+            }
+        }
+
+        CompletableFuture<CachedResponse> computation = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> running = computations.putIfAbsent(key, computation);
+        if (running != null) {
+            if (cached != null) {
+                LOGGER.debug("Returning stale result for {} (key:{}), it is being recomputed",
+                        context.request().uri(), key);
+                return cached.toResult();
+            }
+            if (!nocache) {
+                LOGGER.debug("Waiting for the computation of the result for {} (key:{})", context.request().uri(),
+                        key);
+                final Context http = Context.CONTEXT.get();
+                return new AsyncResult(running.thenCompose(computed -> {
+                    CachedResponse response = computed;
+                    if (response != null && response.varies(HeaderNames.ACCEPT) && !acceptInKey(configuration, base,
+                            key)) {
+                        // The response has been negotiated for the Accept header of the other request.
+                        response = lookup(withAccept(base, context.context()));
+                    }
+                    if (response != null) {
+                        return CompletableFuture.completedFuture(response.toResult());
+                    }
+                    // The other computation has failed, or its result cannot be cached.
+                    return recompute(configuration, context, base, key, http);
+                }));
+            }
+            // The caller does not want a cached response.
+            return compute(configuration, context, base, key, null);
+        }
+
+        boolean released = false;
+        try {
+            Result result = compute(configuration, context, base, key, computation);
+            if (result instanceof AsyncResult && ((AsyncResult) result).stage() != null) {
+                // The response is cached when the result completes.
+                ((AsyncResult) result).stage().whenComplete((r, e) -> release(key, computation));
+                released = true;
+            }
+            return result;
+        } finally {
+            if (!released) {
+                release(key, computation);
+            }
+        }
+    }
+
+    /**
+     * Ends a computation. The waiting requests are released with {@literal null} if the computation has failed or
+     * if its result cannot be cached.
+     */
+    private void release(String key, CompletableFuture<CachedResponse> computation) {
+        computations.remove(key, computation);
+        computation.complete(null);
+    }
+
+    private CachedResponse lookup(String key) {
+        Object value = cache.get(key);
+        if (value instanceof CachedResponse) {
+            return (CachedResponse) value;
+        }
+        return null;
+    }
+
+    /**
+     * Invokes the action for a request that was waiting for the computation of another request. It runs on the
+     * system executor if available, on the thread completing the other computation otherwise.
+     *
+     * @param http the HTTP context of the waiting request
+     */
+    private CompletionStage<Result> recompute(Cached configuration, RequestContext context, String base, String key,
+                                              Context http) {
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+        // The HTTP context is propagated from the submitting thread.
+        final Context previous = Context.CONTEXT.get();
+        Context.CONTEXT.set(http);
+        try {
+            CompletionStage<Result> stage = submit(() -> compute(configuration, context, base, key, null));
+            if (stage != null) {
+                stage.whenComplete((result, error) -> {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        complete(future, result);
+                    }
+                });
+            } else {
+                complete(future, compute(configuration, context, base, key, null));
+            }
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        } finally {
+            if (previous == null) {
+                Context.CONTEXT.remove();
+            } else {
+                Context.CONTEXT.set(previous);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Completes the future with the given result, or with the outcome of the given result if it is asynchronous.
+     */
+    private static void complete(CompletableFuture<Result> future, Result result) {
+        if (result instanceof AsyncResult && ((AsyncResult) result).stage() != null) {
+            ((AsyncResult) result).stage().whenComplete((completed, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(completed);
+                }
+            });
+        } else if (result instanceof AsyncResult) {
+            try {
+                future.complete(((AsyncResult) result).callable().call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        } else {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Submits the given callable to the system executor, propagating the HTTP context of the current thread.
+     *
+     * @return the stage completed with the result, {@literal null} if the system executor is not available
+     */
+    private CompletionStage<Result> submit(Callable<Result> callable) {
+        if (executor == null) {
+            return null;
+        }
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+        ManagedFutureTask<Result> task = executor.submit(callable);
+        task.onSuccess((t, result) -> future.complete(result), MoreExecutors.sameThreadExecutor());
+        task.onFailure((t, throwable) -> future.completeExceptionally(throwable),
+                MoreExecutors.sameThreadExecutor());
+        return future;
+    }
+
+    private Result compute(Cached configuration, RequestContext context, String base, String key,
+                           CompletableFuture<CachedResponse> computation) throws Exception {
+        Result result = context.proceed();
+        if (result instanceof AsyncResult) {
+            // Cache the result once completed.
+            CompletionStage<Result> stage = ((AsyncResult) result).stage();
+            if (stage == null) {
+                stage = submit(((AsyncResult) result).callable());
+            }
+            if (stage == null) {
+                LOGGER.debug("The asynchronous result of {} cannot be cached", context.request().uri());
+                return result;
+            }
+            return new AsyncResult(stage.thenApply(completed -> {
+                try {
+                    return store(configuration, context, base, key, computation, completed);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }));
+        }
+        return store(configuration, context, base, key, computation, result);
+    }
+
+    private Result store(Cached configuration, RequestContext context, String base, String key,
+                         CompletableFuture<CachedResponse> computation, Result result) throws Exception {
+        CachedResponse response = render(configuration, context.context(), result);
+        if (response == null) {
+            LOGGER.debug("The result of {} cannot be cached", context.request().uri());
+            return result;
+        }
+
+        Duration duration = configuration.duration() == 0 ? ETERNITY
+                : Duration.standardSeconds(configuration.duration());
+        Duration ttl = duration.plus(Duration.standardSeconds(configuration.staleWhileRevalidate()));
+        String target = key;
+        if (response.varies(HeaderNames.ACCEPT) && !acceptInKey(configuration, base, key)) {
+            // The serializer was negotiated from the Accept header, the response is stored under a key including
+            // it, and the base key records that the response is negotiated.
+            cache.set(base, Negotiation.ACCEPT, ttl);
+            target = withAccept(base, context.context());
+        }
+        cache.set(target, response, ttl);
+        LOGGER.debug("Caching result of {} for {} seconds (key:{})", context.request().uri(),
+                duration.getStandardSeconds(), target);
+        if (computation != null) {
+            computation.complete(response);
+        }
+        return response.toResult();
+    }
+
+    /**
+     * Renders the given result.
+     *
+     * @return the rendered response, {@literal null} if the result cannot be cached (streamed content, cookies,
+     * server errors)
+     */
+    private CachedResponse render(Cached configuration, Context context, Result result) throws Exception {
+        if (result == null || result.getStatusCode() >= Status.INTERNAL_SERVER_ERROR
+                || !result.getCookies().isEmpty()) {
+            return null;
+        }
+        Renderable<?> renderable = result.getRenderable();
+        if (renderable == null) {
+            renderable = NoHttpBody.INSTANCE;
+        }
+        if (renderable instanceof RenderableChunks
+                || renderable.requireSerializer() && !serialize(context, renderable, result)) {
+            return null;
+        }
+
+        byte[] content = renderable.bytes(context, result);
+        if (content == null) {
+            try (InputStream stream = renderable.render(context, result)) {
+                content = stream == null ? NoHttpBody.empty() : ByteStreams.toByteArray(stream);
+            }
+        }
+        long freshUntil = configuration.duration() == 0 ? Long.MAX_VALUE
+                : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(configuration.duration());
+        return new CachedResponse(result, renderable.mimetype(), content, freshUntil);
+    }
+
+    /**
+     * Serializes the renderable, as the engine would do.
+     *
+     * @return {@literal true} if a serializer has been found
+     */
+    private boolean serialize(Context context, Renderable<?> renderable, Result result) {
+        if (engine == null) {
+            return false;
+        }
+        ContentSerializer serializer = null;
+        if (result.getContentType() != null) {
+            serializer = engine.getContentSerializerForContentType(result.getContentType());
+        }
+        if (serializer == null) {
+            serializer = engine.getBestSerializer(context.request().mediaTypes());
+            if (serializer == null) {
+                return false;
+            }
+            result.with(HeaderNames.CONTENT_TYPE, serializer.getContentType());
+            // The serializer depends on the Accept header.
+            String vary = result.getHeaders().get(HeaderNames.VARY);
+            result.with(HeaderNames.VARY, vary == null ? HeaderNames.ACCEPT : vary + ", " + HeaderNames.ACCEPT);
+        }
+        serializer.serialize(renderable);
+        return true;
+    }
+
+    /**
+     * Computes the cache key of the current request. The key is the {@link Cached#key()} (or the request's URI),
+     * followed by the values of the vary headers, session attributes and parameters, such as
+     * {@code key|h:Accept-Language=2:fr|p:id=1:1}.
+     *
+     * @param configuration the interception configuration
+     * @param context       the interception context
+     * @return the key
+     */
+    static String key(Cached configuration, RequestContext context) {
         String key;
         if (Strings.isNullOrEmpty(configuration.key())) {
             key = context.request().uri();
@@ -74,33 +394,75 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
             key = configuration.key();
         }
 
-        Result result = null;
-        if (!nocache) {
-            result = (Result) cache.get(key);
+        String[] headers = orNone(configuration.varyHeaders());
+        String[] session = orNone(configuration.varySession());
+        String[] parameters = orNone(configuration.varyParameters());
+        if (headers.length == 0 && session.length == 0 && parameters.length == 0) {
+            return key;
         }
 
-        if (result == null) {
-            result = context.proceed();
-        } else {
-            LOGGER.info("Returning cached result for {} (key:{})",
-                    context.request().uri(), key);
-            return result;
+        Context ctx = context.context();
+        StringBuilder builder = new StringBuilder(key);
+        for (String header : headers) {
+            append(builder, "h:", header, ctx.header(header));
+        }
+        for (String attribute : session) {
+            append(builder, "s:", attribute, ctx.session().get(attribute));
+        }
+        for (String parameter : parameters) {
+            String value = ctx.parameter(parameter);
+            if (value == null) {
+                value = ctx.parameterFromPath(parameter);
+            }
+            append(builder, "p:", parameter, value);
         }
+        return builder.toString();
+    }
 
-        Duration duration;
-        if (configuration.duration() == 0) {
-            // Eternity == 1 year.
-            duration = Duration.standardDays(365);
-        } else {
-            duration = Duration.standardSeconds(configuration.duration());
+    /**
+     * Extends the given key with the value of the {@literal Accept} header.
+     */
+    static String withAccept(String key, Context context) {
+        StringBuilder builder = new StringBuilder(key);
+        append(builder, "h:", HeaderNames.ACCEPT, context.header(HeaderNames.ACCEPT));
+        return builder.toString();
+    }
+
+    /**
+     * Checks whether the key of the current request already includes the {@literal Accept} header, because the
+     * response is known to be negotiated, or because the header is listed in {@link Cached#varyHeaders()}.
+     */
+    private static boolean acceptInKey(Cached configuration, String base, String key) {
+        if (!base.equals(key)) {
+            return true;
+        }
+        for (String header : orNone(configuration.varyHeaders())) {
+            if (HeaderNames.ACCEPT.equalsIgnoreCase(header)) {
+                return true;
+            }
         }
+        return false;
+    }
 
+    private static void append(StringBuilder builder, String kind, String name, String value) {
+        builder.append('|').append(kind).append(name);
+        if (value != null) {
+            // Missing and empty values are different variants. The values come from the client, they are prefixed
+            // by their length so they cannot forge the key of another variant.
+            builder.append('=').append(value.length()).append(':').append(value);
+        }
+    }
 
-        cache.set(key, result, duration);
-        LoggerFactory.getLogger(this.getClass()).info("Caching result of {} for {} seconds (key:{})",
-                context.request().uri(), configuration.duration(), key);
+    private static String[] orNone(String[] values) {
+        return values == null ? NONE : values;
+    }
 
-        return result;
+    /**
+     * The marker stored under the key of a response negotiated from the {@literal Accept} header. An enum keeps
+     * its identity when the cache serializes it.
+     */
+    enum Negotiation {
+        ACCEPT
     }
 
     /**
@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.wisdom.api.bodies.RenderableByteArray;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A rendered response stored in the cache: the status, the headers and the content as bytes. Replaying it does not
+ * require invoking the action or serializing its result again.
+ */
+class CachedResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final HashMap<String, String> headers;
+    private final String charset;
+    private final byte[] content;
+
+    /**
+     * The date (in milliseconds) until which the response is fresh.
+     */
+    private final long freshUntil;
+
+    /**
+     * Creates a new cached response.
+     *
+     * @param result     the result, used to retrieve the status and headers
+     * @param mimetype   the mime type of the rendered content, used if the result does not set the content type
+     * @param content    the rendered content
+     * @param freshUntil the date (in milliseconds) until which the response is fresh
+     */
+    CachedResponse(Result result, String mimetype, byte[] content, long freshUntil) {
+        this.status = result.getStatusCode();
+        this.headers = new HashMap<>(result.getHeaders());
+        if (!headers.containsKey(HeaderNames.CONTENT_TYPE) && mimetype != null) {
+            headers.put(HeaderNames.CONTENT_TYPE, mimetype);
+        }
+        this.charset = result.getCharset() == null ? null : result.getCharset().name();
+        this.content = content;
+        this.freshUntil = freshUntil;
+    }
+
+    /**
+     * @param now the current time in milliseconds
+     * @return whether or not the response is still fresh.
+     */
+    boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    /**
+     * Checks whether the response varies with the given request header, i.e. whether the header is listed in the
+     * {@literal Vary} header of the response.
+     *
+     * @param header the header name
+     * @return {@code true} if the response depends on the header
+     */
+    boolean varies(String header) {
+        String vary = headers.get(HeaderNames.VARY);
+        if (vary == null) {
+            return false;
+        }
+        for (String name : vary.split(",")) {
+            if (name.trim().equalsIgnoreCase(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the rendered content, must not be modified.
+     */
+    byte[] content() {
+        return content;
+    }
+
+    /**
+     * Creates a new result replaying the response.
+     *
+     * @return the result
+     */
+    Result toResult() {
+        Result result = new Result(status).render(new RenderableByteArray(content, false));
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            result.with(header.getKey(), header.getValue());
+        }
+        if (charset != null) {
+            result.with(Charset.forName(charset));
+        }
+        return result;
+    }
+}
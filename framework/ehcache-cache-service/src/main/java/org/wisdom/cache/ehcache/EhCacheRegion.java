@@ -0,0 +1,274 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.Statistics;
+import org.joda.time.Duration;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A region of the EhCache-based cache service, backed by one Ehcache instance.
+ */
+class EhCacheRegion implements Cache {
+
+    private final Ehcache cache;
+    private final EhCacheService service;
+
+    /**
+     * Creates a new region.
+     *
+     * @param cache   the Ehcache instance
+     * @param service the cache service, used to retrieve the other regions and the executor
+     */
+    EhCacheRegion(Ehcache cache, EhCacheService service) {
+        this.cache = cache;
+        this.service = service;
+    }
+
+    /**
+     * @return the underlying Ehcache instance.
+     */
+    Ehcache ehcache() {
+        return cache;
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time in seconds (0 second means eternity).
+     */
+    @Override
+    public void set(String key, Object value, int expiration) {
+        Element element = new Element(key, value);
+        if (expiration == 0) {
+            element.setEternal(true);
+        }
+        element.setTimeToLive(expiration);
+        cache.put(element);
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link Cache#DEFAULT_EXPIRATION} to
+     *                   use the region expiration.
+     */
+    @Override
+    public void set(String key, Object value, Duration expiration) {
+        cache.put(element(key, value, expiration));
+    }
+
+    /**
+     * Gets an entry from the cache.
+     *
+     * @param key Item key.
+     * @return the stored object, {@literal null} if none of expired.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        Element element = cache.get(key);
+        if (element != null) {
+            return (T) element.getObjectValue();
+        }
+        return null;
+    }
+
+    /**
+     * Removes an object from the cache.
+     *
+     * @param key Item key
+     * @return {@literal true} if the object was removed, {@literal false} otherwise.
+     */
+    @Override
+    public boolean remove(String key) {
+        return cache.remove(key);
+    }
+
+    /**
+     * Gets several entries using a single Ehcache call.
+     *
+     * @param keys the keys
+     * @return the stored objects by key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> values = new LinkedHashMap<>();
+        Map<Object, Element> elements = cache.getAll(keys);
+        for (String key : keys) {
+            Element element = elements.get(key);
+            if (element != null && element.getObjectValue() != null) {
+                values.put(key, (T) element.getObjectValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Adds several entries using a single Ehcache call.
+     *
+     * @param values     the values by key
+     * @param expiration Expiration time, {@literal null} to use the region expiration
+     */
+    @Override
+    public void setAll(Map<String, ?> values, Duration expiration) {
+        List<Element> elements = new ArrayList<>(values.size());
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            elements.add(element(entry.getKey(), entry.getValue(), expiration));
+        }
+        cache.putAll(elements);
+    }
+
+    /**
+     * Gets an entry, or loads it while holding the write lock on the key, so concurrent callers wait for the
+     * loaded value instead of invoking the loader again.
+     *
+     * @param key        Item key.
+     * @param loader     the function computing the value
+     * @param expiration Expiration time, {@literal null} to use the region expiration
+     * @return the cached or loaded value
+     */
+    @Override
+    public <T> T computeIfAbsent(String key, Function<String, ? extends T> loader, Duration expiration) {
+        T value = get(key);
+        if (value != null) {
+            return value;
+        }
+        cache.acquireWriteLockOnKey(key);
+        try {
+            // Check again, another caller may have loaded the value while we were waiting.
+            Element element = cache.getQuiet(key);
+            if (element != null && !element.isExpired() && element.getObjectValue() != null) {
+                return cast(element.getObjectValue());
+            }
+            value = loader.apply(key);
+            if (value != null) {
+                cache.put(element(key, value, expiration));
+            }
+            return value;
+        } finally {
+            cache.releaseWriteLockOnKey(key);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(final String key) {
+        return async(new Supplier<T>() {
+            @Override
+            public T get() {
+                return EhCacheRegion.this.get(key);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(final String key, final Object value, final Duration expiration) {
+        return async(new Supplier<Void>() {
+            @Override
+            public Void get() {
+                cache.put(element(key, value, expiration));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> computeIfAbsentAsync(final String key, final Function<String, ? extends T> loader,
+                                                         final Duration expiration) {
+        // Avoid the thread hop when the value is cached.
+        T value = get(key);
+        if (value != null) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return async(new Supplier<T>() {
+            @Override
+            public T get() {
+                return computeIfAbsent(key, loader, expiration);
+            }
+        });
+    }
+
+    @Override
+    public Cache region(String name) {
+        return service.region(name);
+    }
+
+    @Override
+    public Set<String> regions() {
+        return service.regions();
+    }
+
+    @Override
+    public CacheStatistics statistics() {
+        Statistics statistics = cache.getStatistics();
+        return new CacheStatistics(statistics.getCacheHits(), statistics.getCacheMisses(),
+                statistics.getEvictionCount(), cache.getSize());
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        Executor executor = service.executor();
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            } catch (RuntimeException e) {
+                CompletableFuture<T> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+        }
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    /**
+     * Creates an element. A {@literal null} or zero expiration makes the element eternal, while
+     * {@link Cache#DEFAULT_EXPIRATION} keeps the time to live configured for the region.
+     */
+    private static Element element(String key, Object value, Duration expiration) {
+        Element element = new Element(key, value);
+        if (expiration == DEFAULT_EXPIRATION) {
+            return element;
+        }
+        if (expiration == null || expiration.getStandardSeconds() == 0) {
+            element.setEternal(true);
+        } else {
+            element.setTimeToLive((int) expiration.getStandardSeconds());
+        }
+        return element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+}
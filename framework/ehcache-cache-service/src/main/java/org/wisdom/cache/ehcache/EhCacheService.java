@@ -19,21 +19,45 @@
  */
 package org.wisdom.cache.ehcache;
 
+import com.google.common.collect.ImmutableSet;
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
 import org.apache.felix.ipojo.annotations.*;
 import org.joda.time.Duration;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Collection;
 import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * An implementation of the cache service based on EhCache.
+ * <p>
+ * The service stores its entries in the {@code wisdom} Ehcache cache. Named regions are backed by their own Ehcache
+ * cache. A region declared in the {@code ehcache.xml} file uses this declaration, otherwise its policies are read
+ * from the application configuration:
+ * <pre>
+ * ehcache.regions.users {
+ *     max-entries: 1000 # maximum number of entries kept in memory
+ *     ttl: 300 # default time to live in seconds, 0 for eternal entries
+ * }
+ * </pre>
+ * Asynchronous operations run on the system executor.
  */
 @Component(immediate = true)
 @Instantiate
@@ -41,6 +65,8 @@ public class EhCacheService implements Cache {
 
     private static final String WISDOM_KEY = "wisdom";
 
+    private static final String REGIONS_PREFIX = "ehcache.regions.";
+
     /**
      * The custom configuration path.
      * To customize the ehcache configuration, creates the 'ehcache.xml' file in the 'conf' directory of the Wisdom
@@ -53,12 +79,16 @@ public class EhCacheService implements Cache {
      */
     public static final String INTERNAL_CONFIGURATION = "org/wisdom/cache/ehcache/ehcache-default.xml";
 
-    private net.sf.ehcache.Cache cache;
+    private EhCacheRegion cache;
     private CacheManager manager;
+    private final ConcurrentMap<String, EhCacheRegion> regions = new ConcurrentHashMap<>();
 
     @Requires
     ApplicationConfiguration configuration;
 
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", optional = true, nullable = false)
+    ManagedExecutorService executor;
+
     @Context
     BundleContext context;
     ServiceRegistration<Cache> registration;
@@ -89,8 +119,8 @@ public class EhCacheService implements Cache {
                             "cannot load " + INTERNAL_CONFIGURATION + " file");
                 }
             }
-            manager.addCache(WISDOM_KEY);
-            cache = manager.getCache(WISDOM_KEY);
+            cache = new EhCacheRegion(manager.addCacheIfAbsent(WISDOM_KEY), this);
+            cache.ehcache().setStatisticsEnabled(true);
 
             registration = context.registerService(Cache.class, this, new Hashtable<String, Object>());
         } finally {
@@ -112,9 +142,73 @@ public class EhCacheService implements Cache {
         }
         if (manager != null) {
             manager.removeCache(WISDOM_KEY);
+            for (String name : regions.keySet()) {
+                manager.removeCache(name);
+            }
+        }
+        regions.clear();
+    }
+
+    /**
+     * @return the executor running the asynchronous operations, {@literal null} if none.
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Gets a region, creating it if needed.
+     *
+     * @param name the region name
+     * @return the region
+     */
+    @Override
+    public Cache region(String name) {
+        if (WISDOM_KEY.equals(name)) {
+            return cache;
+        }
+        EhCacheRegion region = regions.get(name);
+        if (region != null) {
+            return region;
+        }
+        synchronized (this) {
+            region = regions.get(name);
+            if (region == null) {
+                Ehcache ehcache = manager.getEhcache(name);
+                if (ehcache == null) {
+                    ehcache = manager.addCacheIfAbsent(new net.sf.ehcache.Cache(regionConfiguration(name)));
+                }
+                ehcache.setStatisticsEnabled(true);
+                region = new EhCacheRegion(ehcache, this);
+                regions.put(name, region);
+            }
+            return region;
         }
     }
 
+    private CacheConfiguration regionConfiguration(String name) {
+        Configuration conf = configuration.getConfiguration(REGIONS_PREFIX + name);
+        int maxEntries = 10000;
+        long ttl = 0;
+        if (conf != null) {
+            maxEntries = conf.getIntegerWithDefault("max-entries", maxEntries);
+            ttl = conf.getLongWithDefault("ttl", ttl);
+        }
+        return new CacheConfiguration(name, maxEntries)
+                .eternal(ttl == 0)
+                .timeToLiveSeconds(ttl);
+    }
+
+    @Override
+    public Set<String> regions() {
+        return ImmutableSet.copyOf(regions.keySet());
+    }
+
+    @Override
+    public CacheStatistics statistics() {
+        return cache.statistics();
+    }
+
     /**
      * Adds an entry in the cache.
      *
@@ -124,12 +218,7 @@ public class EhCacheService implements Cache {
      */
     @Override
     public void set(String key, Object value, int expiration) {
-        Element element = new Element(key, value);
-        if (expiration == 0) {
-            element.setEternal(true);
-        }
-        element.setTimeToLive(expiration);
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
@@ -137,17 +226,12 @@ public class EhCacheService implements Cache {
      *
      * @param key        Item key.
      * @param value      Item value.
-     * @param expiration Expiration time.
+     * @param expiration Expiration time, {@literal null} or zero for eternity, {@link #DEFAULT_EXPIRATION} to use the
+     *                   default expiration.
      */
     @Override
     public void set(String key, Object value, Duration expiration) {
-        Element element = new Element(key, value);
-        if (expiration == null) {
-            element.setEternal(true);
-        } else {
-            element.setTimeToLive((int) expiration.getStandardSeconds());
-        }
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
@@ -158,11 +242,7 @@ public class EhCacheService implements Cache {
      */
     @Override
     public Object get(String key) {
-        Element element = cache.get(key);
-        if (element != null) {
-            return element.getObjectValue();
-        }
-        return null;
+        return cache.get(key);
     }
 
     /**
@@ -175,4 +255,35 @@ public class EhCacheService implements Cache {
     public boolean remove(String key) {
         return cache.remove(key);
     }
+
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        return cache.getAll(keys);
+    }
+
+    @Override
+    public void setAll(Map<String, ?> values, Duration expiration) {
+        cache.setAll(values, expiration);
+    }
+
+    @Override
+    public <T> T computeIfAbsent(String key, Function<String, ? extends T> loader, Duration expiration) {
+        return cache.computeIfAbsent(key, loader, expiration);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String key) {
+        return cache.getAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> setAsync(String key, Object value, Duration expiration) {
+        return cache.setAsync(key, value, expiration);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> computeIfAbsentAsync(String key, Function<String, ? extends T> loader,
+                                                         Duration expiration) {
+        return cache.computeIfAbsentAsync(key, loader, expiration);
+    }
 }
@@ -19,20 +19,28 @@
  */
 package org.wisdom.cache.ehcache;
 
+import com.google.common.net.MediaType;
 import org.joda.time.Duration;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wisdom.api.bodies.RenderableObject;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.cookies.Cookie;
+import org.wisdom.api.cookies.SessionCookie;
 import org.wisdom.api.http.*;
 import org.wisdom.api.interception.RequestContext;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,7 +54,7 @@ public class CachedActionInterceptorTest {
     @Test
     public void testCaching() throws Exception {
         CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = mock(Cache.class);
+        interceptor.cache = spy(new DummyCache());
         Cached cached = mock(Cached.class);
         when(cached.duration()).thenReturn(10);
         when(cached.key()).thenReturn("key");
@@ -56,27 +64,29 @@ public class CachedActionInterceptorTest {
         Context ctx = mock(Context.class);
         when(context.context()).thenReturn(ctx);
         when(context.context().header(anyString())).thenReturn(null);
-        final Result r = Results.ok("Result");
+        final Result r = Results.ok("Result").with("X-Custom", "value");
         when(context.proceed()).thenReturn(r);
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-        // Check that the result was put in cache.
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders()).containsEntry("X-Custom", "value");
+        // Check that the rendered response was put in cache.
         verify(interceptor.cache, times(1)).get("key");
-        verify(interceptor.cache, times(1)).set("key", r, Duration.standardSeconds(10));
+        verify(interceptor.cache, times(1)).set(eq("key"), any(CachedResponse.class), eq(Duration.standardSeconds(10)));
 
-        when(interceptor.cache.get("key")).thenReturn(r);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getHeaders()).containsEntry("X-Custom", "value");
 
         verify(interceptor.cache, times(2)).get("key");
+        verify(context, times(1)).proceed();
     }
 
     @Test
     public void testCachingWithoutKey() throws Exception {
         CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = mock(Cache.class);
+        interceptor.cache = spy(new DummyCache());
         Cached cached = mock(Cached.class);
         when(cached.duration()).thenReturn(10);
         when(cached.key()).thenReturn("");
@@ -92,17 +102,17 @@ public class CachedActionInterceptorTest {
         when(context.proceed()).thenReturn(r);
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
         // Check that the result was put in cache.
         verify(interceptor.cache, times(1)).get("/my/url?withquery");
-        verify(interceptor.cache, times(1)).set("/my/url?withquery", r, Duration.standardSeconds(10));
+        verify(interceptor.cache, times(1)).set(eq("/my/url?withquery"), any(CachedResponse.class),
+                eq(Duration.standardSeconds(10)));
 
-        when(interceptor.cache.get("key")).thenReturn(r);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
 
         verify(interceptor.cache, times(2)).get("/my/url?withquery");
+        verify(context, times(1)).proceed();
     }
 
     @Test
@@ -123,21 +133,20 @@ public class CachedActionInterceptorTest {
 
         Result result = interceptor.call(cached, context);
 
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
 
         final Result r2 = Results.ok("Result2");
         when(context.proceed()).thenReturn(r2);
 
         result = interceptor.call(cached, context);
         // r is cached return r even is r2 is the new result.
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Result");
 
         // The object is cached, let's use NO CACHE
         when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(HeaderNames.NOCACHE_VALUE);
 
         result = interceptor.call(cached, context);
-        assertThat(result).isNotEqualTo(r).isEqualTo(r2);
+        assertThat(content(result)).isEqualTo("Result2");
 
         final Result r3 = Results.ok("Result3");
         when(context.proceed()).thenReturn(r3);
@@ -145,7 +154,228 @@ public class CachedActionInterceptorTest {
         // Remove the cache-control
         when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(null);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r2).isNotEqualTo(r3);
+        assertThat(content(result)).isEqualTo("Result2");
+    }
+
+    @Test
+    public void testVariants() throws Exception {
+        CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+        when(cached.varyHeaders()).thenReturn(new String[]{HeaderNames.ACCEPT_LANGUAGE});
+        when(cached.varySession()).thenReturn(new String[]{"user"});
+        when(cached.varyParameters()).thenReturn(new String[]{"id"});
+
+        RequestContext context = mock(RequestContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        Context ctx = mock(Context.class);
+        SessionCookie session = mock(SessionCookie.class);
+        when(ctx.session()).thenReturn(session);
+        when(context.context()).thenReturn(ctx);
+
+        when(ctx.header(HeaderNames.ACCEPT_LANGUAGE)).thenReturn("fr");
+        when(session.get("user")).thenReturn("alice");
+        when(ctx.parameterFromPath("id")).thenReturn("1");
+        when(context.proceed()).thenReturn(Results.ok("fr-alice-1"));
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("fr-alice-1");
+        assertThat(CachedActionInterceptor.key(cached, context))
+                .isEqualTo("key|h:Accept-Language=2:fr|s:user=5:alice|p:id=1:1");
+
+        when(ctx.header(HeaderNames.ACCEPT_LANGUAGE)).thenReturn("en");
+        when(context.proceed()).thenReturn(Results.ok("en-alice-1"));
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("en-alice-1");
+
+        when(session.get("user")).thenReturn("bob");
+        when(context.proceed()).thenReturn(Results.ok("en-bob-1"));
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("en-bob-1");
+
+        when(ctx.parameterFromPath("id")).thenReturn(null);
+        when(context.proceed()).thenReturn(Results.ok("en-bob-none"));
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("en-bob-none");
+
+        // Back to the first variant.
+        when(ctx.header(HeaderNames.ACCEPT_LANGUAGE)).thenReturn("fr");
+        when(session.get("user")).thenReturn("alice");
+        when(ctx.parameterFromPath("id")).thenReturn("1");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("fr-alice-1");
+        verify(context, times(4)).proceed();
+    }
+
+    @Test
+    public void testThatValuesCannotForgeTheKeyOfAnotherVariant() throws Exception {
+        Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+        when(cached.varyHeaders()).thenReturn(new String[]{"A", "B"});
+        RequestContext context = mock(RequestContext.class);
+        Context ctx = mock(Context.class);
+        when(context.context()).thenReturn(ctx);
+
+        when(ctx.header("A")).thenReturn("x");
+        when(ctx.header("B")).thenReturn("y");
+        String key = CachedActionInterceptor.key(cached, context);
+
+        when(ctx.header("A")).thenReturn("x|h:B=y");
+        when(ctx.header("B")).thenReturn(null);
+        assertThat(CachedActionInterceptor.key(cached, context)).isNotEqualTo(key);
+        when(ctx.header("A")).thenReturn("1:x|h:B=1:y");
+        assertThat(CachedActionInterceptor.key(cached, context)).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testThatErrorsAndCookiesAreNotCached() throws Exception {
+        CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+
+        RequestContext context = mock(RequestContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        when(context.context()).thenReturn(mock(Context.class));
+
+        Result error = Results.internalServerError("bad");
+        when(context.proceed()).thenReturn(error);
+        assertThat(interceptor.call(cached, context)).isSameAs(error);
+
+        Result withCookie = Results.ok("cookie").with(Cookie.cookie("name", "value").build());
+        when(context.proceed()).thenReturn(withCookie);
+        assertThat(interceptor.call(cached, context)).isSameAs(withCookie);
+        assertThat(interceptor.cache.<Object>get("key")).isNull();
+    }
+
+    @Test
+    public void testThatConcurrentMissesComputeTheResponseOnce() throws Exception {
+        final CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        final Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger invocations = new AtomicInteger();
+        final RequestContext leader = mock(RequestContext.class);
+        when(leader.request()).thenReturn(mock(Request.class));
+        when(leader.context()).thenReturn(mock(Context.class));
+        when(leader.proceed()).then(new Answer<Result>() {
+            @Override
+            public Result answer(InvocationOnMock invocation) throws Throwable {
+                invocations.incrementAndGet();
+                computing.countDown();
+                release.await();
+                return Results.ok("Result");
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            Future<Result> first = executor.submit(call(interceptor, cached, leader));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The followers do not wait for the computation.
+            List<Future<Result>> followers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Result follower = executor.submit(call(interceptor, cached, leader)).get(5, TimeUnit.SECONDS);
+                assertThat(follower).isInstanceOf(AsyncResult.class);
+                followers.add(((AsyncResult) follower).stage().toCompletableFuture());
+            }
+            release.countDown();
+
+            assertThat(content(first.get(5, TimeUnit.SECONDS))).isEqualTo("Result");
+            for (Future<Result> follower : followers) {
+                assertThat(content(follower.get(5, TimeUnit.SECONDS))).isEqualTo("Result");
+            }
+            assertThat(invocations.get()).isEqualTo(1);
+            assertThat(interceptor.computations).isEmpty();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testThatFollowersInvokeTheActionWhenTheResponseCannotBeCached() throws Exception {
+        final CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        final Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger invocations = new AtomicInteger();
+        final RequestContext context = mock(RequestContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        when(context.context()).thenReturn(mock(Context.class));
+        when(context.proceed()).then(new Answer<Result>() {
+            @Override
+            public Result answer(InvocationOnMock invocation) throws Throwable {
+                if (invocations.incrementAndGet() == 1) {
+                    computing.countDown();
+                    release.await();
+                    return Results.ok("Leader").with(Cookie.cookie("name", "value").build());
+                }
+                return Results.ok("Follower");
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Result> first = executor.submit(call(interceptor, cached, context));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Result follower = interceptor.call(cached, context);
+            assertThat(follower).isInstanceOf(AsyncResult.class);
+            CompletableFuture<Result> stage = ((AsyncResult) follower).stage().toCompletableFuture();
+            assertThat(stage.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(content(first.get(5, TimeUnit.SECONDS))).isEqualTo("Leader");
+            assertThat(content(stage.get(5, TimeUnit.SECONDS))).isEqualTo("Follower");
+            assertThat(invocations.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testThatStaleResponsesAreServedWhileRevalidating() throws Exception {
+        final CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        final Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+        when(cached.duration()).thenReturn(10);
+        when(cached.staleWhileRevalidate()).thenReturn(60);
+
+        // An expired entry.
+        interceptor.cache.set("key", new CachedResponse(Results.ok("Stale"), null,
+                "Stale".getBytes(StandardCharsets.UTF_8), System.currentTimeMillis() - 1), 60);
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestContext context = mock(RequestContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        when(context.context()).thenReturn(mock(Context.class));
+        when(context.proceed()).then(new Answer<Result>() {
+            @Override
+            public Result answer(InvocationOnMock invocation) throws Throwable {
+                computing.countDown();
+                release.await();
+                return Results.ok("Fresh");
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Result> revalidation = executor.submit(call(interceptor, cached, context));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Served without waiting for the revalidation.
+            assertThat(content(interceptor.call(cached, context))).isEqualTo("Stale");
+
+            release.countDown();
+            assertThat(content(revalidation.get(5, TimeUnit.SECONDS))).isEqualTo("Fresh");
+            assertThat(content(interceptor.call(cached, context))).isEqualTo("Fresh");
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     @Test
@@ -203,6 +433,111 @@ public class CachedActionInterceptorTest {
         svc.stop();
     }
 
+    @Test
+    public void testThatAsyncResultsAreCachedOnceCompleted() throws Exception {
+        CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+
+        RequestContext context = mock(RequestContext.class);
+        when(context.request()).thenReturn(mock(Request.class));
+        when(context.context()).thenReturn(mock(Context.class));
+        CompletableFuture<Result> completion = new CompletableFuture<>();
+        when(context.proceed()).thenReturn(new AsyncResult(completion));
+
+        Result result = interceptor.call(cached, context);
+        assertThat(result).isInstanceOf(AsyncResult.class);
+        assertThat(interceptor.cache.get("key")).isNull();
+        completion.complete(Results.ok("Async"));
+        assertThat(content(((AsyncResult) result).stage().toCompletableFuture().get(5, TimeUnit.SECONDS)))
+                .isEqualTo("Async");
+        assertThat(interceptor.computations).isEmpty();
+
+        // The completed result is replayed.
+        result = interceptor.call(cached, context);
+        assertThat(result).isNotInstanceOf(AsyncResult.class);
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(content(result)).isEqualTo("Async");
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    public void testThatNegotiatedResponsesVaryOnAccept() throws Exception {
+        CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = new DummyCache();
+        interceptor.engine = mock(ContentEngine.class);
+        final ContentSerializer json = serializer(MimeTypes.JSON);
+        final ContentSerializer xml = serializer(MimeTypes.XML);
+        Cached cached = mock(Cached.class);
+        when(cached.key()).thenReturn("key");
+
+        RequestContext context = mock(RequestContext.class);
+        Request request = mock(Request.class);
+        when(context.request()).thenReturn(request);
+        final Context ctx = mock(Context.class);
+        when(context.context()).thenReturn(ctx);
+        when(ctx.request()).thenReturn(request);
+        when(interceptor.engine.getBestSerializer(anyCollectionOf(MediaType.class))).then(
+                new Answer<ContentSerializer>() {
+                    @Override
+                    public ContentSerializer answer(InvocationOnMock invocation) {
+                        return MimeTypes.XML.equals(ctx.header(HeaderNames.ACCEPT)) ? xml : json;
+                    }
+                });
+        when(context.proceed()).then(new Answer<Result>() {
+            @Override
+            public Result answer(InvocationOnMock invocation) {
+                return Results.ok(new Object());
+            }
+        });
+
+        when(ctx.header(HeaderNames.ACCEPT)).thenReturn(MimeTypes.JSON);
+        Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo(MimeTypes.JSON);
+        assertThat(result.getHeaders()).containsEntry(HeaderNames.VARY, HeaderNames.ACCEPT);
+
+        when(ctx.header(HeaderNames.ACCEPT)).thenReturn(MimeTypes.XML);
+        result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo(MimeTypes.XML);
+        assertThat(result.getHeaders()).containsEntry(HeaderNames.CONTENT_TYPE, MimeTypes.XML);
+
+        // Both variants are cached.
+        when(ctx.header(HeaderNames.ACCEPT)).thenReturn(MimeTypes.JSON);
+        assertThat(content(interceptor.call(cached, context))).isEqualTo(MimeTypes.JSON);
+        when(ctx.header(HeaderNames.ACCEPT)).thenReturn(MimeTypes.XML);
+        assertThat(content(interceptor.call(cached, context))).isEqualTo(MimeTypes.XML);
+        verify(context, times(2)).proceed();
+    }
+
+    private static ContentSerializer serializer(final String type) {
+        return new ContentSerializer() {
+            @Override
+            public String getContentType() {
+                return type;
+            }
+
+            @Override
+            public void serialize(Renderable<?> renderable) {
+                ((RenderableObject) renderable).setSerializedForm(type);
+            }
+        };
+    }
+
+    private static Callable<Result> call(final CachedActionInterceptor interceptor, final Cached cached,
+                                         final RequestContext context) {
+        return new Callable<Result>() {
+            @Override
+            public Result call() throws Exception {
+                return interceptor.call(cached, context);
+            }
+        };
+    }
+
+    private static String content(Result result) throws Exception {
+        return new String(result.getRenderable().bytes(null, result), StandardCharsets.UTF_8);
+    }
+
     private class DummyCache extends TreeMap<String, Object> implements Cache {
         @Override
         public void set(String key, Object value, int expiration) {
@@ -19,22 +19,30 @@
  */
 package org.wisdom.cache.ehcache;
 
+import com.google.common.collect.ImmutableMap;
 import org.joda.time.Duration;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.osgi.framework.BundleContext;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
 
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Check the creation of the EhCache-based cache service implementation.
@@ -145,6 +153,181 @@ public class EhCacheServiceTest {
         }
     }
 
+    private EhCacheService createService(ApplicationConfiguration configuration) {
+        when(configuration.getBooleanWithDefault("ehcache.enabled", true)).thenReturn(true);
+        EhCacheService svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.context = mock(BundleContext.class);
+        svc.start();
+        return svc;
+    }
+
+    @Test
+    public void testBulkOperations() {
+        EhCacheService svc = createService(mock(ApplicationConfiguration.class));
+        try {
+            svc.setAll(ImmutableMap.of("a", "1", "b", "2"), Duration.standardMinutes(1));
+            Map<String, String> values = svc.getAll(Arrays.asList("a", "missing", "b"));
+            assertThat(values).hasSize(2).containsEntry("a", "1").containsEntry("b", "2");
+            assertThat(values.keySet()).containsExactly("a", "b");
+        } finally {
+            svc.stop();
+        }
+    }
+
+    @Test
+    public void testThatComputeIfAbsentLoadsTheValueOnce() throws Exception {
+        final EhCacheService svc = createService(mock(ApplicationConfiguration.class));
+        final AtomicInteger loads = new AtomicInteger();
+        final Function<String, String> loader = new Function<String, String>() {
+            @Override
+            public String apply(String key) {
+                loads.incrementAndGet();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "loaded-" + key;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return svc.computeIfAbsent("key", loader, Duration.standardMinutes(1));
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded-key");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(svc.get("key")).isEqualTo("loaded-key");
+        } finally {
+            executor.shutdownNow();
+            svc.stop();
+        }
+    }
+
+    @Test
+    public void testAsyncOperations() throws Exception {
+        EhCacheService svc = createService(mock(ApplicationConfiguration.class));
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        svc.executor = mock(ManagedExecutorService.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                pool.execute((Runnable) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(svc.executor).execute(any(Runnable.class));
+        try {
+            svc.setAsync("key", "value", Duration.standardMinutes(1)).get(5, TimeUnit.SECONDS);
+            assertThat(svc.<String>getAsync("key").get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(svc.computeIfAbsentAsync("other", new Function<String, String>() {
+                @Override
+                public String apply(String key) {
+                    return Thread.currentThread().getName();
+                }
+            }, null).get(5, TimeUnit.SECONDS)).isNotEqualTo(Thread.currentThread().getName());
+            verify(svc.executor, times(3)).execute(any(Runnable.class));
+        } finally {
+            pool.shutdownNow();
+            svc.stop();
+        }
+    }
+
+    @Test
+    public void testRegionsAndStatistics() {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        Configuration users = mock(Configuration.class);
+        when(users.getIntegerWithDefault(eq("max-entries"), anyInt())).thenReturn(2);
+        when(users.getLongWithDefault(eq("ttl"), anyLong())).thenReturn(300L);
+        when(configuration.getConfiguration("ehcache.regions.users")).thenReturn(users);
+        EhCacheService svc = createService(configuration);
+        try {
+            Cache region = svc.region("users");
+            assertThat(svc.region("users")).isSameAs(region);
+            assertThat(svc.regions()).containsExactly("users");
+            assertThat(((EhCacheRegion) region).ehcache().getCacheConfiguration().getTimeToLiveSeconds())
+                    .isEqualTo(300L);
+
+            // Regions have their own keys.
+            svc.set("key", "root", 0);
+            region.set("key", "region", 0);
+            assertThat(svc.get("key")).isEqualTo("root");
+            assertThat(region.<String>get("key")).isEqualTo("region");
+            assertThat(region.<String>get("missing")).isNull();
+
+            // The region keeps at most 2 entries.
+            region.set("key2", "value", 0);
+            region.set("key3", "value", 0);
+
+            CacheStatistics statistics = region.statistics();
+            assertThat(statistics.getHits()).isEqualTo(1);
+            assertThat(statistics.getMisses()).isEqualTo(1);
+            assertThat(statistics.getSize()).isEqualTo(2);
+            assertThat(statistics.getEvictions()).isEqualTo(1);
+            assertThat(svc.statistics().getHits()).isEqualTo(1);
+        } finally {
+            svc.stop();
+        }
+    }
+
+    @Test
+    public void testThatAllTheMethodsInterpretTheExpirationTheSameWay() throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        Configuration users = mock(Configuration.class);
+        when(users.getIntegerWithDefault(eq("max-entries"), anyInt())).thenReturn(100);
+        when(users.getLongWithDefault(eq("ttl"), anyLong())).thenReturn(300L);
+        when(configuration.getConfiguration("ehcache.regions.users")).thenReturn(users);
+        EhCacheService svc = createService(configuration);
+        try {
+            EhCacheRegion region = (EhCacheRegion) svc.region("users");
+            Function<String, String> loader = new Function<String, String>() {
+                @Override
+                public String apply(String key) {
+                    return key;
+                }
+            };
+
+            // The marker uses the region expiration.
+            region.set("set", "value", Cache.DEFAULT_EXPIRATION);
+            region.setAll(ImmutableMap.of("setAll", "value"), Cache.DEFAULT_EXPIRATION);
+            region.setAsync("setAsync", "value", Cache.DEFAULT_EXPIRATION).get(5, TimeUnit.SECONDS);
+            region.computeIfAbsent("computeIfAbsent", loader, Cache.DEFAULT_EXPIRATION);
+            for (String key : Arrays.asList("set", "setAll", "setAsync", "computeIfAbsent")) {
+                assertThat(region.ehcache().get(key).isEternal()).isFalse();
+                assertThat(region.ehcache().get(key).getTimeToLive()).isEqualTo(300);
+            }
+
+            // A null expiration means eternity.
+            region.set("set", "value", (Duration) null);
+            region.setAll(ImmutableMap.of("setAll", "value"), null);
+            region.setAsync("setAsync", "value", null).get(5, TimeUnit.SECONDS);
+            region.computeIfAbsent("null", loader, null);
+            for (String key : Arrays.asList("set", "setAll", "setAsync", "null")) {
+                assertThat(region.ehcache().get(key).isEternal()).isTrue();
+            }
+
+            // So does a zero expiration.
+            region.set("set", "value", Duration.ZERO);
+            region.setAll(ImmutableMap.of("setAll", "value"), Duration.ZERO);
+            region.setAsync("setAsync", "value", Duration.ZERO).get(5, TimeUnit.SECONDS);
+            region.computeIfAbsent("other", loader, Duration.ZERO);
+            for (String key : Arrays.asList("set", "setAll", "setAsync", "other")) {
+                assertThat(region.ehcache().get(key).isEternal()).isTrue();
+            }
+        } finally {
+            svc.stop();
+        }
+    }
+
     /**
      * Test #297.
      */
@@ -187,6 +370,7 @@ public class EhCacheServiceTest {
         assertThat(svc.get("key")).isNull();
         assertThat(svc.remove("missing")).isFalse();
 
+        svc.stop();
     }
 
     @Test
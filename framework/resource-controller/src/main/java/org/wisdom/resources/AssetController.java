@@ -21,17 +21,19 @@ package org.wisdom.resources;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.felix.ipojo.annotations.*;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.util.tracker.BundleTracker;
+import org.osgi.util.tracker.BundleTrackerCustomizer;
+import org.ow2.chameleon.core.services.Watcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.asset.Asset;
 import org.wisdom.api.asset.AssetProvider;
-import org.wisdom.api.asset.DefaultAsset;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.http.HttpMethod;
@@ -40,11 +42,17 @@ import org.wisdom.api.router.Route;
 import org.wisdom.api.router.RouteBuilder;
 
 import java.io.File;
-import java.net.URL;
 import java.util.*;
 
 /**
  * A controller publishing the resources found in a folder and in bundles.
+ * <p>
+ * The assets are served from an in-memory index, built when the controller starts and kept up to date using the
+ * bundle events and the Chameleon watcher. The index contains the entries of the active bundles; the assets it
+ * does not contain are looked up using {@link Bundle#getResource(String)}, which also finds the resources from the
+ * bundle class path and from the bundles that are only resolved. The outcome of these lookups is remembered until a
+ * bundle changes, so missing assets do not search the bundles on every request. Pre-compressed variants ({@literal .br} and
+ * {@literal .gz} files stored next to an asset, from the same source) are served to the clients accepting them.
  */
 @Component(immediate = true)
 @Provides
@@ -65,20 +73,28 @@ public class AssetController extends DefaultController implements AssetProvider
 
     @Requires
     ApplicationConfiguration configuration;
-    @Requires
-    Crypto crypto;
+    @Requires(optional = true, nullable = false)
+    Watcher watcher;
+
+    private AssetIndex index;
+    private AssetDeployer deployer;
+    private BundleTracker<Bundle> tracker;
+    private BundleListener listener;
 
     /**
      * Constructor used for testing purpose only.
      *
      * @param configuration           the configuration service
-     * @param crypto                  the crypto service
+     * @param crypto                  the crypto service, not used anymore
      * @param bc                      the bundle context
      * @param path                    the external FS path
      * @param manageAssetsFromBundles whether or not it should handle embedded assets
      * @param pathInBundles           the path in the bundle if enabled
      * @param url                     the root url where assets are served.
+     * @deprecated the crypto service is not used anymore, use
+     * {@link #AssetController(ApplicationConfiguration, BundleContext, String, boolean, String, String)}
      */
+    @Deprecated
     public AssetController(
             ApplicationConfiguration configuration,
             Crypto crypto,
@@ -87,9 +103,28 @@ public class AssetController extends DefaultController implements AssetProvider
             boolean manageAssetsFromBundles,
             String pathInBundles,
             String url) {
+        this(configuration, bc, path, manageAssetsFromBundles, pathInBundles, url);
+    }
+
+    /**
+     * Constructor used for testing purpose only.
+     *
+     * @param configuration           the configuration service
+     * @param bc                      the bundle context
+     * @param path                    the external FS path
+     * @param manageAssetsFromBundles whether or not it should handle embedded assets
+     * @param pathInBundles           the path in the bundle if enabled
+     * @param url                     the root url where assets are served.
+     */
+    public AssetController(
+            ApplicationConfiguration configuration,
+            BundleContext bc,
+            String path,
+            boolean manageAssetsFromBundles,
+            String pathInBundles,
+            String url) {
 
         this.configuration = configuration;
-        this.crypto = crypto;
         this.context = bc;
 
         if (!Strings.isNullOrEmpty(path)) {
@@ -100,6 +135,7 @@ public class AssetController extends DefaultController implements AssetProvider
         this.manageAssetsFromBundles = manageAssetsFromBundles;
         this.pathInBundles = computePathInBundle(pathInBundles);
         this.root = computeRoot(url);
+        start();
     }
 
     /**
@@ -153,6 +189,77 @@ public class AssetController extends DefaultController implements AssetProvider
         }
     }
 
+    /**
+     * Indexes the assets and starts tracking the changes.
+     */
+    @Validate
+    public void start() {
+        index = new AssetIndex(root, directory, pathInBundles,
+                configuration.getBooleanWithDefault(CacheUtils.HTTP_USE_ETAG, CacheUtils.HTTP_USE_ETAG_DEFAULT));
+        index.indexDirectory();
+
+        if (directory != null && watcher != null) {
+            deployer = new AssetDeployer(context, index);
+            deployer.start();
+            watcher.add(directory, true);
+        }
+
+        if (manageAssetsFromBundles) {
+            tracker = new BundleTracker<>(context, Bundle.ACTIVE, new BundleTrackerCustomizer<Bundle>() {
+                @Override
+                public Bundle addingBundle(Bundle bundle, BundleEvent event) {
+                    // Skip bundle 0 as it cannot contain assets
+                    if (bundle.getBundleId() != 0 && index.addBundle(bundle)) {
+                        return bundle;
+                    }
+                    return null;
+                }
+
+                @Override
+                public void modifiedBundle(Bundle bundle, BundleEvent event, Bundle object) {
+                    index.removeBundle(bundle);
+                    index.addBundle(bundle);
+                }
+
+                @Override
+                public void removedBundle(Bundle bundle, BundleEvent event, Bundle object) {
+                    index.removeBundle(bundle);
+                }
+            });
+            tracker.open();
+            // Any bundle change (including the bundles not tracked) may change the assets found by the lookups.
+            listener = event -> index.invalidateFallbacks();
+            context.addBundleListener(listener);
+        }
+        LOGGER.debug("{} assets indexed for {}", index.size(), root);
+    }
+
+    /**
+     * Stops tracking the changes and clears the index.
+     */
+    @Invalidate
+    public void stop() {
+        if (listener != null) {
+            context.removeBundleListener(listener);
+            listener = null;
+        }
+        if (tracker != null) {
+            tracker.close();
+            tracker = null;
+        }
+        if (deployer != null) {
+            deployer.stop();
+            deployer = null;
+            try {
+                watcher.removeAndStopIfNeeded(directory);
+            } catch (RuntimeException e) { //NOSONAR
+                // An exception can be thrown when the platform is shutting down.
+                // ignore it.
+            }
+        }
+        index.clear();
+    }
+
     /**
      * @return the 'serve' routes.
      */
@@ -173,41 +280,28 @@ public class AssetController extends DefaultController implements AssetProvider
             path = path.substring(1);
         }
 
-        Asset<?> asset = getAssetFromFS(path);
-        if (asset == null && manageAssetsFromBundles) {
-            asset = getAssetFromBundle(path);
-        }
-
+        IndexedAsset<?> asset = index.get(path);
         if (asset != null) {
-            return CacheUtils.fromAsset(context(), asset, configuration);
+            return CacheUtils.fromAsset(context(), asset, index.variants(path), configuration);
         }
-        return notFound();
-    }
-
-    private Asset<URL> getAssetFromBundle(String path) {
-        Bundle[] bundles = context.getBundles();
-        // Skip bundle 0 as it cannot contain assets
-        for (int i = 1; i < bundles.length; i++) {
-            URL url = bundles[i].getResource(pathInBundles + path);
-            if (url != null) {
-                return new DefaultAsset<>(root + "/" + path, url, bundles[i].getSymbolicName(),
-                        bundles[i].getLastModified(),
-                        CacheUtils.computeEtag(bundles[i].getLastModified(), configuration, crypto));
+        if (manageAssetsFromBundles) {
+            AssetIndex.Fallback fallback = getAssetFromBundles(path);
+            if (fallback != null) {
+                return CacheUtils.fromAsset(context(), fallback.asset(), fallback.variants(), configuration);
             }
         }
-        return null; // Asset not found, just returning null.
+        return notFound();
     }
 
-    private Asset<File> getAssetFromFS(String path) {
-        if (directory == null) {
-            return null;
-        }
-        File file = new File(directory, path);
-        if (!file.exists()) {
-            return null;
-        }
-        return new DefaultAsset<>(root + "/" + path, file, file.getAbsolutePath(), file.lastModified(),
-                CacheUtils.computeEtag(file.lastModified(), configuration, crypto));
+    /**
+     * Looks up an asset that is not indexed in the bundles, as the index only contains the entries of the active
+     * bundles.
+     *
+     * @param path the path of the asset
+     * @return the asset and its variants, {@code null} if not found
+     */
+    private AssetIndex.Fallback getAssetFromBundles(String path) {
+        return index.fallback(path, context::getBundles);
     }
 
     /**
@@ -215,62 +309,15 @@ public class AssetController extends DefaultController implements AssetProvider
      */
     @Override
     public Collection<Asset<?>> assets() {
-        Map<String, Asset<?>> map = new HashMap<>();
-        if (directory != null && directory.isDirectory()) {
-            // First insert the FS assets
-            // For this iterate over the file present on the file system.
-            Collection<File> files = FileUtils.listFiles(directory, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE);
-            for (File file : files) {
-                if (file.getName().startsWith(".")) {
-                    // Skip file starting with . - there are hidden.
-                    continue;
-                }
-                if (file.getName().startsWith(".")) {
-                    // Skip file starting with . - there are hidden.
-                    continue;
-                }
-
-                // The path is computed as follows:
-                // root (ending with /) and the path of the file relative to the directory. As these path may contain
-                // \ on Windows we replace them by /.
-                String path = root
-                        + file.getAbsolutePath().substring(directory.getAbsolutePath().length()).replace("\\", "/");
-                // TODO Do we really need computing the ETAG here ?
-                map.put(path, new DefaultAsset<>(path, file, file.getAbsolutePath(), file.lastModified(), null));
-            }
-        }
-
-        if (!manageAssetsFromBundles) {
-            return map.values();
-        }
-
-        // No add the bundle things.
-        Bundle[] bundles = context.getBundles();
-        // Skip bundle 0
-        for (int i = 1; i < bundles.length; i++) {
-            // Remove the last "/" - we are sure to have one.
-            URL root = bundles[i].getEntry(pathInBundles.substring(0, pathInBundles.length() - 1));
-            Enumeration<URL> urls = bundles[i].findEntries(pathInBundles, "*", true);
-
-            if (urls != null) {
-                while (urls.hasMoreElements()) {
-                    URL url = urls.nextElement();
-                    String path = url.toExternalForm().substring(root.toExternalForm().length());
-                    if (path.startsWith("/")) {
-                        path = this.root + path;
-                    } else {
-                        path = this.root + "/" + path;
-                    }
-                    if (!map.containsKey(path)) {
-                        // We should not replace assets overridden by files.
-                        map.put(path, new DefaultAsset<>(path, url, url.toExternalForm(),
-                                bundles[i].getLastModified(), null));
-                    }
-                }
+        List<Asset<?>> assets = new ArrayList<>();
+        for (IndexedAsset<?> asset : index.assets()) {
+            if (asset.getContent() instanceof File && ((File) asset.getContent()).getName().startsWith(".")) {
+                // Skip file starting with . - there are hidden.
+                continue;
             }
+            assets.add(asset);
         }
-
-        return map.values();
+        return assets;
     }
 
     /**
@@ -281,9 +328,12 @@ public class AssetController extends DefaultController implements AssetProvider
      */
     @Override
     public Asset<?> assetAt(String path) {
-        Asset<?> asset = getAssetFromFS(path);
-        if (asset == null) {
-            asset = getAssetFromBundle(path);
+        IndexedAsset<?> asset = index.get(path);
+        if (asset == null && manageAssetsFromBundles) {
+            AssetIndex.Fallback fallback = getAssetFromBundles(path);
+            if (fallback != null) {
+                return fallback.asset();
+            }
         }
         return asset;
     }
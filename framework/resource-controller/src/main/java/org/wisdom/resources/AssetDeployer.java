@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.ow2.chameleon.core.services.AbstractDeployer;
+import org.ow2.chameleon.core.services.Deployer;
+
+import java.io.File;
+
+/**
+ * Keeps the {@link AssetIndex} of an {@link AssetController} up to date when the files from the asset directory
+ * are created, modified or deleted. The directory is monitored by the Chameleon watcher.
+ */
+class AssetDeployer extends AbstractDeployer {
+
+    private final BundleContext context;
+    private final AssetIndex index;
+
+    private ServiceRegistration<Deployer> reg;
+
+    /**
+     * Creates the deployer.
+     *
+     * @param context the bundle context
+     * @param index   the index to update
+     */
+    AssetDeployer(BundleContext context, AssetIndex index) {
+        this.context = context;
+        this.index = index;
+    }
+
+    /**
+     * @param file the file
+     * @return {@literal true} if the file is contained in the asset directory.
+     */
+    @Override
+    public boolean accept(File file) {
+        return index.isInDirectory(file);
+    }
+
+    /**
+     * Indexes the new file.
+     *
+     * @param file the file
+     */
+    @Override
+    public void onFileCreate(File file) {
+        index.addFile(file);
+    }
+
+    /**
+     * Updates the length, date and etag of the file.
+     *
+     * @param file the file
+     */
+    @Override
+    public void onFileChange(File file) {
+        index.addFile(file);
+    }
+
+    /**
+     * Removes the file from the index.
+     *
+     * @param file the file
+     */
+    @Override
+    public void onFileDelete(File file) {
+        index.removeFile(file);
+    }
+
+    /**
+     * Registers the deployer service.
+     */
+    public synchronized void start() {
+        reg = context.registerService(Deployer.class, this, null);
+    }
+
+    /**
+     * Un-registers the deployer service.
+     */
+    public synchronized void stop() {
+        if (reg != null) {
+            reg.unregister();
+            reg = null;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.osgi.framework.Bundle;
+
+import java.io.File;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The index of the assets served by an {@link AssetController}. The assets from the directory are indexed when the
+ * controller starts and kept up to date by the {@link AssetDeployer}. The assets from a bundle are indexed when the
+ * bundle becomes active. Looking up an indexed asset only reads the index.
+ * <p>
+ * Assets from the directory override the assets from bundles. When several bundles provide the same asset, the one
+ * with the lowest bundle id is served. The index only contains the entries of the bundles, the controller looks up
+ * the other resources (bundle class path, imported packages, bundles that are not active) using
+ * {@link #fallback(String, Supplier)} when an asset is not indexed. The outcome of these lookups, found or not, is
+ * remembered until a bundle changes.
+ */
+class AssetIndex {
+
+    /**
+     * The extensions of the pre-compressed variants of an asset, indexed by content encoding, in order of
+     * preference.
+     */
+    private static final Map<String, String> ENCODINGS;
+
+    /**
+     * The maximum number of fallback lookups remembered.
+     */
+    static final int MAX_FALLBACKS = 1000;
+
+    static {
+        Map<String, String> encodings = new LinkedHashMap<>();
+        encodings.put("br", ".br");
+        encodings.put("gzip", ".gz");
+        ENCODINGS = Collections.unmodifiableMap(encodings);
+    }
+
+    private final String root;
+    private final File directory;
+    private final String pathInBundles;
+    private final boolean etags;
+
+    private final ConcurrentMap<String, IndexedAsset<File>> files = new ConcurrentHashMap<>();
+
+    /**
+     * The assets served from bundles, merged from {@link #bundles}.
+     */
+    private final ConcurrentMap<String, IndexedAsset<URL>> fromBundles = new ConcurrentHashMap<>();
+
+    /**
+     * The assets of the bundle providing each asset of {@link #fromBundles}, so the variants of an asset are taken
+     * from the same bundle.
+     */
+    private final ConcurrentMap<String, Map<String, IndexedAsset<URL>>> providers = new ConcurrentHashMap<>();
+
+    /**
+     * The assets of each bundle, sorted by bundle id. Guarded by {@code this}.
+     */
+    private final SortedMap<Long, Map<String, IndexedAsset<URL>>> bundles = new TreeMap<>();
+
+    /**
+     * The outcome of the lookups of the assets that are not indexed, empty when no bundle provides the asset. The
+     * assets are kept, so their etag is computed once.
+     */
+    private final Cache<String, Optional<Fallback>> fallbacks = CacheBuilder.newBuilder()
+            .maximumSize(MAX_FALLBACKS)
+            .build();
+
+    /**
+     * Creates the index.
+     *
+     * @param root          the url on which the assets are served
+     * @param directory     the directory containing the assets, {@code null} if none
+     * @param pathInBundles the path of the assets in bundles, starting and ending with {@literal /}
+     * @param etags         whether or not the assets have an etag
+     */
+    AssetIndex(String root, File directory, String pathInBundles, boolean etags) {
+        this.root = root;
+        this.directory = directory;
+        this.pathInBundles = pathInBundles;
+        this.etags = etags;
+    }
+
+    /**
+     * Indexes all the files from the directory.
+     */
+    void indexDirectory() {
+        if (directory == null || !directory.isDirectory()) {
+            return;
+        }
+        for (File file : FileUtils.listFiles(directory, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE)) {
+            addFile(file);
+        }
+    }
+
+    /**
+     * Checks whether the given file is in the indexed directory.
+     *
+     * @param file the file
+     * @return {@code true} if the file is contained in the directory
+     */
+    boolean isInDirectory(File file) {
+        return directory != null
+                && file.getAbsolutePath().startsWith(directory.getAbsolutePath() + File.separator);
+    }
+
+    /**
+     * Adds, or updates, a file from the directory.
+     *
+     * @param file the file
+     */
+    void addFile(File file) {
+        if (!isInDirectory(file) || !file.isFile()) {
+            return;
+        }
+        // The path is relative to the directory. As these path may contain \ on Windows we replace them by /.
+        String path = file.getAbsolutePath().substring(directory.getAbsolutePath().length() + 1).replace("\\", "/");
+        files.put(path, new IndexedAsset<>(root + "/" + path, file, file.getAbsolutePath(), file.lastModified(),
+                file.length(), etags));
+    }
+
+    /**
+     * Removes a file from the directory.
+     *
+     * @param file the file
+     */
+    void removeFile(File file) {
+        if (!isInDirectory(file)) {
+            return;
+        }
+        String path = file.getAbsolutePath().substring(directory.getAbsolutePath().length() + 1).replace("\\", "/");
+        files.remove(path);
+    }
+
+    /**
+     * Indexes the assets contained in the given bundle.
+     *
+     * @param bundle the bundle
+     * @return {@code true} if the bundle contains assets
+     */
+    synchronized boolean addBundle(Bundle bundle) {
+        Enumeration<URL> urls = bundle.findEntries(pathInBundles, "*", true);
+        if (urls == null) {
+            return false;
+        }
+        Map<String, IndexedAsset<URL>> assets = new HashMap<>();
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            String path = url.getPath();
+            if (path.endsWith("/") || !path.startsWith(pathInBundles)) {
+                continue;
+            }
+            path = path.substring(pathInBundles.length());
+            assets.put(path, new IndexedAsset<>(root + "/" + path, url, bundle.getSymbolicName(),
+                    bundle.getLastModified(), -1, etags));
+        }
+        if (assets.isEmpty()) {
+            return false;
+        }
+        bundles.put(bundle.getBundleId(), assets);
+        merge(assets.keySet());
+        return true;
+    }
+
+    /**
+     * Removes the assets contained in the given bundle.
+     *
+     * @param bundle the bundle
+     */
+    synchronized void removeBundle(Bundle bundle) {
+        Map<String, IndexedAsset<URL>> assets = bundles.remove(bundle.getBundleId());
+        if (assets != null) {
+            merge(assets.keySet());
+        }
+    }
+
+    private void merge(Set<String> paths) {
+        for (String path : paths) {
+            IndexedAsset<URL> selected = null;
+            Map<String, IndexedAsset<URL>> provider = null;
+            for (Map<String, IndexedAsset<URL>> assets : bundles.values()) {
+                selected = assets.get(path);
+                if (selected != null) {
+                    provider = assets;
+                    break;
+                }
+            }
+            if (selected == null) {
+                fromBundles.remove(path);
+                providers.remove(path);
+            } else {
+                providers.put(path, provider);
+                fromBundles.put(path, selected);
+            }
+        }
+    }
+
+    /**
+     * Retrieves an asset.
+     *
+     * @param path the path of the asset, relative to the root url
+     * @return the asset, {@code null} if not found
+     */
+    IndexedAsset<?> get(String path) {
+        IndexedAsset<?> asset = files.get(path);
+        if (asset == null) {
+            asset = fromBundles.get(path);
+        }
+        return asset;
+    }
+
+    /**
+     * Retrieves the pre-compressed variants of an asset, i.e. the {@literal .br} and {@literal .gz} files stored
+     * next to it. The variants are only taken from the source of the asset returned by {@link #get(String)}: the
+     * directory, or the bundle providing it.
+     *
+     * @param path the path of the asset, relative to the root url
+     * @return the variants indexed by content encoding, in order of preference, empty if none
+     */
+    Map<String, IndexedAsset<?>> variants(String path) {
+        if (files.containsKey(path)) {
+            return variants(path, files::get);
+        }
+        Map<String, IndexedAsset<URL>> provider = providers.get(path);
+        if (provider == null) {
+            return Collections.emptyMap();
+        }
+        return variants(path, provider::get);
+    }
+
+    /**
+     * Looks up an asset that is not indexed using {@link Bundle#getResource(String)}, which also finds the
+     * resources of the bundle class path and of the imported packages, and works for bundles that are not active.
+     *
+     * @param bundle the bundle
+     * @param path   the path of the asset, relative to the root url
+     * @return the asset, {@code null} if the bundle does not provide it
+     */
+    IndexedAsset<URL> resource(Bundle bundle, String path) {
+        URL url = bundle.getResource(pathInBundles + path);
+        if (url == null) {
+            return null;
+        }
+        return new IndexedAsset<>(root + "/" + path, url, bundle.getSymbolicName(), bundle.getLastModified(), -1,
+                etags);
+    }
+
+    /**
+     * Retrieves the pre-compressed variants of an asset found with {@link #resource(Bundle, String)}, from the same
+     * bundle.
+     *
+     * @param bundle the bundle providing the asset
+     * @param path   the path of the asset, relative to the root url
+     * @return the variants indexed by content encoding, in order of preference, empty if none
+     */
+    Map<String, IndexedAsset<?>> resourceVariants(Bundle bundle, String path) {
+        return variants(path, p -> resource(bundle, p));
+    }
+
+    /**
+     * Looks up an asset that is not indexed in the given bundles (except the system bundle), with its variants. The
+     * outcome is remembered, so the bundles are only searched again for the same path after
+     * {@link #invalidateFallbacks()}.
+     *
+     * @param path    the path of the asset, relative to the root url
+     * @param bundles the supplier of the bundles to search, in order, only called if the path is not remembered
+     * @return the asset and its variants, {@code null} if no bundle provides it
+     */
+    Fallback fallback(String path, Supplier<Bundle[]> bundles) {
+        Optional<Fallback> fallback = fallbacks.getIfPresent(path);
+        if (fallback == null) {
+            fallback = Optional.empty();
+            for (Bundle bundle : bundles.get()) {
+                // Skip bundle 0 as it cannot contain assets
+                if (bundle.getBundleId() == 0) {
+                    continue;
+                }
+                IndexedAsset<URL> asset = resource(bundle, path);
+                if (asset != null) {
+                    fallback = Optional.of(new Fallback(asset, resourceVariants(bundle, path)));
+                    break;
+                }
+            }
+            fallbacks.put(path, fallback);
+        }
+        return fallback.orElse(null);
+    }
+
+    /**
+     * Forgets the outcome of the fallback lookups, as a bundle has changed.
+     */
+    void invalidateFallbacks() {
+        fallbacks.invalidateAll();
+    }
+
+    private static Map<String, IndexedAsset<?>> variants(String path,
+                                                         Function<String, ? extends IndexedAsset<?>> source) {
+        Map<String, IndexedAsset<?>> variants = null;
+        for (Map.Entry<String, String> encoding : ENCODINGS.entrySet()) {
+            IndexedAsset<?> variant = source.apply(path + encoding.getValue());
+            if (variant != null) {
+                if (variants == null) {
+                    variants = new LinkedHashMap<>();
+                }
+                variants.put(encoding.getKey(), variant);
+            }
+        }
+        if (variants == null) {
+            return Collections.emptyMap();
+        }
+        return variants;
+    }
+
+    /**
+     * @return all the indexed assets, the assets from the directory overriding the assets from bundles.
+     */
+    Collection<IndexedAsset<?>> assets() {
+        Map<String, IndexedAsset<?>> assets = new LinkedHashMap<>();
+        assets.putAll(fromBundles);
+        assets.putAll(files);
+        return assets.values();
+    }
+
+    /**
+     * @return the number of indexed assets.
+     */
+    int size() {
+        return assets().size();
+    }
+
+    /**
+     * Clears the index.
+     */
+    synchronized void clear() {
+        invalidateFallbacks();
+        files.clear();
+        fromBundles.clear();
+        providers.clear();
+        bundles.clear();
+    }
+
+    /**
+     * An asset that is not indexed, found in a bundle, with its variants from the same bundle.
+     */
+    static final class Fallback {
+        private final IndexedAsset<URL> asset;
+        private final Map<String, IndexedAsset<?>> variants;
+
+        private Fallback(IndexedAsset<URL> asset, Map<String, IndexedAsset<?>> variants) {
+            this.asset = asset;
+            this.variants = variants;
+        }
+
+        /**
+         * @return the asset.
+         */
+        IndexedAsset<URL> asset() {
+            return asset;
+        }
+
+        /**
+         * @return the variants indexed by content encoding, in order of preference, empty if none.
+         */
+        Map<String, IndexedAsset<?>> variants() {
+            return variants;
+        }
+    }
+}
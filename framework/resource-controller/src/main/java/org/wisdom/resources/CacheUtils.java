@@ -22,6 +22,7 @@ package org.wisdom.resources;
 import org.osgi.framework.Bundle;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.asset.Asset;
+import org.wisdom.api.bodies.RenderableFile;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.http.*;
@@ -29,6 +30,7 @@ import org.wisdom.api.utils.DateUtil;
 
 import java.io.File;
 import java.net.URL;
+import java.util.*;
 
 /**
  * Some cache control utilities.
@@ -181,21 +183,235 @@ public class CacheUtils {
     }
 
     public static Result fromAsset(Context context, Asset asset, ApplicationConfiguration configuration) {
-        if (CacheUtils.isNotModified(context, asset.getLastModified(), asset.getEtag())) {
-            return new Result(Status.NOT_MODIFIED);
+        return fromAsset(context, asset, Collections.<String, Asset<?>>emptyMap(), configuration);
+    }
+
+    /**
+     * Computes the result serving the given asset. If the client accepts one of the given pre-compressed variants,
+     * the variant is served instead, with the {@literal Content-Encoding} header. If the asset is a file and the
+     * request contains a {@literal Range} header, only the requested range is served.
+     *
+     * @param context       the context
+     * @param asset         the asset
+     * @param variants      the pre-compressed variants of the asset, indexed by content encoding, in order of
+     *                      preference
+     * @param configuration the application configuration
+     * @return the result, it can be a NOT_MODIFIED if the asset was not modified since the last request
+     */
+    public static Result fromAsset(Context context, Asset<?> asset, Map<String, ? extends Asset<?>> variants,
+                                   ApplicationConfiguration configuration) {
+        Asset<?> served = asset;
+        String encoding = null;
+        if (!variants.isEmpty()) {
+            encoding = selectEncoding(context.header(HeaderNames.ACCEPT_ENCODING), variants.keySet());
+            if (encoding != null) {
+                served = variants.get(encoding);
+            }
+        }
+
+        if (CacheUtils.isNotModified(context, served.getLastModified(), served.getEtag())) {
+            Result result = new Result(Status.NOT_MODIFIED);
+            if (!variants.isEmpty()) {
+                result.with(HeaderNames.VARY, HeaderNames.ACCEPT_ENCODING);
+            }
+            return result;
+        }
+
+        Result result;
+        if (served.getContent() instanceof File) {
+            result = fromFileAsset(context, served);
+        } else if (served.getContent() instanceof URL) {
+            result = Results.ok((URL) served.getContent());
         } else {
-            Result result;
-            if (asset.getContent() instanceof File) {
-                result = Results.ok((File) asset.getContent());
-            } else if (asset.getContent() instanceof URL) {
-                result = Results.ok((URL) asset.getContent());
+            // Use object, probably won't work.
+            result = Results.ok(served.getContent());
+        }
+
+        if (encoding != null) {
+            // The content type is the one of the original asset.
+            String mimetype = asset.getContent() instanceof File ?
+                    MimeTypes.getMimeTypeForFile((File) asset.getContent())
+                    : MimeTypes.getMimeTypeForFile((URL) asset.getContent());
+            if (mimetype != null) {
+                result.as(mimetype);
+            }
+            result.with(HeaderNames.CONTENT_ENCODING, encoding);
+            result.withoutCompression();
+        }
+        if (!variants.isEmpty()) {
+            result.with(HeaderNames.VARY, HeaderNames.ACCEPT_ENCODING);
+        }
+        addLastModified(result, served.getLastModified());
+        addCacheControlAndEtagToResult(result, served.getEtag(), configuration);
+        return result;
+    }
+
+    private static Result fromFileAsset(Context context, Asset<?> asset) {
+        File file = (File) asset.getContent();
+        String range = context.header(HeaderNames.RANGE);
+        if (range == null || !matchesIfRange(context, asset)) {
+            return Results.ok(file).with(HeaderNames.ACCEPT_RANGES, "bytes");
+        }
+
+        long length = asset instanceof IndexedAsset ? ((IndexedAsset) asset).length() : file.length();
+        long[] bounds = parseRange(range, length);
+        if (bounds == null) {
+            // Not a range we support, send the whole file.
+            return Results.ok(file).with(HeaderNames.ACCEPT_RANGES, "bytes");
+        }
+        if (bounds.length == 0) {
+            return new Result(Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .with(HeaderNames.CONTENT_RANGE, "bytes */" + length);
+        }
+        // A part of the content must not be compressed.
+        return new Result(Status.PARTIAL_CONTENT)
+                .render(new RenderableFile(file, bounds[0], bounds[1] - bounds[0] + 1))
+                .with(HeaderNames.ACCEPT_RANGES, "bytes")
+                .with(HeaderNames.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + length)
+                .withoutCompression();
+    }
+
+    /**
+     * Checks the {@literal If-Range} header: the range is only served if the asset has not changed since the
+     * client retrieved the first part.
+     */
+    private static boolean matchesIfRange(Context context, Asset<?> asset) {
+        String ifRange = context.header(HeaderNames.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(asset.getEtag());
+        }
+        return ifRange.equals(DateUtil.formatForHttpHeader(asset.getLastModified()));
+    }
+
+    /**
+     * Parses the value of a {@literal Range} header. Only single byte ranges are supported.
+     *
+     * @param range  the header value
+     * @param length the length of the content
+     * @return the first and last (inclusive) positions of the range, an empty array if the range cannot be
+     * satisfied, {@code null} if the header is invalid or contains several ranges (the whole content is served).
+     */
+    public static long[] parseRange(String range, long length) {
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') != -1) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range, the last n bytes.
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || length == 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
             } else {
-                // Use object, probably won't work.
-                result = Results.ok(asset.getContent());
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start < 0) {
+                    return null;
+                }
+                if (start >= length) {
+                    return new long[0];
+                }
+                if (end < start) {
+                    return null;
+                }
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) { //NOSONAR
+            return null;
+        }
+    }
+
+    /**
+     * Parses the value of an {@literal Accept-Encoding} header.
+     *
+     * @param header the header value, may be {@code null}
+     * @return the set of accepted encodings (in lower case), excluding the encodings having a {@literal q=0}
+     * quality. It contains {@literal *} if the header accepts any encoding not listed explicitly.
+     */
+    public static Set<String> acceptedEncodings(String header) {
+        Set<String> encodings = new HashSet<>();
+        for (Map.Entry<String, Boolean> entry : parseAcceptEncoding(header).entrySet()) {
+            if (entry.getValue()) {
+                encodings.add(entry.getKey());
+            }
+        }
+        return encodings;
+    }
+
+    /**
+     * Selects the content encoding to use according to an {@literal Accept-Encoding} header. An encoding is
+     * accepted when it is listed with a non-zero quality, or when the header contains {@literal *} (with a non-zero
+     * quality) and does not list it.
+     *
+     * @param header    the header value, may be {@code null}
+     * @param available the available encodings, in order of preference
+     * @return the first available encoding accepted by the header, {@code null} if none
+     */
+    public static String selectEncoding(String header, Collection<String> available) {
+        Map<String, Boolean> encodings = parseAcceptEncoding(header);
+        if (encodings.isEmpty()) {
+            return null;
+        }
+        Boolean any = encodings.get("*");
+        for (String encoding : available) {
+            Boolean accepted = encodings.get(encoding);
+            if (accepted == null) {
+                accepted = any;
+            }
+            if (accepted != null && accepted) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the value of an {@literal Accept-Encoding} header.
+     *
+     * @param header the header value, may be {@code null}
+     * @return whether each listed encoding (in lower case) is accepted, {@code false} for the encodings having a
+     * {@literal q=0} quality
+     */
+    private static Map<String, Boolean> parseAcceptEncoding(String header) {
+        if (header == null || header.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Boolean> encodings = new HashMap<>();
+        for (String token : header.split(",")) {
+            String[] parts = token.split(";");
+            String encoding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) { //NOSONAR
+                        accepted = false;
+                    }
+                }
+            }
+            if (!encoding.isEmpty()) {
+                encodings.put(encoding, accepted);
             }
-            addLastModified(result, asset.getLastModified());
-            addCacheControlAndEtagToResult(result, asset.getEtag(), configuration);
-            return result;
         }
+        return encodings;
     }
 }
@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.asset.Asset;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * An asset stored in the {@link AssetIndex}. The length and the hash of the content are computed once, the first
+ * time they are needed, so serving the asset does not access the file system or the bundle anymore (except to send
+ * the content).
+ *
+ * @param <T> the type of content, {@link File} or {@link URL}
+ */
+class IndexedAsset<T> implements Asset<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexedAsset.class);
+
+    private final String path;
+    private final T content;
+    private final String source;
+    private final long lastModified;
+    private final boolean etag;
+
+    private volatile long length;
+    private volatile String hash;
+
+    /**
+     * Creates an indexed asset.
+     *
+     * @param path         the url of the asset
+     * @param content      the file or the url of the content
+     * @param source       the source of the asset
+     * @param lastModified the last modification date
+     * @param length       the length of the content, -1 if not known yet
+     * @param etag         whether or not the asset has an etag
+     */
+    IndexedAsset(String path, T content, String source, long lastModified, long length, boolean etag) {
+        this.path = path;
+        this.content = content;
+        this.source = source;
+        this.lastModified = lastModified;
+        this.length = length;
+        this.etag = etag;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public T getContent() {
+        return content;
+    }
+
+    @Override
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the strong etag computed from the content hash, {@code null} if etags are disabled.
+     */
+    @Override
+    public String getEtag() {
+        if (!etag) {
+            return null;
+        }
+        return "\"" + hash() + "\"";
+    }
+
+    /**
+     * @return the length of the content.
+     */
+    public long length() {
+        if (length < 0) {
+            compute();
+        }
+        return length;
+    }
+
+    /**
+     * @return the SHA-1 hash of the content.
+     */
+    public String hash() {
+        if (hash == null) {
+            compute();
+        }
+        return hash;
+    }
+
+    private synchronized void compute() {
+        if (hash != null) {
+            return;
+        }
+        Hasher hasher = Hashing.sha1().newHasher();
+        long count = 0;
+        InputStream stream = null;
+        try {
+            if (content instanceof File) {
+                stream = new FileInputStream((File) content);
+            } else {
+                stream = ((URL) content).openStream();
+            }
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                hasher.putBytes(buffer, 0, read);
+                count += read;
+            }
+            length = count;
+            hash = hasher.hash().toString();
+        } catch (IOException e) {
+            // The asset is being modified or removed, the index is updated soon.
+            LOGGER.warn("Cannot read the content of {}, using its last modification date as etag", source, e);
+            if (length < 0) {
+                length = count;
+            }
+            hash = Long.toHexString(lastModified);
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + source + ")";
+    }
+}
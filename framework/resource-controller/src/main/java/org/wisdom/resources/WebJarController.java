@@ -42,6 +42,8 @@ import java.io.File;
 import java.io.FileFilter;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -108,6 +110,16 @@ public class WebJarController extends DefaultController implements BundleTracker
         }
     });
 
+    /**
+     * An immutable copy of {@link #libraries}, read without lock when serving resources.
+     */
+    private volatile List<WebJarLib> snapshot = Collections.emptyList();
+
+    /**
+     * The assets already resolved from a requested path. Replaced when the set of libraries changes.
+     */
+    private volatile ConcurrentMap<String, Asset<?>> resolved = new ConcurrentHashMap<>();
+
     @Requires
     Crypto crypto;
 
@@ -170,7 +182,10 @@ public class WebJarController extends DefaultController implements BundleTracker
         if (tracker != null) {
             tracker.close();
         }
-        libraries.clear();
+        synchronized (this) {
+            libraries.clear();
+            refresh();
+        }
     }
 
     private void buildFileIndex() {
@@ -208,6 +223,7 @@ public class WebJarController extends DefaultController implements BundleTracker
                     libraries.add(lib);
                 }
             }
+            refresh();
         }
 
     }
@@ -220,8 +236,17 @@ public class WebJarController extends DefaultController implements BundleTracker
         return count;
     }
 
-    synchronized List<WebJarLib> libs() {
-        return new ArrayList<>(libraries);
+    List<WebJarLib> libs() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes the current set of libraries to the readers and forgets the resolved assets. Must be called while
+     * holding the lock.
+     */
+    private void refresh() {
+        snapshot = ImmutableList.copyOf(libraries);
+        resolved = new ConcurrentHashMap<>();
     }
 
     private List<WebJarLib> findLibsContaining(String path) {
@@ -327,6 +352,7 @@ public class WebJarController extends DefaultController implements BundleTracker
     public void addWebJarLibs(Collection<? extends WebJarLib> list) {
         synchronized (this) {
             libraries.addAll(list);
+            refresh();
         }
     }
 
@@ -361,6 +387,7 @@ public class WebJarController extends DefaultController implements BundleTracker
     public void removeWebJarLibs(Collection<? extends WebJarLib> webJarLibs) {
         synchronized (this) {
             libraries.removeAll(webJarLibs);
+            refresh();
         }
     }
 
@@ -370,7 +397,7 @@ public class WebJarController extends DefaultController implements BundleTracker
     @Override
     public Collection<Asset<?>> assets() {
         List<Asset<?>> assets = new ArrayList<>();
-        for (WebJarLib lib : libraries) {
+        for (WebJarLib lib : libs()) {
             for (String path : lib.names()) {
                 if (path.endsWith("/") || path.startsWith(".")) {
                     continue;
@@ -387,13 +414,27 @@ public class WebJarController extends DefaultController implements BundleTracker
     }
 
     /**
-     * Retrieves an asset.
+     * Retrieves an asset. The resolved assets are kept until the set of libraries changes, so the libraries are
+     * only searched the first time a path is requested.
      *
      * @param path the asset path
      * @return the Asset object, or {@literal null} if the current provider can't serve this asset.
      */
     @Override
     public Asset<?> assetAt(String path) {
+        // Capture the map first, an asset resolved from libraries being replaced is stored in a discarded map.
+        ConcurrentMap<String, Asset<?>> cache = resolved;
+        Asset<?> asset = cache.get(path);
+        if (asset == null) {
+            asset = resolve(path);
+            if (asset != null) {
+                cache.put(path, asset);
+            }
+        }
+        return asset;
+    }
+
+    private Asset<?> resolve(String path) {
         List<WebJarLib> candidates = findLibsContaining(path);
 
         if (candidates.size() == 1) {
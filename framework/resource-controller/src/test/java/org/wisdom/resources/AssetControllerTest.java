@@ -26,6 +26,8 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
 
 import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -67,6 +69,29 @@ public class AssetControllerTest {
 
     }
 
+    @Test
+    public void testThatResourcesOfNotIndexedBundlesAreServed() throws MalformedURLException {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getBaseDir()).thenReturn(new File("target/test-classes"));
+        BundleContext context = mock(BundleContext.class);
+        // A resolved bundle, not indexed, providing the asset from its class path.
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getBundleId()).thenReturn(1L);
+        when(bundle.getState()).thenReturn(Bundle.RESOLVED);
+        URL url = new URL("http", "localhost", 80, "/assets/lib.js");
+        when(bundle.getResource("/assets/lib.js")).thenReturn(url);
+        Bundle system = mock(Bundle.class);
+        // The tracker modifies the array, the framework returns a new one on each call.
+        when(context.getBundles()).thenAnswer(invocation -> new Bundle[]{system, bundle});
+        AssetController controller = new AssetController(configuration, context, null, true, "/assets/",
+                "/assets");
+
+        assertThat(controller.assets()).isEmpty();
+        assertThat(controller.assetAt("lib.js").getContent()).isEqualTo(url);
+        assertThat(controller.assetAt("does_not_exist.js")).isNull();
+        controller.stop();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testWithEmptyUrlRoot() {
         ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
@@ -0,0 +1,294 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.resources;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.bodies.RenderableFile;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.http.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the asset index and the results built from the indexed assets.
+ */
+public class AssetIndexTest {
+
+    private File directory = new File("target/index-test");
+    private ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+
+    @Before
+    public void setUp() throws IOException {
+        FileUtils.deleteQuietly(directory);
+        FileUtils.write(new File(directory, "js/app.js"), "var app = 'hello';");
+        FileUtils.write(new File(directory, "js/app.js.gz"), "compressed");
+        FileUtils.write(new File(directory, "js/app.js.br"), "smaller");
+        when(configuration.getWithDefault(CacheUtils.HTTP_CACHE_CONTROL_MAX_AGE,
+                CacheUtils.HTTP_CACHE_CONTROL_DEFAULT)).thenReturn("3600");
+        when(configuration.getBooleanWithDefault(CacheUtils.HTTP_USE_ETAG,
+                CacheUtils.HTTP_USE_ETAG_DEFAULT)).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Test
+    public void testThatFilesAreIndexedAndUpdated() throws IOException {
+        AssetIndex index = new AssetIndex("/assets", directory, "/assets/", true);
+        index.indexDirectory();
+        assertThat(index.size()).isEqualTo(3);
+
+        IndexedAsset<?> asset = index.get("js/app.js");
+        assertThat(asset.getPath()).isEqualTo("/assets/js/app.js");
+        assertThat(asset.length()).isEqualTo(18);
+        String etag = asset.getEtag();
+        assertThat(etag).startsWith("\"").endsWith("\"").hasSize(42);
+        assertThat(index.get("js/missing.js")).isNull();
+        assertThat(index.get("../pom.xml")).isNull();
+        assertThat(index.variants("js/app.js").keySet()).containsExactly("br", "gzip");
+
+        AssetDeployer deployer = new AssetDeployer(mock(BundleContext.class), index);
+        File file = new File(directory, "js/app.js");
+        assertThat(deployer.accept(file)).isTrue();
+        assertThat(deployer.accept(new File("pom.xml"))).isFalse();
+
+        FileUtils.write(file, "var app = 'hello world';");
+        deployer.onFileChange(file);
+        assertThat(index.get("js/app.js").length()).isEqualTo(24);
+        assertThat(index.get("js/app.js").getEtag()).isNotEqualTo(etag);
+
+        File other = new File(directory, "other.css");
+        FileUtils.write(other, "body {}");
+        deployer.onFileCreate(other);
+        assertThat(index.get("other.css")).isNotNull();
+        deployer.onFileDelete(other);
+        assertThat(index.get("other.css")).isNull();
+    }
+
+    @Test
+    public void testThatTheAssetFromTheLowestBundleIsServed() throws IOException {
+        AssetIndex index = new AssetIndex("/assets", null, "/assets/", false);
+        Bundle first = bundle(1, "/assets/a.js", "/assets/b.js");
+        Bundle second = bundle(2, "/assets/a.js", "/assets/c.js");
+
+        assertThat(index.addBundle(second)).isTrue();
+        assertThat(index.addBundle(first)).isTrue();
+        assertThat(index.addBundle(bundle(3))).isFalse();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.get("a.js").getSource()).isEqualTo("b1");
+        assertThat(index.get("a.js").getEtag()).isNull();
+
+        index.removeBundle(first);
+        assertThat(index.get("a.js").getSource()).isEqualTo("b2");
+        assertThat(index.get("b.js")).isNull();
+        index.removeBundle(second);
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testThatVariantsComeFromTheSourceOfTheAsset() throws IOException {
+        AssetIndex index = new AssetIndex("/assets", directory, "/assets/", false);
+        index.indexDirectory();
+        Bundle first = bundle(1, "/assets/a.js");
+        Bundle second = bundle(2, "/assets/a.js", "/assets/a.js.gz", "/assets/js/app.js", "/assets/js/app.js.br",
+                "/assets/js/other.js", "/assets/js/other.js.gz");
+        index.addBundle(first);
+        index.addBundle(second);
+
+        // The variant of the second bundle is not a compressed form of the asset from the first one.
+        assertThat(index.get("a.js").getSource()).isEqualTo("b1");
+        assertThat(index.variants("a.js")).isEmpty();
+        // Same for the directory, which overrides the bundles.
+        assertThat(index.variants("js/app.js").get("br").getContent()).isInstanceOf(File.class);
+        assertThat(index.variants("js/other.js").get("gzip").getSource()).isEqualTo("b2");
+
+        index.removeBundle(first);
+        assertThat(index.variants("a.js").get("gzip").getSource()).isEqualTo("b2");
+        index.removeBundle(second);
+        assertThat(index.variants("a.js")).isEmpty();
+    }
+
+    @Test
+    public void testThatResourcesAreLookedUpWithTheirVariants() throws IOException {
+        AssetIndex index = new AssetIndex("/assets", null, "/assets/", false);
+        Bundle bundle = bundle(1);
+        URL url = new URL("http", "localhost", 80, "/assets/a.js");
+        URL gz = new URL("http", "localhost", 80, "/assets/a.js.gz");
+        when(bundle.getResource("/assets/a.js")).thenReturn(url);
+        when(bundle.getResource("/assets/a.js.gz")).thenReturn(gz);
+
+        assertThat(index.resource(bundle, "a.js").getContent()).isEqualTo(url);
+        assertThat(index.resource(bundle, "a.js").getPath()).isEqualTo("/assets/a.js");
+        assertThat(index.resource(bundle, "b.js")).isNull();
+        assertThat(index.resourceVariants(bundle, "a.js").keySet()).containsExactly("gzip");
+        assertThat(index.resourceVariants(bundle, "a.js").get("gzip").getContent()).isEqualTo(gz);
+    }
+
+    @Test
+    public void testThatFallbackLookupsAreRememberedUntilABundleChanges() throws IOException {
+        AssetIndex index = new AssetIndex("/assets", null, "/assets/", true);
+        Bundle system = bundle(0);
+        Bundle bundle = bundle(1);
+        URL url = new URL("http", "localhost", 80, "/assets/a.js");
+        when(bundle.getResource("/assets/a.js")).thenReturn(url);
+        Bundle[] bundles = {system, bundle};
+
+        AssetIndex.Fallback fallback = index.fallback("a.js", () -> bundles);
+        assertThat(fallback.asset().getContent()).isEqualTo(url);
+        assertThat(fallback.variants()).isEmpty();
+        assertThat(index.fallback("missing.js", () -> bundles)).isNull();
+
+        // The same lookups do not search the bundles, and return the same asset.
+        assertThat(index.fallback("a.js", () -> bundles)).isSameAs(fallback);
+        assertThat(index.fallback("missing.js", () -> bundles)).isNull();
+        verify(bundle, times(1)).getResource("/assets/a.js");
+        verify(bundle, times(1)).getResource("/assets/missing.js");
+        verify(system, never()).getResource(anyString());
+
+        // A bundle has changed.
+        URL missing = new URL("http", "localhost", 80, "/assets/missing.js");
+        when(bundle.getResource("/assets/missing.js")).thenReturn(missing);
+        index.invalidateFallbacks();
+        assertThat(index.fallback("missing.js", () -> bundles).asset().getContent()).isEqualTo(missing);
+    }
+
+    @Test
+    public void testThatPreCompressedVariantsAreServed() {
+        AssetIndex index = new AssetIndex("/assets", directory, "/assets/", true);
+        index.indexDirectory();
+        IndexedAsset<?> asset = index.get("js/app.js");
+
+        Context context = mock(Context.class);
+        when(context.header(HeaderNames.ACCEPT_ENCODING)).thenReturn("gzip, deflate, br;q=0");
+        Result result = CacheUtils.fromAsset(context, asset, index.variants("js/app.js"), configuration);
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(result.getHeaders().get(HeaderNames.VARY)).isEqualTo(HeaderNames.ACCEPT_ENCODING);
+        assertThat(result.getHeaders().get(HeaderNames.ETAG)).isEqualTo(index.get("js/app.js.gz").getEtag());
+        assertThat(result.getContentType())
+                .isEqualTo(MimeTypes.getMimeTypeForFile(new File(directory, "js/app.js")));
+        assertThat(((File) result.getRenderable().content()).getName()).isEqualTo("app.js.gz");
+
+        when(context.header(HeaderNames.ACCEPT_ENCODING)).thenReturn("identity");
+        result = CacheUtils.fromAsset(context, asset, index.variants("js/app.js"), configuration);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_ENCODING)).isNull();
+        assertThat(result.getHeaders().get(HeaderNames.VARY)).isEqualTo(HeaderNames.ACCEPT_ENCODING);
+        assertThat(((File) result.getRenderable().content()).getName()).isEqualTo("app.js");
+
+        when(context.header(HeaderNames.IF_NONE_MATCH)).thenReturn(asset.getEtag());
+        result = CacheUtils.fromAsset(context, asset, index.variants("js/app.js"), configuration);
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testByteRanges() {
+        AssetIndex index = new AssetIndex("/assets", directory, "/assets/", true);
+        index.indexDirectory();
+        IndexedAsset<?> asset = index.get("js/app.js");
+
+        Context context = mock(Context.class);
+        when(context.header(HeaderNames.RANGE)).thenReturn("bytes=4-6");
+        Result result = CacheUtils.fromAsset(context, asset, configuration);
+        assertThat(result.getStatusCode()).isEqualTo(Status.PARTIAL_CONTENT);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_RANGE)).isEqualTo("bytes 4-6/18");
+        RenderableFile renderable = (RenderableFile) result.getRenderable();
+        assertThat(renderable.offset()).isEqualTo(4);
+        assertThat(renderable.length()).isEqualTo(3);
+
+        when(context.header(HeaderNames.RANGE)).thenReturn("bytes=18-");
+        result = CacheUtils.fromAsset(context, asset, configuration);
+        assertThat(result.getStatusCode()).isEqualTo(Status.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_RANGE)).isEqualTo("bytes */18");
+
+        // The resource has changed, the whole content is sent.
+        when(context.header(HeaderNames.RANGE)).thenReturn("bytes=4-6");
+        when(context.header(HeaderNames.IF_RANGE)).thenReturn("\"something-else\"");
+        result = CacheUtils.fromAsset(context, asset, configuration);
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getHeaders().get(HeaderNames.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    public void testParseRange() {
+        assertThat(CacheUtils.parseRange("bytes=0-9", 100)).containsExactly(0, 9);
+        assertThat(CacheUtils.parseRange("bytes=90-", 100)).containsExactly(90, 99);
+        assertThat(CacheUtils.parseRange("bytes=90-200", 100)).containsExactly(90, 99);
+        assertThat(CacheUtils.parseRange("bytes=-10", 100)).containsExactly(90, 99);
+        assertThat(CacheUtils.parseRange("bytes=-200", 100)).containsExactly(0, 99);
+        assertThat(CacheUtils.parseRange("bytes=100-", 100)).isEmpty();
+        assertThat(CacheUtils.parseRange("bytes=-0", 100)).isEmpty();
+        assertThat(CacheUtils.parseRange("bytes=0-1,5-6", 100)).isNull();
+        assertThat(CacheUtils.parseRange("bytes=5-1", 100)).isNull();
+        assertThat(CacheUtils.parseRange("bytes=a-b", 100)).isNull();
+        assertThat(CacheUtils.parseRange("items=0-1", 100)).isNull();
+    }
+
+    @Test
+    public void testAcceptedEncodings() {
+        assertThat(CacheUtils.acceptedEncodings(null)).isEmpty();
+        assertThat(CacheUtils.acceptedEncodings("gzip, deflate, BR")).containsOnly("gzip", "deflate", "br");
+        assertThat(CacheUtils.acceptedEncodings("gzip;q=0.5, br;q=0")).containsOnly("gzip");
+        assertThat(CacheUtils.acceptedEncodings("*, br;q=0")).containsOnly("*");
+    }
+
+    @Test
+    public void testSelectEncoding() {
+        List<String> available = Arrays.asList("br", "gzip");
+        assertThat(CacheUtils.selectEncoding(null, available)).isNull();
+        assertThat(CacheUtils.selectEncoding("identity", available)).isNull();
+        assertThat(CacheUtils.selectEncoding("gzip, br", available)).isEqualTo("br");
+        assertThat(CacheUtils.selectEncoding("gzip, br;q=0", available)).isEqualTo("gzip");
+        assertThat(CacheUtils.selectEncoding("*", available)).isEqualTo("br");
+        assertThat(CacheUtils.selectEncoding("br;q=0, *", available)).isEqualTo("gzip");
+        assertThat(CacheUtils.selectEncoding("gzip, *;q=0", available)).isEqualTo("gzip");
+        assertThat(CacheUtils.selectEncoding("*;q=0", available)).isNull();
+    }
+
+    private Bundle bundle(long id, String... paths) throws IOException {
+        Bundle bundle = mock(Bundle.class);
+        when(bundle.getBundleId()).thenReturn(id);
+        when(bundle.getSymbolicName()).thenReturn("b" + id);
+        if (paths.length > 0) {
+            URL[] urls = new URL[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                urls[i] = new URL("http", "localhost", 80, paths[i]);
+            }
+            when(bundle.findEntries("/assets/", "*", true))
+                    .thenReturn(Collections.enumeration(Arrays.asList(urls)));
+        }
+        return bundle;
+    }
+}
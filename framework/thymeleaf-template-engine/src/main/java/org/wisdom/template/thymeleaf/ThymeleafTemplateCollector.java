@@ -26,6 +26,8 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.StandardCacheManager;
 import org.thymeleaf.dialect.IDialect;
 import org.thymeleaf.messageresolver.IMessageResolver;
 import org.thymeleaf.templateresolver.TemplateResolver;
@@ -34,6 +36,9 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.router.Router;
 import org.wisdom.api.templates.Template;
 import org.wisdom.api.templates.TemplateEngine;
+import org.wisdom.template.thymeleaf.impl.DependencyTrackingEntryValidator;
+import org.wisdom.template.thymeleaf.impl.FragmentCache;
+import org.wisdom.template.thymeleaf.impl.TemplateDependencies;
 import org.wisdom.template.thymeleaf.impl.ThymeLeafTemplateImplementation;
 import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
 import org.wisdom.template.thymeleaf.impl.WisdomURLResourceResolver;
@@ -77,10 +82,10 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
     private Map<ThymeLeafTemplateImplementation, ServiceRegistration<Template>> registrations = new ConcurrentHashMap<>();
 
     /**
-     * The internal engine. Accesses need to be synchronized as we change the engine instance when
-     * dialects arrive and leave.
+     * The internal engine. Updates need to be synchronized as we change the engine instance when
+     * dialects arrive and leave. Templates are given the new engine, and render without locking.
      */
-    WisdomTemplateEngine engine;
+    volatile WisdomTemplateEngine engine;
 
     @Requires
     private Router router;
@@ -90,6 +95,11 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
 
     Set<IDialect> dialects = new HashSet<>();
 
+    /**
+     * The dependencies between templates, used to only invalidate the affected cache entries.
+     */
+    final TemplateDependencies dependencies = new TemplateDependencies();
+
 
     /**
      * Creates the collector.
@@ -126,7 +136,7 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
         ThymeLeafTemplateImplementation template = getTemplateByFile(templateFile);
         if (template != null) {
             LOGGER.debug("Thymeleaf template updated for {} ({})", templateFile.getAbsoluteFile(), template.fullName());
-            updatedTemplate();
+            updatedTemplates(Collections.singleton(template));
         } else {
             try {
                 addTemplate(bundle, templateFile.toURI().toURL());
@@ -219,7 +229,14 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
         }
 
 
-        LOGGER.debug("Thymeleaf configuration: mode={}, ttl={}", mode, ttl);
+        WisdomTemplateEngine.Output output = WisdomTemplateEngine.Output.from(
+                configuration.getWithDefault("application.template.thymeleaf.output", "string"));
+
+        int fragments = configuration.getIntegerWithDefault("application.template.thymeleaf.fragments.max-entries",
+                1000);
+
+        LOGGER.debug("Thymeleaf configuration: mode={}, ttl={}, output={}, cached fragments={}", mode, ttl, output,
+                fragments);
 
         // A TCCL switch is required here as the default Thymeleaf engine initialization triggers a class loading
         // from a class that may be present in the class path  (org/apache/xerces/xni/parser/XMLParserConfiguration).
@@ -242,7 +259,14 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
         resolver.setCacheTTLMs((long) ttl);
         engine.setTemplateResolver(resolver);
 
+        // Record the templates found in the cache, as they are only resolved on a cache miss.
+        StandardCacheManager caches = new StandardCacheManager();
+        caches.setTemplateCacheValidityChecker(new DependencyTrackingEntryValidator(dependencies));
+        engine.setCacheManager(caches);
+
         engine.setMessageResolver(messageResolver);
+        engine.setOutput(output);
+        engine.setFragmentCache(new FragmentCache(fragments));
         engine.initialize();
     }
 
@@ -327,12 +351,40 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
         return null;
     }
 
+    /**
+     * @return the dependencies between templates.
+     */
+    public TemplateDependencies getDependencies() {
+        return dependencies;
+    }
+
     /**
      * Clears the cache when a template have been updated.
      */
     public synchronized void updatedTemplate() {
         // Synchronized because of the access to engine.
         engine.getCacheManager().clearAllCaches();
+        engine.getFragmentCache().clear();
+    }
+
+    /**
+     * Invalidates the cache entries affected by the modification of the given templates: their parsed form, and
+     * the fragments rendered by the templates including them. Other templates, and the parsed expressions, are kept.
+     *
+     * @param templates the modified templates
+     */
+    public synchronized void updatedTemplates(Collection<ThymeLeafTemplateImplementation> templates) {
+        // Synchronized because of the access to engine.
+        ICache<String, org.thymeleaf.Template> cache = engine.getCacheManager().getTemplateCache();
+        for (ThymeLeafTemplateImplementation template : templates) {
+            for (String name : dependencies.names(template)) {
+                cache.clearKey(name);
+            }
+        }
+        Set<ThymeLeafTemplateImplementation> affected = dependencies.affectedBy(templates);
+        engine.getFragmentCache().invalidate(affected);
+        LOGGER.debug("Thymeleaf cache invalidated for {} template(s), affecting {} template(s)", templates.size(),
+                affected.size());
     }
 
     /**
@@ -341,25 +393,47 @@ public class ThymeleafTemplateCollector implements TemplateEngine {
      * @param template the template
      */
     public void deleteTemplate(ThymeLeafTemplateImplementation template) {
-        // 1 - unregister the service
-        try {
-            ServiceRegistration reg = registrations.remove(template);
-            if (reg != null) {
-                reg.unregister();
+        deleteTemplates(Collections.singleton(template));
+    }
+
+    /**
+     * Deletes the given templates. The services are unregistered, and the affected cache entries are invalidated.
+     * If templates come from a bundle other than the system bundle, the caches keeping classes (parsed expressions
+     * and OGNL caches) are also cleared, as these classes may come from the leaving bundle.
+     *
+     * @param templates the templates
+     */
+    public void deleteTemplates(Collection<ThymeLeafTemplateImplementation> templates) {
+        boolean fromBundle = false;
+        for (ThymeLeafTemplateImplementation template : templates) {
+            // 1 - unregister the service
+            try {
+                ServiceRegistration reg = registrations.remove(template);
+                if (reg != null) {
+                    reg.unregister();
+                }
+            } catch (Exception e) { //NOSONAR
+                // May already have been unregistered during the shutdown sequence.
             }
-        } catch (Exception e) { //NOSONAR
-            // May already have been unregistered during the shutdown sequence.
+            Bundle bundle = template.getBundle();
+            fromBundle = fromBundle || bundle != null && bundle.getBundleId() != 0;
         }
 
-        // 2 - as templates can have dependencies, and expressions kept in memory, we clear all caches.
-        // Despite this may really impact performance, it should not happen too often on real systems.
-        synchronized (this) {
-            engine.getCacheManager().clearAllCaches();
+        // 2 - invalidate the template and what depends on it
+        updatedTemplates(templates);
+        for (ThymeLeafTemplateImplementation template : templates) {
+            dependencies.remove(template);
+        }
+
+        if (fromBundle) {
+            synchronized (this) {
+                engine.getCacheManager().getExpressionCache().clear();
+            }
+            OgnlRuntime.clearCache();
+            // Unfortunately, the previous method do not clear the get and set method cache
+            // (ognl.OgnlRuntime.cacheGetMethod and ognl.OgnlRuntime.cacheSetMethod)
+            clearMethodCaches();
         }
-        OgnlRuntime.clearCache();
-        // Unfortunately, the previous method do not clear the get and set method cache
-        // (ognl.OgnlRuntime.cacheGetMethod and ognl.OgnlRuntime.cacheSetMethod)
-        clearMethodCaches();
     }
 
     private void clearMethodCaches() {
@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.dialect;
+
+import org.thymeleaf.Arguments;
+import org.thymeleaf.Configuration;
+import org.thymeleaf.dom.Element;
+import org.thymeleaf.dom.Macro;
+import org.thymeleaf.dom.NestableNode;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.processor.ProcessorResult;
+import org.thymeleaf.processor.attr.AbstractAttrProcessor;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.wisdom.api.templates.Template;
+import org.wisdom.template.thymeleaf.impl.FragmentCache;
+import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
+
+/**
+ * Processes the {@code th:cached} attribute. The value of the attribute is an expression computing the inputs of
+ * the element, for instance {@code th:cached="${user.id}"}. The first rendering of the element for a set of inputs
+ * is stored in the {@link FragmentCache} of the engine, and reused for the next renderings of the same template.
+ * <p>
+ * The element output must only depend on the declared inputs, as it is not rendered again until the template or
+ * one of the templates it includes changes. The inputs are part of the cache key, so the expression must evaluate
+ * to a string, a number, a boolean, a character, an enum constant or {@literal null}. Other values, whose string
+ * representation may not identify their content, are rejected.
+ */
+public class CachedAttrProcessor extends AbstractAttrProcessor {
+
+    /**
+     * The name of the attribute.
+     */
+    public static final String ATTRIBUTE_NAME = "cached";
+
+    /**
+     * The precedence of the processor. It runs before the other standard processors, so a cached element is not
+     * evaluated at all.
+     */
+    public static final int PRECEDENCE = 50;
+
+    /**
+     * Creates the processor.
+     */
+    public CachedAttrProcessor() {
+        super(ATTRIBUTE_NAME);
+    }
+
+    @Override
+    public int getPrecedence() {
+        return PRECEDENCE;
+    }
+
+    @Override
+    protected ProcessorResult processAttribute(Arguments arguments, Element element, String attributeName) {
+        final String expression = element.getAttributeValue(attributeName);
+        element.removeAttribute(attributeName);
+
+        if (!(arguments.getTemplateEngine() instanceof WisdomTemplateEngine)) {
+            return ProcessorResult.OK;
+        }
+        final FragmentCache cache = ((WisdomTemplateEngine) arguments.getTemplateEngine()).getFragmentCache();
+        if (!cache.isEnabled()) {
+            return ProcessorResult.OK;
+        }
+
+        final Configuration configuration = arguments.getConfiguration();
+        final Object inputs = StandardExpressions.getExpressionParser(configuration)
+                .parseExpression(configuration, arguments, expression)
+                .execute(configuration, arguments);
+        if (!isScalar(inputs)) {
+            throw new TemplateProcessingException("The inputs of a th:cached element must be a string or a scalar " +
+                    "value, the expression '" + expression + "' evaluates to a " + inputs.getClass().getName());
+        }
+        final Template root = (Template) arguments.getContext().getVariables().get("__TEMPLATE__");
+        final String key = FragmentCache.key(root, element, inputs);
+
+        final String html = cache.get(key);
+        if (html == null) {
+            // Rendered as usual, the writer stores the output.
+            element.setNodeProperty(FragmentCache.KEY_PROPERTY, key);
+        } else {
+            final NestableNode parent = element.getParent();
+            parent.insertBefore(element, new Macro(html));
+            parent.removeChild(element);
+        }
+        return ProcessorResult.OK;
+    }
+
+    /**
+     * Checks whether the given value can be used in a cache key, i.e. whether its string representation identifies
+     * its content.
+     *
+     * @param value the value
+     * @return {@literal true} if the value is {@literal null}, a string, a number, a boolean, a character or an enum
+     * constant
+     */
+    static boolean isScalar(Object value) {
+        return value == null
+                || value instanceof CharSequence
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Enum;
+    }
+}
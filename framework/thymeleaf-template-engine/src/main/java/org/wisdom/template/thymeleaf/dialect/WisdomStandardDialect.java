@@ -19,10 +19,13 @@
  */
 package org.wisdom.template.thymeleaf.dialect;
 
+import org.thymeleaf.processor.IProcessor;
 import org.thymeleaf.standard.StandardDialect;
 import org.thymeleaf.standard.expression.IStandardVariableExpressionEvaluator;
 
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Wisdom Themeleaf dialect.
@@ -41,7 +44,15 @@ public class WisdomStandardDialect extends StandardDialect {
         return attributes;
     }
 
-
-
-
+    /**
+     * Adds the Wisdom processors to the standard ones.
+     *
+     * @return the processors
+     */
+    @Override
+    public Set<IProcessor> getProcessors() {
+        Set<IProcessor> processors = new LinkedHashSet<>(super.getProcessors());
+        processors.add(new CachedAttrProcessor());
+        return processors;
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.thymeleaf.Template;
+import org.thymeleaf.cache.ICacheEntryValidityChecker;
+import org.thymeleaf.cache.StandardParsedTemplateEntryValidator;
+
+/**
+ * Checks the validity of the parsed templates kept in the Thymeleaf template cache, and records the templates
+ * found in the cache as dependencies of the template being rendered. Thymeleaf resolves (and so lets
+ * {@link WisdomURLResourceResolver} record) a template only on a cache miss, while this checker is called on every
+ * hit, so a page including a fragment already parsed for another page is also recorded as depending on it.
+ */
+public class DependencyTrackingEntryValidator implements ICacheEntryValidityChecker<String, Template> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TemplateDependencies dependencies;
+
+    private final StandardParsedTemplateEntryValidator delegate = new StandardParsedTemplateEntryValidator();
+
+    /**
+     * Creates the validator.
+     *
+     * @param dependencies the dependencies in which the included templates are recorded
+     */
+    public DependencyTrackingEntryValidator(TemplateDependencies dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public boolean checkIsValueStillValid(String key, Template value, long entryCreationTimestamp) {
+        if (!delegate.checkIsValueStillValid(key, value, entryCreationTimestamp)) {
+            return false;
+        }
+        dependencies.included(key, WisdomTemplateEngine.getRenderedTemplate());
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.thymeleaf.dom.Element;
+import org.wisdom.api.templates.Template;
+
+import java.util.Collection;
+
+/**
+ * Keeps the HTML rendered for the elements marked with {@code th:cached}. Entries are identified by the template
+ * being rendered, the location of the element and the value of the {@code th:cached} expression, i.e. the inputs
+ * the element output depends on.
+ */
+public class FragmentCache {
+
+    /**
+     * The element property storing the cache key of an element to be rendered and cached.
+     */
+    public static final String KEY_PROPERTY = "wisdom.fragment.key";
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * The entries, {@literal null} if the cache is disabled.
+     */
+    private final Cache<String, String> entries;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxEntries the maximum number of entries, 0 or less to disable the cache
+     */
+    public FragmentCache(int maxEntries) {
+        if (maxEntries > 0) {
+            entries = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+        } else {
+            entries = null;
+        }
+    }
+
+    /**
+     * @return whether the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return entries != null;
+    }
+
+    /**
+     * Computes the key of a cached element.
+     *
+     * @param root    the template being rendered
+     * @param element the element
+     * @param inputs  the inputs of the element, i.e. the value of the {@code th:cached} expression, a string or a
+     *                scalar value
+     * @return the key
+     */
+    public static String key(Template root, Element element, Object inputs) {
+        return (root == null ? "" : root.fullName()) + SEPARATOR + element.getDocumentName() + ':'
+                + element.getLineNumber() + ':' + element.getNormalizedName() + SEPARATOR + inputs;
+    }
+
+    /**
+     * Gets the HTML rendered for the given key.
+     *
+     * @param key the key
+     * @return the HTML, {@literal null} if not cached
+     */
+    public String get(String key) {
+        if (entries == null) {
+            return null;
+        }
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Stores the HTML rendered for the given key.
+     *
+     * @param key  the key
+     * @param html the HTML
+     */
+    public void put(String key, String html) {
+        if (entries != null) {
+            entries.put(key, html);
+        }
+    }
+
+    /**
+     * Removes the elements rendered by the given templates.
+     *
+     * @param templates the templates
+     */
+    public void invalidate(Collection<? extends Template> templates) {
+        if (entries == null || templates.isEmpty()) {
+            return;
+        }
+        for (Template template : templates) {
+            final String prefix = template.fullName() + SEPARATOR;
+            entries.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        if (entries != null) {
+            entries.invalidateAll();
+        }
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public long size() {
+        return entries == null ? 0 : entries.size();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.thymeleaf.Arguments;
+import org.thymeleaf.dom.Element;
+import org.thymeleaf.templatewriter.AbstractGeneralTemplateWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * The writer used for HTML template modes. It behaves like the Thymeleaf HTML writer, but stores the output of the
+ * elements marked with {@code th:cached} into the {@link FragmentCache} of the engine.
+ */
+public class FragmentCachingTemplateWriter extends AbstractGeneralTemplateWriter {
+
+    @Override
+    protected boolean shouldWriteXmlDeclaration() {
+        return false;
+    }
+
+    @Override
+    protected boolean useXhtmlTagMinimizationRules() {
+        return true;
+    }
+
+    @Override
+    protected void writeElement(Arguments arguments, Writer writer, Element element) throws IOException {
+        Object key = element.getNodeProperty(FragmentCache.KEY_PROPERTY);
+        if (key == null || !(arguments.getTemplateEngine() instanceof WisdomTemplateEngine)) {
+            super.writeElement(arguments, writer, element);
+            return;
+        }
+        StringWriter buffer = new StringWriter();
+        super.writeElement(arguments, buffer, element);
+        String html = buffer.toString();
+        ((WisdomTemplateEngine) arguments.getTemplateEngine()).getFragmentCache().put((String) key, html);
+        writer.write(html);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.wisdom.api.http.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A rendered template kept as UTF-8 encoded bytes. The bytes are written as they are, unless the result requests
+ * another charset.
+ */
+class RenderedTemplate implements Renderable<String> {
+
+    private final byte[] bytes;
+
+    /**
+     * Creates the renderable.
+     *
+     * @param bytes the rendered template, encoded in UTF-8
+     */
+    RenderedTemplate(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public InputStream render(Context context, Result result) throws RenderableException {
+        return new ByteArrayInputStream(bytes(context, result));
+    }
+
+    @Override
+    public byte[] bytes(Context context, Result result) {
+        if (result == null) {
+            return bytes;
+        }
+        if (result.getCharset() == null) {
+            result.with(StandardCharsets.UTF_8);
+            return bytes;
+        }
+        if (StandardCharsets.UTF_8.equals(result.getCharset())) {
+            return bytes;
+        }
+        return content().getBytes(result.getCharset());
+    }
+
+    @Override
+    public long length() {
+        return bytes.length;
+    }
+
+    @Override
+    public String mimetype() {
+        return MimeTypes.HTML;
+    }
+
+    /**
+     * @return the rendered template, decoded.
+     */
+    @Override
+    public String content() {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean requireSerializer() {
+        return false;
+    }
+
+    @Override
+    public void setSerializedForm(String serialized) {
+        // Nothing because serialization is not supported for this renderable class.
+    }
+
+    @Override
+    public boolean mustBeChunked() {
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.thymeleaf.context.VariablesMap;
+import org.wisdom.api.http.Context;
+import org.wisdom.template.thymeleaf.dialect.ExtendedOGNLExpressionEvaluator;
+
+import java.util.*;
+
+/**
+ * The variables given to a template. The variables passed explicitly to the rendering are stored in the map,
+ * while the variables coming from the HTTP context (session, flash, request parameters and request data) are only
+ * collected the first time the template looks up a variable that was not given explicitly.
+ * <p>
+ * Explicit variables take precedence over the request data, which takes precedence over the parameters, then the
+ * flash and finally the session.
+ */
+class RequestVariables extends VariablesMap<String, Object> {
+
+    /**
+     * The prefix of the variables used internally by Thymeleaf (such as the selection target). Like the bundle
+     * variable, they are looked up on each rendering, and never come from the HTTP context.
+     */
+    private static final String INTERNAL_PREFIX = "%%";
+
+    /**
+     * The HTTP context, {@literal null} if the rendering does not happen during a request.
+     */
+    private transient Context http;
+
+    /**
+     * The variables from the HTTP context, {@literal null} until first needed.
+     */
+    private transient Map<String, Object> scopes;
+
+    /**
+     * Whether the variables from the HTTP context were copied into this map.
+     */
+    private boolean merged;
+
+    /**
+     * Creates the variables.
+     *
+     * @param http the HTTP context, may be {@literal null}
+     */
+    RequestVariables(Context http) {
+        this.http = http;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (merged || super.containsKey(key) || isInternal(key)) {
+            return super.get(key);
+        }
+        return scopes().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return super.containsKey(key) || !merged && !isInternal(key) && scopes().containsKey(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        return containsKey(key) ? get(key) : defaultValue;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        merge();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        merge();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        merge();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        merge();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        merge();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        merge();
+        return super.entrySet();
+    }
+
+    @Override
+    public Object remove(Object key) {
+        merge();
+        return super.remove(key);
+    }
+
+    private static boolean isInternal(Object key) {
+        return key instanceof String && (((String) key).startsWith(INTERNAL_PREFIX)
+                || ExtendedOGNLExpressionEvaluator.BUNDLE_VAR_KEY.equals(key));
+    }
+
+    /**
+     * Copies the variables from the HTTP context that are not overridden into this map. It's required by operations
+     * considering all the variables.
+     */
+    private void merge() {
+        if (merged) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : scopes().entrySet()) {
+            if (!super.containsKey(entry.getKey())) {
+                super.put(entry.getKey(), entry.getValue());
+            }
+        }
+        merged = true;
+        scopes = null;
+        http = null;
+    }
+
+    /**
+     * Collects the variables from the HTTP context.
+     *
+     * @return the variables from the session, flash, request parameters (flattened) and request data
+     */
+    private Map<String, Object> scopes() {
+        if (scopes != null) {
+            return scopes;
+        }
+        if (http == null) {
+            scopes = Collections.emptyMap();
+            return scopes;
+        }
+        Map<String, Object> collected = new HashMap<>();
+        // Add session
+        collected.putAll(http.session().getData());
+        // Add flash
+        collected.putAll(http.flash().getCurrentFlashCookieData());
+        collected.putAll(http.flash().getOutgoingFlashCookieData());
+
+        // Add parameter from request, flattened
+        for (Map.Entry<String, List<String>> entry : http.parameters().entrySet()) {
+            if (entry.getValue().size() == 1) {
+                collected.put(entry.getKey(), entry.getValue().get(0));
+            } else {
+                collected.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Add request scope
+        collected.putAll(http.request().data());
+        scopes = collected;
+        return scopes;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.wisdom.api.templates.Template;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks the dependencies between templates, as observed while rendering them. When a template is rendered, the
+ * templates it loads (layouts, fragments...) are recorded as its dependencies, along with the names used to load
+ * them. These names are the keys of the Thymeleaf template cache.
+ * <p>
+ * Thymeleaf resolves layouts and fragments while rendering, so a modified template only requires removing its own
+ * parsed form from the cache. The templates including it are however needed to invalidate what is derived from
+ * their output, such as the rendered fragments.
+ */
+public class TemplateDependencies {
+
+    /**
+     * The names used to load templates (Thymeleaf cache keys) and the template they resolve to.
+     */
+    private final ConcurrentMap<String, ThymeLeafTemplateImplementation> names = new ConcurrentHashMap<>();
+
+    /**
+     * For each template, the templates that included it while being rendered.
+     */
+    private final ConcurrentMap<ThymeLeafTemplateImplementation, Set<ThymeLeafTemplateImplementation>> dependents =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Records that a template has been loaded.
+     *
+     * @param name     the name used to load the template
+     * @param template the loaded template
+     * @param root     the template being rendered, {@literal null} if unknown
+     */
+    public void loaded(String name, ThymeLeafTemplateImplementation template, Template root) {
+        names.put(name, template);
+        dependsOn(root, template);
+    }
+
+    /**
+     * Records that a template already loaded (and parsed) has been used by the rendered template. Thymeleaf only
+     * loads a template on a cache miss, so this method is called on cache hits, when another page includes a
+     * layout or a fragment already parsed.
+     *
+     * @param name the name used to load the template
+     * @param root the template being rendered, {@literal null} if unknown
+     */
+    public void included(String name, Template root) {
+        ThymeLeafTemplateImplementation template = names.get(name);
+        if (template != null) {
+            dependsOn(root, template);
+        }
+    }
+
+    private void dependsOn(Template root, ThymeLeafTemplateImplementation template) {
+        if (root instanceof ThymeLeafTemplateImplementation && !root.equals(template)) {
+            dependents.computeIfAbsent(template, key -> ConcurrentHashMap.newKeySet())
+                    .add((ThymeLeafTemplateImplementation) root);
+        }
+    }
+
+    /**
+     * Gets the names under which the given template may be cached.
+     *
+     * @param template the template
+     * @return the names used to load the template, including its full name
+     */
+    public Set<String> names(ThymeLeafTemplateImplementation template) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(template.fullName());
+        for (Map.Entry<String, ThymeLeafTemplateImplementation> entry : names.entrySet()) {
+            if (entry.getValue().equals(template)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the templates whose rendering depends on the given ones.
+     *
+     * @param templates the modified templates
+     * @return the given templates and the templates having included them, directly or not
+     */
+    public Set<ThymeLeafTemplateImplementation> affectedBy(Collection<ThymeLeafTemplateImplementation> templates) {
+        Set<ThymeLeafTemplateImplementation> affected = new LinkedHashSet<>();
+        Deque<ThymeLeafTemplateImplementation> toVisit = new ArrayDeque<>(templates);
+        while (!toVisit.isEmpty()) {
+            ThymeLeafTemplateImplementation template = toVisit.poll();
+            if (affected.add(template)) {
+                Set<ThymeLeafTemplateImplementation> set = dependents.get(template);
+                if (set != null) {
+                    toVisit.addAll(set);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Forgets the given template, because it was removed.
+     *
+     * @param template the template
+     */
+    public void remove(ThymeLeafTemplateImplementation template) {
+        names.values().removeAll(Collections.singleton(template));
+        dependents.remove(template);
+        for (Set<ThymeLeafTemplateImplementation> set : dependents.values()) {
+            set.remove(template);
+        }
+    }
+
+    /**
+     * Forgets all the dependencies.
+     */
+    public void clear() {
+        names.clear();
+        dependents.clear();
+    }
+}
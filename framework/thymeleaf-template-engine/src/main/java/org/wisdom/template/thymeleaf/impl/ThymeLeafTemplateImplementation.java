@@ -28,7 +28,6 @@ import org.wisdom.api.http.Renderable;
 import org.wisdom.api.router.Router;
 import org.wisdom.api.templates.Template;
 import org.wisdom.template.thymeleaf.ThymeleafTemplateCollector;
-import org.wisdom.template.thymeleaf.dialect.ExtendedOGNLExpressionEvaluator;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -60,7 +59,11 @@ public class ThymeLeafTemplateImplementation implements Template {
      */
     private final Bundle bundle;
 
-    private WisdomTemplateEngine templateEngine;
+    /**
+     * The engine rendering the template. It changes when dialects arrive or leave, and is read without lock by the
+     * concurrent renderings.
+     */
+    private volatile WisdomTemplateEngine templateEngine;
 
     public ThymeLeafTemplateImplementation(WisdomTemplateEngine templateEngine, File templateFile, Router router,
                                            Assets assets, Bundle source
@@ -87,10 +90,17 @@ public class ThymeLeafTemplateImplementation implements Template {
         this.assets = assets;
     }
 
-    public synchronized void updateEngine(WisdomTemplateEngine engine) {
+    public void updateEngine(WisdomTemplateEngine engine) {
         this.templateEngine = engine;
     }
 
+    /**
+     * @return the bundle containing the template, the system bundle for external templates.
+     */
+    public Bundle getBundle() {
+        return bundle;
+    }
+
     /**
      * Gets the template source url.
      *
@@ -140,12 +150,8 @@ public class ThymeLeafTemplateImplementation implements Template {
      * @return the rendered object.
      */
     @Override
-    public synchronized Renderable<?> render(Controller controller, Map<String, Object> variables) {
-        HashMap<String, Object> map = new HashMap<>(variables);
-        if (!map.containsKey(ExtendedOGNLExpressionEvaluator.BUNDLE_VAR_KEY)) {
-            map.put(ExtendedOGNLExpressionEvaluator.BUNDLE_VAR_KEY, bundle);
-        }
-        return templateEngine.process(this, controller, router, assets, map);
+    public Renderable<?> render(Controller controller, Map<String, Object> variables) {
+        return templateEngine.process(this, controller, router, assets, variables, bundle);
     }
 
     /**
@@ -0,0 +1,64 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.template.thymeleaf.impl;
+
+import org.thymeleaf.context.AbstractContext;
+import org.thymeleaf.context.ContextExecutionInfo;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.VariablesMap;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * The Thymeleaf context used to render Wisdom templates. Unlike {@link org.thymeleaf.context.Context}, the
+ * variables coming from the HTTP context are collected lazily (see {@link RequestVariables}).
+ */
+class WisdomContext implements IContext {
+
+    private final RequestVariables variables;
+
+    private final Locale locale = Locale.getDefault();
+
+    /**
+     * Creates the context.
+     *
+     * @param http the HTTP context, may be {@literal null}
+     */
+    WisdomContext(org.wisdom.api.http.Context http) {
+        this.variables = new RequestVariables(http);
+    }
+
+    @Override
+    public VariablesMap<String, Object> getVariables() {
+        return variables;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public void addContextExecutionInfo(String templateName) {
+        variables.put(AbstractContext.EXEC_INFO_VARIABLE_NAME,
+                new ContextExecutionInfo(templateName, Calendar.getInstance()));
+    }
+}
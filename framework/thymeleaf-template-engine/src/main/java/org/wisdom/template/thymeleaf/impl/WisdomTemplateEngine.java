@@ -20,29 +20,92 @@
 package org.wisdom.template.thymeleaf.impl;
 
 import nz.net.ultraq.thymeleaf.LayoutDialect;
+import org.osgi.framework.Bundle;
 import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
 import org.thymeleaf.dialect.IDialect;
 import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.templatemode.ITemplateModeHandler;
+import org.thymeleaf.templatemode.StandardTemplateModeHandlers;
+import org.thymeleaf.templatemode.TemplateModeHandler;
+import org.thymeleaf.templatewriter.XhtmlHtml5TemplateWriter;
 import org.wisdom.api.Controller;
 import org.wisdom.api.asset.Assets;
 import org.wisdom.api.bodies.RenderableString;
 import org.wisdom.api.http.MimeTypes;
+import org.wisdom.api.http.Renderable;
 import org.wisdom.api.router.Router;
 import org.wisdom.api.templates.Template;
+import org.wisdom.template.thymeleaf.dialect.ExtendedOGNLExpressionEvaluator;
 import org.wisdom.template.thymeleaf.dialect.Routes;
 import org.wisdom.template.thymeleaf.dialect.WisdomStandardDialect;
 
-import java.io.StringWriter;
-import java.util.List;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * The main integration point of Thymeleaf in wisdom.
+ * <p>
+ * The rendered page is returned according to the {@link Output} mode of the engine: as a String, as UTF-8 bytes
+ * written into a buffer reused by the rendering thread.
  */
 public class WisdomTemplateEngine extends TemplateEngine {
 
+    /**
+     * The buffers kept by the rendering threads are dropped when they grow beyond this size (in bytes).
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<OutputBuffer> BUFFERS = new ThreadLocal<OutputBuffer>() {
+        @Override
+        protected OutputBuffer initialValue() {
+            return new OutputBuffer();
+        }
+    };
+
+    /**
+     * The template being rendered by the current thread.
+     */
+    private static final ThreadLocal<Template> RENDERED = new ThreadLocal<>();
+
+    /**
+     * How the rendered pages are returned.
+     */
+    public enum Output {
+        /**
+         * The page is rendered into a String.
+         */
+        STRING,
+        /**
+         * The page is rendered into a byte buffer reused by the rendering thread, and copied once.
+         */
+        BUFFER;
+
+        /**
+         * Gets the output mode from its name, case-insensitive.
+         *
+         * @param name the name
+         * @return the output mode, {@link #STRING} if the name is {@literal null} or unknown
+         */
+        public static Output from(String name) {
+            if (name != null) {
+                for (Output output : values()) {
+                    if (output.name().equalsIgnoreCase(name.trim())) {
+                        return output;
+                    }
+                }
+            }
+            return STRING;
+        }
+    }
+
+    private volatile Output output = Output.STRING;
+
+    private volatile FragmentCache fragments = new FragmentCache(0);
+
     public WisdomTemplateEngine(Set<IDialect> dialects) {
         super();
         // We clear the dialects as we are using our own standard dialect.
@@ -53,12 +116,57 @@ public class WisdomTemplateEngine extends TemplateEngine {
         if (dialects != null) {
             setAdditionalDialects(dialects);
         }
+
+        // Use the writer capturing the cached fragments in HTML modes.
+        Set<ITemplateModeHandler> handlers = new LinkedHashSet<>();
+        for (ITemplateModeHandler handler : StandardTemplateModeHandlers.ALL_TEMPLATE_MODE_HANDLERS) {
+            if (handler.getTemplateWriter() instanceof XhtmlHtml5TemplateWriter) {
+                handlers.add(new TemplateModeHandler(handler.getTemplateModeName(), handler.getTemplateParser(),
+                        new FragmentCachingTemplateWriter()));
+            } else {
+                handlers.add(handler);
+            }
+        }
+        setTemplateModeHandlers(handlers);
+    }
+
+    /**
+     * Sets the cache used for the elements marked with {@code th:cached}.
+     *
+     * @param cache the cache, must not be {@literal null}
+     */
+    public void setFragmentCache(FragmentCache cache) {
+        this.fragments = cache;
+    }
+
+    /**
+     * @return the cache used for the elements marked with {@code th:cached}.
+     */
+    public FragmentCache getFragmentCache() {
+        return fragments;
+    }
+
+    /**
+     * Sets how the rendered pages are returned.
+     *
+     * @param output the output mode, {@literal null} to use {@link Output#STRING}
+     */
+    public void setOutput(Output output) {
+        this.output = output == null ? Output.STRING : output;
+    }
+
+    /**
+     * @return how the rendered pages are returned.
+     */
+    public Output getOutput() {
+        return output;
     }
 
     /**
      * Renders the given template.
      * <p>
-     * Variables from the session, flash and request parameters are added to the given parameters.
+     * Variables from the session, flash and request parameters are added to the given parameters. The page is
+     * always rendered into a String, whatever the output mode of the engine.
      *
      * @param template   the template
      * @param controller the template asking for the rendering
@@ -68,37 +176,95 @@ public class WisdomTemplateEngine extends TemplateEngine {
      */
     public RenderableString process(Template template, Controller controller, Router router, Assets assets, Map<String,
             Object> variables) {
-        Context ctx = new Context();
-        // Add session
-        final org.wisdom.api.http.Context http = org.wisdom.api.http.Context.CONTEXT.get();
-        ctx.setVariables(http.session().getData());
-        // Add flash
-        ctx.setVariables(http.flash().getCurrentFlashCookieData());
-        ctx.setVariables(http.flash().getOutgoingFlashCookieData());
-
-        // Add parameter from request, flattened
-        for (Map.Entry<String, List<String>> entry : http.parameters().entrySet()) {
-            if (entry.getValue().size() == 1) {
-                ctx.setVariable(entry.getKey(), entry.getValue().get(0));
-            } else {
-                ctx.setVariable(entry.getKey(), entry.getValue());
-            }
-        }
+        StringWriter writer = new StringWriter();
+        render(template.fullName(), context(template, controller, router, assets, variables, null), writer);
+        return new RenderableString(writer, MimeTypes.HTML);
+    }
 
-        // Add request scope
-        for (Map.Entry<String, Object> entry : http.request().data().entrySet()) {
-            ctx.setVariable(entry.getKey(), entry.getValue());
+    /**
+     * Renders the given template.
+     * <p>
+     * Variables from the session, flash and request parameters are made available to the template, but are only
+     * collected if the template uses a variable that is not in the given parameters.
+     *
+     * @param template   the template
+     * @param controller the template asking for the rendering
+     * @param router     the router service
+     * @param variables  the template parameters
+     * @param bundle     the bundle containing the template, used to load classes from the template if not given in
+     *                   the parameters, may be {@literal null}
+     * @return the rendered HTML page
+     */
+    public Renderable<?> process(Template template, Controller controller, Router router, Assets assets,
+                                 Map<String, Object> variables, Bundle bundle) {
+        WisdomContext ctx = context(template, controller, router, assets, variables, bundle);
+        switch (output) {
+            case BUFFER:
+                return renderIntoBuffer(template.fullName(), ctx);
+            default:
+                StringWriter writer = new StringWriter();
+                render(template.fullName(), ctx, writer);
+                return new RenderableString(writer, MimeTypes.HTML);
         }
+    }
 
+    private WisdomContext context(Template template, Controller controller, Router router, Assets assets,
+                                  Map<String, Object> variables, Bundle bundle) {
+        final org.wisdom.api.http.Context http = org.wisdom.api.http.Context.CONTEXT.get();
+        WisdomContext ctx = new WisdomContext(http);
+        Map<String, Object> vars = ctx.getVariables();
+        if (bundle != null) {
+            vars.put(ExtendedOGNLExpressionEvaluator.BUNDLE_VAR_KEY, bundle);
+        }
         // Add variable.
-        ctx.setVariables(variables);
-        ctx.setVariable(Routes.ROUTES_VAR, new Routes(router, assets, controller));
+        vars.putAll(variables);
+        vars.put(Routes.ROUTES_VAR, new Routes(router, assets, controller));
         // This variable let us resolve template using relative path (in the same directory as the current template).
         // It's mainly used for 'layout', so we can compute the full url.
-        ctx.setVariable("__TEMPLATE__", template);
-        StringWriter writer = new StringWriter();
+        vars.put("__TEMPLATE__", template);
+        return ctx;
+    }
+
+    private Renderable<?> renderIntoBuffer(String name, IContext ctx) {
+        OutputBuffer buffer = BUFFERS.get();
+        if (buffer.used) {
+            // Nested rendering, the buffer of the thread is already used by the enclosing one.
+            buffer = new OutputBuffer();
+        }
+        buffer.used = true;
+        boolean completed = false;
         try {
-            this.process(template.fullName(), ctx, writer);
+            render(name, ctx, buffer.writer);
+            buffer.writer.flush();
+            completed = true;
+            return new RenderedTemplate(buffer.toByteArray());
+        } catch (IOException e) { //NOSONAR cannot happen when writing into memory
+            throw new IllegalStateException(e);
+        } finally {
+            buffer.reset();
+            buffer.used = false;
+            if (!completed || buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                // The writer may still hold characters from the failed rendering, or the buffer is too big to
+                // be kept.
+                BUFFERS.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the template being rendered by the current thread, {@literal null} if none.
+     */
+    public static Template getRenderedTemplate() {
+        return RENDERED.get();
+    }
+
+    private void render(String name, IContext ctx, Writer writer) {
+        // Nested renderings restore the enclosing template.
+        final Template previous = RENDERED.get();
+        final Object root = ctx.getVariables().get("__TEMPLATE__");
+        RENDERED.set(root instanceof Template ? (Template) root : null);
+        try {
+            this.process(name, ctx, writer);
         } catch (TemplateProcessingException e) {
             // If we have a nested cause having a nested cause, heuristics say that it's the useful message.
             // Rebuild an exception using this data.
@@ -110,8 +276,30 @@ public class WisdomTemplateEngine extends TemplateEngine {
             } else {
                 throw e;
             }
+        } finally {
+            if (previous == null) {
+                RENDERED.remove();
+            } else {
+                RENDERED.set(previous);
+            }
         }
-        return new RenderableString(writer, MimeTypes.HTML);
     }
 
+    /**
+     * The buffer used to render templates in the {@link Output#BUFFER} mode, with its UTF-8 writer.
+     */
+    private static final class OutputBuffer extends ByteArrayOutputStream {
+
+        private final Writer writer = new OutputStreamWriter(this, StandardCharsets.UTF_8);
+
+        private boolean used;
+
+        private OutputBuffer() {
+            super(8 * 1024);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+    }
 }
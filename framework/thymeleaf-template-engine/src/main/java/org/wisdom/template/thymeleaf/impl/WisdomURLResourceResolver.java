@@ -84,6 +84,8 @@ public class WisdomURLResourceResolver implements IResourceResolver {
                             "neither {} nor {}.thl.html exist in the template directory or is available in bundles.",
                     resourceName, resourceName, resourceName);
         } else {
+            // Record the dependency, so only the affected entries are invalidated when the template changes.
+            engine.getDependencies().loaded(resourceName, template, mayBeParentTemplate);
             try {
                 return template.getURL().openStream();
             } catch (IOException e) {
@@ -93,19 +93,17 @@ public class TemplateTracker implements BundleTrackerCustomizer<List<ThymeLeafTe
 
     @Override
     public void modifiedBundle(Bundle bundle, BundleEvent bundleEvent, List<ThymeLeafTemplateImplementation> o) {
-        for (ThymeLeafTemplateImplementation template : o) {
-            engine.updatedTemplate();
-        }
+        engine.updatedTemplates(o);
     }
 
     @Override
     public void removedBundle(Bundle bundle, BundleEvent bundleEvent, List<ThymeLeafTemplateImplementation> o) {
         for (ThymeLeafTemplateImplementation template : o) {
             LOGGER.debug("Thymeleaf template deleted for {} from {}", template.fullName(), bundle.getSymbolicName());
-            // Check whether we still have an engine.
-            if (engine != null) {
-                engine.deleteTemplate(template);
-            }
+        }
+        // Check whether we still have an engine.
+        if (engine != null) {
+            engine.deleteTemplates(o);
         }
     }
 }
@@ -19,21 +19,27 @@
  */
 package org.wisdom.template.thymeleaf;
 
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
+import org.thymeleaf.cache.StandardCache;
 import org.thymeleaf.dialect.IDialect;
+import org.thymeleaf.exceptions.TemplateProcessingException;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.templates.Template;
 import org.wisdom.template.thymeleaf.impl.MyDialect;
+import org.wisdom.template.thymeleaf.impl.ThymeLeafTemplateImplementation;
 import org.wisdom.template.thymeleaf.impl.WisdomMessageResolver;
 import org.wisdom.template.thymeleaf.impl.WisdomTemplateEngine;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.Dictionary;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -87,6 +93,142 @@ public class ThymeleafTemplateCollectorTest {
         collector.stop();
     }
 
+    @Test
+    public void testThatOnlyTheAffectedEntriesAreInvalidated() throws Exception {
+        BundleContext ctxt = mock(BundleContext.class);
+        Bundle bundle = mock(Bundle.class);
+        when(ctxt.getBundle()).thenReturn(bundle);
+        when(bundle.getBundleContext()).thenReturn(ctxt);
+        when(ctxt.registerService(any(Class.class), any(Template.class), any(Dictionary.class))).thenReturn(mock
+                (ServiceRegistration.class));
+        ThymeleafTemplateCollector collector = new ThymeleafTemplateCollector(ctxt);
+        collector.configuration = mock(ApplicationConfiguration.class);
+        when(collector.configuration.getWithDefault("application.template.thymeleaf.mode",
+                "HTML5")).thenReturn("HTML5");
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.ttl",
+                60 * 1000)).thenReturn(60 * 1000);
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.fragments.max-entries",
+                1000)).thenReturn(100);
+        collector.messageResolver = new WisdomMessageResolver();
+        collector.configure();
+
+        ThymeLeafTemplateImplementation page = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/cached.thl.html").toURI().toURL());
+        ThymeLeafTemplateImplementation fragment = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/fragment.thl.html").toURI().toURL());
+        ThymeLeafTemplateImplementation other = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/var.thl.html").toURI().toURL());
+
+        assertThat(render(page, 1, "first")).contains("first").contains("FRAGMENT");
+        render(other, 1, "other");
+        // Same inputs, the cached element is reused, the rest is rendered.
+        assertThat(render(page, 1, "second"))
+                .contains("<div id=\"live\"><span>second</span></div>")
+                .contains("<span>first</span>");
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(1);
+
+        assertThat(collector.getDependencies().affectedBy(Collections.singleton(fragment)))
+                .containsOnly(fragment, page);
+        assertThat(collector.getDependencies().names(fragment)).contains("fragment");
+
+        StandardCache<String, org.thymeleaf.Template> cache =
+                (StandardCache<String, org.thymeleaf.Template>) collector.engine.getCacheManager().getTemplateCache();
+        assertThat(cache.keySet()).contains(page.fullName(), other.fullName(), "fragment");
+
+        // Modifying the fragment only invalidates the fragment and the elements rendered by the page.
+        collector.updatedTemplates(Collections.singleton(fragment));
+        assertThat(cache.keySet()).contains(page.fullName(), other.fullName()).doesNotContain("fragment");
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(0);
+        assertThat(render(page, 1, "third")).contains("<span>third</span>").contains("FRAGMENT");
+
+        collector.deleteTemplate(fragment);
+        assertThat(collector.getDependencies().affectedBy(Collections.singleton(fragment)))
+                .containsOnly(fragment);
+        collector.stop();
+    }
+
+    @Test
+    public void testThatAllThePagesIncludingAFragmentAreInvalidated() throws Exception {
+        BundleContext ctxt = mock(BundleContext.class);
+        Bundle bundle = mock(Bundle.class);
+        when(ctxt.getBundle()).thenReturn(bundle);
+        when(bundle.getBundleContext()).thenReturn(ctxt);
+        when(ctxt.registerService(any(Class.class), any(Template.class), any(Dictionary.class))).thenReturn(mock
+                (ServiceRegistration.class));
+        ThymeleafTemplateCollector collector = new ThymeleafTemplateCollector(ctxt);
+        collector.configuration = mock(ApplicationConfiguration.class);
+        when(collector.configuration.getWithDefault("application.template.thymeleaf.mode",
+                "HTML5")).thenReturn("HTML5");
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.ttl",
+                60 * 1000)).thenReturn(60 * 1000);
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.fragments.max-entries",
+                1000)).thenReturn(100);
+        collector.messageResolver = new WisdomMessageResolver();
+        collector.configure();
+
+        ThymeLeafTemplateImplementation page = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/cached.thl.html").toURI().toURL());
+        ThymeLeafTemplateImplementation other = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/cached-too.thl.html").toURI().toURL());
+        ThymeLeafTemplateImplementation fragment = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/fragment.thl.html").toURI().toURL());
+
+        // The second page includes the fragment already parsed for the first one.
+        assertThat(render(page, 1, "first")).contains("first").contains("FRAGMENT");
+        assertThat(render(other, 1, "first")).contains("first").contains("FRAGMENT");
+        assertThat(render(other, 1, "second")).contains("<span>first</span>");
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(2);
+        assertThat(collector.getDependencies().affectedBy(Collections.singleton(fragment)))
+                .containsOnly(fragment, page, other);
+
+        // Modifying the fragment invalidates the elements rendered by both pages.
+        collector.updatedTemplates(Collections.singleton(fragment));
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(0);
+        assertThat(render(other, 1, "third")).contains("<span>third</span>").contains("FRAGMENT");
+        collector.stop();
+    }
+
+    @Test
+    public void testThatNonScalarInputsAreRejected() throws Exception {
+        BundleContext ctxt = mock(BundleContext.class);
+        Bundle bundle = mock(Bundle.class);
+        when(ctxt.getBundle()).thenReturn(bundle);
+        when(bundle.getBundleContext()).thenReturn(ctxt);
+        when(ctxt.registerService(any(Class.class), any(Template.class), any(Dictionary.class))).thenReturn(mock
+                (ServiceRegistration.class));
+        ThymeleafTemplateCollector collector = new ThymeleafTemplateCollector(ctxt);
+        collector.configuration = mock(ApplicationConfiguration.class);
+        when(collector.configuration.getWithDefault("application.template.thymeleaf.mode",
+                "HTML5")).thenReturn("HTML5");
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.ttl",
+                60 * 1000)).thenReturn(60 * 1000);
+        when(collector.configuration.getIntegerWithDefault("application.template.thymeleaf.fragments.max-entries",
+                1000)).thenReturn(100);
+        collector.messageResolver = new WisdomMessageResolver();
+        collector.configure();
+
+        ThymeLeafTemplateImplementation page = collector.addTemplate(bundle,
+                new File("src/test/resources/templates/cached.thl.html").toURI().toURL());
+        collector.addTemplate(bundle,
+                new File("src/test/resources/templates/fragment.thl.html").toURI().toURL());
+
+        try {
+            page.render(null, ImmutableMap.<String, Object>of("id", new Object(), "value", "first"));
+            fail("Non scalar inputs must be rejected");
+        } catch (TemplateProcessingException e) {
+            assertThat(e.getMessage()).contains("th:cached");
+        }
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(0);
+
+        assertThat(render(page, 1, "first")).contains("first");
+        assertThat(collector.engine.getFragmentCache().size()).isEqualTo(1);
+        collector.stop();
+    }
+
+    private String render(ThymeLeafTemplateImplementation template, int id, String value) {
+        return (String) template.render(null, ImmutableMap.<String, Object>of("id", id, "value", value)).content();
+    }
+
     @Test
     public void testBindAndUnbindDialects() throws Exception {
         BundleContext ctxt = mock(BundleContext.class);
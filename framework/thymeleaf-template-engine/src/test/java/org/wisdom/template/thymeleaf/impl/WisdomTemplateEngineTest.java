@@ -29,6 +29,11 @@ import org.thymeleaf.dialect.IDialect;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 import org.wisdom.api.Controller;
 import org.wisdom.api.asset.Assets;
+import org.wisdom.api.cookies.FlashCookie;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.http.MimeTypes;
+import org.wisdom.api.http.Renderable;
+import org.wisdom.api.http.Request;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.templates.Template;
 import org.wisdom.template.thymeleaf.dialect.Routes;
@@ -38,12 +43,12 @@ import org.wisdom.test.parents.Invocation;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.wisdom.api.http.Results.ok;
 import static org.wisdom.test.parents.Action.action;
 
@@ -258,6 +263,71 @@ public class WisdomTemplateEngineTest {
                 .contains("<span>request</span>");
     }
 
+    @Test
+    public void testThatRequestScopesAreOnlyReadWhenNeeded() {
+        WisdomTemplateEngine engine = createWisdomEngine();
+        engine.initialize();
+        Template template = mock(Template.class);
+        when(template.fullName()).thenReturn("templates/var.thl.html");
+        FakeRouter router = new FakeRouter();
+        Controller controller = new FakeController();
+        router.addController(controller);
+
+        org.wisdom.api.http.Context http = mock(org.wisdom.api.http.Context.class);
+        SessionCookie session = mock(SessionCookie.class);
+        FlashCookie flash = mock(FlashCookie.class);
+        Request request = mock(Request.class);
+        when(http.session()).thenReturn(session);
+        when(http.flash()).thenReturn(flash);
+        when(http.request()).thenReturn(request);
+        org.wisdom.api.http.Context.CONTEXT.set(http);
+
+        Renderable<?> renderable = engine.process(template, controller, router, mock(Assets.class),
+                ImmutableMap.<String, Object>of("key", "a", "key2", "b"));
+
+        assertThat((String) renderable.content())
+                .contains("<span>KEY</span> = <span>a</span>")
+                .contains("<span>KEY2</span> = <span>b</span>");
+        verify(session, never()).getData();
+        verify(flash, never()).getCurrentFlashCookieData();
+        verify(flash, never()).getOutgoingFlashCookieData();
+        verify(request, never()).data();
+    }
+
+    @Test
+    public void testBufferOutput() throws Exception {
+        final WisdomTemplateEngine engine = createWisdomEngine();
+        engine.setOutput(WisdomTemplateEngine.Output.from("buffer"));
+        engine.initialize();
+        final Template template = mock(Template.class);
+        when(template.fullName()).thenReturn("templates/var.thl.html");
+
+        final FakeRouter router = new FakeRouter();
+        final Controller controller = new FakeController();
+        router.addController(controller);
+        final Assets assets = mock(Assets.class);
+
+        for (int i = 0; i < 2; i++) {
+            final String value = "héllo " + i;
+            Action.ActionResult result = action(new Invocation() {
+                @Override
+                public Result invoke() throws Throwable {
+                    return ok(engine.process(template, controller, router, assets,
+                            ImmutableMap.<String, Object>of("key", value), null));
+                }
+            }).with(new FakeContext().addToSession("key2", "session")).invoke();
+
+            Renderable<?> renderable = result.getResult().getRenderable();
+            assertThat(renderable.mimetype()).isEqualTo(MimeTypes.HTML);
+            String content = new String(renderable.bytes(null, result.getResult()), StandardCharsets.UTF_8);
+            assertThat(result.getResult().getCharset()).isEqualTo(StandardCharsets.UTF_8);
+            assertThat(content)
+                    .isEqualTo(renderable.content())
+                    .contains("<span>KEY</span> = <span>" + value + "</span>")
+                    .contains("<span>KEY2</span> = <span>session</span>");
+        }
+    }
+
     private WisdomTemplateEngine createWisdomEngine(Set<IDialect> dialects) {
         WisdomTemplateEngine engine = new WisdomTemplateEngine(dialects);
         engine.setTemplateResolver(new ClassLoaderTemplateResolver());
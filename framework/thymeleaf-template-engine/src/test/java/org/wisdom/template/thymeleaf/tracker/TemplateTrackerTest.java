@@ -75,11 +75,11 @@ public class TemplateTrackerTest {
         verify(tracker.engine, times(1)).addTemplate(bundle, file.toURI().toURL());
 
         tracker.modifiedBundle(bundle, null, list);
-        verify(tracker.engine, times(1)).updatedTemplate();
+        verify(tracker.engine, times(1)).updatedTemplates(list);
 
         list.clear();
         list.add(mock(ThymeLeafTemplateImplementation.class));
         tracker.removedBundle(bundle, null, list);
-        verify(tracker.engine, times(1)).deleteTemplate(any(ThymeLeafTemplateImplementation.class));
+        verify(tracker.engine, times(1)).deleteTemplates(list);
     }
 }